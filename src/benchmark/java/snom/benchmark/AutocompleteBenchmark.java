@@ -0,0 +1,95 @@
+package snom.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import snom.logic.AutoCompleter;
+import snom.model.task.TaskList;
+import snom.model.task.Todo;
+
+/**
+ * Measures the time of one autocomplete lookup over a large task list, as done after each pause in typing.
+ * Two vocabularies are measured: descriptions built from a few common words, and descriptions that are each a
+ * distinct random 10-letter word, where a one-letter prefix matches a large share of all tasks.
+ *
+ * <p>Usage: {@code AutocompleteBenchmark [tasks] [lookups]}
+ */
+public class AutocompleteBenchmark {
+    private static final int DEFAULT_TASKS = 1_000_000;
+    private static final int DEFAULT_LOOKUPS = 100_000;
+    private static final int LIMIT = 8;
+    private static final int DISTINCT_WORD_LENGTH = 10;
+    private static final String[] WORDS = {"read", "return", "book", "buy", "milk", "bread", "submit", "report",
+        "meeting", "team", "project", "review", "call", "mum", "pay", "rent", "water", "bill", "gym", "lecture"};
+
+    /**
+     * Builds the task lists and their tries, then prints the build time and the average, 99th percentile and
+     * worst lookup time of each.
+     *
+     * @param args number of tasks and number of lookups
+     */
+    public static void main(String[] args) {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TASKS;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_LOOKUPS;
+        Random random = new Random(42);
+
+        String[] descriptions = new String[taskCount];
+        for (int i = 0; i < taskCount; i++) {
+            descriptions[i] = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + Integer.toString(random.nextInt(taskCount), 36);
+        }
+        String[] inputs = new String[lookups];
+        for (int i = 0; i < lookups; i++) {
+            String word = i % 2 == 0 ? WORDS[random.nextInt(WORDS.length)]
+                    : Integer.toString(random.nextInt(taskCount), 36);
+            inputs[i] = "find " + word.substring(0, 1 + random.nextInt(word.length()));
+        }
+        measure("common words", descriptions, inputs);
+
+        for (int i = 0; i < taskCount; i++) {
+            descriptions[i] = randomWord(random, DISTINCT_WORD_LENGTH);
+        }
+        for (int i = 0; i < lookups; i++) {
+            inputs[i] = "find " + randomWord(random, 1 + random.nextInt(3));
+        }
+        measure("distinct words", descriptions, inputs);
+    }
+
+    private static String randomWord(Random random, int length) {
+        char[] letters = new char[length];
+        for (int i = 0; i < length; i++) {
+            letters[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(letters);
+    }
+
+    private static void measure(String name, String[] descriptions, String[] inputs) {
+        TaskList taskList = new TaskList();
+        for (String description: descriptions) {
+            taskList.add(new Todo(description));
+        }
+        long startNanos = System.nanoTime();
+        taskList.getPrefixTrie();
+        System.out.printf("%s: %d tasks, trie built in %.0f ms%n", name, descriptions.length,
+                (System.nanoTime() - startNanos) / 1e6);
+
+        long suggestions = 0;
+        for (String input: inputs) {
+            suggestions += AutoCompleter.suggest(input, taskList, LIMIT).size();
+        }
+
+        long[] lookupNanos = new long[inputs.length];
+        startNanos = System.nanoTime();
+        for (int i = 0; i < inputs.length; i++) {
+            long lookupStart = System.nanoTime();
+            suggestions += AutoCompleter.suggest(inputs[i], taskList, LIMIT).size();
+            lookupNanos[i] = System.nanoTime() - lookupStart;
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        Arrays.sort(lookupNanos);
+        System.out.printf("%s: %d lookups: %.1f us average, %.1f us p99, %.1f us worst, %.1f suggestions per lookup%n",
+                name, inputs.length, elapsedNanos / 1e3 / inputs.length,
+                lookupNanos[lookupNanos.length * 99 / 100] / 1e3, lookupNanos[lookupNanos.length - 1] / 1e3,
+                suggestions / 2.0 / inputs.length);
+    }
+}
@@ -0,0 +1,83 @@
+package snom.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import snom.common.core.Settings;
+import snom.model.task.Deadline;
+import snom.model.task.TaskList;
+import snom.model.task.Todo;
+import snom.storage.DurabilityMode;
+import snom.storage.StorageManager;
+
+/**
+ * Measures the cost of each durability mode on save throughput.
+ * Each commit adds one task to a list of existing tasks and saves it, like a user command does.
+ *
+ * <p>Usage: {@code DurabilityBenchmark [existingTasks] [commits]}
+ */
+public class DurabilityBenchmark {
+    private static final int DEFAULT_EXISTING_TASKS = 10_000;
+    private static final int DEFAULT_COMMITS = 500;
+    private static final int WARMUP_COMMITS = 50;
+
+    /**
+     * Runs the benchmark for every durability mode and prints one line per mode.
+     *
+     * @param args             number of existing tasks and number of commits
+     * @throws IOException     if the temporary folder cannot be used
+     */
+    public static void main(String[] args) throws IOException {
+        int existingTasks = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_EXISTING_TASKS;
+        int commits = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_COMMITS;
+        System.out.printf("%d existing tasks, %d commits per mode%n", existingTasks, commits);
+        for (DurabilityMode mode: DurabilityMode.values()) {
+            run(mode, existingTasks, commits);
+        }
+    }
+
+    private static void run(DurabilityMode mode, int existingTasks, int commits) throws IOException {
+        Path folder = Files.createTempDirectory("snom-bench");
+        System.setProperty(Settings.KEY_STORAGE_DURABILITY, mode.name());
+        StorageManager storage = new StorageManager(folder.resolve("snom.txt"));
+        TaskList taskList = new TaskList();
+        LocalDateTime start = LocalDateTime.of(2021, 1, 1, 9, 0);
+        for (int i = 0; i < existingTasks; i++) {
+            taskList.add(i % 2 == 0 ? new Todo("read chapter " + i) : new Deadline("submit report " + i,
+                    start.plusDays(i % 365)));
+        }
+        storage.saveFile(taskList);
+        storage.flush();
+
+        for (int i = 0; i < WARMUP_COMMITS; i++) {
+            commit(storage, taskList, start, i);
+        }
+        long syncsBefore = storage.getDurability().getSyncCount();
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < commits; i++) {
+            commit(storage, taskList, start, i);
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        storage.flush();
+
+        System.out.printf("%-6s %8.1f commits/s  %8.3f ms/commit  %5d syncs%n", mode,
+                commits / (elapsedNanos / 1e9), elapsedNanos / 1e6 / commits,
+                storage.getDurability().getSyncCount() - syncsBefore);
+        delete(folder);
+    }
+
+    private static void commit(StorageManager storage, TaskList taskList, LocalDateTime start, int i) {
+        taskList.add(new Deadline("benchmark deadline " + i, start.plusDays(i % 365)));
+        storage.saveFile(taskList);
+    }
+
+    private static void delete(Path folder) throws IOException {
+        try (Stream<Path> paths = Files.walk(folder)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package snom.benchmark;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import snom.common.core.Settings;
+import snom.logic.commands.CommandResponse;
+import snom.model.Snom;
+import snom.model.task.TaskList;
+import snom.storage.DurabilityPolicy;
+import snom.storage.StorageManager;
+
+/**
+ * Generates a task file, loads it into a headless {@code Snom} and replays a command mix through
+ * {@link Snom#getResponse(String)}, then prints the throughput, latency percentiles, allocation rate and
+ * bytes written to files, per operation and in total. The workload only depends on the options, so runs with the
+ * same options can be compared across versions.
+ *
+ * <p>Usage: {@code LoadTest [--option value]...}
+ * <ul>
+ *     <li>{@code --tasks N}: tasks in the generated file, default 10000</li>
+ *     <li>{@code --types MIX}: task type mix, default {@code todo=50,deadline=30,event=20}</li>
+ *     <li>{@code --commands N}: measured commands, default 5000</li>
+ *     <li>{@code --warmup N}: commands replayed before measuring, default 1000</li>
+ *     <li>{@code --ops MIX}: command mix, default {@code add=40,find=25,list=10,finish=15,delete=10}</li>
+ *     <li>{@code --seed N}: seed of the workload, default 42</li>
+ *     <li>{@code --dir PATH}: folder to keep the data in, default a temporary folder deleted afterwards</li>
+ * </ul>
+ * The storage is set up with the usual {@code snom.storage.*} system properties.
+ */
+public class LoadTest {
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "tasks", "10000",
+            "types", "todo=50,deadline=30,event=20",
+            "commands", "5000",
+            "warmup", "1000",
+            "ops", "add=40,find=25,list=10,finish=15,delete=10",
+            "seed", "42");
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    /**
+     * Runs the load test and prints its report.
+     *
+     * @param args             options
+     * @throws IOException     if the data folder cannot be used
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected an option, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        int taskCount = Integer.parseInt(options.get("tasks"));
+        int commands = Integer.parseInt(options.get("commands"));
+        int warmup = Integer.parseInt(options.get("warmup"));
+        long seed = Long.parseLong(options.get("seed"));
+        int[] typeMix = Workload.parseMix(options.get("types"), Workload.TASK_TYPES);
+        int[] operationMix = Workload.parseMix(options.get("ops"), Workload.OPERATIONS);
+        boolean isTemporary = !options.containsKey("dir");
+        Path folder = isTemporary ? Files.createTempDirectory("snom-load") : Paths.get(options.get("dir"));
+        Path file = folder.resolve("snom.txt");
+
+        System.out.printf("%d tasks (%s), %d commands (%s) after %d warmup, seed %d%n", taskCount,
+                Workload.formatMix(typeMix, Workload.TASK_TYPES), commands,
+                Workload.formatMix(operationMix, Workload.OPERATIONS), warmup, seed);
+        System.out.printf("storage: layout %s, durability %s%n",
+                Settings.getString(Settings.KEY_STORAGE_LAYOUT, Settings.DEFAULT_STORAGE_LAYOUT),
+                Settings.getString(Settings.KEY_STORAGE_DURABILITY, Settings.DEFAULT_STORAGE_DURABILITY));
+
+        Workload workload = new Workload(seed, typeMix, operationMix, taskCount);
+        long startNanos = System.nanoTime();
+        TaskList generated = workload.generateTasks(taskCount);
+        StorageManager generator = new StorageManager(file);
+        generator.saveFile(generated);
+        generator.flush();
+        generator.getRecordStore().close();
+        System.out.printf("generated in %.0f ms, %d bytes on disk%n", (System.nanoTime() - startNanos) / 1e6,
+                getSize(folder));
+
+        startNanos = System.nanoTime();
+        Snom snom = new Snom(file);
+        snom.load();
+        System.out.printf("loaded in %.0f ms%n", (System.nanoTime() - startNanos) / 1e6);
+
+        for (int i = 0; i < warmup; i++) {
+            snom.getResponse(workload.nextCommand(workload.nextOperation()));
+        }
+        System.gc();
+        Report report = run(snom, workload, commands);
+        report.print();
+
+        snom.getStorage().flush();
+        snom.getReminderScheduler().stop();
+        if (isTemporary) {
+            delete(folder);
+        }
+    }
+
+    private static Report run(Snom snom, Workload workload, int commands) {
+        DurabilityPolicy durability = snom.getStorage().getDurability();
+        Report report = new Report(commands);
+        long gcCount = getGcCount();
+        long gcMillis = getGcMillis();
+        long bytesWritten = durability.getBytesWritten();
+        long syncs = durability.getSyncCount();
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < commands; i++) {
+            int operation = workload.nextOperation();
+            String input = workload.nextCommand(operation);
+            long allocated = getAllocatedBytes();
+            long commandStart = System.nanoTime();
+            CommandResponse response = snom.getResponse(input);
+            long latency = System.nanoTime() - commandStart;
+            report.add(operation, latency, getAllocatedBytes() - allocated, response.isError());
+        }
+        report.elapsedNanos = System.nanoTime() - startNanos;
+        report.gcCount = getGcCount() - gcCount;
+        report.gcMillis = getGcMillis() - gcMillis;
+        report.bytesWritten = durability.getBytesWritten() - bytesWritten;
+        report.syncs = durability.getSyncCount() - syncs;
+        return report;
+    }
+
+    /**
+     * Returns the bytes allocated by this thread so far, or -1 if the JVM cannot tell.
+     */
+    private static long getAllocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static long getGcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long getGcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    private static long getSize(Path folder) throws IOException {
+        try (Stream<Path> paths = Files.walk(folder)) {
+            return paths.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+        }
+    }
+
+    private static void delete(Path folder) throws IOException {
+        try (Stream<Path> paths = Files.walk(folder)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Latencies and allocations of the measured commands, per operation.
+     */
+    private static class Report {
+        private final long[][] latencies = new long[Workload.OPERATIONS.length][];
+        private final int[] counts = new int[Workload.OPERATIONS.length];
+        private final int[] errors = new int[Workload.OPERATIONS.length];
+        private final long[] allocated = new long[Workload.OPERATIONS.length];
+        private long elapsedNanos;
+        private long gcCount;
+        private long gcMillis;
+        private long bytesWritten;
+        private long syncs;
+
+        Report(int commands) {
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = new long[commands];
+            }
+        }
+
+        void add(int operation, long latency, long allocatedBytes, boolean isError) {
+            latencies[operation][counts[operation]++] = latency;
+            allocated[operation] += allocatedBytes;
+            if (isError) {
+                errors[operation]++;
+            }
+        }
+
+        void print() {
+            System.out.printf("%-7s %7s %7s %10s", "op", "count", "errors", "ops/s");
+            for (double percentile: PERCENTILES) {
+                String name = percentile % 1 == 0 ? String.valueOf((int) percentile) : String.valueOf(percentile);
+                System.out.printf(" %9s", "p" + name + " us");
+            }
+            System.out.printf(" %9s %10s%n", "max us", "KB alloc");
+
+            long[] all = new long[Arrays.stream(counts).sum()];
+            int total = 0;
+            for (int i = 0; i < latencies.length; i++) {
+                if (counts[i] == 0) {
+                    continue;
+                }
+                long[] sorted = Arrays.copyOf(latencies[i], counts[i]);
+                System.arraycopy(sorted, 0, all, total, sorted.length);
+                total += sorted.length;
+                printRow(Workload.OPERATIONS[i], sorted, errors[i], allocated[i]);
+            }
+            printRow("total", all, Arrays.stream(errors).sum(), Arrays.stream(allocated).sum());
+
+            double seconds = elapsedNanos / 1e9;
+            System.out.printf("throughput: %.1f commands/s over %.2f s%n", all.length / seconds, seconds);
+            long allocatedBytes = Arrays.stream(allocated).sum();
+            if (getAllocatedBytes() >= 0) {
+                System.out.printf("allocation: %.1f MB/s, %.1f KB/command%n", allocatedBytes / 1e6 / seconds,
+                        allocatedBytes / 1e3 / all.length);
+            }
+            System.out.printf("gc: %d collections, %d ms%n", gcCount, gcMillis);
+            System.out.printf("file bytes written: %d, %.0f bytes/command, %d syncs%n", bytesWritten,
+                    (double) bytesWritten / all.length, syncs);
+        }
+
+        /**
+         * Prints the row of one operation. Its throughput is the commands of the operation per second spent in them.
+         */
+        private static void printRow(String name, long[] latencies, int errors, long allocated) {
+            Arrays.sort(latencies);
+            long totalNanos = Arrays.stream(latencies).sum();
+            System.out.printf("%-7s %7d %7d %10.1f", name, latencies.length, errors,
+                    latencies.length / (totalNanos / 1e9));
+            for (double percentile: PERCENTILES) {
+                System.out.printf(" %9.1f", getPercentile(latencies, percentile) / 1e3);
+            }
+            System.out.printf(" %9.1f %10.1f%n", latencies[latencies.length - 1] / 1e3,
+                    allocated / 1e3 / latencies.length);
+        }
+
+        /**
+         * Returns the nearest-rank percentile of sorted values.
+         */
+        private static long getPercentile(long[] sorted, double percentile) {
+            int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+    }
+}
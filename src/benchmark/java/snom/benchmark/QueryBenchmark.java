@@ -0,0 +1,71 @@
+package snom.benchmark;
+
+import java.time.LocalDateTime;
+
+import snom.common.exceptions.SnomException;
+import snom.logic.QueryParser;
+import snom.model.query.QueryPlanner;
+import snom.model.query.TaskPredicate;
+import snom.model.task.Deadline;
+import snom.model.task.TaskList;
+import snom.model.task.Todo;
+
+/**
+ * Compares serial and parallel scans of a query with no usable index over growing task lists,
+ * to find the list size from which splitting the scan across the {@code ForkJoinPool} pays off.
+ *
+ * <p>Usage: {@code QueryBenchmark [query] [maxTasks]}
+ */
+public class QueryBenchmark {
+    private static final String DEFAULT_QUERY = "-report NOT chapter7";
+    private static final int DEFAULT_MAX_TASKS = 2_000_000;
+    private static final int MIN_TASKS = 1_000;
+    private static final long TARGET_NANOS = 200_000_000L;
+
+    /**
+     * Runs the benchmark and prints one line per list size.
+     *
+     * @param args             query and largest number of tasks
+     * @throws SnomException   if the query is malformed
+     */
+    public static void main(String[] args) throws SnomException {
+        TaskPredicate query = QueryParser.parse(args.length > 0 ? args[0] : DEFAULT_QUERY);
+        int maxTasks = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MAX_TASKS;
+        System.out.printf("query: %s, %d cores%n", query, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%10s %12s %12s %8s%n", "tasks", "serial ms", "parallel ms", "speedup");
+
+        TaskList taskList = new TaskList();
+        LocalDateTime start = LocalDateTime.of(2021, 1, 1, 9, 0);
+        for (int size = MIN_TASKS; size <= maxTasks; size *= 2) {
+            for (int i = taskList.size(); i < size; i++) {
+                taskList.add(i % 2 == 0 ? new Todo("read chapter " + i) : new Deadline("submit report " + i,
+                        start.plusDays(i % 365)));
+            }
+            double serial = measure(query, taskList, Long.MAX_VALUE);
+            double parallel = measure(query, taskList, 0);
+            System.out.printf("%10d %12.3f %12.3f %7.2fx%n", size, serial / 1e6, parallel / 1e6, serial / parallel);
+        }
+    }
+
+    /**
+     * Returns the average nanoseconds of one run, after running for a while to warm up.
+     */
+    private static double measure(TaskPredicate query, TaskList taskList, long parallelThreshold) {
+        long matches = 0;
+        for (long end = System.nanoTime() + TARGET_NANOS / 2; System.nanoTime() < end; ) {
+            matches += QueryPlanner.run(query, taskList, parallelThreshold).getMatchCount();
+        }
+        int runs = 0;
+        long startNanos = System.nanoTime();
+        long elapsedNanos;
+        do {
+            matches += QueryPlanner.run(query, taskList, parallelThreshold).getMatchCount();
+            runs++;
+            elapsedNanos = System.nanoTime() - startNanos;
+        } while (elapsedNanos < TARGET_NANOS);
+        if (matches < 0) {
+            System.out.println(matches);
+        }
+        return (double) elapsedNanos / runs;
+    }
+}
@@ -0,0 +1,195 @@
+package snom.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import snom.model.task.Deadline;
+import snom.model.task.Event;
+import snom.model.task.Task;
+import snom.model.task.TaskList;
+import snom.model.task.Todo;
+
+/**
+ * Generates synthetic tasks and user commands from a seed, so that two runs with the same settings
+ * replay exactly the same workload.
+ *
+ * <p>Mixes are written as comma separated {@code name=weight} pairs, eg. {@code todo=50,deadline=30,event=20}.
+ */
+public class Workload {
+    public static final String[] TASK_TYPES = {"todo", "deadline", "event"};
+    public static final String[] OPERATIONS = {"add", "find", "list", "finish", "delete"};
+    private static final String[] WORDS = {"read", "return", "book", "buy", "milk", "bread", "submit", "report",
+        "meeting", "team", "project", "review", "call", "mum", "pay", "rent", "water", "bill", "gym", "lecture"};
+    private static final String[] TAGS = {"#work", "#home", "#school", "#urgent"};
+    private static final String[] LISTS = {"list", "list pending", "list deadlines", "list events from %1$s to %2$s",
+        "list pending #work"};
+    private static final String[] QUERIES = {"%1$s", "%1$s %2$s", "type:deadline before:%3$s", "-%1$s done:false",
+        "after:%3$s %1$s"};
+    private static final LocalDateTime START = LocalDateTime.of(2021, 1, 1, 9, 0);
+    private static final int DAYS = 2 * 365;
+
+    private final Random random;
+    private final int[] typeWeights;
+    private final int[] operationWeights;
+    private int taskCount;
+    private int added;
+
+    /**
+     * Constructs a {@code Workload}
+     *
+     * @param seed          seed of the random generator
+     * @param typeMix       weights of the task types
+     * @param operationMix  weights of the operations
+     * @param existingTasks number of tasks in the task list the commands are replayed on
+     */
+    public Workload(long seed, int[] typeMix, int[] operationMix, int existingTasks) {
+        this.random = new Random(seed);
+        this.typeWeights = typeMix;
+        this.operationWeights = operationMix;
+        this.taskCount = existingTasks;
+    }
+
+    /**
+     * Parses a mix such as {@code add=40,find=30} into one weight per name, in the order of the names.
+     * Names left out get a weight of 0.
+     *
+     * @param mix   comma separated name=weight pairs
+     * @param names allowed names
+     * @return      weights
+     */
+    public static int[] parseMix(String mix, String[] names) {
+        int[] weights = new int[names.length];
+        for (String pair: mix.split(",")) {
+            String[] parts = pair.trim().split("=");
+            int i = Arrays.asList(names).indexOf(parts[0].trim());
+            if (i < 0 || parts.length != 2) {
+                throw new IllegalArgumentException("Unknown mix entry " + pair + ", expected one of "
+                        + String.join(", ", names));
+            }
+            weights[i] = Integer.parseInt(parts[1].trim());
+        }
+        if (Arrays.stream(weights).sum() <= 0) {
+            throw new IllegalArgumentException("Mix has no weight: " + mix);
+        }
+        return weights;
+    }
+
+    /**
+     * Returns a mix as name=weight pairs, leaving out names with no weight.
+     *
+     * @param weights weights in the order of the names
+     * @param names   names
+     * @return        mix
+     */
+    public static String formatMix(int[] weights, String[] names) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            if (weights[i] > 0) {
+                mix.put(names[i], weights[i]);
+            }
+        }
+        return mix.toString().replaceAll("[{} ]", "");
+    }
+
+    private static int pick(Random random, int[] weights) {
+        int r = random.nextInt(Arrays.stream(weights).sum());
+        for (int i = 0; i < weights.length; i++) {
+            r -= weights[i];
+            if (r < 0) {
+                return i;
+            }
+        }
+        throw new AssertionError();
+    }
+
+    private String word() {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private String description(int number) {
+        String description = word() + " " + word() + " " + number;
+        return random.nextInt(4) == 0 ? description + " " + TAGS[random.nextInt(TAGS.length)] : description;
+    }
+
+    private LocalDateTime date() {
+        return START.plusDays(random.nextInt(DAYS)).plusMinutes(30 * random.nextInt(24));
+    }
+
+    /**
+     * Generates a task list of the given size, with a quarter of the tasks finished.
+     *
+     * @param size number of tasks
+     * @return     task list
+     */
+    public TaskList generateTasks(int size) {
+        TaskList taskList = new TaskList();
+        for (int i = 0; i < size; i++) {
+            Task task;
+            switch (TASK_TYPES[pick(random, typeWeights)]) {
+            case "deadline":
+                task = new Deadline(description(i), date());
+                break;
+            case "event":
+                task = new Event(description(i), date());
+                break;
+            default:
+                task = new Todo(description(i));
+                break;
+            }
+            task.setStatus(random.nextInt(4) == 0);
+            taskList.add(task);
+        }
+        return taskList;
+    }
+
+    /**
+     * Returns the operation of the next command, without generating it.
+     *
+     * @return index of operation in {@link #OPERATIONS}
+     */
+    public int nextOperation() {
+        int operation = pick(random, operationWeights);
+        if (taskCount == 0 && (OPERATIONS[operation].equals("finish") || OPERATIONS[operation].equals("delete"))) {
+            return 0;
+        }
+        return operation;
+    }
+
+    /**
+     * Generates the user input of a command of the given operation. Task numbers always refer to
+     * a task in the list, assuming every earlier add and delete succeeded.
+     *
+     * @param operation index of operation in {@link #OPERATIONS}
+     * @return          user input
+     */
+    public String nextCommand(int operation) {
+        String from = LocalDate.from(date()).toString();
+        switch (OPERATIONS[operation]) {
+        case "add":
+            taskCount++;
+            String description = description(++added) + " new";
+            switch (TASK_TYPES[pick(random, typeWeights)]) {
+            case "deadline":
+                return "deadline " + description + " /by " + from;
+            case "event":
+                return "event " + description + " /at " + from + " 10:00";
+            default:
+                return "todo " + description;
+            }
+        case "find":
+            return "find " + String.format(QUERIES[random.nextInt(QUERIES.length)], word(), word(), from);
+        case "list":
+            return String.format(LISTS[random.nextInt(LISTS.length)], from, LocalDate.parse(from).plusMonths(1));
+        case "finish":
+            return "finish " + (1 + random.nextInt(taskCount));
+        case "delete":
+            return "delete " + (1 + random.nextInt(taskCount--));
+        default:
+            throw new AssertionError(operation);
+        }
+    }
+}
@@ -8,7 +8,9 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.layout.AnchorPane;
 import javafx.stage.Stage;
+import snom.common.core.Settings;
 import snom.model.Snom;
+import snom.model.history.ChatHistory;
 import snom.ui.MainWindow;
 
 /**
@@ -17,6 +19,8 @@ import snom.ui.MainWindow;
 public class Main extends Application {
 
     private Snom snom = new Snom(Paths.get("data", "snom.txt"));
+    private ChatHistory history = new ChatHistory(Paths.get("data", "history.log"),
+            (int) Settings.getLong(Settings.KEY_HISTORY_SIZE, Settings.DEFAULT_HISTORY_SIZE));
 
     @Override
     public void start(Stage stage) {
@@ -26,7 +30,7 @@ public class Main extends Application {
             Scene scene = new Scene(ap);
             stage.setResizable(false);
             stage.setScene(scene);
-            fxmlLoader.<MainWindow>getController().setSnom(snom);
+            fxmlLoader.<MainWindow>getController().setSnom(snom, history);
             stage.show();
         } catch (IOException e) {
             e.printStackTrace();
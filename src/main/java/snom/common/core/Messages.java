@@ -13,16 +13,57 @@ public class Messages {
             + "try adding some and try again :D";
     public static final String MESSAGE_NO_MATCHING_TASK = "No matching task found.";
     public static final String MESSAGE_TASK_LIST = "Here are the task(s) in your list:\n";
+    public static final String MESSAGE_FILTERED_TASK_LIST = "Here are your %1$d %2$s task(s):\n";
+    public static final String MESSAGE_SORTED_TASK_LIST = "Here are your %1$d %2$stask(s) sorted by %3$s:\n";
+    public static final String MESSAGE_NO_FILTERED_TASK = "You have no %1$s task right now.";
+    public static final String MESSAGE_OCCURRENCE_LIST = "Here is what's happening from %1$s to %2$s:\n";
+    public static final String MESSAGE_NO_OCCURRENCE = "Nothing is happening from %1$s to %2$s.";
+    public static final String MESSAGE_NEXT_OCCURRENCE = " [next: %1$s]";
+    public static final String MESSAGE_TASK_ID = " (#%1$d)";
+    public static final String MESSAGE_OCCURRENCE_SKIPPED = "Okay, I'll skip %1$s for this task:\n\t%2$s";
     public static final String MESSAGE_MATCHING_TASK_LIST = "Here are the matching tasks in your list:\n";
+    public static final String MESSAGE_QUERY_PLAN = "Query: %1$s\nPlan: %2$s\n"
+            + "Checked %3$d of %4$d task(s), %5$d matched.\n";
+    public static final String MESSAGE_NEXT_TASKS = "Here are your %1$d most urgent task(s):\n";
+    public static final String MESSAGE_NO_NEXT_TASK = "You have nothing left to do, enjoy your day!";
+    public static final String MESSAGE_OVERDUE = " [overdue]";
+    public static final String MESSAGE_SUMMARY = "Here is how you're doing:\n";
+    public static final String MESSAGE_SUMMARY_TYPE = "%1$ss: %2$d pending, %3$d done\n";
+    public static final String MESSAGE_SUMMARY_DUE = "Overdue: %1$d\nDue this week: %2$d\n";
+    public static final String MESSAGE_SUMMARY_DONE = "Done: %1$d of %2$d task(s) (%3$d%%)\n";
+    public static final String MESSAGE_SUMMARY_DAYS = "Finished in the last 7 days: %1$d (%2$s)\n";
+    public static final String MESSAGE_SUMMARY_WEEKS = "Finished per week, last 4 weeks: %1$s";
+    public static final String MESSAGE_WORKSPACE = "You're using the %1$s list, with %2$d task(s).";
     public static final String MESSAGE_TASK_ADDED = "Got it. I've added this task:\n\t%1$s\n"
             + "Now you have %2$d tasks in the list.";
     public static final String MESSAGE_TASK_FINISHED = "Great Job! I've marked this task(s) as finish:\n";
+    public static final String MESSAGE_TASK_ARCHIVED = "Tidy! I've moved %1$d finished task(s) to the archive:\n";
+    public static final String MESSAGE_NO_FINISHED_TASK = "You have no finished task to archive.";
+    public static final String MESSAGE_ARCHIVE_MATCHING_TASK_LIST = "Here are the matching tasks in your archive:\n";
+    public static final String MESSAGE_EMPTY_ARCHIVE = "Your archive is empty.";
     public static final String MESSAGE_TASK_DELETED = "Noted, I've deleted this task(s)\n";
+    public static final String MESSAGE_DEADLINE_REMINDER = "Reminder! This deadline is due on %1$s:\n\t%2$s";
+    public static final String MESSAGE_EVENT_REMINDER = "Reminder! This event starts on %1$s:\n\t%2$s";
+    public static final String MESSAGE_IMPORTED = "Imported %1$d task(s) from %2$s.";
+    public static final String MESSAGE_IMPORT_SKIPPED = "\nSkipped %1$d invalid row(s):";
+    public static final String MESSAGE_IMPORT_DUPLICATES = "\nSkipped %1$d task(s) already in your list.";
+    public static final String MESSAGE_EXPORTED = "Exported %1$d task(s) to %2$s.";
+    public static final String MESSAGE_TRANSFER_PROGRESS = "%1$s %2$d task(s)...";
+    public static final String MESSAGE_CORRUPTED_BLOCKS = "Some of your saved tasks were damaged, "
+            + "I skipped %1$d block(s) I couldn't read.";
+    public static final String MESSAGE_CORRUPTED_RECORDS = "Some of your saved tasks were damaged, "
+            + "I skipped %1$d task(s) I couldn't read.";
+    public static final String MESSAGE_MIGRATED_SAVE_FILE = "I've upgraded your save file, "
+            + "the old one is kept at %1$s.";
+    public static final String MESSAGE_LOADING = "Loading %1$d/%2$d tasks...";
+    public static final String MESSAGE_COMMAND_QUEUED = "I'm still loading your tasks (%1$d/%2$d), "
+            + "I'll do that as soon as I'm done!";
     public static final String MESSAGE_EXIT = "Ciao! Hope to see you again soon!";
     public static final String ERROR_INVALID_TASK_NUM = "Oops! You have entered a task number: "
             + "%1$d, which is invalid! Please try again!";
     public static final String ERROR_INVALID_MIN_TASK_NUM = "Oops! Please at least give one task number";
     public static final String ERROR_INVALID_MIN_TASK_NUM_TYPE = "Oops! Only integers are valid task numbers!";
+    public static final String ERROR_INVALID_TASK_ID = "Oops! There is no task with the id #%1$d!";
     public static final String ERROR_INVALID_DATE_TIME = "Oops! Please enter a valid date time format "
             + "[YYYY-MM-DD HH:MM]";
     public static final String ERROR_INVALID_COMMAND = "OOPS!!! I'm sorry, but I don't know what %1$s means :-(";
@@ -31,6 +72,37 @@ public class Messages {
     public static final String ERROR_INVALID_MIN_DATE_TIME = "Please enter at least one date!";
     public static final String ERROR_INVALID_MAX_DATE_TIME = "Oops! You have entered more than ONE date, "
             + "please try again!";
+    public static final String ERROR_INVALID_LIST_FILTER = "Oops! I don't know how to list '%1$s', "
+            + "try done, pending, todos, deadlines or events!";
+    public static final String ERROR_INVALID_RECURRENCE = "Oops! Please enter a valid recurrence "
+            + "[/every [N] day|week|month|year [until YYYY-MM-DD]]";
+    public static final String ERROR_NOT_RECURRING = "Oops! Task %1$d does not repeat, there is nothing to skip!";
+    public static final String ERROR_INVALID_SKIP = "Oops! Please give a task number and a date [skip 3 2021-10-04]";
+    public static final String ERROR_INVALID_FILE_ARGUMENT = "Oops! Please give a file name "
+            + "[%1$s FILE [--format csv|json]]";
+    public static final String ERROR_INVALID_FILE_PATH = "Oops! '%1$s' is not a valid file path!";
+    public static final String ERROR_TRANSFER_FAILED = "Oops! I couldn't access %1$s: %2$s";
+    public static final String ERROR_IMPORT_STOPPED = "Oops! Import stopped: %1$s. "
+            + "%2$d task(s) were imported before that.";
+    public static final String ERROR_INVALID_ROW = "Line %1$d: %2$s";
+    public static final String ERROR_INVALID_QUERY = "Oops! I don't understand '%1$s' in your query, "
+            + "try [find book type:deadline done:false before:2021-10-01]";
+    public static final String ERROR_INVALID_WHERE = "Oops! Please give a query after where "
+            + "[finish where type:deadline before:2021-10-01]";
+    public static final String ERROR_ARCHIVE_FAILED = "Oops! I couldn't access your archive: %1$s";
+    public static final String ERROR_INVALID_ARCHIVE = "Oops! Please use archive, archive where [query] "
+            + "or archive find [query]";
+    public static final String ERROR_INVALID_TAG = "Oops! '%1$s' is not a valid tag, tags look like #work "
+            + "or #work|#home";
+    public static final String ERROR_INVALID_NEXT = "Oops! Please give how many tasks to show [next 3]";
+    public static final String ERROR_INVALID_WORKSPACE = "Oops! A list name can only have letters, digits, - and _ "
+            + "[use work]";
+    public static final String ERROR_INVALID_PRIORITY = "Oops! Please give one priority "
+            + "[/priority low|medium|high]";
+    public static final String ERROR_DUPLICATE_TASK = "Oops! You already have this task in your list:\n\t%1$d. %2$s";
+    public static final String ERROR_SIMILAR_TASK = "Oops! You already have a task like this in your list:\n"
+            + "\t%1$d. %2$s";
+    public static final String ERROR_INVALID_SORT_KEY = "Oops! I can only sort by date, name or status.";
     public static final String ERROR_INVALID_INT_INPUT = "Oops! You have entered a non Integer value!";
     public static final String ERROR_INVALID_DOUBLE_INPUT = "Oops! You have entered a non Double value!";
 }
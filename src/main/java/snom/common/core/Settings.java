@@ -0,0 +1,70 @@
+package snom.common.core;
+
+/**
+ * Container for tunable settings.
+ * Each setting can be overridden with a JVM system property, eg. {@code -Dsnom.reminder.deadlineLead=120}.
+ */
+public class Settings {
+    public static final String KEY_DEADLINE_LEAD_MINUTES = "snom.reminder.deadlineLead";
+    public static final String KEY_EVENT_LEAD_MINUTES = "snom.reminder.eventLead";
+    public static final String KEY_STORAGE_COMPRESS = "snom.storage.compress";
+    public static final String KEY_STORAGE_BLOCK_SIZE = "snom.storage.blockSize";
+    public static final String KEY_STORAGE_DURABILITY = "snom.storage.durability";
+    public static final String KEY_STORAGE_FSYNC_INTERVAL = "snom.storage.fsyncInterval";
+    public static final String KEY_STORAGE_LAYOUT = "snom.storage.layout";
+    public static final String KEY_HISTORY_SIZE = "snom.history.size";
+    public static final String KEY_QUERY_PARALLEL_THRESHOLD = "snom.query.parallelThreshold";
+    public static final String KEY_ARCHIVE_AFTER_DAYS = "snom.archive.afterDays";
+    public static final String KEY_DUPLICATE_SIMILARITY = "snom.duplicates.similarity";
+    public static final String KEY_WORKSPACE_MEMORY_MB = "snom.workspaces.memoryMb";
+
+    public static final long DEFAULT_DEADLINE_LEAD_MINUTES = 24 * 60;
+    public static final long DEFAULT_EVENT_LEAD_MINUTES = 30;
+    public static final long DEFAULT_STORAGE_BLOCK_SIZE = 64 * 1024;
+    public static final String DEFAULT_STORAGE_DURABILITY = "batch";
+    public static final long DEFAULT_STORAGE_FSYNC_INTERVAL = 1000;
+    public static final String DEFAULT_STORAGE_LAYOUT = "shards";
+    public static final long DEFAULT_HISTORY_SIZE = 200;
+    public static final long DEFAULT_QUERY_PARALLEL_THRESHOLD = 20_000;
+    public static final long DEFAULT_ARCHIVE_AFTER_DAYS = 0;
+    public static final long DEFAULT_DUPLICATE_SIMILARITY = 0;
+    public static final long DEFAULT_WORKSPACE_MEMORY_MB = 64;
+
+    /**
+     * Returns the long value of the given system property, or the default if it is missing or invalid.
+     *
+     * @param key          name of system property
+     * @param defaultValue value used when the property is not set
+     * @return             value of setting
+     */
+    public static long getLong(String key, long defaultValue) {
+        try {
+            return Long.parseLong(System.getProperty(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Returns the value of the given system property, or the default if it is missing.
+     *
+     * @param key          name of system property
+     * @param defaultValue value used when the property is not set
+     * @return             value of setting
+     */
+    public static String getString(String key, String defaultValue) {
+        return System.getProperty(key, defaultValue);
+    }
+
+    /**
+     * Returns the boolean value of the given system property, or the default if it is missing.
+     *
+     * @param key          name of system property
+     * @param defaultValue value used when the property is not set
+     * @return             value of setting
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = System.getProperty(key);
+        return value == null ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+}
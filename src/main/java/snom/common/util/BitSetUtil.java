@@ -0,0 +1,67 @@
+package snom.common.util;
+
+import java.util.BitSet;
+
+/**
+ * Helper methods to keep positional {@code BitSet}s in step with an array list.
+ * Shifting works on whole words so inserting or removing in the middle costs O(n / 64).
+ */
+public class BitSetUtil {
+
+    /**
+     * Inserts a bit at the given position, shifting every bit at or after it up by one.
+     *
+     * @param bits     bit set to modify
+     * @param position position to insert at
+     * @param value    value of inserted bit
+     */
+    public static void insert(BitSet bits, int position, boolean value) {
+        int length = bits.length();
+        if (position < length) {
+            BitSet tail = bits.get(position, length);
+            bits.clear(position, length);
+            bits.or(shiftUp(tail, position + 1));
+        }
+        bits.set(position, value);
+    }
+
+    /**
+     * Removes the bit at the given position, shifting every bit after it down by one.
+     *
+     * @param bits     bit set to modify
+     * @param position position to remove
+     */
+    public static void remove(BitSet bits, int position) {
+        int length = bits.length();
+        if (position >= length) {
+            return;
+        }
+        BitSet tail = bits.get(position + 1, Math.max(length, position + 1));
+        bits.clear(position, length);
+        bits.or(shiftUp(tail, position));
+    }
+
+    /**
+     * Returns a new bit set with every bit of the given set moved up by the given distance.
+     *
+     * @param bits     source bit set
+     * @param distance number of positions to shift
+     * @return         shifted copy
+     */
+    public static BitSet shiftUp(BitSet bits, int distance) {
+        long[] words = bits.toLongArray();
+        if (words.length == 0) {
+            return new BitSet();
+        }
+        int wordShift = distance >>> 6;
+        int bitShift = distance & 63;
+        long[] shifted = new long[words.length + wordShift + 1];
+        for (int i = 0; i < words.length; i++) {
+            shifted[i + wordShift] |= words[i] << bitShift;
+            if (bitShift != 0) {
+                shifted[i + wordShift + 1] |= words[i] >>> (64 - bitShift);
+            }
+        }
+        return BitSet.valueOf(shifted);
+    }
+}
@@ -0,0 +1,76 @@
+package snom.common.util;
+
+import java.util.AbstractList;
+
+/**
+ * Keeps the last {@code capacity} elements added, dropping the oldest one when full.
+ * Index 0 is the oldest element kept.
+ *
+ * @param <T> type of element
+ */
+public class RingBuffer<T> extends AbstractList<T> {
+    private final Object[] elements;
+    private int start;
+    private int size;
+
+    /**
+     * Constructs an empty {@code RingBuffer}
+     *
+     * @param capacity maximum number of elements kept, at least 1
+     */
+    public RingBuffer(int capacity) {
+        elements = new Object[Math.max(1, capacity)];
+    }
+
+    /**
+     * Adds the element as the newest one.
+     *
+     * @param element element to add
+     * @return        the oldest element if it was dropped to make room, else null
+     */
+    public T push(T element) {
+        T dropped = null;
+        if (size == elements.length) {
+            dropped = get(0);
+            elements[start] = element;
+            start = (start + 1) % elements.length;
+        } else {
+            elements[(start + size) % elements.length] = element;
+            size++;
+        }
+        return dropped;
+    }
+
+    @Override
+    public boolean add(T element) {
+        push(element);
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (T) elements[(start + index) % elements.length];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return elements.length;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            elements[(start + i) % elements.length] = null;
+        }
+        start = 0;
+        size = 0;
+    }
+}
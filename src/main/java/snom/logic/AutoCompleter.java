@@ -0,0 +1,51 @@
+package snom.logic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import snom.logic.commands.CommandEnum;
+import snom.model.task.Task;
+import snom.model.task.TaskList;
+
+/**
+ * Suggests completions of a partly typed command.
+ * The first word is completed with command names, and later words with the descriptions of tasks
+ * having a word that starts with what was typed.
+ */
+public class AutoCompleter {
+    /**
+     * Returns up to {@code limit} completions of the given input.
+     *
+     * @param input    text typed so far
+     * @param taskList tasks to complete descriptions from, or null if they are not loaded yet
+     * @param limit    maximum number of completions
+     * @return         whole inputs completed, best first
+     */
+    public static List<String> suggest(String input, TaskList taskList, int limit) {
+        List<String> suggestions = new ArrayList<>();
+        int lastSpace = input.lastIndexOf(' ');
+        if (lastSpace < 0) {
+            if (input.isEmpty()) {
+                return suggestions;
+            }
+            for (CommandEnum command: CommandEnum.values()) {
+                String name = command.name().toLowerCase();
+                if (command != CommandEnum.NONE && name.startsWith(input.toLowerCase()) && !name.equals(input)
+                        && suggestions.size() < limit) {
+                    suggestions.add(name);
+                }
+            }
+            return suggestions;
+        }
+
+        String prefix = input.substring(lastSpace + 1);
+        if (prefix.isEmpty() || taskList == null) {
+            return suggestions;
+        }
+        String typed = input.substring(0, lastSpace + 1);
+        for (Task task: taskList.getPrefixTrie().complete(prefix, limit)) {
+            suggestions.add(typed + task.getDescription());
+        }
+        return suggestions;
+    }
+}
@@ -1,23 +1,37 @@
 package snom.logic;
 
-import java.util.Arrays;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 import snom.common.core.Messages;
 import snom.common.exceptions.SnomException;
 import snom.logic.commands.AddCommand;
+import snom.logic.commands.ArchiveCommand;
 import snom.logic.commands.Command;
 import snom.logic.commands.CommandEnum;
 import snom.logic.commands.DeleteCommand;
 import snom.logic.commands.ExitCommand;
+import snom.logic.commands.ExportCommand;
 import snom.logic.commands.FindCommand;
 import snom.logic.commands.FinishCommand;
 import snom.logic.commands.HelpCommand;
+import snom.logic.commands.ImportCommand;
 import snom.logic.commands.ListCommand;
+import snom.logic.commands.NextCommand;
+import snom.logic.commands.SkipCommand;
+import snom.logic.commands.SortCommand;
+import snom.logic.commands.SummaryCommand;
+import snom.logic.commands.UseCommand;
+import snom.model.task.TaskList;
+import snom.storage.transfer.TaskFormat;
 
 /**
  * Represents a Parser to parse user input into {@code Command}
  */
 public class Parser {
+    private static final String WHERE = "where";
+    private static final String ID_PREFIX = "#";
 
     /**
      * Returns a {@code Command} child object based on the given string of command.
@@ -49,6 +63,22 @@ public class Parser {
             return new FindCommand(CommandEnum.FIND, commandContent);
         case HELP:
             return new HelpCommand(CommandEnum.HELP, commandContent);
+        case SKIP:
+            return new SkipCommand(CommandEnum.SKIP, commandContent);
+        case IMPORT:
+            return new ImportCommand(CommandEnum.IMPORT, commandContent);
+        case EXPORT:
+            return new ExportCommand(CommandEnum.EXPORT, commandContent);
+        case SORT:
+            return new SortCommand(CommandEnum.SORT, commandContent);
+        case ARCHIVE:
+            return new ArchiveCommand(CommandEnum.ARCHIVE, commandContent);
+        case NEXT:
+            return new NextCommand(CommandEnum.NEXT, commandContent);
+        case SUMMARY:
+            return new SummaryCommand(CommandEnum.SUMMARY, commandContent);
+        case USE:
+            return new UseCommand(CommandEnum.USE, commandContent);
         default:
             throw new SnomException(String.format(Messages.ERROR_INVALID_COMMAND, commandStr));
         }
@@ -80,24 +110,103 @@ public class Parser {
     }
 
     /**
-     * Returns an array of task numbers to be finished/deleted
+     * Returns the query after {@code where} in a finish or delete command, eg. "where type:todo done:false",
+     * or null if the command lists task numbers instead.
+     *
+     * @param content content of the command
+     * @return        query or null
+     */
+    public static String parseWhereQuery(String content) {
+        String[] splitContent = content.trim().split("\\s+", 2);
+        if (!splitContent[0].equalsIgnoreCase(WHERE)) {
+            return null;
+        }
+        return splitContent.length >= 2 ? splitContent[1] : "";
+    }
+
+    /**
+     * Returns an array of task numbers to be finished/deleted.
+     * A task can also be given by its id after {@code #}, eg. "#1234", which is turned into its current number.
      *
      * @param taskNumString  string containing all the task numbers
+     * @param taskList       list of task the ids are looked up in
      * @return               array of task numbers
-     * @throws SnomException if no numbers was given
+     * @throws SnomException if no numbers was given or no task has a given id
      */
-    public static int[] parseTaskNumbers(String taskNumString) throws SnomException {
+    public static int[] parseTaskNumbers(String taskNumString, TaskList taskList) throws SnomException {
         if (taskNumString.isBlank()) {
             throw new SnomException(Messages.ERROR_INVALID_MIN_TASK_NUM);
         }
 
+        String[] tokens = taskNumString.trim().split("\\s+");
+        int[] taskNumbers = new int[tokens.length];
         try {
-            int[] taskNumbers = Arrays.stream(taskNumString.split(" "))
-                    .mapToInt(Integer::parseInt)
-                    .toArray();
-            return taskNumbers;
+            for (int i = 0; i < tokens.length; i++) {
+                if (!tokens[i].startsWith(ID_PREFIX)) {
+                    taskNumbers[i] = Integer.parseInt(tokens[i]);
+                    continue;
+                }
+                int id = Integer.parseInt(tokens[i].substring(ID_PREFIX.length()));
+                int position = taskList.indexOfId(id);
+                if (position < 0) {
+                    throw new SnomException(String.format(Messages.ERROR_INVALID_TASK_ID, id));
+                }
+                taskNumbers[i] = position + 1;
+            }
         } catch (NumberFormatException e) {
             throw new SnomException(Messages.ERROR_INVALID_MIN_TASK_NUM_TYPE);
         }
+        return taskNumbers;
+    }
+
+    /**
+     * Returns the file path and format of an import or export command,
+     * eg. "tasks.json --format json". The format is guessed from the extension when not given.
+     *
+     * @param content        content of the command
+     * @param command        name of the command, used in the error message
+     * @return               path and format of the file
+     * @throws SnomException if no file, an invalid file path or an unknown format was given
+     */
+    public static TransferArguments parseTransferArguments(String content, String command) throws SnomException {
+        String[] splitContent = content.trim().split("\\s+--format\\s+", 2);
+        if (splitContent[0].isBlank()) {
+            throw new SnomException(String.format(Messages.ERROR_INVALID_FILE_ARGUMENT, command));
+        }
+        Path path;
+        try {
+            path = Paths.get(splitContent[0].trim());
+        } catch (InvalidPathException e) {
+            throw new SnomException(String.format(Messages.ERROR_INVALID_FILE_PATH, splitContent[0].trim()));
+        }
+        if (splitContent.length < 2) {
+            return new TransferArguments(path, TaskFormat.fromPath(path));
+        }
+        TaskFormat format = TaskFormat.fromName(splitContent[1].trim());
+        if (format == null) {
+            throw new SnomException(String.format(Messages.ERROR_INVALID_FILE_ARGUMENT, command));
+        }
+        return new TransferArguments(path, format);
+    }
+
+    /**
+     * Holds the file path and format given to an import or export command.
+     */
+    public static class TransferArguments {
+        private final Path path;
+        private final TaskFormat format;
+
+        TransferArguments(Path path, TaskFormat format) {
+            this.path = path;
+            this.format = format;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public TaskFormat getFormat() {
+            return format;
+        }
     }
 }
@@ -0,0 +1,204 @@
+package snom.logic;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import snom.common.core.Messages;
+import snom.common.exceptions.SnomException;
+import snom.model.query.AndPredicate;
+import snom.model.query.DatePredicate;
+import snom.model.query.NotPredicate;
+import snom.model.query.OrPredicate;
+import snom.model.query.StatusPredicate;
+import snom.model.query.TagPredicate;
+import snom.model.query.TaskPredicate;
+import snom.model.query.TextPredicate;
+import snom.model.query.TypePredicate;
+import snom.model.task.Task;
+import snom.model.task.TaskType;
+
+/**
+ * Parses a find query into a tree of {@code TaskPredicate}.
+ * Terms next to each other must all match, {@code OR} between terms lets either match,
+ * {@code -} or {@code NOT} in front of a term negates it and brackets group terms.
+ * A term is a word, a quoted phrase or a field such as {@code type:deadline}, {@code done:false},
+ * {@code before:2021-10-01} or {@code after:2021-10-01}.
+ * A term such as {@code #work} matches tasks with that tag, and {@code #work|#home} tasks with either.
+ */
+public class QueryParser {
+    private static final String OR = "OR";
+    private static final String NOT = "NOT";
+    private static final String OPEN = "(";
+    private static final String CLOSE = ")";
+    private static final String NEGATE = "-";
+    private static final String TAG = "#";
+
+    private final List<String> tokens;
+    private final List<Boolean> isQuoted;
+    private int position;
+
+    private QueryParser(String query) throws SnomException {
+        tokens = new ArrayList<>();
+        isQuoted = new ArrayList<>();
+        tokenize(query);
+    }
+
+    /**
+     * Returns the predicate tree of the given query. An empty query matches every task.
+     *
+     * @param query          query typed by the user
+     * @return               root of the predicate tree
+     * @throws SnomException if the query is malformed
+     */
+    public static TaskPredicate parse(String query) throws SnomException {
+        QueryParser parser = new QueryParser(query);
+        if (parser.tokens.isEmpty()) {
+            return new AndPredicate(new ArrayList<>());
+        }
+        TaskPredicate predicate = parser.parseOr();
+        if (parser.position < parser.tokens.size()) {
+            throw new SnomException(String.format(Messages.ERROR_INVALID_QUERY, parser.tokens.get(parser.position)));
+        }
+        return predicate;
+    }
+
+    private void tokenize(String query) throws SnomException {
+        int i = 0;
+        while (i < query.length()) {
+            char c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '"') {
+                int end = query.indexOf('"', i + 1);
+                if (end < 0) {
+                    throw new SnomException(String.format(Messages.ERROR_INVALID_QUERY, query.substring(i)));
+                }
+                addToken(query.substring(i + 1, end), true);
+                i = end + 1;
+            } else if (c == '(' || c == ')' || (c == '-' && isTermStart(query, i + 1))) {
+                addToken(String.valueOf(c), false);
+                i++;
+            } else {
+                int end = i;
+                while (end < query.length() && !Character.isWhitespace(query.charAt(end))
+                        && "()\"".indexOf(query.charAt(end)) < 0) {
+                    end++;
+                }
+                addToken(query.substring(i, end), false);
+                i = end;
+            }
+        }
+    }
+
+    private static boolean isTermStart(String query, int i) {
+        return i < query.length() && !Character.isWhitespace(query.charAt(i)) && query.charAt(i) != ')';
+    }
+
+    private void addToken(String token, boolean quoted) {
+        tokens.add(token);
+        isQuoted.add(quoted);
+    }
+
+    private boolean isNext(String keyword) {
+        return position < tokens.size() && !isQuoted.get(position) && tokens.get(position).equals(keyword);
+    }
+
+    private TaskPredicate parseOr() throws SnomException {
+        List<TaskPredicate> predicates = new ArrayList<>();
+        predicates.add(parseAnd());
+        while (isNext(OR)) {
+            position++;
+            predicates.add(parseAnd());
+        }
+        return predicates.size() == 1 ? predicates.get(0) : new OrPredicate(predicates);
+    }
+
+    private TaskPredicate parseAnd() throws SnomException {
+        List<TaskPredicate> predicates = new ArrayList<>();
+        while (position < tokens.size() && !isNext(OR) && !isNext(CLOSE)) {
+            predicates.add(parseUnary());
+        }
+        if (predicates.isEmpty()) {
+            String token = position < tokens.size() ? tokens.get(position) : tokens.get(tokens.size() - 1);
+            throw new SnomException(String.format(Messages.ERROR_INVALID_QUERY, token));
+        }
+        return predicates.size() == 1 ? predicates.get(0) : new AndPredicate(predicates);
+    }
+
+    private TaskPredicate parseUnary() throws SnomException {
+        if (isNext(NEGATE) || isNext(NOT)) {
+            position++;
+            if (position >= tokens.size()) {
+                throw new SnomException(String.format(Messages.ERROR_INVALID_QUERY, tokens.get(position - 1)));
+            }
+            return new NotPredicate(parseUnary());
+        }
+        if (isNext(OPEN)) {
+            position++;
+            TaskPredicate predicate = parseOr();
+            if (!isNext(CLOSE)) {
+                throw new SnomException(String.format(Messages.ERROR_INVALID_QUERY, OPEN));
+            }
+            position++;
+            return predicate;
+        }
+        boolean quoted = isQuoted.get(position);
+        String token = tokens.get(position++);
+        return quoted ? new TextPredicate(token) : parseTerm(token);
+    }
+
+    private static TaskPredicate parseTerm(String token) throws SnomException {
+        if (token.startsWith(TAG)) {
+            return new TagPredicate(parseTags(token));
+        }
+        int colon = token.indexOf(':');
+        if (colon <= 0) {
+            return new TextPredicate(token);
+        }
+        String field = token.substring(0, colon).toLowerCase();
+        String value = token.substring(colon + 1);
+        switch (field) {
+        case "type":
+            TaskType type = TaskType.fromName(value);
+            if (type == null) {
+                throw new SnomException(String.format(Messages.ERROR_INVALID_QUERY, token));
+            }
+            return new TypePredicate(type);
+        case "done":
+            if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+                throw new SnomException(String.format(Messages.ERROR_INVALID_QUERY, token));
+            }
+            return new StatusPredicate(Boolean.parseBoolean(value));
+        case "before":
+        case "after":
+            try {
+                return new DatePredicate(field.equals("before"), LocalDate.parse(value));
+            } catch (DateTimeParseException e) {
+                throw new SnomException(String.format(Messages.ERROR_INVALID_QUERY, token));
+            }
+        default:
+            return new TextPredicate(token);
+        }
+    }
+
+    /**
+     * Returns the tags of a tag term such as {@code #work} or {@code #work|#home}.
+     *
+     * @param token          tag term typed by the user
+     * @return               lowercased tags without the {@code #}
+     * @throws SnomException if a part of the term is not a tag
+     */
+    public static List<String> parseTags(String token) throws SnomException {
+        List<String> tags = new ArrayList<>();
+        for (String part: token.split("\\|", -1)) {
+            String[] parsed = Task.parseTags(part);
+            if (parsed.length != 1 || !part.equalsIgnoreCase(TAG + parsed[0])) {
+                throw new SnomException(String.format(Messages.ERROR_INVALID_TAG, token));
+            }
+            tags.add(parsed[0]);
+        }
+        return tags;
+    }
+}
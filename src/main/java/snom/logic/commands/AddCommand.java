@@ -1,11 +1,19 @@
 package snom.logic.commands;
 
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 import snom.common.core.Messages;
+import snom.common.core.Settings;
 import snom.common.exceptions.SnomException;
+import snom.model.index.DuplicateIndex;
 import snom.model.task.Deadline;
 import snom.model.task.Event;
+import snom.model.task.Priority;
+import snom.model.task.Recurrence;
 import snom.model.task.Task;
 import snom.model.task.TaskList;
+import snom.model.task.TaskWithDate;
 import snom.model.task.Todo;
 import snom.storage.StorageManager;
 import snom.ui.Snomio;
@@ -14,12 +22,15 @@ import snom.ui.Snomio;
  * Adds a {@code Task} into {@code TaskList}
  */
 public class AddCommand extends Command {
+    private static final Pattern PRIORITY = Pattern.compile("\\s*/priority(\\s+(\\S+))?");
+
     public AddCommand(CommandEnum commandType, String content) {
         super(commandType, content);
     }
 
     /**
      * Executes todo, deadline, event command.
+     * A task duplicating an unfinished task is not added.
      *
      * @param taskList         list of task
      * @param snomio           I/O of Snom
@@ -29,23 +40,65 @@ public class AddCommand extends Command {
      */
     @Override
     public CommandResponse execute(TaskList taskList, Snomio snomio, StorageManager storage) throws SnomException {
+        Priority priority = extractPriority();
         Task task = null;
         if (commandType == CommandEnum.TODO) {
             task = new Todo(this.content);
         } else if (commandType == CommandEnum.DEADLINE) {
             String[] dlArr = splitContentWithDate("/by");
-            task = new Deadline(dlArr[0], dlArr[1]);
+            String[] dateArr = splitDateWithRecurrence(dlArr[1]);
+            task = withRecurrence(new Deadline(dlArr[0], dateArr[0]), dateArr);
         } else if (commandType == CommandEnum.EVENT) {
             String[] dlArr = splitContentWithDate("/at");
-            task = new Event(dlArr[0], dlArr[1]);
+            String[] dateArr = splitDateWithRecurrence(dlArr[1]);
+            task = withRecurrence(new Event(dlArr[0], dateArr[0]), dateArr);
         } else {
             throw new SnomException(Messages.ERROR_INVALID_ADD_COMMAND);
         }
+        task.setPriority(priority);
+        Task duplicate = taskList.findDuplicate(task, getDuplicateSimilarity());
+        if (duplicate != null) {
+            boolean isExact = DuplicateIndex.getContentKey(duplicate).equals(DuplicateIndex.getContentKey(task));
+            throw new SnomException(String.format(isExact ? Messages.ERROR_DUPLICATE_TASK : Messages.ERROR_SIMILAR_TASK,
+                    taskList.indexOfTask(duplicate) + 1, duplicate));
+        }
         taskList.add(task);
         storage.saveFile(taskList);
         return new CommandResponse(snomio.getTaskAdded(task, taskList.size()), false);
     }
 
+    /**
+     * Returns the least similarity of near duplicate tasks set by {@code Settings}, or 0 to only detect exact ones.
+     *
+     * @return similarity in [0, 1]
+     */
+    static double getDuplicateSimilarity() {
+        long percent = Settings.getLong(Settings.KEY_DUPLICATE_SIMILARITY, Settings.DEFAULT_DUPLICATE_SIMILARITY);
+        return Math.max(0, Math.min(percent, 100)) / 100.0;
+    }
+
+    /**
+     * Removes the {@code /priority} option from the content and returns its priority.
+     *
+     * @return               given priority, or {@code Priority.NONE} if there is none
+     * @throws SnomException if the priority is unknown or given more than once
+     */
+    private Priority extractPriority() throws SnomException {
+        Matcher matcher = PRIORITY.matcher(this.content);
+        if (!matcher.find()) {
+            return Priority.NONE;
+        }
+        Priority priority = matcher.group(2) == null ? null : Priority.fromName(matcher.group(2));
+        if (priority == null) {
+            throw new SnomException(Messages.ERROR_INVALID_PRIORITY);
+        }
+        this.content = this.content.substring(0, matcher.start()) + this.content.substring(matcher.end());
+        if (PRIORITY.matcher(this.content).find()) {
+            throw new SnomException(Messages.ERROR_INVALID_PRIORITY);
+        }
+        return priority;
+    }
+
     /**
      * Returns a string array of size 2
      * first string contains the content of the task
@@ -68,4 +121,29 @@ public class AddCommand extends Command {
 
         return splitContent;
     }
+
+    /**
+     * Returns a string array of size 1 or 2
+     * first string contains the date of the task
+     * second string, if any, contains the recurrence rule after "/every"
+     *
+     * @param dateContent       date part of the content
+     * @return                  string array of date and recurrence rule
+     * @throws SnomException    if more than one recurrence rule is given
+     */
+    private String[] splitDateWithRecurrence(String dateContent) throws SnomException {
+        String[] splitDate = dateContent.split("/every");
+        if (splitDate.length > 2) {
+            throw new SnomException(Messages.ERROR_INVALID_RECURRENCE);
+        }
+        splitDate[0] = splitDate[0].stripTrailing();
+        return splitDate;
+    }
+
+    private static TaskWithDate withRecurrence(TaskWithDate task, String[] dateArr) throws SnomException {
+        if (dateArr.length == 2) {
+            task.setRecurrence(Recurrence.parse(dateArr[1]));
+        }
+        return task;
+    }
 }
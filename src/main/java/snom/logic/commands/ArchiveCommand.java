@@ -0,0 +1,73 @@
+package snom.logic.commands;
+
+import java.util.BitSet;
+import java.util.Collections;
+
+import snom.common.core.Messages;
+import snom.common.exceptions.SnomException;
+import snom.logic.Parser;
+import snom.logic.QueryParser;
+import snom.model.query.QueryPlanner;
+import snom.model.task.Task;
+import snom.model.task.TaskList;
+import snom.storage.StorageManager;
+import snom.ui.Snomio;
+
+/**
+ * Moves finished {@code Task} out of the {@code TaskList} into the archive, or searches the archive
+ */
+public class ArchiveCommand extends Command {
+    private static final String FIND = "find";
+
+    public ArchiveCommand(CommandEnum commandType, String content) {
+        super(commandType, content);
+    }
+
+    /**
+     * Returns whether this command searches the archive, which is kept apart from the task list.
+     */
+    private boolean isFind() {
+        String[] args = this.content.trim().split("\\s+", 2);
+        return args[0].equalsIgnoreCase(FIND);
+    }
+
+    @Override
+    public boolean requiresTaskList() {
+        return !isFind();
+    }
+
+    /**
+     * Executes archive command.
+     * Without arguments every finished task is archived, and with {@code where} only the finished tasks matching
+     * the query. {@code archive find} runs a find query over the archived tasks instead.
+     *
+     * @param taskList         list of task
+     * @param snomio           I/O of Snom
+     * @param storage          files handler of snom
+     * @return                 {@code CommandResponse} after command execution
+     * @throws SnomException   if command execution failed
+     */
+    @Override
+    public CommandResponse execute(TaskList taskList, Snomio snomio, StorageManager storage) throws SnomException {
+        if (isFind()) {
+            String query = this.content.trim().substring(FIND.length());
+            TaskList archived = storage.getArchivedTasks();
+            BitSet positions = QueryPlanner.run(QueryParser.parse(query), archived).getPositions();
+            return new CommandResponse(snomio.getArchivedMatches(archived, positions), false);
+        }
+
+        String query = Parser.parseWhereQuery(this.content);
+        if (query == null && !this.content.isBlank()) {
+            throw new SnomException(Messages.ERROR_INVALID_ARCHIVE);
+        }
+        BitSet positions = taskList.select(Collections.emptySet(), true);
+        if (query != null) {
+            positions.and(findMatchingTasks(taskList, query));
+        }
+        if (positions.isEmpty()) {
+            throw new SnomException(Messages.MESSAGE_NO_FINISHED_TASK);
+        }
+        Task[] archivedTasks = storage.archiveTasks(taskList, positions);
+        return new CommandResponse(snomio.getArchivedTasks(archivedTasks), false);
+    }
+}
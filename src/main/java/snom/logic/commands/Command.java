@@ -1,6 +1,11 @@
 package snom.logic.commands;
 
+import java.util.BitSet;
+
+import snom.common.core.Messages;
 import snom.common.exceptions.SnomException;
+import snom.logic.QueryParser;
+import snom.model.query.QueryPlanner;
 import snom.model.task.TaskList;
 import snom.storage.StorageManager;
 import snom.ui.Snomio;
@@ -23,6 +28,34 @@ public abstract class Command {
         this.content = content;
     }
 
+    /**
+     * Returns true if the command reads or changes the task list, so it has to wait until the list is loaded.
+     *
+     * @return whether the command needs the task list
+     */
+    public boolean requiresTaskList() {
+        return true;
+    }
+
+    /**
+     * Returns the positions of the tasks matching the given query.
+     *
+     * @param taskList       list to search
+     * @param query          find query, eg. "book type:deadline"
+     * @return               0-based positions of matching tasks
+     * @throws SnomException if the query is malformed or nothing matches
+     */
+    protected static BitSet findMatchingTasks(TaskList taskList, String query) throws SnomException {
+        if (query.isBlank()) {
+            throw new SnomException(Messages.ERROR_INVALID_WHERE);
+        }
+        BitSet positions = QueryPlanner.run(QueryParser.parse(query), taskList).getPositions();
+        if (positions.isEmpty()) {
+            throw new SnomException(Messages.MESSAGE_NO_MATCHING_TASK);
+        }
+        return positions;
+    }
+
     public abstract CommandResponse execute(TaskList taskList, Snomio snomio, StorageManager storage)
             throws SnomException;
 }
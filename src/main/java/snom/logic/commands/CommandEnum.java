@@ -10,6 +10,14 @@ public enum CommandEnum {
     EVENT,
     FIND,
     HELP,
+    SKIP,
+    IMPORT,
+    EXPORT,
+    SORT,
+    ARCHIVE,
+    NEXT,
+    SUMMARY,
+    USE,
     NONE;
 
     /**
@@ -7,6 +7,7 @@ public class CommandResponse {
     private String responseMsg;
     private boolean isExit;
     private boolean isError;
+    private String workspaceName;
 
     /**
      * Constructs a {@code CommandResponse} with default error set to false
@@ -52,4 +53,18 @@ public class CommandResponse {
     public boolean isError() {
         return isError;
     }
+
+    public String getWorkspaceName() {
+        return workspaceName;
+    }
+
+    /**
+     * Asks Snom to switch to the named task list once the command is executed.
+     * Snom then replaces the response message with a description of that task list.
+     *
+     * @param workspaceName name of task list to switch to
+     */
+    public void setWorkspaceName(String workspaceName) {
+        this.workspaceName = workspaceName;
+    }
 }
@@ -17,6 +17,7 @@ public class DeleteCommand extends Command {
 
     /**
      * Executes delete command.
+     * Tasks are given by their numbers, or by a find query after {@code where}.
      *
      * @param taskList         list of task
      * @param snomio           I/O of Snom
@@ -26,8 +27,10 @@ public class DeleteCommand extends Command {
      */
     @Override
     public CommandResponse execute(TaskList taskList, Snomio snomio, StorageManager storage) throws SnomException {
-        int[] deleteList = Parser.parseTaskNumbers(this.content);
-        Task[] deletedTasks = taskList.deleteTask(deleteList);
+        String query = Parser.parseWhereQuery(this.content);
+        Task[] deletedTasks = query == null
+                ? taskList.deleteTask(Parser.parseTaskNumbers(this.content, taskList))
+                : taskList.deleteTasks(findMatchingTasks(taskList, query));
         storage.saveFile(taskList);
         return new CommandResponse(snomio.getDeletedTasks(deletedTasks), false);
     }
@@ -14,7 +14,7 @@ public class ExitCommand extends Command {
     }
 
     /**
-     * Executes exit command.
+     * Executes exit command. Saves not yet forced to the disk are forced before exiting.
      *
      * @param taskList         list of task
      * @param snomio           I/O of Snom
@@ -24,6 +24,7 @@ public class ExitCommand extends Command {
      */
     @Override
     public CommandResponse execute(TaskList taskList, Snomio snomio, StorageManager storage) throws SnomException {
+        storage.flush();
         return new CommandResponse(snomio.getExitMessage(), true);
     }
 }
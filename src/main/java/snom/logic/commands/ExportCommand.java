@@ -0,0 +1,34 @@
+package snom.logic.commands;
+
+import snom.common.exceptions.SnomException;
+import snom.logic.Parser;
+import snom.model.task.TaskList;
+import snom.storage.StorageManager;
+import snom.storage.transfer.TaskExporter;
+import snom.ui.Snomio;
+
+/**
+ * Writes every {@code Task} in the {@code TaskList} to a CSV or JSON file
+ */
+public class ExportCommand extends Command {
+    public ExportCommand(CommandEnum commandType, String content) {
+        super(commandType, content);
+    }
+
+    /**
+     * Executes export command.
+     *
+     * @param taskList         list of task
+     * @param snomio           I/O of Snom
+     * @param storage          files handler of snom
+     * @return                 {@code CommandResponse} after command execution
+     * @throws SnomException   if command execution failed
+     */
+    @Override
+    public CommandResponse execute(TaskList taskList, Snomio snomio, StorageManager storage) throws SnomException {
+        Parser.TransferArguments arguments = Parser.parseTransferArguments(this.content, "export");
+        long count = new TaskExporter().exportTasks(taskList, arguments.getPath(), arguments.getFormat(),
+                snomio.getProgressPrinter("Exported"));
+        return new CommandResponse(snomio.getExported(count, arguments.getPath()), false);
+    }
+}
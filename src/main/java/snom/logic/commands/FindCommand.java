@@ -1,6 +1,10 @@
 package snom.logic.commands;
 
 import snom.common.exceptions.SnomException;
+import snom.logic.QueryParser;
+import snom.model.query.QueryPlanner;
+import snom.model.query.QueryResult;
+import snom.model.query.TaskPredicate;
 import snom.model.task.TaskList;
 import snom.storage.StorageManager;
 import snom.ui.Snomio;
@@ -9,22 +13,35 @@ import snom.ui.Snomio;
  * Searches for specific {@code Task} in the {@code TaskList}
  */
 public class FindCommand extends Command {
+    private static final String EXPLAIN = "explain";
+
     public FindCommand(CommandEnum commandType, String content) {
         super(commandType, content);
     }
 
     /**
      * Executes find command.
+     * Starting the query with {@code explain} also shows which plan ran and how many tasks it checked.
      *
      * @param taskList         list of task
      * @param snomio           I/O of Snom
      * @param storage          files handler of snom
      * @return                 {@code CommandResponse} after command execution
-     * @throws SnomException   if command execution failed
+     * @throws SnomException   if the query is malformed or nothing matches
      */
     @Override
     public CommandResponse execute(TaskList taskList, Snomio snomio, StorageManager storage) throws SnomException {
-        TaskList foundTaskList = taskList.findTask(this.content);
-        return new CommandResponse(snomio.getMatchingTaskList(foundTaskList), false);
+        String query = this.content.trim();
+        boolean isExplain = query.equalsIgnoreCase(EXPLAIN) || query.toLowerCase().startsWith(EXPLAIN + " ");
+        if (isExplain) {
+            query = query.substring(EXPLAIN.length()).trim();
+        }
+
+        TaskPredicate predicate = QueryParser.parse(query);
+        QueryResult result = QueryPlanner.run(predicate, taskList);
+        if (isExplain) {
+            return new CommandResponse(snomio.getQueryPlan(taskList, predicate, result), false);
+        }
+        return new CommandResponse(snomio.getMatchingTaskList(taskList, result.getPositions()), false);
     }
 }
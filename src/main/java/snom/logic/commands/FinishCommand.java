@@ -17,6 +17,7 @@ public class FinishCommand extends Command {
 
     /**
      * Executes finish command.
+     * Tasks are given by their numbers, or by a find query after {@code where}.
      *
      * @param taskList         list of task
      * @param snomio           I/O of Snom
@@ -26,7 +27,10 @@ public class FinishCommand extends Command {
      */
     @Override
     public CommandResponse execute(TaskList taskList, Snomio snomio, StorageManager storage) throws SnomException {
-        int[] finishList = Parser.parseTaskNumbers(this.content);
+        String query = Parser.parseWhereQuery(this.content);
+        int[] finishList = query == null
+                ? Parser.parseTaskNumbers(this.content, taskList)
+                : findMatchingTasks(taskList, query).stream().map(position -> position + 1).toArray();
         Task[] finishedTasks = taskList.finishTask(finishList);
         storage.saveFile(taskList);
         return new CommandResponse(snomio.getFinishedTasks(finishedTasks), false);
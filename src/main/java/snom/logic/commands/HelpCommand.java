@@ -17,6 +17,11 @@ public class HelpCommand extends Command {
         super(commandType, content);
     }
 
+    @Override
+    public boolean requiresTaskList() {
+        return false;
+    }
+
     /**
      * Executes help command.
      *
@@ -58,6 +63,38 @@ public class HelpCommand extends Command {
             helpFile = new FileManager(Paths.get("/help/find.txt"));
             helpText = helpFile.readResourcesText();
             break;
+        case "skip":
+            helpFile = new FileManager(Paths.get("/help/skip.txt"));
+            helpText = helpFile.readResourcesText();
+            break;
+        case "import":
+            helpFile = new FileManager(Paths.get("/help/import.txt"));
+            helpText = helpFile.readResourcesText();
+            break;
+        case "export":
+            helpFile = new FileManager(Paths.get("/help/export.txt"));
+            helpText = helpFile.readResourcesText();
+            break;
+        case "sort":
+            helpFile = new FileManager(Paths.get("/help/sort.txt"));
+            helpText = helpFile.readResourcesText();
+            break;
+        case "next":
+            helpFile = new FileManager(Paths.get("/help/next.txt"));
+            helpText = helpFile.readResourcesText();
+            break;
+        case "summary":
+            helpFile = new FileManager(Paths.get("/help/summary.txt"));
+            helpText = helpFile.readResourcesText();
+            break;
+        case "archive":
+            helpFile = new FileManager(Paths.get("/help/archive.txt"));
+            helpText = helpFile.readResourcesText();
+            break;
+        case "use":
+            helpFile = new FileManager(Paths.get("/help/use.txt"));
+            helpText = helpFile.readResourcesText();
+            break;
         default:
             helpFile = new FileManager(Paths.get("/help/commands.txt"));
             helpText = helpFile.readResourcesText();
@@ -0,0 +1,42 @@
+package snom.logic.commands;
+
+import snom.common.exceptions.SnomException;
+import snom.logic.Parser;
+import snom.model.task.TaskList;
+import snom.storage.StorageManager;
+import snom.storage.transfer.ImportResult;
+import snom.storage.transfer.TaskImporter;
+import snom.ui.Snomio;
+
+/**
+ * Appends every task of a CSV or JSON file to the {@code TaskList}
+ */
+public class ImportCommand extends Command {
+    public ImportCommand(CommandEnum commandType, String content) {
+        super(commandType, content);
+    }
+
+    /**
+     * Executes import command.
+     * Tasks duplicating an unfinished task, or one imported before them, are skipped.
+     *
+     * @param taskList         list of task
+     * @param snomio           I/O of Snom
+     * @param storage          files handler of snom
+     * @return                 {@code CommandResponse} after command execution
+     * @throws SnomException   if command execution failed
+     */
+    @Override
+    public CommandResponse execute(TaskList taskList, Snomio snomio, StorageManager storage) throws SnomException {
+        Parser.TransferArguments arguments = Parser.parseTransferArguments(this.content, "import");
+        TaskImporter importer = new TaskImporter(AddCommand.getDuplicateSimilarity());
+        ImportResult result;
+        try {
+            result = importer.importTasks(arguments.getPath(), arguments.getFormat(), taskList,
+                    snomio.getProgressPrinter("Imported"));
+        } finally {
+            storage.saveFile(taskList);
+        }
+        return new CommandResponse(snomio.getImportResult(result, arguments.getPath()), false);
+    }
+}
@@ -1,7 +1,23 @@
 package snom.logic.commands;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import snom.common.core.Messages;
 import snom.common.exceptions.SnomException;
+import snom.logic.QueryParser;
+import snom.model.index.SortKey;
+import snom.model.task.Occurrence;
+import snom.model.task.Task;
 import snom.model.task.TaskList;
+import snom.model.task.TaskType;
 import snom.storage.StorageManager;
 import snom.ui.Snomio;
 
@@ -9,12 +25,28 @@ import snom.ui.Snomio;
  * Display {@code Task} in the {@code TaskList}
  */
 public class ListCommand extends Command {
+    private static final int DEFAULT_RANGE_DAYS = 7;
+
+    private Set<TaskType> types = EnumSet.noneOf(TaskType.class);
+    private Boolean isFinished;
+    private List<List<String>> tagGroups = new ArrayList<>();
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private SortKey sortKey;
+
     public ListCommand(CommandEnum commandType, String content) {
         super(commandType, content);
     }
 
     /**
      * Executes list command.
+     * Filters such as {@code done}, {@code pending} or {@code deadlines} are answered from the
+     * status and type bitmaps of {@code TaskList} instead of scanning every task.
+     * Tag filters such as {@code #work #urgent} or {@code #work|#home} are answered from the tag bitmaps,
+     * intersecting the tags given separately and joining the ones given with {@code |}.
+     * With {@code from} and {@code to} dates, recurring tasks are expanded into their occurrences in that range.
+     * With {@code --sort}, tasks are read from the sorted view of {@code TaskList}, which is kept sorted
+     * as tasks change, and are numbered by their position in the full list.
      *
      * @param taskList         list of task
      * @param snomio           I/O of Snom
@@ -24,6 +56,136 @@ public class ListCommand extends Command {
      */
     @Override
     public CommandResponse execute(TaskList taskList, Snomio snomio, StorageManager storage) throws SnomException {
-        return new CommandResponse(snomio.getTaskList(taskList), false);
+        parseFilters();
+        if (from != null || to != null) {
+            LocalDateTime start = from == null ? LocalDateTime.now() : from;
+            LocalDateTime end = to == null ? start.plusDays(DEFAULT_RANGE_DAYS) : to;
+            List<Occurrence> occurrences = taskList.getOccurrences(types, isFinished, start, end);
+            occurrences.removeIf(occurrence -> !hasTags(occurrence.getTask()));
+            return new CommandResponse(snomio.getOccurrenceList(occurrences, start, end), false);
+        }
+        if (sortKey != null) {
+            if (taskList.isEmpty()) {
+                throw new SnomException(Messages.MESSAGE_EMPTY_TASK_LIST);
+            }
+            List<Task> sorted = new ArrayList<>(taskList.count(types, isFinished));
+            for (Task task: taskList.getSortedView(sortKey)) {
+                if (matchesFilters(task)) {
+                    sorted.add(task);
+                }
+            }
+            return new CommandResponse(snomio.getSortedTaskList(taskList, sorted, describeFilters(), sortKey), false);
+        }
+        if (types.isEmpty() && isFinished == null && tagGroups.isEmpty()) {
+            return new CommandResponse(snomio.getTaskList(taskList), false);
+        }
+
+        int count = taskList.count(types, isFinished);
+        BitSet positions = count == 0 ? new BitSet() : taskList.select(types, isFinished);
+        if (!tagGroups.isEmpty()) {
+            for (List<String> tags: tagGroups) {
+                positions.and(taskList.getTagIndex().selectAny(tags));
+            }
+            count = positions.cardinality();
+        }
+        return new CommandResponse(snomio.getFilteredTaskList(taskList, positions, count, describeFilters()), false);
+    }
+
+    /**
+     * Reads status, type and date range filters from the command content.
+     *
+     * @throws SnomException if a filter is unknown
+     */
+    private void parseFilters() throws SnomException {
+        String[] words = this.content.trim().split("\\s+");
+        for (int i = 0; i < words.length; i++) {
+            String word = words[i];
+            if (word.isEmpty()) {
+                continue;
+            }
+            switch (word.toLowerCase()) {
+            case "from":
+                from = parseDate(words, ++i).atStartOfDay();
+                break;
+            case "to":
+                to = parseDate(words, ++i).atTime(LocalTime.MAX);
+                break;
+            case "--sort":
+                sortKey = i + 1 < words.length ? SortKey.fromName(words[++i]) : null;
+                if (sortKey == null) {
+                    throw new SnomException(Messages.ERROR_INVALID_SORT_KEY);
+                }
+                break;
+            case "done":
+            case "finished":
+                isFinished = true;
+                break;
+            case "pending":
+            case "unfinished":
+                isFinished = false;
+                break;
+            default:
+                if (word.startsWith("#")) {
+                    tagGroups.add(QueryParser.parseTags(word));
+                    break;
+                }
+                TaskType type = TaskType.fromName(word);
+                if (type == null) {
+                    throw new SnomException(String.format(Messages.ERROR_INVALID_LIST_FILTER, word));
+                }
+                types.add(type);
+            }
+        }
+    }
+
+    private boolean matchesFilters(Task task) {
+        return (types.isEmpty() || types.contains(task.getType()))
+                && (isFinished == null || task.hasFinished() == isFinished)
+                && hasTags(task);
+    }
+
+    /**
+     * Returns whether the task has a tag of every tag filter.
+     */
+    private boolean hasTags(Task task) {
+        for (List<String> tags: tagGroups) {
+            boolean hasAny = false;
+            for (String tag: tags) {
+                hasAny |= task.hasTag(tag);
+            }
+            if (!hasAny) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static LocalDate parseDate(String[] words, int i) throws SnomException {
+        try {
+            return LocalDate.parse(words[i]);
+        } catch (IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new SnomException(Messages.ERROR_INVALID_DATE_TIME);
+        }
+    }
+
+    /**
+     * Returns a short description of the filters, eg. "pending deadline".
+     *
+     * @return description of filters
+     */
+    private String describeFilters() {
+        StringBuilder description = new StringBuilder();
+        if (isFinished != null) {
+            description.append(isFinished ? "done" : "pending");
+        }
+        for (List<String> tags: tagGroups) {
+            description.append(description.length() == 0 ? "" : " ").append("#").append(String.join("|#", tags));
+        }
+        String separator = description.length() == 0 ? "" : " ";
+        for (TaskType type: types) {
+            description.append(separator).append(type.getDisplayName());
+            separator = "/";
+        }
+        return description.toString();
     }
 }
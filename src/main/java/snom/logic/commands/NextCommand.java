@@ -0,0 +1,48 @@
+package snom.logic.commands;
+
+import java.util.List;
+
+import snom.common.core.Messages;
+import snom.common.exceptions.SnomException;
+import snom.model.task.Task;
+import snom.model.task.TaskList;
+import snom.storage.StorageManager;
+import snom.ui.Snomio;
+
+/**
+ * Shows the most urgent unfinished {@code Task}
+ */
+public class NextCommand extends Command {
+    public static final int DEFAULT_COUNT = 5;
+
+    public NextCommand(CommandEnum commandType, String content) {
+        super(commandType, content);
+    }
+
+    /**
+     * Executes next command.
+     * Tasks are read from the top of the urgency queue of {@code TaskList}, which is kept ordered as tasks change.
+     *
+     * @param taskList         list of task
+     * @param snomio           I/O of Snom
+     * @param storage          files handler of snom
+     * @return                 {@code CommandResponse} after command execution
+     * @throws SnomException   if the number of tasks is invalid
+     */
+    @Override
+    public CommandResponse execute(TaskList taskList, Snomio snomio, StorageManager storage) throws SnomException {
+        int count = DEFAULT_COUNT;
+        if (!this.content.isBlank()) {
+            try {
+                count = Integer.parseInt(this.content.trim());
+            } catch (NumberFormatException e) {
+                throw new SnomException(Messages.ERROR_INVALID_NEXT);
+            }
+            if (count < 1) {
+                throw new SnomException(Messages.ERROR_INVALID_NEXT);
+            }
+        }
+        List<Task> tasks = taskList.getUrgencyQueue().peek(count);
+        return new CommandResponse(snomio.getNextTasks(taskList, tasks), false);
+    }
+}
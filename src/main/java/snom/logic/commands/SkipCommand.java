@@ -0,0 +1,59 @@
+package snom.logic.commands;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+import snom.common.core.Messages;
+import snom.common.exceptions.SnomException;
+import snom.model.task.Task;
+import snom.model.task.TaskList;
+import snom.model.task.TaskWithDate;
+import snom.storage.StorageManager;
+import snom.ui.Snomio;
+
+/**
+ * Skips one occurrence of a recurring {@code TaskWithDate}
+ */
+public class SkipCommand extends Command {
+    public SkipCommand(CommandEnum commandType, String content) {
+        super(commandType, content);
+    }
+
+    /**
+     * Executes skip command.
+     *
+     * @param taskList         list of task
+     * @param snomio           I/O of Snom
+     * @param storage          files handler of snom
+     * @return                 {@code CommandResponse} after command execution
+     * @throws SnomException   if command execution failed
+     */
+    @Override
+    public CommandResponse execute(TaskList taskList, Snomio snomio, StorageManager storage) throws SnomException {
+        String[] args = this.content.trim().split("\\s+");
+        if (args.length != 2) {
+            throw new SnomException(Messages.ERROR_INVALID_SKIP);
+        }
+
+        int taskNum;
+        LocalDate date;
+        try {
+            taskNum = Integer.parseInt(args[0]);
+            date = LocalDate.parse(args[1]);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new SnomException(Messages.ERROR_INVALID_SKIP);
+        }
+
+        if (taskNum < 1 || taskNum > taskList.size()) {
+            throw new SnomException(String.format(Messages.ERROR_INVALID_TASK_NUM, taskNum));
+        }
+        Task task = taskList.get(taskNum - 1);
+        if (!(task instanceof TaskWithDate) || !((TaskWithDate) task).isRecurring()) {
+            throw new SnomException(String.format(Messages.ERROR_NOT_RECURRING, taskNum));
+        }
+
+        taskList.updateTask(taskNum - 1, t -> ((TaskWithDate) t).skipOccurrence(date));
+        storage.saveFile(taskList);
+        return new CommandResponse(snomio.getSkippedOccurrence(task, date), false);
+    }
+}
@@ -0,0 +1,38 @@
+package snom.logic.commands;
+
+import snom.common.core.Messages;
+import snom.common.exceptions.SnomException;
+import snom.model.index.SortKey;
+import snom.model.task.TaskList;
+import snom.storage.StorageManager;
+import snom.ui.Snomio;
+
+/**
+ * Displays every {@code Task} sorted by date, name or status.
+ */
+public class SortCommand extends Command {
+    public SortCommand(CommandEnum commandType, String content) {
+        super(commandType, content);
+    }
+
+    /**
+     * Executes sort command, eg. {@code sort by date}.
+     * Same as {@code list --sort date}.
+     *
+     * @param taskList         list of task
+     * @param snomio           I/O of Snom
+     * @param storage          files handler of snom
+     * @return                 {@code CommandResponse} after command execution
+     * @throws SnomException   if the sort key is unknown
+     */
+    @Override
+    public CommandResponse execute(TaskList taskList, Snomio snomio, StorageManager storage) throws SnomException {
+        String keyName = this.content.trim().replaceFirst("^(?i)by\\s+", "");
+        SortKey sortKey = SortKey.fromName(keyName);
+        if (sortKey == null) {
+            throw new SnomException(Messages.ERROR_INVALID_SORT_KEY);
+        }
+        return new ListCommand(CommandEnum.LIST, "--sort " + sortKey.getDisplayName())
+                .execute(taskList, snomio, storage);
+    }
+}
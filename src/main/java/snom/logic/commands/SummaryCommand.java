@@ -0,0 +1,31 @@
+package snom.logic.commands;
+
+import java.time.LocalDate;
+
+import snom.model.task.TaskList;
+import snom.storage.StorageManager;
+import snom.ui.Snomio;
+
+/**
+ * Shows counts of {@code Task} by type and status, what is overdue or due this week, and how many tasks were
+ * finished recently
+ */
+public class SummaryCommand extends Command {
+    public SummaryCommand(CommandEnum commandType, String content) {
+        super(commandType, content);
+    }
+
+    /**
+     * Executes summary command.
+     * Every figure comes from counters of {@code TaskList} kept in step with its changes, so no task is read.
+     *
+     * @param taskList         list of task
+     * @param snomio           I/O of Snom
+     * @param storage          files handler of snom
+     * @return                 {@code CommandResponse} after command execution
+     */
+    @Override
+    public CommandResponse execute(TaskList taskList, Snomio snomio, StorageManager storage) {
+        return new CommandResponse(snomio.getSummary(taskList, LocalDate.now()), false);
+    }
+}
@@ -0,0 +1,56 @@
+package snom.logic.commands;
+
+import java.util.regex.Pattern;
+
+import snom.common.core.Messages;
+import snom.common.exceptions.SnomException;
+import snom.model.task.TaskList;
+import snom.model.workspace.Workspace;
+import snom.storage.StorageManager;
+import snom.ui.Snomio;
+
+/**
+ * Switches to another named task list, or shows the one in use
+ */
+public class UseCommand extends Command {
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_-]+");
+
+    public UseCommand(CommandEnum commandType, String content) {
+        super(commandType, content);
+    }
+
+    /**
+     * Returns the name of the workspace to switch to, or null if none was given.
+     *
+     * @return               name of workspace
+     * @throws SnomException if the name has characters other than letters, digits, - and _
+     */
+    private String parseWorkspaceName() throws SnomException {
+        String name = this.content.trim();
+        if (name.isEmpty()) {
+            return null;
+        }
+        if (!NAME.matcher(name).matches()) {
+            throw new SnomException(Messages.ERROR_INVALID_WORKSPACE);
+        }
+        return name;
+    }
+
+    /**
+     * Executes use command.
+     * Names the task list in use, and asks {@code Snom} to switch to the given one if a name was given.
+     *
+     * @param taskList         list of task in use
+     * @param snomio           I/O of Snom
+     * @param storage          files handler of the task list in use
+     * @return                 {@code CommandResponse} after command execution
+     * @throws SnomException   if the name is invalid
+     */
+    @Override
+    public CommandResponse execute(TaskList taskList, Snomio snomio, StorageManager storage) throws SnomException {
+        CommandResponse response = new CommandResponse(
+                snomio.getWorkspace(Workspace.getName(storage.getPath()), taskList.size()), false);
+        response.setWorkspaceName(parseWorkspaceName());
+        return response;
+    }
+}
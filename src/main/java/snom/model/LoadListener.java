@@ -0,0 +1,26 @@
+package snom.model;
+
+import java.util.List;
+
+import snom.logic.commands.CommandResponse;
+
+/**
+ * Receives the progress of loading the task list in the background.
+ * Methods are called from the loading thread.
+ */
+public interface LoadListener {
+    /**
+     * Called after each block of tasks is read.
+     *
+     * @param loaded number of tasks loaded so far
+     * @param total  number of saved tasks
+     */
+    void onProgress(long loaded, long total);
+
+    /**
+     * Called once the whole task list is loaded and the commands queued while loading are executed.
+     *
+     * @param queuedResponses responses of the queued commands, in the order they were entered
+     */
+    void onLoaded(List<CommandResponse> queuedResponses);
+}
@@ -1,41 +1,212 @@
 package snom.model;
 
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
 
+import snom.common.core.Settings;
 import snom.common.exceptions.SnomException;
+import snom.logic.AutoCompleter;
 import snom.logic.Parser;
 import snom.logic.commands.Command;
 import snom.logic.commands.CommandResponse;
+import snom.model.archive.ArchivePolicy;
+import snom.model.reminder.ReminderListener;
+import snom.model.reminder.ReminderScheduler;
 import snom.model.task.TaskList;
+import snom.model.task.TaskListListener;
+import snom.model.workspace.Workspace;
+import snom.model.workspace.WorkspaceCache;
+import snom.storage.ProgressListener;
 import snom.storage.StorageManager;
 import snom.ui.Snomio;
 
 /**
  * Snom is a Personal Assistant Chatbot that helps
  * a person to keep track of various things.
+ *
+ * <p>Tasks can be kept in several named lists, the workspaces, saved next to each other. One is in use at a time;
+ * the recently used ones stay in memory within a budget, and the others are loaded again when they are next used.
  */
 public class Snom {
     private StorageManager storage;
-    private TaskList taskList;
     private Snomio snomio;
+    private ReminderScheduler reminderScheduler;
+    private ArchivePolicy archivePolicy;
+    private final Object lock = new Object();
+    private final List<Command> queuedCommands = new ArrayList<>();
+    private final List<TaskListListener> taskListListeners = new ArrayList<>();
+    private volatile TaskList taskList;
+    private final Path folder;
+    private final WorkspaceCache workspaces;
+    private String workspaceName;
+    private volatile long loadedCount;
+    private volatile long totalCount;
 
     /**
-     * Constructs a {@code Snom}
+     * Constructs a {@code Snom}. The task list is read by {@link #load()} or {@link #loadInBackground(LoadListener)}.
      *
      * @param filePath file path to store task list
      */
     public Snom(Path filePath) {
         snomio = new Snomio();
         storage = new StorageManager(filePath);
+        folder = filePath.toAbsolutePath().getParent();
+        workspaceName = Workspace.getName(filePath);
+        workspaces = new WorkspaceCache(Settings.getLong(Settings.KEY_WORKSPACE_MEMORY_MB,
+                Settings.DEFAULT_WORKSPACE_MEMORY_MB) * 1024 * 1024, this::loadWorkspace);
+        reminderScheduler = new ReminderScheduler(
+                Duration.ofMinutes(Settings.getLong(Settings.KEY_DEADLINE_LEAD_MINUTES,
+                        Settings.DEFAULT_DEADLINE_LEAD_MINUTES)),
+                Duration.ofMinutes(Settings.getLong(Settings.KEY_EVENT_LEAD_MINUTES,
+                        Settings.DEFAULT_EVENT_LEAD_MINUTES)));
+        reminderScheduler.start();
+        archivePolicy = new ArchivePolicy(Duration.ofDays(Settings.getLong(Settings.KEY_ARCHIVE_AFTER_DAYS,
+                Settings.DEFAULT_ARCHIVE_AFTER_DAYS)));
+    }
+
+    /**
+     * Reads the task list on the calling thread.
+     *
+     * @return responses of the commands queued before loading, in the order they were entered
+     */
+    public List<CommandResponse> load() {
+        return finishLoading(readTaskList());
+    }
+
+    /**
+     * Reads the task list on a background thread. Until it is loaded, commands that need the task list
+     * are queued and executed in order once it is, before any command entered after.
+     *
+     * @param listener receives the loading progress and the responses of the queued commands
+     */
+    public void loadInBackground(LoadListener listener) {
+        Thread loader = new Thread(() -> {
+            TaskList loaded = readTaskList((done, total) -> {
+                loadedCount = done;
+                totalCount = total;
+                listener.onProgress(done, total);
+            });
+            listener.onLoaded(finishLoading(loaded));
+        }, "snom-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public boolean isLoaded() {
+        return taskList != null;
+    }
+
+    private TaskList readTaskList() {
+        return readTaskList(storage, ProgressListener.NONE);
+    }
+
+    private TaskList readTaskList(ProgressListener progress) {
+        return readTaskList(storage, progress);
+    }
+
+    /**
+     * Reads the task list, archives the finished tasks the archive policy picks, and builds the prefix trie,
+     * urgency queue and statistics of what is left, before the list is shared with other threads.
+     */
+    private TaskList readTaskList(StorageManager storage, ProgressListener progress) {
+        TaskList loaded;
         try {
-            taskList = storage.importTask();
+            loaded = storage.importTask(progress);
         } catch (SnomException e) {
             e.printStackTrace();
+            loaded = new TaskList();
+        }
+        BitSet expired = archivePolicy.select(loaded);
+        if (!expired.isEmpty()) {
+            try {
+                storage.archiveTasks(loaded, expired);
+            } catch (SnomException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+        loaded.getPrefixTrie();
+        loaded.getUrgencyQueue();
+        loaded.getStatistics();
+        return loaded;
+    }
+
+    /**
+     * Switches to the loaded task list and executes the queued commands on it, in one step,
+     * so that no command entered meanwhile can run before them.
+     */
+    private List<CommandResponse> finishLoading(TaskList loaded) {
+        synchronized (lock) {
+            loaded.addIndex(reminderScheduler);
+            for (TaskListListener listener: taskListListeners) {
+                loaded.addListener(listener);
+            }
+            taskList = loaded;
+            workspaces.put(new Workspace(workspaceName, storage, loaded));
+            List<CommandResponse> responses = new ArrayList<>();
+            for (Command command: queuedCommands) {
+                responses.add(execute(command));
+            }
+            queuedCommands.clear();
+            return responses;
+        }
+    }
+
+    /**
+     * Registers a listener to be called when a deadline is approaching or an event is about to start.
+     *
+     * @param listener listener called from the reminder thread
+     */
+    public void addReminderListener(ReminderListener listener) {
+        reminderScheduler.addListener(listener);
+    }
+
+    /**
+     * Registers a listener to be called after every change to the task list. It is sent the whole list
+     * as a reset once the list is loaded, or right away if it already is.
+     *
+     * @param listener listener called from the thread that changed the task list
+     */
+    public void addTaskListListener(TaskListListener listener) {
+        synchronized (lock) {
+            taskListListeners.add(listener);
+            if (taskList != null) {
+                taskList.addListener(listener);
+            }
+        }
+    }
+
+    /**
+     * Unregisters a task list listener.
+     *
+     * @param listener listener to stop calling
+     */
+    public void removeTaskListListener(TaskListListener listener) {
+        synchronized (lock) {
+            taskListListeners.remove(listener);
+            if (taskList != null) {
+                taskList.removeListener(listener);
+            }
         }
     }
 
+    public ReminderScheduler getReminderScheduler() {
+        return reminderScheduler;
+    }
+
+    public StorageManager getStorage() {
+        return storage;
+    }
+
+    public WorkspaceCache getWorkspaces() {
+        return workspaces;
+    }
+
     /**
-     * Returns {@code CommandResponse} with the response message and whether to exit after command
+     * Returns {@code CommandResponse} with the response message and whether to exit after command.
+     * While the task list is loading, a command that needs it is queued and a queued message is returned.
      *
      * @param userInput String of user input
      * @return          CommandResponse
@@ -43,7 +214,86 @@ public class Snom {
     public CommandResponse getResponse(String userInput) {
         try {
             Command command = Parser.parse(userInput);
+            synchronized (lock) {
+                if (taskList == null && command.requiresTaskList()) {
+                    queuedCommands.add(command);
+                    return new CommandResponse(snomio.getCommandQueued(loadedCount, totalCount), false);
+                }
+                return execute(command);
+            }
+        } catch (SnomException e) {
+            return new CommandResponse(e.getMessage(), false, true);
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} completions of the given partly typed command.
+     * Task descriptions are only suggested once the task list is loaded.
+     *
+     * @param input text typed so far
+     * @param limit maximum number of completions
+     * @return      completed inputs, best first
+     */
+    public List<String> getSuggestions(String input, int limit) {
+        synchronized (lock) {
+            return AutoCompleter.suggest(input, taskList, limit);
+        }
+    }
+
+    /**
+     * Returns the "next up" list of the most urgent unfinished tasks, read from the urgency queue
+     * without sorting, or an empty string while the task list is loading.
+     *
+     * @param count maximum number of tasks
+     * @return      one line per task
+     */
+    public String getNextUp(int count) {
+        synchronized (lock) {
+            if (taskList == null) {
+                return "";
+            }
+            return snomio.getNextUp(taskList, taskList.getUrgencyQueue().peek(count));
+        }
+    }
+
+    /**
+     * Reads the workspace of the given name from its file next to the first one.
+     */
+    private Workspace loadWorkspace(String name) {
+        StorageManager workspaceStorage = new StorageManager(Workspace.getFilePath(folder, name));
+        return new Workspace(name, workspaceStorage, readTaskList(workspaceStorage, ProgressListener.NONE));
+    }
+
+    /**
+     * Switches to the workspace of the given name, moving the reminders and the task list listeners to its
+     * task list. Workspaces not used recently may be saved and dropped from memory.
+     */
+    private void useWorkspace(String name) {
+        if (name.equals(workspaceName)) {
+            return;
+        }
+        Workspace workspace = workspaces.use(name);
+        taskList.removeIndex(reminderScheduler);
+        reminderScheduler.onClear();
+        for (TaskListListener listener: taskListListeners) {
+            taskList.removeListener(listener);
+        }
+        workspace.getTaskList().addIndex(reminderScheduler);
+        for (TaskListListener listener: taskListListeners) {
+            workspace.getTaskList().addListener(listener);
+        }
+        storage = workspace.getStorage();
+        taskList = workspace.getTaskList();
+        workspaceName = name;
+    }
+
+    private CommandResponse execute(Command command) {
+        try {
             CommandResponse response = command.execute(taskList, snomio, storage);
+            if (response.getWorkspaceName() != null) {
+                useWorkspace(response.getWorkspaceName());
+                response.setResponseMsg(snomio.getWorkspace(workspaceName, taskList.size()));
+            }
             return response;
         } catch (SnomException e) {
             return new CommandResponse(e.getMessage(), false, true);
@@ -0,0 +1,67 @@
+package snom.model.archive;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.EnumSet;
+
+import snom.model.task.TaskList;
+import snom.model.task.TaskType;
+import snom.model.task.TaskWithDate;
+
+/**
+ * Decides which finished tasks are old enough to be moved to the archive.
+ * A finished deadline or event is old once its date is further in the past than the given age.
+ * Todos have no date, so they are only archived by hand.
+ */
+public class ArchivePolicy {
+    private final Duration age;
+    private final Clock clock;
+
+    /**
+     * Constructs an {@code ArchivePolicy}
+     *
+     * @param age how long after its date a finished task is archived, zero to never archive
+     */
+    public ArchivePolicy(Duration age) {
+        this(age, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs an {@code ArchivePolicy} with the given clock
+     *
+     * @param age   how long after its date a finished task is archived, zero to never archive
+     * @param clock clock used to read current time
+     */
+    public ArchivePolicy(Duration age, Clock clock) {
+        this.age = age;
+        this.clock = clock;
+    }
+
+    public boolean isEnabled() {
+        return !age.isZero() && !age.isNegative();
+    }
+
+    /**
+     * Returns the positions of the finished tasks due to be archived.
+     * Only finished tasks are looked at, through the status index of the task list.
+     *
+     * @param taskList task list to check
+     * @return         bitmap of 0-based positions, empty if the policy is disabled
+     */
+    public BitSet select(TaskList taskList) {
+        BitSet expired = new BitSet();
+        if (!isEnabled()) {
+            return expired;
+        }
+        LocalDateTime cutoff = LocalDateTime.now(clock).minus(age);
+        BitSet finished = taskList.select(EnumSet.of(TaskType.DEADLINE, TaskType.EVENT), true);
+        for (int i = finished.nextSetBit(0); i >= 0; i = finished.nextSetBit(i + 1)) {
+            if (((TaskWithDate) taskList.get(i)).getDateTime().isBefore(cutoff)) {
+                expired.set(i);
+            }
+        }
+        return expired;
+    }
+}
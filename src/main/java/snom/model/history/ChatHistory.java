@@ -0,0 +1,113 @@
+package snom.model.history;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import snom.common.util.RingBuffer;
+import snom.storage.HistoryLog;
+
+/**
+ * Keeps the conversation in a {@code HistoryLog}, with only the most recent messages in memory.
+ * Older messages are read back from the log a page at a time, so opening a long history
+ * costs the same as opening a short one.
+ */
+public class ChatHistory {
+    private final RingBuffer<HistoryEntry> recent;
+    private HistoryLog log;
+    private long pageCursor;
+
+    /**
+     * Opens the history saved at the given path and reads its most recent messages.
+     * If the log cannot be opened, the history is kept in memory only.
+     *
+     * @param path     file path of the history log
+     * @param capacity number of recent messages kept in memory
+     */
+    public ChatHistory(Path path, int capacity) {
+        recent = new RingBuffer<>(capacity);
+        try {
+            log = new HistoryLog(path);
+            recent.addAll(log.readBefore(log.getEnd(), recent.getCapacity()));
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+            log = null;
+        }
+        resetPaging();
+    }
+
+    /**
+     * Returns the messages kept in memory, oldest first.
+     *
+     * @return recent messages
+     */
+    public List<HistoryEntry> getRecent() {
+        return new ArrayList<>(recent);
+    }
+
+    /**
+     * Saves the given message and keeps it in memory.
+     *
+     * @param entry message to add
+     * @return      the oldest message in memory if it was dropped to make room, else null
+     */
+    public HistoryEntry add(HistoryEntry entry) {
+        if (log != null) {
+            try {
+                log.append(entry);
+            } catch (IOException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+        HistoryEntry dropped = recent.push(entry);
+        if (dropped != null && pageCursor == dropped.getOffset()) {
+            resetPaging();
+        }
+        return dropped;
+    }
+
+    /**
+     * Returns true if there are saved messages older than the ones returned so far.
+     *
+     * @return whether older messages can be loaded
+     */
+    public boolean hasOlder() {
+        return pageCursor > 0;
+    }
+
+    /**
+     * Returns up to {@code count} messages older than the ones returned so far, oldest first.
+     * They are not kept in memory by the history.
+     *
+     * @param count maximum number of messages
+     * @return      older messages
+     */
+    public List<HistoryEntry> loadOlder(int count) {
+        if (!hasOlder()) {
+            return new ArrayList<>();
+        }
+        try {
+            List<HistoryEntry> older = log.readBefore(pageCursor, count);
+            pageCursor = older.isEmpty() ? 0 : older.get(0).getOffset();
+            return older;
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+            pageCursor = 0;
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Forgets the pages loaded by {@link #loadOlder(int)}, so the next page starts just before the recent messages.
+     */
+    public void resetPaging() {
+        if (log == null) {
+            pageCursor = 0;
+        } else if (recent.isEmpty()) {
+            pageCursor = log.getEnd();
+        } else {
+            pageCursor = Math.max(0, recent.get(0).getOffset());
+        }
+    }
+}
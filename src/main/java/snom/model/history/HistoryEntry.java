@@ -0,0 +1,77 @@
+package snom.model.history;
+
+/**
+ * Represents one message of the conversation, typed by the user or replied by Snom.
+ */
+public class HistoryEntry {
+    private final boolean isUser;
+    private final boolean isError;
+    private final long epochMilli;
+    private final String text;
+    private long offset = -1;
+
+    /**
+     * Constructs a {@code HistoryEntry}
+     *
+     * @param isUser     true if the user typed the message, false if Snom replied it
+     * @param isError    true if the message is an error reply
+     * @param epochMilli time of the message
+     * @param text       content of the message
+     */
+    public HistoryEntry(boolean isUser, boolean isError, long epochMilli, String text) {
+        this.isUser = isUser;
+        this.isError = isError;
+        this.epochMilli = epochMilli;
+        this.text = text;
+    }
+
+    /**
+     * Returns a message typed by the user now.
+     *
+     * @param text content of the message
+     * @return     history entry
+     */
+    public static HistoryEntry ofUser(String text) {
+        return new HistoryEntry(true, false, System.currentTimeMillis(), text);
+    }
+
+    /**
+     * Returns a message replied by Snom now.
+     *
+     * @param text    content of the message
+     * @param isError true if the reply is an error
+     * @return        history entry
+     */
+    public static HistoryEntry ofSnom(String text, boolean isError) {
+        return new HistoryEntry(false, isError, System.currentTimeMillis(), text);
+    }
+
+    public boolean isUser() {
+        return isUser;
+    }
+
+    public boolean isError() {
+        return isError;
+    }
+
+    public long getEpochMilli() {
+        return epochMilli;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Returns the position of the entry in the history log, or -1 if it was not saved.
+     *
+     * @return byte offset in the log
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+}
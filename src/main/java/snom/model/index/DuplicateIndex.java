@@ -0,0 +1,138 @@
+package snom.model.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import snom.model.task.Task;
+import snom.model.task.TaskWithDate;
+
+/**
+ * Hash set of the content fingerprints of unfinished tasks, so an exact duplicate of a new task is found in O(1).
+ * Two tasks are duplicates if they have the same type, date and description, ignoring case and extra spaces.
+ * Finished tasks are left out, so a task done before can be added again.
+ *
+ * <p>A fingerprint is a 64-bit hash of the content; tasks sharing one are compared by content before
+ * being reported, so a hash collision never hides a task or reports a wrong one.
+ */
+public class DuplicateIndex implements TaskIndex {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private final Map<Long, List<Task>> fingerprints = new HashMap<>();
+
+    /**
+     * Returns the description lowercased, with runs of spaces turned into one and no leading or trailing space.
+     *
+     * @param description description of task
+     * @return            normalized description
+     */
+    public static String normalize(String description) {
+        return SPACES.matcher(description.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns what two tasks must share to be duplicates: their type, date and normalized description.
+     *
+     * @param task task
+     * @return     content key
+     */
+    public static String getContentKey(Task task) {
+        return getScopeKey(task) + "|" + normalize(task.getDescription());
+    }
+
+    /**
+     * Returns the type and date of the task, which duplicates and near duplicates must share.
+     *
+     * @param task task
+     * @return     scope key
+     */
+    public static String getScopeKey(Task task) {
+        String key = task.getType().getDisplayName();
+        return task instanceof TaskWithDate ? key + "|" + ((TaskWithDate) task).getDateTime() : key;
+    }
+
+    /**
+     * Returns the 64-bit FNV-1a hash of the given content key.
+     *
+     * @param contentKey content key
+     * @return           fingerprint
+     */
+    public static long fingerprint(String contentKey) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < contentKey.length(); i++) {
+            hash = (hash ^ contentKey.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Returns an unfinished task with the same content as the given task, other than the task itself.
+     *
+     * @param task task to check
+     * @return     duplicate task, or null if there is none
+     */
+    public Task find(Task task) {
+        String contentKey = getContentKey(task);
+        List<Task> tasks = fingerprints.get(fingerprint(contentKey));
+        if (tasks == null) {
+            return null;
+        }
+        for (Task other: tasks) {
+            if (other != task && getContentKey(other).equals(contentKey)) {
+                return other;
+            }
+        }
+        return null;
+    }
+
+    private void insert(Task task) {
+        if (!task.hasFinished()) {
+            fingerprints.computeIfAbsent(fingerprint(getContentKey(task)), k -> new ArrayList<>(1)).add(task);
+        }
+    }
+
+    private void remove(Task task) {
+        if (task.hasFinished()) {
+            return;
+        }
+        long fingerprint = fingerprint(getContentKey(task));
+        List<Task> tasks = fingerprints.get(fingerprint);
+        if (tasks == null) {
+            return;
+        }
+        tasks.removeIf(other -> other == task);
+        if (tasks.isEmpty()) {
+            fingerprints.remove(fingerprint);
+        }
+    }
+
+    @Override
+    public void onAdd(int position, Task task) {
+        insert(task);
+    }
+
+    @Override
+    public void onRemove(int position, Task task) {
+        remove(task);
+    }
+
+    @Override
+    public void beforeUpdate(int position, Task task) {
+        remove(task);
+    }
+
+    @Override
+    public void onUpdate(int position, Task task) {
+        insert(task);
+    }
+
+    @Override
+    public void onClear() {
+        fingerprints.clear();
+    }
+}
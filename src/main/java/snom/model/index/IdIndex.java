@@ -0,0 +1,149 @@
+package snom.model.index;
+
+import java.util.Arrays;
+
+import snom.model.task.Task;
+
+/**
+ * Maps the id of every task to its position in the task list, so a task given by id is found in O(1).
+ *
+ * <p>The map is an open-addressing hash table of primitive ints with linear probing, so no id or position is
+ * boxed. The ids are also kept in list order: when a task is inserted or removed before the end of the list,
+ * the positions of the tasks after it are shifted, as the list shifts them. A rebuild of the list, such as the
+ * compaction after a bulk delete, clears the map and replays every task.
+ */
+public class IdIndex implements TaskIndex {
+    private static final int EMPTY = 0;
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys = new int[MIN_CAPACITY];
+    private int[] values = new int[MIN_CAPACITY];
+    private int mask = MIN_CAPACITY - 1;
+    private int count;
+    private int[] ids = new int[MIN_CAPACITY];
+    private int size;
+
+    /**
+     * Returns the 0-based position of the task with the given id.
+     *
+     * @param id id of task
+     * @return   position of task, or -1 if no task has the id
+     */
+    public int getPosition(int id) {
+        if (id == EMPTY) {
+            return -1;
+        }
+        for (int slot = slotOf(id); keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == id) {
+                return values[slot];
+            }
+        }
+        return -1;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns the home slot of an id, spreading consecutive ids over the table.
+     */
+    private int slotOf(int id) {
+        int hash = id * 0x9e3779b9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private void put(int id, int position) {
+        if (id == EMPTY) {
+            return;
+        }
+        int slot = slotOf(id);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == id) {
+                values[slot] = position;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = id;
+        values[slot] = position;
+        if (++count * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+    }
+
+    /**
+     * Removes an id, moving back the ids probed past its slot so that no lookup stops early.
+     */
+    private void delete(int id) {
+        int gap = slotOf(id);
+        while (keys[gap] != id) {
+            if (keys[gap] == EMPTY) {
+                return;
+            }
+            gap = (gap + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+        count--;
+        for (int slot = (gap + 1) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            int home = slotOf(keys[slot]);
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                keys[slot] = EMPTY;
+                gap = slot;
+            }
+        }
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        count = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    @Override
+    public void onAdd(int position, Task task) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = task.getId();
+        size++;
+        for (int i = position; i < size; i++) {
+            put(ids[i], i);
+        }
+    }
+
+    @Override
+    public void onRemove(int position, Task task) {
+        int id = ids[position];
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+        if (getPosition(id) == position) {
+            delete(id);
+        }
+        for (int i = position; i < size; i++) {
+            put(ids[i], i);
+        }
+    }
+
+    @Override
+    public void onUpdate(int position, Task task) {
+    }
+
+    @Override
+    public void onClear() {
+        Arrays.fill(keys, EMPTY);
+        count = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,221 @@
+package snom.model.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import snom.model.task.Task;
+
+/**
+ * Finds unfinished tasks whose description is nearly the same as a new task's, among tasks of the same type
+ * and date, without comparing against every task.
+ *
+ * <p>Descriptions are split into trigram shingles and summarized by a MinHash signature of {@link #HASHES}
+ * values; two descriptions agree on each value with a probability equal to the Jaccard similarity of their
+ * shingles. The signature is cut into {@link #BANDS} bands, and each band, together with the type and date,
+ * is hashed into a bucket (locality-sensitive hashing). Only tasks sharing a bucket with the new task are
+ * compared, by the exact similarity of their shingles. Pairs with a similarity of 0.8 share a bucket 98% of the
+ * time, pairs below 0.3 rarely do.
+ */
+public class NearDuplicateIndex implements TaskIndex {
+    public static final int HASHES = 32;
+    public static final int BANDS = 8;
+    private static final int ROWS = HASHES / BANDS;
+    private static final long[] SEEDS = new Random(0x5eedL).longs(HASHES).toArray();
+
+    private final double similarity;
+    private final Map<Long, List<Task>> buckets = new HashMap<>();
+
+    /**
+     * Constructs an empty {@code NearDuplicateIndex}
+     *
+     * @param similarity least Jaccard similarity of shingles for two descriptions to be near duplicates, in (0, 1]
+     */
+    public NearDuplicateIndex(double similarity) {
+        this.similarity = similarity;
+    }
+
+    public double getSimilarity() {
+        return similarity;
+    }
+
+    /**
+     * Returns the trigram shingles of the normalized description, each packed into a long, sorted and distinct.
+     * A description shorter than a trigram is one shingle.
+     *
+     * @param task task
+     * @return     shingles
+     */
+    public static long[] getShingles(Task task) {
+        String description = DuplicateIndex.normalize(task.getDescription());
+        if (description.length() < TextIndex.GRAM_LENGTH) {
+            return new long[] {description.hashCode()};
+        }
+        long[] shingles = new long[description.length() - TextIndex.GRAM_LENGTH + 1];
+        for (int i = 0; i < shingles.length; i++) {
+            shingles[i] = (long) description.charAt(i) << 32 | (long) description.charAt(i + 1) << 16
+                    | description.charAt(i + 2);
+        }
+        Arrays.sort(shingles);
+        int distinct = 0;
+        for (int i = 0; i < shingles.length; i++) {
+            if (i == 0 || shingles[i] != shingles[i - 1]) {
+                shingles[distinct++] = shingles[i];
+            }
+        }
+        return Arrays.copyOf(shingles, distinct);
+    }
+
+    /**
+     * Returns the Jaccard similarity of two sets of shingles.
+     *
+     * @param a sorted distinct shingles
+     * @param b sorted distinct shingles
+     * @return  size of intersection over size of union
+     */
+    public static double getJaccard(long[] a, long[] b) {
+        int shared = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] == b[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) shared / (a.length + b.length - shared);
+    }
+
+    /**
+     * Returns the MinHash signature of the given shingles.
+     */
+    private static long[] getSignature(long[] shingles) {
+        long[] signature = new long[HASHES];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (long shingle: shingles) {
+            long hash = mix(shingle);
+            for (int i = 0; i < HASHES; i++) {
+                signature[i] = Math.min(signature[i], mix(hash ^ SEEDS[i]));
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Returns the bucket of every band of the task.
+     */
+    private static long[] getBuckets(Task task) {
+        long scope = DuplicateIndex.fingerprint(DuplicateIndex.getScopeKey(task));
+        long[] signature = getSignature(getShingles(task));
+        long[] bucketKeys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long hash = mix(scope + band);
+            for (int row = 0; row < ROWS; row++) {
+                hash = mix(hash ^ signature[band * ROWS + row]);
+            }
+            bucketKeys[band] = hash;
+        }
+        return bucketKeys;
+    }
+
+    /**
+     * Scrambles the bits of a value, the finalizer of SplitMix64.
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
+    /**
+     * Returns the unfinished task most similar to the given task, of the same type and date, if it is at least
+     * as similar as the threshold of this index.
+     *
+     * @param task task to check
+     * @return     near duplicate task, or null if there is none
+     */
+    public Task find(Task task) {
+        Set<Task> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (long bucket: getBuckets(task)) {
+            candidates.addAll(buckets.getOrDefault(bucket, Collections.emptyList()));
+        }
+        candidates.remove(task);
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        String scope = DuplicateIndex.getScopeKey(task);
+        long[] shingles = getShingles(task);
+        Task best = null;
+        double bestSimilarity = similarity;
+        for (Task candidate: candidates) {
+            if (!DuplicateIndex.getScopeKey(candidate).equals(scope)) {
+                continue;
+            }
+            double candidateSimilarity = getJaccard(shingles, getShingles(candidate));
+            if (candidateSimilarity >= bestSimilarity) {
+                best = candidate;
+                bestSimilarity = candidateSimilarity;
+            }
+        }
+        return best;
+    }
+
+    private void insert(Task task) {
+        if (task.hasFinished()) {
+            return;
+        }
+        for (long bucket: getBuckets(task)) {
+            buckets.computeIfAbsent(bucket, k -> new ArrayList<>(1)).add(task);
+        }
+    }
+
+    private void remove(Task task) {
+        if (task.hasFinished()) {
+            return;
+        }
+        for (long bucket: getBuckets(task)) {
+            List<Task> tasks = buckets.get(bucket);
+            if (tasks == null) {
+                continue;
+            }
+            tasks.removeIf(other -> other == task);
+            if (tasks.isEmpty()) {
+                buckets.remove(bucket);
+            }
+        }
+    }
+
+    @Override
+    public void onAdd(int position, Task task) {
+        insert(task);
+    }
+
+    @Override
+    public void onRemove(int position, Task task) {
+        remove(task);
+    }
+
+    @Override
+    public void beforeUpdate(int position, Task task) {
+        remove(task);
+    }
+
+    @Override
+    public void onUpdate(int position, Task task) {
+        insert(task);
+    }
+
+    @Override
+    public void onClear() {
+        buckets.clear();
+    }
+}
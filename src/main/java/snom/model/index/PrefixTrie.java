@@ -0,0 +1,264 @@
+package snom.model.index;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+
+import snom.model.task.Task;
+
+/**
+ * Prefix trie over the words of task descriptions, ignoring case.
+ * Each node keeps its children in a sorted array, the node ending a word keeps the tasks holding that word,
+ * and every node keeps the length of the shortest word below it. Nodes without tasks below them are pruned.
+ *
+ * <p>Completion walks the nodes in order of the shortest word below them, going deeper first among equals,
+ * so each task found costs at most one word's length of nodes and their children, however many tasks there are.
+ */
+public class PrefixTrie implements TaskIndex {
+    private final Node root = new Node();
+    private final Map<Task, String> indexedText = new IdentityHashMap<>();
+
+    /**
+     * Node of the trie. {@code tasks} is null, a single {@code Task} or a {@code Set} of them, and
+     * {@code shortest} is the number of characters from this node to the nearest node with tasks.
+     */
+    private static class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private Object tasks;
+        private int shortest = Integer.MAX_VALUE;
+
+        Node getChild(char key) {
+            int i = Arrays.binarySearch(keys, key);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node getOrAddChild(char key) {
+            int i = Arrays.binarySearch(keys, key);
+            if (i >= 0) {
+                return children[i];
+            }
+            int insert = -i - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insert);
+            System.arraycopy(children, 0, newChildren, 0, insert);
+            System.arraycopy(keys, insert, newKeys, insert + 1, keys.length - insert);
+            System.arraycopy(children, insert, newChildren, insert + 1, children.length - insert);
+            newKeys[insert] = key;
+            newChildren[insert] = new Node();
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[insert];
+        }
+
+        void removeChild(char key) {
+            int i = Arrays.binarySearch(keys, key);
+            if (i < 0) {
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, i);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            System.arraycopy(keys, i + 1, newKeys, i, keys.length - i - 1);
+            System.arraycopy(children, i + 1, newChildren, i, children.length - i - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        @SuppressWarnings("unchecked")
+        void addTask(Task task) {
+            if (tasks == null) {
+                tasks = task;
+            } else if (tasks instanceof Task) {
+                if (tasks != task) {
+                    Set<Task> set = Collections.newSetFromMap(new IdentityHashMap<>());
+                    set.add((Task) tasks);
+                    set.add(task);
+                    tasks = set;
+                }
+            } else {
+                ((Set<Task>) tasks).add(task);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void removeTask(Task task) {
+            if (tasks == task) {
+                tasks = null;
+            } else if (tasks instanceof Set) {
+                Set<Task> set = (Set<Task>) tasks;
+                set.remove(task);
+                if (set.size() == 1) {
+                    tasks = set.iterator().next();
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void collectTasks(Set<Task> found, int limit) {
+            if (tasks instanceof Task) {
+                found.add((Task) tasks);
+            } else if (tasks != null) {
+                for (Task task: (Set<Task>) tasks) {
+                    if (found.size() >= limit) {
+                        return;
+                    }
+                    found.add(task);
+                }
+            }
+        }
+
+        boolean isEmpty() {
+            return tasks == null && keys.length == 0;
+        }
+
+        void updateShortest() {
+            shortest = tasks != null ? 0 : Integer.MAX_VALUE;
+            for (Node child: children) {
+                if (child.shortest != Integer.MAX_VALUE) {
+                    shortest = Math.min(shortest, child.shortest + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Node waiting to be visited by {@link #complete}, with its depth below the prefix node.
+     */
+    private static class Candidate {
+        private final Node node;
+        private final int depth;
+
+        Candidate(Node node, int depth) {
+            this.node = node;
+            this.depth = depth;
+        }
+
+        int getWordLength() {
+            return depth + node.shortest;
+        }
+    }
+
+    /**
+     * Returns the distinct lower case words of the given text.
+     *
+     * @param text text to split
+     * @return     words in order of first appearance
+     */
+    public static Set<String> getWords(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String word: text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Returns up to {@code limit} tasks with a word starting with the given prefix.
+     * Tasks with shorter matching words are picked first.
+     *
+     * @param prefix start of a word, ignoring case
+     * @param limit  maximum number of tasks
+     * @return       matching tasks
+     */
+    public Set<Task> complete(String prefix, int limit) {
+        Set<Task> found = Collections.newSetFromMap(new IdentityHashMap<>());
+        Node node = root;
+        for (char key: prefix.toLowerCase().toCharArray()) {
+            node = node.getChild(key);
+            if (node == null) {
+                return found;
+            }
+        }
+
+        Queue<Candidate> queue = new PriorityQueue<>(Comparator.comparingInt(Candidate::getWordLength)
+                .thenComparingInt(candidate -> -candidate.depth));
+        queue.add(new Candidate(node, 0));
+        while (!queue.isEmpty() && found.size() < limit) {
+            Candidate next = queue.remove();
+            next.node.collectTasks(found, limit);
+            for (Node child: next.node.children) {
+                queue.add(new Candidate(child, next.depth + 1));
+            }
+        }
+        return found;
+    }
+
+    private void insert(String word, Task task) {
+        Node node = root;
+        for (int i = 0; i < word.length(); i++) {
+            node.shortest = Math.min(node.shortest, word.length() - i);
+            node = node.getOrAddChild(word.charAt(i));
+        }
+        node.addTask(task);
+        node.shortest = 0;
+    }
+
+    /**
+     * Removes the task from the node of the word, pruning the nodes left without tasks below them
+     * and updating the shortest word below the nodes on the way back up.
+     */
+    private boolean remove(Node node, String word, int depth, Task task) {
+        if (depth == word.length()) {
+            node.removeTask(task);
+        } else {
+            Node child = node.getChild(word.charAt(depth));
+            if (child != null && remove(child, word, depth + 1, task)) {
+                node.removeChild(word.charAt(depth));
+            }
+        }
+        node.updateShortest();
+        return node.isEmpty();
+    }
+
+    @Override
+    public void onAdd(int position, Task task) {
+        String text = task.getDescription();
+        indexedText.put(task, text);
+        for (String word: getWords(text)) {
+            insert(word, task);
+        }
+    }
+
+    @Override
+    public void onRemove(int position, Task task) {
+        String text = indexedText.remove(task);
+        if (text == null) {
+            return;
+        }
+        for (String word: getWords(text)) {
+            remove(root, word, 0, task);
+        }
+    }
+
+    /**
+     * Re-indexes the task only if its description changed.
+     */
+    @Override
+    public void onUpdate(int position, Task task) {
+        String text = indexedText.get(task);
+        if (text == null || !text.equals(task.getDescription())) {
+            onRemove(position, task);
+            onAdd(position, task);
+        }
+    }
+
+    @Override
+    public void onClear() {
+        root.keys = new char[0];
+        root.children = new Node[0];
+        root.tasks = null;
+        root.shortest = Integer.MAX_VALUE;
+        indexedText.clear();
+    }
+}
@@ -0,0 +1,87 @@
+package snom.model.index;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.function.Function;
+
+import snom.model.task.Task;
+import snom.model.task.TaskWithDate;
+
+/**
+ * Keys a {@code SortedView} can order tasks by. Ties are broken by task id, ie. the order tasks were added.
+ */
+public enum SortKey {
+    /** Earliest date first, todos last. */
+    DATE("date", task -> task instanceof TaskWithDate
+            ? toDateValue(((TaskWithDate) task).getDateTime())
+            : Long.MAX_VALUE),
+    /** Description in alphabetical order, ignoring case. */
+    NAME("name", task -> task.getDescription().toLowerCase()),
+    /** Pending tasks first. */
+    STATUS("status", Task::hasFinished);
+
+    private final String displayName;
+    private final Function<Task, Comparable<?>> keyExtractor;
+
+    SortKey(String displayName, Function<Task, Comparable<?>> keyExtractor) {
+        this.displayName = displayName;
+        this.keyExtractor = keyExtractor;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Returns the current sort value of the given task.
+     * The value is a snapshot, so that a task can still be found in a view after it changes.
+     *
+     * @param task task to sort
+     * @return     sort value
+     */
+    public Comparable<?> getValue(Task task) {
+        return keyExtractor.apply(task);
+    }
+
+    /**
+     * Returns the sort value of the given date for {@code DATE}.
+     * Todos sort after every value returned here.
+     *
+     * @param dateTime date
+     * @return         sort value
+     */
+    public static long toDateValue(LocalDateTime dateTime) {
+        return Math.min(dateTime.toEpochSecond(ZoneOffset.UTC), Long.MAX_VALUE - 1);
+    }
+
+    /**
+     * Returns the key with the given name, ignoring case, or null if there is none.
+     * "description" is accepted for {@code NAME}.
+     *
+     * @param name name of key
+     * @return     sort key or null
+     */
+    public static SortKey fromName(String name) {
+        String lowerName = name.toLowerCase();
+        if (lowerName.equals("description")) {
+            return NAME;
+        }
+        for (SortKey key: values()) {
+            if (key.displayName.equals(lowerName)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the comparator of sort values of this key.
+     *
+     * @return comparator of values
+     */
+    @SuppressWarnings("unchecked")
+    static Comparator<Comparable<?>> valueOrder() {
+        return (a, b) -> ((Comparable<Object>) a).compareTo(b);
+    }
+}
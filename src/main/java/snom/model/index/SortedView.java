@@ -0,0 +1,133 @@
+package snom.model.index;
+
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import snom.model.task.Task;
+
+/**
+ * Keeps the tasks of a {@code TaskList} sorted by one {@code SortKey}.
+ * Each add, remove or update costs O(log n), so the sorted order is never recomputed from scratch.
+ */
+public class SortedView implements TaskIndex, Iterable<Task> {
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator
+            .comparing((Entry entry) -> entry.value, SortKey.valueOrder())
+            .thenComparingInt(entry -> entry.id)
+            .thenComparingInt(entry -> System.identityHashCode(entry.task));
+
+    private final SortKey key;
+    private final TreeSet<Entry> entries = new TreeSet<>(ENTRY_ORDER);
+    private final Map<Task, Entry> entryOfTask = new IdentityHashMap<>();
+
+    /**
+     * Position of a task in the view, with the sort value it had when it was inserted.
+     */
+    private static class Entry {
+        private final Comparable<?> value;
+        private final int id;
+        private final Task task;
+
+        Entry(Comparable<?> value, int id, Task task) {
+            this.value = value;
+            this.id = id;
+            this.task = task;
+        }
+    }
+
+    /**
+     * Constructs an empty {@code SortedView}
+     *
+     * @param key key to sort by
+     */
+    public SortedView(SortKey key) {
+        this.key = key;
+    }
+
+    public SortKey getKey() {
+        return key;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void onAdd(int position, Task task) {
+        Entry entry = new Entry(key.getValue(task), task.getId(), task);
+        entries.add(entry);
+        entryOfTask.put(task, entry);
+    }
+
+    @Override
+    public void onRemove(int position, Task task) {
+        Entry entry = entryOfTask.remove(task);
+        if (entry != null) {
+            entries.remove(entry);
+        }
+    }
+
+    @Override
+    public void beforeUpdate(int position, Task task) {
+        onRemove(position, task);
+    }
+
+    @Override
+    public void onUpdate(int position, Task task) {
+        onAdd(position, task);
+    }
+
+    @Override
+    public void onClear() {
+        entries.clear();
+        entryOfTask.clear();
+    }
+
+    /**
+     * Returns the tasks whose sort value is within [{@code from}, {@code to}], in sorted order.
+     * The returned collection is a live view backed by this view.
+     *
+     * @param from lowest sort value, as given by {@link SortKey#getValue(Task)}
+     * @param to   highest sort value
+     * @return     tasks in range
+     */
+    public Iterable<Task> between(Comparable<?> from, Comparable<?> to) {
+        Set<Entry> range = entries.subSet(new Entry(from, Integer.MIN_VALUE, null), true,
+                new Entry(to, Integer.MAX_VALUE, null), true);
+        return () -> new TaskIterator(range.iterator());
+    }
+
+    /**
+     * Returns an iterator over the tasks in sorted order.
+     *
+     * @return iterator of tasks
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return new TaskIterator(entries.iterator());
+    }
+
+    /**
+     * Iterates over the tasks of an iterator of entries.
+     */
+    private static class TaskIterator implements Iterator<Task> {
+        private final Iterator<Entry> entryIterator;
+
+        TaskIterator(Iterator<Entry> entryIterator) {
+            this.entryIterator = entryIterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return entryIterator.hasNext();
+        }
+
+        @Override
+        public Task next() {
+            return entryIterator.next().task;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package snom.model.index;
+
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+import snom.common.util.BitSetUtil;
+import snom.model.task.Task;
+import snom.model.task.TaskType;
+
+/**
+ * Keeps one positional bitmap per task status and per task type,
+ * plus a count for every (type, status) pair so filtered counts are O(1).
+ */
+public class StatusTypeIndex implements TaskIndex {
+    private final BitSet finished = new BitSet();
+    private final Map<TaskType, BitSet> byType = new EnumMap<>(TaskType.class);
+    private final int[][] counts = new int[TaskType.values().length][2];
+    private int size;
+
+    /**
+     * Constructs an empty {@code StatusTypeIndex}
+     */
+    public StatusTypeIndex() {
+        for (TaskType type: TaskType.values()) {
+            byType.put(type, new BitSet());
+        }
+    }
+
+    @Override
+    public void onAdd(int position, Task task) {
+        BitSetUtil.insert(finished, position, task.hasFinished());
+        for (Map.Entry<TaskType, BitSet> entry: byType.entrySet()) {
+            BitSetUtil.insert(entry.getValue(), position, entry.getKey() == task.getType());
+        }
+        counts[task.getType().ordinal()][statusSlot(task.hasFinished())]++;
+        size++;
+    }
+
+    @Override
+    public void onRemove(int position, Task task) {
+        boolean wasFinished = finished.get(position);
+        BitSetUtil.remove(finished, position);
+        for (BitSet bits: byType.values()) {
+            BitSetUtil.remove(bits, position);
+        }
+        counts[task.getType().ordinal()][statusSlot(wasFinished)]--;
+        size--;
+    }
+
+    @Override
+    public void onUpdate(int position, Task task) {
+        boolean wasFinished = finished.get(position);
+        if (wasFinished == task.hasFinished()) {
+            return;
+        }
+        finished.set(position, task.hasFinished());
+        counts[task.getType().ordinal()][statusSlot(wasFinished)]--;
+        counts[task.getType().ordinal()][statusSlot(task.hasFinished())]++;
+    }
+
+    @Override
+    public void onClear() {
+        finished.clear();
+        for (BitSet bits: byType.values()) {
+            bits.clear();
+        }
+        for (int[] typeCounts: counts) {
+            typeCounts[0] = 0;
+            typeCounts[1] = 0;
+        }
+        size = 0;
+    }
+
+    /**
+     * Returns the positions of tasks matching any of the given types and the given status.
+     *
+     * @param types      types to match, empty to match every type
+     * @param isFinished status to match, null to match every status
+     * @return           bitmap of matching positions
+     */
+    public BitSet select(Set<TaskType> types, Boolean isFinished) {
+        BitSet result = new BitSet(size);
+        if (types.isEmpty()) {
+            result.set(0, size);
+        } else {
+            for (TaskType type: types) {
+                result.or(byType.get(type));
+            }
+        }
+        if (isFinished == null) {
+            return result;
+        }
+        if (isFinished) {
+            result.and(finished);
+        } else {
+            result.andNot(finished);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of tasks matching any of the given types and the given status.
+     *
+     * @param types      types to match, empty to match every type
+     * @param isFinished status to match, null to match every status
+     * @return           number of matching tasks
+     */
+    public int count(Set<TaskType> types, Boolean isFinished) {
+        int total = 0;
+        for (TaskType type: TaskType.values()) {
+            if (!types.isEmpty() && !types.contains(type)) {
+                continue;
+            }
+            if (isFinished == null || isFinished) {
+                total += counts[type.ordinal()][statusSlot(true)];
+            }
+            if (isFinished == null || !isFinished) {
+                total += counts[type.ordinal()][statusSlot(false)];
+            }
+        }
+        return total;
+    }
+
+    private static int statusSlot(boolean isFinished) {
+        return isFinished ? 1 : 0;
+    }
+}
@@ -0,0 +1,134 @@
+package snom.model.index;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import snom.common.util.BitSetUtil;
+import snom.model.task.Task;
+
+/**
+ * Keeps a dictionary of the tags used in task descriptions and one positional bitmap per tag,
+ * so tag filters are answered with bitmap OR and AND instead of reading descriptions.
+ * Tags get an integer id the first time they are seen, which they keep while the index lives.
+ */
+public class TagIndex implements TaskIndex {
+    private final Map<String, Integer> tagIds = new HashMap<>();
+    private final List<String> tagNames = new ArrayList<>();
+    private final List<BitSet> tagPositions = new ArrayList<>();
+    private int size;
+
+    /**
+     * Returns the id of the given tag, adding it to the dictionary if it is new.
+     */
+    private int getOrCreateId(String tag) {
+        Integer id = tagIds.get(tag);
+        if (id == null) {
+            id = tagNames.size();
+            tagIds.put(tag, id);
+            tagNames.add(tag);
+            tagPositions.add(new BitSet());
+        }
+        return id;
+    }
+
+    /**
+     * Returns the id of the given tag.
+     *
+     * @param tag lowercased tag without the {@code #}
+     * @return    id of tag, or -1 if no task has ever used it
+     */
+    public int getTagId(String tag) {
+        Integer id = tagIds.get(tag);
+        return id == null ? -1 : id;
+    }
+
+    public String getTagName(int id) {
+        return tagNames.get(id);
+    }
+
+    public int getTagCount() {
+        return tagNames.size();
+    }
+
+    @Override
+    public void onAdd(int position, Task task) {
+        if (position < size) {
+            for (BitSet bits: tagPositions) {
+                if (position < bits.length()) {
+                    BitSetUtil.insert(bits, position, false);
+                }
+            }
+        }
+        size++;
+        for (String tag: task.getTags()) {
+            tagPositions.get(getOrCreateId(tag)).set(position);
+        }
+    }
+
+    @Override
+    public void onRemove(int position, Task task) {
+        for (BitSet bits: tagPositions) {
+            if (position < bits.length()) {
+                BitSetUtil.remove(bits, position);
+            }
+        }
+        size--;
+    }
+
+    @Override
+    public void beforeUpdate(int position, Task task) {
+        for (String tag: task.getTags()) {
+            tagPositions.get(tagIds.get(tag)).clear(position);
+        }
+    }
+
+    @Override
+    public void onUpdate(int position, Task task) {
+        for (String tag: task.getTags()) {
+            tagPositions.get(getOrCreateId(tag)).set(position);
+        }
+    }
+
+    @Override
+    public void onClear() {
+        for (BitSet bits: tagPositions) {
+            bits.clear();
+        }
+        size = 0;
+    }
+
+    /**
+     * Returns the positions of tasks having any of the given tags.
+     *
+     * @param tags lowercased tags without the {@code #}
+     * @return     bitmap of 0-based positions
+     */
+    public BitSet selectAny(Collection<String> tags) {
+        BitSet result = new BitSet();
+        for (String tag: tags) {
+            Integer id = tagIds.get(tag);
+            if (id != null) {
+                result.or(tagPositions.get(id));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of tasks having any of the given tags.
+     *
+     * @param tags lowercased tags without the {@code #}
+     * @return     number of tasks
+     */
+    public int countAny(Collection<String> tags) {
+        if (tags.size() == 1) {
+            Integer id = tagIds.get(tags.iterator().next());
+            return id == null ? 0 : tagPositions.get(id).cardinality();
+        }
+        return selectAny(tags).cardinality();
+    }
+}
@@ -0,0 +1,35 @@
+package snom.model.index;
+
+import snom.model.task.Task;
+
+/**
+ * Represents a secondary structure kept in step with a {@code TaskList}.
+ * Positions are 0-based and refer to the list at the moment of the call.
+ */
+public interface TaskIndex {
+    /**
+     * Called after a task is inserted at the given position.
+     */
+    void onAdd(int position, Task task);
+
+    /**
+     * Called after the task at the given position is removed.
+     */
+    void onRemove(int position, Task task);
+
+    /**
+     * Called before the task at the given position is changed in place.
+     */
+    default void beforeUpdate(int position, Task task) {
+    }
+
+    /**
+     * Called after the task at the given position is changed in place.
+     */
+    void onUpdate(int position, Task task);
+
+    /**
+     * Called after every task is removed from the list.
+     */
+    void onClear();
+}
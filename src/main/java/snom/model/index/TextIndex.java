@@ -0,0 +1,108 @@
+package snom.model.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import snom.model.task.Task;
+
+/**
+ * Trigram index of task descriptions, ignoring case.
+ * The tasks whose description contains a word of at least three letters are among the tasks
+ * holding every trigram of that word.
+ */
+public class TextIndex implements TaskIndex {
+    public static final int GRAM_LENGTH = 3;
+
+    private final Map<String, Set<Task>> postings = new HashMap<>();
+    private final Map<Task, String> indexedText = new IdentityHashMap<>();
+
+    /**
+     * Returns true if the given word is long enough to be looked up in the index.
+     *
+     * @param word word to look up
+     * @return     whether the word has a trigram
+     */
+    public static boolean isIndexable(String word) {
+        return word.length() >= GRAM_LENGTH;
+    }
+
+    /**
+     * Returns the distinct trigrams of the given lower case text.
+     *
+     * @param text text to split
+     * @return     trigrams in order of first appearance
+     */
+    public static Set<String> getGrams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    /**
+     * Returns the sets of tasks holding each trigram of the given word, smallest first.
+     * A trigram no task holds gives an empty set.
+     *
+     * @param word lower case word of at least three letters
+     * @return     task sets, one per trigram
+     */
+    public List<Set<Task>> getPostings(String word) {
+        List<Set<Task>> sets = new ArrayList<>();
+        for (String gram: getGrams(word)) {
+            sets.add(postings.getOrDefault(gram, Collections.emptySet()));
+        }
+        sets.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        return sets;
+    }
+
+    @Override
+    public void onAdd(int position, Task task) {
+        String text = task.getDescription().toLowerCase();
+        indexedText.put(task, text);
+        for (String gram: getGrams(text)) {
+            postings.computeIfAbsent(gram, k -> Collections.newSetFromMap(new IdentityHashMap<>())).add(task);
+        }
+    }
+
+    @Override
+    public void onRemove(int position, Task task) {
+        String text = indexedText.remove(task);
+        if (text == null) {
+            return;
+        }
+        for (String gram: getGrams(text)) {
+            Set<Task> tasks = postings.get(gram);
+            if (tasks != null) {
+                tasks.remove(task);
+                if (tasks.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Re-indexes the task only if its description changed.
+     */
+    @Override
+    public void onUpdate(int position, Task task) {
+        String text = indexedText.get(task);
+        if (text == null || !text.equals(task.getDescription().toLowerCase())) {
+            onRemove(position, task);
+            onAdd(position, task);
+        }
+    }
+
+    @Override
+    public void onClear() {
+        postings.clear();
+        indexedText.clear();
+    }
+}
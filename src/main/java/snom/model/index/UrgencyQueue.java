@@ -0,0 +1,261 @@
+package snom.model.index;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import snom.model.task.Task;
+import snom.model.task.TaskWithDate;
+
+/**
+ * Keeps the unfinished tasks in an indexed binary min-heap ordered by urgency, so the most urgent tasks
+ * are read without sorting the task list.
+ *
+ * <p>A task's urgency is the time it is due, brought forward by the lead of its priority. Overdue tasks are due
+ * in the past, so they come first. Todos have no date and come after every dated task, by priority.
+ * A recurring task is due at its next occurrence, which moves as time passes, so recurring tasks whose key has
+ * passed are re-keyed before each read. Every other key only changes when its task does.
+ */
+public class UrgencyQueue implements TaskIndex {
+    /** Key of an undated task without priority, later than any date. */
+    private static final long UNDATED = Long.MAX_VALUE / 2;
+
+    private final Clock clock;
+    private final Map<Task, Integer> heapPositions = new IdentityHashMap<>();
+    private final Set<Task> recurringTasks = Collections.newSetFromMap(new IdentityHashMap<>());
+    private Task[] heap = new Task[16];
+    private long[] keys = new long[16];
+    private int size;
+
+    /**
+     * Constructs an empty {@code UrgencyQueue} using the system clock.
+     */
+    public UrgencyQueue() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs an empty {@code UrgencyQueue}
+     *
+     * @param clock clock used to find the next occurrence of recurring tasks
+     */
+    public UrgencyQueue(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the urgency key of the given task in epoch seconds, smaller is more urgent.
+     *
+     * @param task task to rank
+     * @param now  current time, used for the next occurrence of recurring tasks
+     * @return     urgency key
+     */
+    public static long getKey(Task task, LocalDateTime now) {
+        long lead = task.getPriority().getLead().getSeconds();
+        if (!(task instanceof TaskWithDate)) {
+            return UNDATED - lead;
+        }
+        return getDueTime((TaskWithDate) task, now).toEpochSecond(ZoneOffset.UTC) - lead;
+    }
+
+    /**
+     * Returns when the given task is due: its next occurrence if it recurs and has one left, or else its date.
+     *
+     * @param task task with date
+     * @param now  current time
+     * @return     due time
+     */
+    public static LocalDateTime getDueTime(TaskWithDate task, LocalDateTime now) {
+        if (task.isRecurring()) {
+            LocalDateTime next = task.getNextOccurrence(now);
+            if (next != null) {
+                return next;
+            }
+        }
+        return task.getDateTime();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns up to {@code count} of the most urgent unfinished tasks, most urgent first.
+     * Only the top of the heap is visited, so this takes O(count log count) after recurring tasks are re-keyed.
+     *
+     * @param count maximum number of tasks
+     * @return      most urgent tasks
+     */
+    public List<Task> peek(int count) {
+        refreshRecurring();
+        List<Task> result = new ArrayList<>(Math.min(count, size));
+        PriorityQueue<Integer> frontier = new PriorityQueue<>(this::compare);
+        if (size > 0) {
+            frontier.add(0);
+        }
+        while (result.size() < count && !frontier.isEmpty()) {
+            int i = frontier.poll();
+            result.add(heap[i]);
+            if (2 * i + 1 < size) {
+                frontier.add(2 * i + 1);
+            }
+            if (2 * i + 2 < size) {
+                frontier.add(2 * i + 2);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Re-keys every recurring task whose next occurrence has passed.
+     */
+    private void refreshRecurring() {
+        if (recurringTasks.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        long nowSecond = now.toEpochSecond(ZoneOffset.UTC);
+        for (Task task: recurringTasks) {
+            int i = heapPositions.get(task);
+            if (keys[i] + task.getPriority().getLead().getSeconds() < nowSecond) {
+                changeKey(i, getKey(task, now));
+            }
+        }
+    }
+
+    @Override
+    public void onAdd(int position, Task task) {
+        if (!task.hasFinished()) {
+            insert(task);
+        }
+    }
+
+    @Override
+    public void onRemove(int position, Task task) {
+        remove(task);
+    }
+
+    @Override
+    public void onUpdate(int position, Task task) {
+        Integer i = heapPositions.get(task);
+        if (task.hasFinished()) {
+            remove(task);
+        } else if (i == null) {
+            insert(task);
+        } else {
+            trackRecurring(task);
+            changeKey(i, getKey(task, LocalDateTime.now(clock)));
+        }
+    }
+
+    @Override
+    public void onClear() {
+        heapPositions.clear();
+        recurringTasks.clear();
+        heap = new Task[16];
+        keys = new long[16];
+        size = 0;
+    }
+
+    private void trackRecurring(Task task) {
+        if (task instanceof TaskWithDate && ((TaskWithDate) task).isRecurring()) {
+            recurringTasks.add(task);
+        } else {
+            recurringTasks.remove(task);
+        }
+    }
+
+    private void insert(Task task) {
+        if (size == heap.length) {
+            int capacity = heap.length * 2;
+            heap = Arrays.copyOf(heap, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+        }
+        heap[size] = task;
+        keys[size] = getKey(task, LocalDateTime.now(clock));
+        heapPositions.put(task, size);
+        trackRecurring(task);
+        siftUp(size++);
+    }
+
+    private void remove(Task task) {
+        Integer i = heapPositions.remove(task);
+        if (i == null) {
+            return;
+        }
+        recurringTasks.remove(task);
+        size--;
+        if (i == size) {
+            heap[size] = null;
+            return;
+        }
+        heap[i] = heap[size];
+        keys[i] = keys[size];
+        heap[size] = null;
+        heapPositions.put(heap[i], i);
+        siftDown(siftUp(i));
+    }
+
+    private void changeKey(int i, long key) {
+        keys[i] = key;
+        siftDown(siftUp(i));
+    }
+
+    /**
+     * Compares the entries at two heap positions by key, then by task id so equal keys keep the order of adding.
+     */
+    private int compare(int a, int b) {
+        int byKey = Long.compare(keys[a], keys[b]);
+        return byKey != 0 ? byKey : Integer.compare(heap[a].getId(), heap[b].getId());
+    }
+
+    private int siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (compare(i, parent) >= 0) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+        return i;
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && compare(left, smallest) < 0) {
+                smallest = left;
+            }
+            if (right < size && compare(right, smallest) < 0) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        Task task = heap[a];
+        long key = keys[a];
+        heap[a] = heap[b];
+        keys[a] = keys[b];
+        heap[b] = task;
+        keys[b] = key;
+        heapPositions.put(heap[a], a);
+        heapPositions.put(heap[b], b);
+    }
+}
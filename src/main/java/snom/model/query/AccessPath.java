@@ -0,0 +1,59 @@
+package snom.model.query;
+
+import java.util.BitSet;
+
+import snom.model.task.Task;
+import snom.model.task.TaskList;
+
+/**
+ * Index based way to find the candidate tasks of a query, which are then checked against the whole query.
+ */
+public abstract class AccessPath {
+    private final String description;
+
+    /**
+     * Constructs an {@code AccessPath}
+     *
+     * @param description how the candidates are found, shown by {@code find explain}
+     */
+    protected AccessPath(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Returns the number of candidates this path gives, counting at most up to {@code cap}.
+     *
+     * @param cap count at which counting can stop
+     * @return    number of candidates, or at least {@code cap}
+     */
+    public abstract long estimate(long cap);
+
+    /**
+     * Returns the positions of the candidate tasks.
+     *
+     * @return bitmap of 0-based positions
+     */
+    public abstract BitSet getCandidates();
+
+    /**
+     * Returns the positions of the given tasks in the given list.
+     *
+     * @param taskList list holding the tasks
+     * @param tasks    tasks to find
+     * @return         bitmap of 0-based positions
+     */
+    protected static BitSet toPositions(TaskList taskList, Iterable<Task> tasks) {
+        BitSet positions = new BitSet(taskList.size());
+        for (Task task: tasks) {
+            int position = taskList.indexOfTask(task);
+            if (position >= 0) {
+                positions.set(position);
+            }
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,56 @@
+package snom.model.query;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import snom.model.task.Task;
+import snom.model.task.TaskList;
+
+/**
+ * Matches tasks matching every one of its predicates. With no predicates every task matches.
+ */
+public class AndPredicate implements TaskPredicate {
+    private final List<TaskPredicate> predicates;
+
+    public AndPredicate(List<TaskPredicate> predicates) {
+        this.predicates = predicates;
+    }
+
+    @Override
+    public boolean test(Task task) {
+        for (TaskPredicate predicate: predicates) {
+            if (!predicate.test(task)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the access path of the most selective predicate, ie. the one with the fewest candidates.
+     */
+    @Override
+    public AccessPath getAccessPath(TaskList taskList) {
+        AccessPath best = null;
+        long bestEstimate = Long.MAX_VALUE;
+        for (TaskPredicate predicate: predicates) {
+            AccessPath path = predicate.getAccessPath(taskList);
+            if (path == null) {
+                continue;
+            }
+            long estimate = path.estimate(bestEstimate);
+            if (estimate < bestEstimate) {
+                best = path;
+                bestEstimate = estimate;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public String toString() {
+        return predicates.stream()
+                .map(predicate -> predicate instanceof OrPredicate ? "(" + predicate + ")" : predicate.toString())
+                .collect(Collectors.joining(" AND "));
+    }
+}
@@ -0,0 +1,71 @@
+package snom.model.query;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.BitSet;
+
+import snom.model.index.SortKey;
+import snom.model.task.Task;
+import snom.model.task.TaskList;
+import snom.model.task.TaskWithDate;
+
+/**
+ * Matches deadlines and events dated before or after a day. Todos never match.
+ */
+public class DatePredicate implements TaskPredicate {
+    private final boolean isBefore;
+    private final LocalDate date;
+
+    /**
+     * Constructs a {@code DatePredicate}
+     *
+     * @param isBefore true to match tasks before the day, false to match tasks after it
+     * @param date     day to compare with, not included
+     */
+    public DatePredicate(boolean isBefore, LocalDate date) {
+        this.isBefore = isBefore;
+        this.date = date;
+    }
+
+    @Override
+    public boolean test(Task task) {
+        if (!(task instanceof TaskWithDate)) {
+            return false;
+        }
+        LocalDateTime dateTime = ((TaskWithDate) task).getDateTime();
+        return isBefore ? dateTime.isBefore(date.atStartOfDay()) : dateTime.isAfter(date.atTime(LocalTime.MAX));
+    }
+
+    /**
+     * Returns the range of the date sorted view of the task list.
+     */
+    @Override
+    public AccessPath getAccessPath(TaskList taskList) {
+        long from = isBefore ? Long.MIN_VALUE : SortKey.toDateValue(date.plusDays(1).atStartOfDay());
+        long to = isBefore ? SortKey.toDateValue(date.atStartOfDay()) - 1 : Long.MAX_VALUE - 1;
+        Iterable<Task> range = taskList.getSortedView(SortKey.DATE).between(from, to);
+        return new AccessPath("date view for " + this) {
+            @Override
+            public long estimate(long cap) {
+                long count = 0;
+                for (Task task: range) {
+                    if (++count >= cap) {
+                        break;
+                    }
+                }
+                return count;
+            }
+
+            @Override
+            public BitSet getCandidates() {
+                return toPositions(taskList, range);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return (isBefore ? "before:" : "after:") + date;
+    }
+}
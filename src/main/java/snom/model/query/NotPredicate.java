@@ -0,0 +1,26 @@
+package snom.model.query;
+
+import snom.model.task.Task;
+
+/**
+ * Matches tasks not matching its predicate. Has no access path, since it matches almost every task.
+ */
+public class NotPredicate implements TaskPredicate {
+    private final TaskPredicate predicate;
+
+    public NotPredicate(TaskPredicate predicate) {
+        this.predicate = predicate;
+    }
+
+    @Override
+    public boolean test(Task task) {
+        return !predicate.test(task);
+    }
+
+    @Override
+    public String toString() {
+        return "NOT " + (predicate instanceof AndPredicate || predicate instanceof OrPredicate
+                ? "(" + predicate + ")"
+                : predicate.toString());
+    }
+}
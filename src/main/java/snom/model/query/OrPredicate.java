@@ -0,0 +1,76 @@
+package snom.model.query;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import snom.model.task.Task;
+import snom.model.task.TaskList;
+
+/**
+ * Matches tasks matching any of its predicates.
+ */
+public class OrPredicate implements TaskPredicate {
+    private final List<TaskPredicate> predicates;
+
+    public OrPredicate(List<TaskPredicate> predicates) {
+        this.predicates = predicates;
+    }
+
+    @Override
+    public boolean test(Task task) {
+        for (TaskPredicate predicate: predicates) {
+            if (predicate.test(task)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the union of the access paths of every predicate, or null if one of them has none.
+     */
+    @Override
+    public AccessPath getAccessPath(TaskList taskList) {
+        List<AccessPath> paths = new ArrayList<>();
+        for (TaskPredicate predicate: predicates) {
+            AccessPath path = predicate.getAccessPath(taskList);
+            if (path == null) {
+                return null;
+            }
+            paths.add(path);
+        }
+        String description = "union of " + paths.stream()
+                .map(AccessPath::getDescription).collect(Collectors.joining(", "));
+        return new AccessPath(description) {
+            @Override
+            public long estimate(long cap) {
+                long total = 0;
+                for (AccessPath path: paths) {
+                    total += path.estimate(cap - total);
+                    if (total >= cap) {
+                        break;
+                    }
+                }
+                return total;
+            }
+
+            @Override
+            public BitSet getCandidates() {
+                BitSet candidates = new BitSet(taskList.size());
+                for (AccessPath path: paths) {
+                    candidates.or(path.getCandidates());
+                }
+                return candidates;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return predicates.stream()
+                .map(predicate -> predicate instanceof AndPredicate ? "(" + predicate + ")" : predicate.toString())
+                .collect(Collectors.joining(" OR "));
+    }
+}
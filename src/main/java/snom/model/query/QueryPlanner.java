@@ -0,0 +1,116 @@
+package snom.model.query;
+
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import snom.common.core.Settings;
+import snom.model.task.TaskList;
+
+/**
+ * Runs a query on a {@code TaskList}, using the most selective index the query allows.
+ * When more tasks have to be checked than the parallel threshold, the check is split across the common
+ * {@code ForkJoinPool}.
+ */
+public class QueryPlanner {
+    public static final String PLAN_FULL_SCAN = "full scan";
+    public static final String PLAN_PARALLEL = " (parallel, %1$d workers)";
+
+    private static final int MIN_CHUNK_SIZE = 1024;
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    /**
+     * Returns the positions of the tasks matching the given query, using the parallel threshold from
+     * {@code Settings}.
+     *
+     * @param query    parsed query
+     * @param taskList list to search
+     * @return         matching positions and the plan used
+     */
+    public static QueryResult run(TaskPredicate query, TaskList taskList) {
+        return run(query, taskList, Settings.getLong(Settings.KEY_QUERY_PARALLEL_THRESHOLD,
+                Settings.DEFAULT_QUERY_PARALLEL_THRESHOLD));
+    }
+
+    /**
+     * Returns the positions of the tasks matching the given query.
+     * If the query has an access path with fewer candidates than the list, only those candidates
+     * are checked against the query; otherwise every task is.
+     *
+     * @param query             parsed query
+     * @param taskList          list to search
+     * @param parallelThreshold number of candidates from which the check is run in parallel
+     * @return                  matching positions and the plan used
+     */
+    public static QueryResult run(TaskPredicate query, TaskList taskList, long parallelThreshold) {
+        AccessPath path = query.getAccessPath(taskList);
+        BitSet candidates;
+        String plan;
+        if (path != null && path.estimate(taskList.size()) < taskList.size()) {
+            candidates = path.getCandidates();
+            plan = path.getDescription();
+        } else {
+            candidates = new BitSet(taskList.size());
+            candidates.set(0, taskList.size());
+            plan = PLAN_FULL_SCAN;
+        }
+
+        int candidateCount = candidates.cardinality();
+        BitSet matches;
+        if (candidateCount >= parallelThreshold) {
+            ForkJoinPool pool = ForkJoinPool.commonPool();
+            int chunkSize = Math.max(MIN_CHUNK_SIZE,
+                    taskList.size() / (pool.getParallelism() * CHUNKS_PER_WORKER) + 1);
+            matches = pool.invoke(new ScanTask(query, taskList, candidates, 0, taskList.size(), chunkSize));
+            plan += String.format(PLAN_PARALLEL, pool.getParallelism());
+        } else {
+            matches = scan(query, taskList, candidates, 0, taskList.size());
+        }
+        return new QueryResult(matches, plan, candidateCount);
+    }
+
+    private static BitSet scan(TaskPredicate query, TaskList taskList, BitSet candidates, int from, int to) {
+        BitSet matches = new BitSet(to);
+        for (int i = candidates.nextSetBit(from); i >= 0 && i < to; i = candidates.nextSetBit(i + 1)) {
+            if (query.test(taskList.get(i))) {
+                matches.set(i);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Checks the candidates in a range of positions, splitting the range in half until it is small enough.
+     * Matches are kept by position, so merging the halves keeps the original order.
+     */
+    private static class ScanTask extends RecursiveTask<BitSet> {
+        private final TaskPredicate query;
+        private final TaskList taskList;
+        private final BitSet candidates;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        ScanTask(TaskPredicate query, TaskList taskList, BitSet candidates, int from, int to, int chunkSize) {
+            this.query = query;
+            this.taskList = taskList;
+            this.candidates = candidates;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected BitSet compute() {
+            if (to - from <= chunkSize) {
+                return scan(query, taskList, candidates, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask left = new ScanTask(query, taskList, candidates, from, middle, chunkSize);
+            left.fork();
+            BitSet matches = new ScanTask(query, taskList, candidates, middle, to, chunkSize).compute();
+            matches.or(left.join());
+            return matches;
+        }
+    }
+}
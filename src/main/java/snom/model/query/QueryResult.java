@@ -0,0 +1,41 @@
+package snom.model.query;
+
+import java.util.BitSet;
+
+/**
+ * Matching positions of a query, with how they were found.
+ */
+public class QueryResult {
+    private final BitSet positions;
+    private final String plan;
+    private final int candidateCount;
+
+    /**
+     * Constructs a {@code QueryResult}
+     *
+     * @param positions      0-based positions of matching tasks
+     * @param plan           description of the access path used
+     * @param candidateCount number of tasks checked against the query
+     */
+    public QueryResult(BitSet positions, String plan, int candidateCount) {
+        this.positions = positions;
+        this.plan = plan;
+        this.candidateCount = candidateCount;
+    }
+
+    public BitSet getPositions() {
+        return positions;
+    }
+
+    public int getMatchCount() {
+        return positions.cardinality();
+    }
+
+    public String getPlan() {
+        return plan;
+    }
+
+    public int getCandidateCount() {
+        return candidateCount;
+    }
+}
@@ -0,0 +1,47 @@
+package snom.model.query;
+
+import java.util.BitSet;
+import java.util.EnumSet;
+
+import snom.model.task.Task;
+import snom.model.task.TaskList;
+import snom.model.task.TaskType;
+
+/**
+ * Matches finished or unfinished tasks.
+ */
+public class StatusPredicate implements TaskPredicate {
+    private final boolean isFinished;
+
+    public StatusPredicate(boolean isFinished) {
+        this.isFinished = isFinished;
+    }
+
+    @Override
+    public boolean test(Task task) {
+        return task.hasFinished() == isFinished;
+    }
+
+    /**
+     * Returns the status bitmap of the task list.
+     */
+    @Override
+    public AccessPath getAccessPath(TaskList taskList) {
+        return new AccessPath("status bitmap for " + this) {
+            @Override
+            public long estimate(long cap) {
+                return taskList.count(EnumSet.noneOf(TaskType.class), isFinished);
+            }
+
+            @Override
+            public BitSet getCandidates() {
+                return taskList.select(EnumSet.noneOf(TaskType.class), isFinished);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "done:" + isFinished;
+    }
+}
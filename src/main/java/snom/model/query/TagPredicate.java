@@ -0,0 +1,56 @@
+package snom.model.query;
+
+import java.util.BitSet;
+import java.util.List;
+
+import snom.model.task.Task;
+import snom.model.task.TaskList;
+
+/**
+ * Matches tasks having any of the given tags.
+ */
+public class TagPredicate implements TaskPredicate {
+    private final List<String> tags;
+
+    /**
+     * Constructs a {@code TagPredicate}
+     *
+     * @param tags lowercased tags without the {@code #}, a task matches if it has any of them
+     */
+    public TagPredicate(List<String> tags) {
+        this.tags = tags;
+    }
+
+    @Override
+    public boolean test(Task task) {
+        for (String tag: tags) {
+            if (task.hasTag(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the union of the tag bitmaps of the task list.
+     */
+    @Override
+    public AccessPath getAccessPath(TaskList taskList) {
+        return new AccessPath("tag bitmap for " + this) {
+            @Override
+            public long estimate(long cap) {
+                return taskList.getTagIndex().countAny(tags);
+            }
+
+            @Override
+            public BitSet getCandidates() {
+                return taskList.getTagIndex().selectAny(tags);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "#" + String.join("|#", tags);
+    }
+}
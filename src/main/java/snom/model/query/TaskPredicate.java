@@ -0,0 +1,27 @@
+package snom.model.query;
+
+import snom.model.task.Task;
+import snom.model.task.TaskList;
+
+/**
+ * Node of a parsed query, deciding whether a task matches.
+ */
+public interface TaskPredicate {
+    /**
+     * Returns true if the given task matches this predicate.
+     *
+     * @param task task to check
+     * @return     whether the task matches
+     */
+    boolean test(Task task);
+
+    /**
+     * Returns an index based way to find a superset of the matching tasks, or null if every task has to be checked.
+     *
+     * @param taskList list to search
+     * @return         access path or null
+     */
+    default AccessPath getAccessPath(TaskList taskList) {
+        return null;
+    }
+}
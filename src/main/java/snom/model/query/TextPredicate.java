@@ -0,0 +1,74 @@
+package snom.model.query;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+import snom.model.index.TextIndex;
+import snom.model.task.Task;
+import snom.model.task.TaskList;
+
+/**
+ * Matches tasks whose description contains a word or phrase, ignoring case.
+ */
+public class TextPredicate implements TaskPredicate {
+    private final String text;
+
+    /**
+     * Constructs a {@code TextPredicate}
+     *
+     * @param text word or phrase to look for
+     */
+    public TextPredicate(String text) {
+        this.text = text.toLowerCase();
+    }
+
+    @Override
+    public boolean test(Task task) {
+        return task.getDescription().toLowerCase().contains(text);
+    }
+
+    /**
+     * Returns the intersection of the tasks holding each trigram of the text,
+     * or null if the text is shorter than a trigram.
+     */
+    @Override
+    public AccessPath getAccessPath(TaskList taskList) {
+        if (!TextIndex.isIndexable(text)) {
+            return null;
+        }
+        List<Set<Task>> postings = taskList.getTextIndex().getPostings(text);
+        return new AccessPath("text index for \"" + text + "\"") {
+            @Override
+            public long estimate(long cap) {
+                return postings.get(0).size();
+            }
+
+            @Override
+            public BitSet getCandidates() {
+                List<Task> candidates = new ArrayList<>();
+                for (Task task: postings.get(0)) {
+                    if (isInAll(task)) {
+                        candidates.add(task);
+                    }
+                }
+                return toPositions(taskList, candidates);
+            }
+
+            private boolean isInAll(Task task) {
+                for (int i = 1; i < postings.size(); i++) {
+                    if (!postings.get(i).contains(task)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "\"" + text + "\"";
+    }
+}
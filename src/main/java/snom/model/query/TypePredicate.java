@@ -0,0 +1,47 @@
+package snom.model.query;
+
+import java.util.BitSet;
+import java.util.EnumSet;
+
+import snom.model.task.Task;
+import snom.model.task.TaskList;
+import snom.model.task.TaskType;
+
+/**
+ * Matches tasks of one type.
+ */
+public class TypePredicate implements TaskPredicate {
+    private final TaskType type;
+
+    public TypePredicate(TaskType type) {
+        this.type = type;
+    }
+
+    @Override
+    public boolean test(Task task) {
+        return task.getType() == type;
+    }
+
+    /**
+     * Returns the type bitmap of the task list.
+     */
+    @Override
+    public AccessPath getAccessPath(TaskList taskList) {
+        return new AccessPath("type bitmap for " + this) {
+            @Override
+            public long estimate(long cap) {
+                return taskList.count(EnumSet.of(type), null);
+            }
+
+            @Override
+            public BitSet getCandidates() {
+                return taskList.select(EnumSet.of(type), null);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "type:" + type.getDisplayName();
+    }
+}
@@ -0,0 +1,53 @@
+package snom.model.reminder;
+
+import java.time.LocalDateTime;
+
+import snom.model.task.TaskWithDate;
+
+/**
+ * Represents a pending alert for a {@code TaskWithDate}.
+ */
+public class Reminder implements Comparable<Reminder> {
+    private final TaskWithDate task;
+    private final LocalDateTime dueAt;
+    private final LocalDateTime remindAt;
+    private boolean isCancelled;
+
+    /**
+     * Constructs a {@code Reminder}
+     *
+     * @param task     task to remind about
+     * @param dueAt    date time the task is due or starts
+     * @param remindAt date time the reminder should fire
+     */
+    public Reminder(TaskWithDate task, LocalDateTime dueAt, LocalDateTime remindAt) {
+        this.task = task;
+        this.dueAt = dueAt;
+        this.remindAt = remindAt;
+    }
+
+    public TaskWithDate getTask() {
+        return task;
+    }
+
+    public LocalDateTime getDueAt() {
+        return dueAt;
+    }
+
+    public LocalDateTime getRemindAt() {
+        return remindAt;
+    }
+
+    boolean isCancelled() {
+        return isCancelled;
+    }
+
+    void cancel() {
+        isCancelled = true;
+    }
+
+    @Override
+    public int compareTo(Reminder other) {
+        return remindAt.compareTo(other.remindAt);
+    }
+}
@@ -0,0 +1,9 @@
+package snom.model.reminder;
+
+/**
+ * Receives reminders fired by {@code ReminderScheduler}.
+ * Called from the scheduler thread, so implementations must hand work over to their own thread if needed.
+ */
+public interface ReminderListener {
+    void onReminder(Reminder reminder);
+}
@@ -0,0 +1,271 @@
+package snom.model.reminder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import snom.model.index.TaskIndex;
+import snom.model.task.Task;
+import snom.model.task.TaskType;
+import snom.model.task.TaskWithDate;
+
+/**
+ * Fires a {@code Reminder} when a deadline is approaching or an event is about to start.
+ * Reminders are kept in a min-heap ordered by fire time, and the scheduler thread sleeps
+ * until the earliest one is due instead of polling the task list.
+ */
+public class ReminderScheduler implements TaskIndex {
+    private final PriorityQueue<Reminder> queue = new PriorityQueue<>();
+    private final Map<Task, Reminder> pending = new IdentityHashMap<>();
+    private final Map<TaskType, Duration> leadTimes = new EnumMap<>(TaskType.class);
+    private final List<ReminderListener> listeners = new CopyOnWriteArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition headChanged = lock.newCondition();
+    private final Clock clock;
+    private Thread thread;
+    private volatile boolean isRunning;
+
+    /**
+     * Constructs a {@code ReminderScheduler}
+     *
+     * @param deadlineLead how long before a deadline to fire
+     * @param eventLead    how long before an event to fire
+     */
+    public ReminderScheduler(Duration deadlineLead, Duration eventLead) {
+        this(deadlineLead, eventLead, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs a {@code ReminderScheduler} with the given clock
+     *
+     * @param deadlineLead how long before a deadline to fire
+     * @param eventLead    how long before an event to fire
+     * @param clock        clock used to read current time
+     */
+    public ReminderScheduler(Duration deadlineLead, Duration eventLead, Clock clock) {
+        this.leadTimes.put(TaskType.DEADLINE, deadlineLead);
+        this.leadTimes.put(TaskType.EVENT, eventLead);
+        this.clock = clock;
+    }
+
+    public void addListener(ReminderListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ReminderListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Changes how long before a task of the given type the reminder fires,
+     * and reschedules every pending reminder of that type.
+     *
+     * @param type     DEADLINE or EVENT
+     * @param leadTime new lead time
+     */
+    public void setLeadTime(TaskType type, Duration leadTime) {
+        lock.lock();
+        try {
+            leadTimes.put(type, leadTime);
+            for (Reminder reminder: new ArrayList<>(pending.values())) {
+                if (reminder.getTask().getType() == type) {
+                    schedule(reminder.getTask());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Duration getLeadTime(TaskType type) {
+        return leadTimes.get(type);
+    }
+
+    /**
+     * Returns the number of reminders waiting to fire.
+     *
+     * @return number of pending reminders
+     */
+    public int getPendingCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Starts the scheduler thread.
+     */
+    public void start() {
+        if (isRunning) {
+            return;
+        }
+        isRunning = true;
+        thread = new Thread(this::run, "snom-reminder");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the scheduler thread.
+     */
+    public void stop() {
+        isRunning = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public void onAdd(int position, Task task) {
+        if (task instanceof TaskWithDate) {
+            withLock(() -> schedule((TaskWithDate) task));
+        }
+    }
+
+    @Override
+    public void onRemove(int position, Task task) {
+        withLock(() -> cancel(task));
+    }
+
+    @Override
+    public void onUpdate(int position, Task task) {
+        if (task instanceof TaskWithDate) {
+            withLock(() -> schedule((TaskWithDate) task));
+        }
+    }
+
+    @Override
+    public void onClear() {
+        withLock(() -> {
+            pending.clear();
+            queue.clear();
+        });
+    }
+
+    private void withLock(Runnable action) {
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replaces any pending reminder of the task with one for its next occurrence.
+     * Finished tasks and tasks already past are not scheduled.
+     */
+    private void schedule(TaskWithDate task) {
+        scheduleAfter(task, LocalDateTime.now(clock));
+    }
+
+    /**
+     * Replaces any pending reminder of the task with one for its first occurrence at or after the given time.
+     */
+    private void scheduleAfter(TaskWithDate task, LocalDateTime after) {
+        cancel(task);
+        if (task.hasFinished()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime dueAt = task.getNextOccurrence(after.isBefore(now) ? now : after);
+        if (dueAt == null) {
+            return;
+        }
+        LocalDateTime remindAt = dueAt.minus(leadTimes.get(task.getType()));
+        Reminder reminder = new Reminder(task, dueAt, remindAt.isBefore(now) ? now : remindAt);
+        pending.put(task, reminder);
+        queue.add(reminder);
+        if (queue.peek() == reminder) {
+            headChanged.signal();
+        }
+    }
+
+    /**
+     * Marks the pending reminder of the task as cancelled, it is dropped when it reaches the head of the heap.
+     */
+    private void cancel(Task task) {
+        Reminder reminder = pending.remove(task);
+        if (reminder == null) {
+            return;
+        }
+        reminder.cancel();
+        if (queue.size() > 2 * pending.size() + 64) {
+            queue.removeIf(Reminder::isCancelled);
+        }
+    }
+
+    private void run() {
+        while (isRunning) {
+            Reminder reminder;
+            lock.lock();
+            try {
+                reminder = awaitDueReminder();
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+            if (reminder != null) {
+                for (ReminderListener listener: listeners) {
+                    listener.onReminder(reminder);
+                }
+                withLock(() -> afterFired(reminder));
+            }
+        }
+    }
+
+    /**
+     * Drops a fired reminder and schedules the following occurrence of a recurring task,
+     * unless the task was changed or removed while listeners were running.
+     * Must be called while holding the lock.
+     */
+    private void afterFired(Reminder fired) {
+        TaskWithDate task = fired.getTask();
+        if (pending.get(task) != fired) {
+            return;
+        }
+        pending.remove(task);
+        if (task.isRecurring()) {
+            scheduleAfter(task, fired.getDueAt().plusSeconds(1));
+        }
+    }
+
+    /**
+     * Blocks until the earliest reminder is due and removes it from the heap.
+     * The reminder stays pending until {@link #afterFired(Reminder)} runs.
+     * Must be called while holding the lock.
+     */
+    private Reminder awaitDueReminder() throws InterruptedException {
+        while (isRunning) {
+            Reminder head = queue.peek();
+            if (head == null) {
+                headChanged.await();
+                continue;
+            }
+            if (head.isCancelled()) {
+                queue.poll();
+                continue;
+            }
+            long waitMillis = Duration.between(LocalDateTime.now(clock), head.getRemindAt()).toMillis();
+            if (waitMillis <= 0) {
+                return queue.poll();
+            }
+            headChanged.await(waitMillis, TimeUnit.MILLISECONDS);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,67 @@
+package snom.model.statistics;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Counts the tasks finished on each day, so completion trends are read without the finished tasks themselves,
+ * which may have been deleted or archived since.
+ */
+public class CompletionHistory {
+    private final TreeMap<LocalDate, Integer> completions = new TreeMap<>();
+    private boolean isDirty;
+
+    /**
+     * Counts one task finished on the given day.
+     *
+     * @param date day the task was finished
+     */
+    public void record(LocalDate date) {
+        completions.merge(date, 1, Integer::sum);
+        isDirty = true;
+    }
+
+    /**
+     * Sets the count of a day, as read from the disk. The history is not marked as changed.
+     *
+     * @param date  day
+     * @param count number of tasks finished that day
+     */
+    public void put(LocalDate date, int count) {
+        completions.put(date, count);
+    }
+
+    /**
+     * Returns the number of tasks finished within [from, to].
+     *
+     * @param from first day, inclusive
+     * @param to   last day, inclusive
+     * @return     number of tasks finished
+     */
+    public int count(LocalDate from, LocalDate to) {
+        int count = 0;
+        for (int completed: completions.subMap(from, true, to, true).values()) {
+            count += completed;
+        }
+        return count;
+    }
+
+    public NavigableMap<LocalDate, Integer> getCompletions() {
+        return Collections.unmodifiableNavigableMap(completions);
+    }
+
+    /**
+     * Returns whether a task was finished since the history was last saved.
+     *
+     * @return whether there are unsaved counts
+     */
+    public boolean isDirty() {
+        return isDirty;
+    }
+
+    public void markSaved() {
+        isDirty = false;
+    }
+}
@@ -0,0 +1,169 @@
+package snom.model.statistics;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+import snom.model.index.TaskIndex;
+import snom.model.index.UrgencyQueue;
+import snom.model.task.Task;
+import snom.model.task.TaskWithDate;
+
+/**
+ * Counts the unfinished tasks that are overdue and the ones due this week, kept in step with the task list.
+ *
+ * <p>Due times of unfinished dated tasks are counted in a sorted map, together with two cursors: the time of
+ * the last read, and the end of that week. Each cursor carries the number of due times before it, which a change
+ * to a task adjusts in O(log n). A read moves the cursors to the current time, only visiting the due times passed
+ * since the last read. Recurring tasks are due at their next occurrence, which moves with time, so they are kept
+ * apart and checked on each read; a task list usually has few of them.
+ */
+public class TaskStatistics implements TaskIndex {
+    private final Clock clock;
+    private final TreeMap<Long, Integer> dueTimes = new TreeMap<>();
+    private final Set<TaskWithDate> recurringTasks = Collections.newSetFromMap(new IdentityHashMap<>());
+    private long now = Long.MIN_VALUE;
+    private long weekEnd = Long.MIN_VALUE;
+    private int dueBeforeNow;
+    private int dueBeforeWeekEnd;
+
+    /**
+     * Constructs an empty {@code TaskStatistics} using the system clock.
+     */
+    public TaskStatistics() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs an empty {@code TaskStatistics}
+     *
+     * @param clock clock deciding what is overdue and which week it is
+     */
+    public TaskStatistics(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the number of unfinished deadlines and events whose due time has passed.
+     *
+     * @return number of overdue tasks
+     */
+    public int getOverdueCount() {
+        LocalDateTime current = refresh();
+        int count = dueBeforeNow;
+        for (TaskWithDate task: recurringTasks) {
+            if (UrgencyQueue.getDueTime(task, current).isBefore(current)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of unfinished deadlines and events due from now until the end of Sunday.
+     *
+     * @return number of tasks due this week
+     */
+    public int getDueThisWeekCount() {
+        LocalDateTime current = refresh();
+        int count = dueBeforeWeekEnd - dueBeforeNow;
+        for (TaskWithDate task: recurringTasks) {
+            long due = toSecond(UrgencyQueue.getDueTime(task, current));
+            if (due >= now && due < weekEnd) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Moves both cursors to the current time and returns it.
+     */
+    private LocalDateTime refresh() {
+        LocalDateTime current = LocalDateTime.now(clock);
+        LocalDateTime nextMonday = current.toLocalDate().with(TemporalAdjusters.next(DayOfWeek.MONDAY))
+                .atStartOfDay();
+        dueBeforeNow = move(now, toSecond(current), dueBeforeNow);
+        now = toSecond(current);
+        dueBeforeWeekEnd = move(weekEnd, toSecond(nextMonday), dueBeforeWeekEnd);
+        weekEnd = toSecond(nextMonday);
+        return current;
+    }
+
+    /**
+     * Returns the number of due times before {@code to}, given the number before {@code from}.
+     */
+    private int move(long from, long to, int count) {
+        if (to > from) {
+            for (int due: dueTimes.subMap(from, true, to, false).values()) {
+                count += due;
+            }
+        } else if (to < from) {
+            for (int due: dueTimes.subMap(to, true, from, false).values()) {
+                count -= due;
+            }
+        }
+        return count;
+    }
+
+    private static long toSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private void count(Task task, int delta) {
+        if (task.hasFinished() || !(task instanceof TaskWithDate)) {
+            return;
+        }
+        TaskWithDate taskWithDate = (TaskWithDate) task;
+        if (taskWithDate.isRecurring()) {
+            if (delta > 0) {
+                recurringTasks.add(taskWithDate);
+            } else {
+                recurringTasks.remove(taskWithDate);
+            }
+            return;
+        }
+        long due = toSecond(taskWithDate.getDateTime());
+        dueTimes.merge(due, delta, (count, change) -> count + change == 0 ? null : count + change);
+        if (due < now) {
+            dueBeforeNow += delta;
+        }
+        if (due < weekEnd) {
+            dueBeforeWeekEnd += delta;
+        }
+    }
+
+    @Override
+    public void onAdd(int position, Task task) {
+        count(task, 1);
+    }
+
+    @Override
+    public void onRemove(int position, Task task) {
+        count(task, -1);
+    }
+
+    @Override
+    public void beforeUpdate(int position, Task task) {
+        count(task, -1);
+    }
+
+    @Override
+    public void onUpdate(int position, Task task) {
+        count(task, 1);
+    }
+
+    @Override
+    public void onClear() {
+        dueTimes.clear();
+        recurringTasks.clear();
+        dueBeforeNow = 0;
+        dueBeforeWeekEnd = 0;
+    }
+}
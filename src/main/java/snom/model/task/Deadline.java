@@ -1,5 +1,7 @@
 package snom.model.task;
 
+import java.time.LocalDateTime;
+
 import snom.common.exceptions.SnomException;
 
 /**
@@ -10,13 +12,22 @@ public class Deadline extends TaskWithDate {
         super(description, dateTime);
     }
 
+    public Deadline(String description, LocalDateTime dateTime) {
+        super(description, dateTime);
+    }
+
+    @Override
+    public TaskType getType() {
+        return TaskType.DEADLINE;
+    }
+
     @Override
-    public String getSaveString() {
-        return "D," + super.getSaveString();
+    protected String renderSaveString() {
+        return "D," + super.renderSaveString();
     }
 
     @Override
-    public String toString() {
-        return "[D]" + super.toString() + "(by: " + getDateTimeString() + ")";
+    protected String renderString() {
+        return "[D]" + super.renderString() + "(by: " + getDateTimeString() + getRecurrenceString() + ")";
     }
 }
@@ -1,5 +1,7 @@
 package snom.model.task;
 
+import java.time.LocalDateTime;
+
 import snom.common.exceptions.SnomException;
 
 /**
@@ -10,13 +12,22 @@ public class Event extends TaskWithDate {
         super(description, dateTime);
     }
 
+    public Event(String description, LocalDateTime dateTime) {
+        super(description, dateTime);
+    }
+
+    @Override
+    public TaskType getType() {
+        return TaskType.EVENT;
+    }
+
     @Override
-    public String getSaveString() {
-        return "E," + super.getSaveString();
+    protected String renderSaveString() {
+        return "E," + super.renderSaveString();
     }
 
     @Override
-    public String toString() {
-        return "[E]" + super.toString() + "(at: " + getDateTimeString() + ")";
+    protected String renderString() {
+        return "[E]" + super.renderString() + "(at: " + getDateTimeString() + getRecurrenceString() + ")";
     }
 }
@@ -0,0 +1,43 @@
+package snom.model.task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents one occurrence of a {@code TaskWithDate} together with the task's position in its list.
+ */
+public class Occurrence implements Comparable<Occurrence> {
+    private final int position;
+    private final TaskWithDate task;
+    private final LocalDateTime dateTime;
+
+    /**
+     * Constructs an {@code Occurrence}
+     *
+     * @param position 0-based position of task in its list
+     * @param task     task that occurs
+     * @param dateTime date time of this occurrence
+     */
+    public Occurrence(int position, TaskWithDate task, LocalDateTime dateTime) {
+        this.position = position;
+        this.task = task;
+        this.dateTime = dateTime;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public TaskWithDate getTask() {
+        return task;
+    }
+
+    public LocalDateTime getDateTime() {
+        return dateTime;
+    }
+
+    @Override
+    public int compareTo(Occurrence other) {
+        int byDate = dateTime.compareTo(other.dateTime);
+        return byDate != 0 ? byDate : Integer.compare(position, other.position);
+    }
+}
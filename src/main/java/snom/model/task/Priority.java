@@ -0,0 +1,56 @@
+package snom.model.task;
+
+import java.time.Duration;
+
+/**
+ * Represents how important a {@code Task} is. A higher priority ranks a task as if it were due earlier.
+ */
+public enum Priority {
+    NONE("none", "", Duration.ZERO),
+    LOW("low", "!", Duration.ofDays(1)),
+    MEDIUM("medium", "!!", Duration.ofDays(3)),
+    HIGH("high", "!!!", Duration.ofDays(7));
+
+    private final String displayName;
+    private final String symbol;
+    private final Duration lead;
+
+    Priority(String displayName, String symbol, Duration lead) {
+        this.displayName = displayName;
+        this.symbol = symbol;
+        this.lead = lead;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Returns how much earlier than its date a task of this priority is ranked.
+     *
+     * @return lead time
+     */
+    public Duration getLead() {
+        return lead;
+    }
+
+    /**
+     * Returns the {@code Priority} matching the given name or symbol, or null if none matches.
+     *
+     * @param name name of priority, eg. "high", "h" or "!!!"
+     * @return     matching priority or null
+     */
+    public static Priority fromName(String name) {
+        for (Priority priority: Priority.values()) {
+            if (name.equalsIgnoreCase(priority.displayName) || name.equals(priority.symbol)
+                    || name.equalsIgnoreCase(priority.displayName.substring(0, 1))) {
+                return priority;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,250 @@
+package snom.model.task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+
+import snom.common.core.Messages;
+import snom.common.exceptions.SnomException;
+
+/**
+ * Stores a recurrence rule of a {@code TaskWithDate}, eg. "every 2 weeks until 2022-12-31".
+ * Only the rule and the skipped dates are stored, occurrences are generated lazily.
+ */
+public class Recurrence {
+    private static final String SAVE_DELIM = ":";
+    private static final String EXCEPTION_DELIM = ";";
+
+    private final ChronoUnit unit;
+    private final int interval;
+    private final LocalDate until;
+    private final TreeSet<LocalDate> exceptions = new TreeSet<>();
+
+    /**
+     * Constructs a {@code Recurrence}
+     *
+     * @param unit     unit of repetition, one of DAYS, WEEKS, MONTHS, YEARS
+     * @param interval number of units between occurrences
+     * @param until    last date an occurrence may fall on, null if endless
+     */
+    public Recurrence(ChronoUnit unit, int interval, LocalDate until) {
+        this.unit = unit;
+        this.interval = interval;
+        this.until = until;
+    }
+
+    /**
+     * Returns a {@code Recurrence} parsed from user input such as "week", "2 days" or "month until 2022-12-31".
+     *
+     * @param rule           recurrence rule after "/every"
+     * @return               parsed recurrence
+     * @throws SnomException if the rule is invalid
+     */
+    public static Recurrence parse(String rule) throws SnomException {
+        String[] words = rule.trim().toLowerCase().split("\\s+");
+        int i = 0;
+        int interval = 1;
+        try {
+            if (words.length > 1 && Character.isDigit(words[0].charAt(0))) {
+                interval = Integer.parseInt(words[i++]);
+            }
+            if (interval < 1 || i >= words.length) {
+                throw new SnomException(Messages.ERROR_INVALID_RECURRENCE);
+            }
+            ChronoUnit unit = parseUnit(words[i++]);
+            LocalDate until = null;
+            if (i < words.length) {
+                if (!words[i].equals("until") || i + 2 != words.length) {
+                    throw new SnomException(Messages.ERROR_INVALID_RECURRENCE);
+                }
+                until = LocalDate.parse(words[i + 1]);
+            }
+            return new Recurrence(unit, interval, until);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new SnomException(Messages.ERROR_INVALID_RECURRENCE);
+        }
+    }
+
+    private static ChronoUnit parseUnit(String word) throws SnomException {
+        switch (word) {
+        case "day":
+        case "days":
+            return ChronoUnit.DAYS;
+        case "week":
+        case "weeks":
+            return ChronoUnit.WEEKS;
+        case "month":
+        case "months":
+            return ChronoUnit.MONTHS;
+        case "year":
+        case "years":
+            return ChronoUnit.YEARS;
+        default:
+            throw new SnomException(Messages.ERROR_INVALID_RECURRENCE);
+        }
+    }
+
+    /**
+     * Returns a {@code Recurrence} from its save string, eg. "WEEKS:2:2022-12-31:2022-01-04;2022-01-18".
+     *
+     * @param saveString     save string produced by {@link #getSaveString()}
+     * @return               recurrence
+     * @throws SnomException if the save string is malformed
+     */
+    public static Recurrence fromSaveString(String saveString) throws SnomException {
+        String[] attr = saveString.trim().split(SAVE_DELIM, -1);
+        try {
+            Recurrence recurrence = new Recurrence(ChronoUnit.valueOf(attr[0]), Integer.parseInt(attr[1]),
+                    attr[2].isEmpty() ? null : LocalDate.parse(attr[2]));
+            if (attr.length > 3 && !attr[3].isEmpty()) {
+                for (String date: attr[3].split(EXCEPTION_DELIM)) {
+                    recurrence.addException(LocalDate.parse(date));
+                }
+            }
+            return recurrence;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new SnomException(Messages.ERROR_INVALID_RECURRENCE);
+        }
+    }
+
+    /**
+     * Returns a string for saving purposes
+     *
+     * @return formatted string
+     */
+    public String getSaveString() {
+        StringBuilder save = new StringBuilder(unit.name()).append(SAVE_DELIM).append(interval)
+                .append(SAVE_DELIM).append(until == null ? "" : until.toString()).append(SAVE_DELIM);
+        String delim = "";
+        for (LocalDate exception: exceptions) {
+            save.append(delim).append(exception);
+            delim = EXCEPTION_DELIM;
+        }
+        return save.toString();
+    }
+
+    public LocalDate getUntil() {
+        return until;
+    }
+
+    /**
+     * Skips the occurrence on the given date.
+     *
+     * @param date date of occurrence to skip
+     */
+    public void addException(LocalDate date) {
+        exceptions.add(date);
+    }
+
+    public boolean isException(LocalDate date) {
+        return exceptions.contains(date);
+    }
+
+    /**
+     * Returns the n-th occurrence counted from the start, ignoring exceptions and the end date.
+     * Computed from the start every time so month-end dates do not drift.
+     */
+    private LocalDateTime nth(LocalDateTime start, long n) {
+        return start.plus(n * interval, unit);
+    }
+
+    private boolean isAfterEnd(LocalDateTime occurrence) {
+        return until != null && occurrence.toLocalDate().isAfter(until);
+    }
+
+    /**
+     * Returns the index of the first occurrence at or after the given date time, ignoring exceptions.
+     * Jumps straight to the right index instead of walking from the start.
+     */
+    private long indexAtOrAfter(LocalDateTime start, LocalDateTime after) {
+        if (!after.isAfter(start)) {
+            return 0;
+        }
+        long n = Math.max(0, unit.between(start, after) / interval);
+        while (nth(start, n).isBefore(after)) {
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Returns the first occurrence at or after the given date time, or null if the recurrence has ended.
+     *
+     * @param start first occurrence of the task
+     * @param after lower bound of occurrence
+     * @return      next occurrence or null
+     */
+    public LocalDateTime nextOccurrence(LocalDateTime start, LocalDateTime after) {
+        Iterator<LocalDateTime> iterator = occurrencesFrom(start, indexAtOrAfter(start, after), null);
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    /**
+     * Returns a lazy iterator over occurrences from the start, skipping exceptions.
+     *
+     * @param start first occurrence of the task
+     * @return      iterator of occurrences
+     */
+    public Iterator<LocalDateTime> occurrences(LocalDateTime start) {
+        return occurrencesFrom(start, 0, null);
+    }
+
+    /**
+     * Returns a lazy iterable over occurrences within [from, to], skipping exceptions.
+     *
+     * @param start first occurrence of the task
+     * @param from  lower bound, inclusive
+     * @param to    upper bound, inclusive
+     * @return      iterable of occurrences
+     */
+    public Iterable<LocalDateTime> occurrencesBetween(LocalDateTime start, LocalDateTime from, LocalDateTime to) {
+        return () -> occurrencesFrom(start, indexAtOrAfter(start, from), to);
+    }
+
+    private Iterator<LocalDateTime> occurrencesFrom(LocalDateTime start, long first, LocalDateTime to) {
+        return new Iterator<>() {
+            private long n = first;
+            private LocalDateTime next = advance();
+
+            private LocalDateTime advance() {
+                while (true) {
+                    LocalDateTime candidate = nth(start, n++);
+                    if (isAfterEnd(candidate) || (to != null && candidate.isAfter(to))) {
+                        return null;
+                    }
+                    if (!exceptions.contains(candidate.toLocalDate())) {
+                        return candidate;
+                    }
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public LocalDateTime next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                LocalDateTime current = next;
+                next = advance();
+                return current;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        String unitName = unit.name().toLowerCase();
+        String rule = interval == 1
+                ? "every " + unitName.substring(0, unitName.length() - 1)
+                : "every " + interval + " " + unitName;
+        return until == null ? rule : rule + " until " + until;
+    }
+}
@@ -1,13 +1,28 @@
 package snom.model.task;
 
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 import snom.common.core.Messages;
 
 /**
  * Stores task's information.
+ * The rendered display and save strings are cached until the task is mutated.
+ * Tags, words starting with {@code #} in the description, are parsed whenever the description is set.
  */
-public class Task {
+public abstract class Task {
+    private static final Pattern TAG = Pattern.compile("(?<!\\S)#([\\p{L}\\p{N}_-]+)");
+    private static final String[] NO_TAGS = new String[0];
+
+    private int id;
     private String description;
+    private String[] tags;
     private boolean isFinished;
+    private Priority priority = Priority.NONE;
+    private String displayString;
+    private String saveString;
 
     /**
      * Constructs a {@code Task}
@@ -16,27 +31,112 @@ public class Task {
      */
     public Task(String description) {
         this.description = description;
+        this.tags = parseTags(description);
         this.isFinished = false;
     }
 
+    /**
+     * Returns the tags in the given description, lowercased and without the {@code #}, in order of appearance.
+     *
+     * @param description description of task
+     * @return            distinct tags
+     */
+    public static String[] parseTags(String description) {
+        if (description.indexOf('#') < 0) {
+            return NO_TAGS;
+        }
+        Set<String> tags = new LinkedHashSet<>();
+        Matcher matcher = TAG.matcher(description);
+        while (matcher.find()) {
+            tags.add(matcher.group(1).toLowerCase());
+        }
+        return tags.isEmpty() ? NO_TAGS : tags.toArray(NO_TAGS);
+    }
+
+    /**
+     * Returns the id of this task, or 0 if it has never been added to a {@code TaskList}.
+     * Ids increase in the order tasks are added and are kept when saved.
+     *
+     * @return id of task
+     */
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
     public String getDescription() {
         return this.description;
     }
 
+    /**
+     * Returns the tags of this task, lowercased and without the {@code #}.
+     *
+     * @return distinct tags, empty if the description has none
+     */
+    public String[] getTags() {
+        return tags;
+    }
+
+    /**
+     * Returns whether this task has the given tag.
+     *
+     * @param tag lowercased tag without the {@code #}
+     * @return    whether the description contains the tag
+     */
+    public boolean hasTag(String tag) {
+        for (String t: tags) {
+            if (t.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public boolean hasFinished() {
         return isFinished;
     }
 
+    /**
+     * Returns the kind of this task.
+     *
+     * @return task type
+     */
+    public abstract TaskType getType();
+
     public String getStatusSymbol() {
         return isFinished ? Messages.SYMBOL_TICK : Messages.SYMBOL_BLANK;
     }
 
     public void setDescription(String description) {
         this.description = description;
+        this.tags = parseTags(description);
+        invalidateCache();
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Priority priority) {
+        this.priority = priority;
+        invalidateCache();
     }
 
     public void setStatus(boolean isFinished) {
         this.isFinished = isFinished;
+        invalidateCache();
+    }
+
+    /**
+     * Clears the cached display and save strings.
+     * Must be called by every setter that changes what is rendered.
+     */
+    protected void invalidateCache() {
+        this.displayString = null;
+        this.saveString = null;
     }
 
     /**
@@ -45,11 +145,36 @@ public class Task {
      * @return formatted string
      */
     public String getSaveString() {
+        if (saveString == null) {
+            saveString = renderSaveString();
+        }
+        return saveString;
+    }
+
+    /**
+     * Builds the save string, called only when the cached copy is stale.
+     *
+     * @return formatted string
+     */
+    protected String renderSaveString() {
         return (isFinished ? "true" : "false") + "," + this.description;
     }
 
+    /**
+     * Builds the display string, called only when the cached copy is stale.
+     *
+     * @return formatted string
+     */
+    protected String renderString() {
+        String priorityString = priority == Priority.NONE ? "" : "[" + priority.getSymbol() + "]";
+        return "[" + this.getStatusSymbol() + "]" + priorityString + " " + this.description;
+    }
+
     @Override
     public String toString() {
-        return "[" + this.getStatusSymbol() + "] " + this.description;
+        if (displayString == null) {
+            displayString = renderString();
+        }
+        return displayString;
     }
 }
@@ -1,26 +1,519 @@
 package snom.model.task;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 import snom.common.core.Messages;
 import snom.common.exceptions.SnomException;
+import snom.model.index.DuplicateIndex;
+import snom.model.index.IdIndex;
+import snom.model.index.NearDuplicateIndex;
+import snom.model.index.PrefixTrie;
+import snom.model.index.SortKey;
+import snom.model.index.SortedView;
+import snom.model.index.StatusTypeIndex;
+import snom.model.index.TagIndex;
+import snom.model.index.TaskIndex;
+import snom.model.index.TextIndex;
+import snom.model.index.UrgencyQueue;
+import snom.model.statistics.CompletionHistory;
+import snom.model.statistics.TaskStatistics;
 
+/**
+ * Stores the list of {@code Task} and keeps every registered {@code TaskIndex} in step with it.
+ *
+ * <p>Every change is also published to the registered {@code TaskListListener}s as the range of positions it
+ * touched, so views of the list are updated in place rather than rebuilt or polled. Operations that reorder
+ * or rebuild the whole list are published as a single reset.
+ */
 public class TaskList extends ArrayList<Task> {
+    private static final int BULK_DELETE_RATIO = 16;
+
+    private final List<TaskIndex> indexes = new ArrayList<>();
+    private final List<TaskListListener> listeners = new CopyOnWriteArrayList<>();
+    private final StatusTypeIndex statusTypeIndex = new StatusTypeIndex();
+    private final Map<SortKey, SortedView> sortedViews = new EnumMap<>(SortKey.class);
+    private final CompletionHistory completionHistory = new CompletionHistory();
+    private TextIndex textIndex;
+    private PrefixTrie prefixTrie;
+    private TagIndex tagIndex;
+    private UrgencyQueue urgencyQueue;
+    private TaskStatistics statistics;
+    private DuplicateIndex duplicateIndex;
+    private NearDuplicateIndex nearDuplicateIndex;
+    private IdIndex idIndex;
+    private int nextId = 1;
+
+    /**
+     * Constructs an empty {@code TaskList}
+     */
+    public TaskList() {
+        super();
+        indexes.add(statusTypeIndex);
+    }
+
+    /**
+     * Registers an index and replays every task currently in the list into it.
+     *
+     * @param index index to keep in step with this list
+     */
+    public void addIndex(TaskIndex index) {
+        for (int i = 0; i < size(); i++) {
+            index.onAdd(i, get(i));
+        }
+        indexes.add(index);
+    }
+
+    /**
+     * Unregisters an index.
+     *
+     * @param index index to stop updating
+     */
+    public void removeIndex(TaskIndex index) {
+        indexes.remove(index);
+    }
+
+    /**
+     * Registers a listener and sends it the current content of the list as a reset.
+     *
+     * @param listener listener called after every change, on the thread that made it
+     */
+    public void addListener(TaskListListener listener) {
+        listener.onChanged(new TaskListChange(TaskListChange.Type.RESET, 0, new ArrayList<>(this)));
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener listener to stop calling
+     */
+    public void removeListener(TaskListListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns the positions of tasks matching any of the given types and the given status.
+     *
+     * @param types      types to match, empty to match every type
+     * @param isFinished status to match, null to match every status
+     * @return           bitmap of 0-based positions
+     */
+    public BitSet select(Set<TaskType> types, Boolean isFinished) {
+        return statusTypeIndex.select(types, isFinished);
+    }
+
+    /**
+     * Returns the number of tasks matching any of the given types and the given status in O(1).
+     *
+     * @param types      types to match, empty to match every type
+     * @param isFinished status to match, null to match every status
+     * @return           number of matching tasks
+     */
+    public int count(Set<TaskType> types, Boolean isFinished) {
+        return statusTypeIndex.count(types, isFinished);
+    }
+
+    /**
+     * Returns the view of this list sorted by the given key.
+     * The view is built on first use and kept in step with every change after that.
+     *
+     * @param key key to sort by
+     * @return    sorted view
+     */
+    public SortedView getSortedView(SortKey key) {
+        SortedView view = sortedViews.get(key);
+        if (view == null) {
+            view = new SortedView(key);
+            addIndex(view);
+            sortedViews.put(key, view);
+        }
+        return view;
+    }
+
+    /**
+     * Returns the trigram index of task descriptions.
+     * The index is built on first use and kept in step with every change after that.
+     *
+     * @return text index
+     */
+    public TextIndex getTextIndex() {
+        if (textIndex == null) {
+            textIndex = new TextIndex();
+            addIndex(textIndex);
+        }
+        return textIndex;
+    }
+
+    /**
+     * Returns the prefix trie of the words of task descriptions.
+     * The trie is built on first use and kept in step with every change after that.
+     *
+     * @return prefix trie
+     */
+    public PrefixTrie getPrefixTrie() {
+        if (prefixTrie == null) {
+            prefixTrie = new PrefixTrie();
+            addIndex(prefixTrie);
+        }
+        return prefixTrie;
+    }
+
+    /**
+     * Returns the index of the tags in task descriptions.
+     * The index is built on first use and kept in step with every change after that.
+     *
+     * @return tag index
+     */
+    public TagIndex getTagIndex() {
+        if (tagIndex == null) {
+            tagIndex = new TagIndex();
+            addIndex(tagIndex);
+        }
+        return tagIndex;
+    }
+
+    /**
+     * Returns the queue of unfinished tasks ordered by urgency.
+     * The queue is built on first use and kept in step with every change after that.
+     *
+     * @return urgency queue
+     */
+    public UrgencyQueue getUrgencyQueue() {
+        if (urgencyQueue == null) {
+            urgencyQueue = new UrgencyQueue();
+            addIndex(urgencyQueue);
+        }
+        return urgencyQueue;
+    }
+
+    /**
+     * Returns the counts of overdue tasks and tasks due this week.
+     * The counts are built on first use and kept in step with every change after that.
+     *
+     * @return task statistics
+     */
+    public TaskStatistics getStatistics() {
+        if (statistics == null) {
+            statistics = new TaskStatistics();
+            addIndex(statistics);
+        }
+        return statistics;
+    }
+
+    /**
+     * Returns an unfinished task that duplicates the given one: one with the same type, date and description
+     * ignoring case and spaces, or, if {@code similarity} is above 0, one of the same type and date whose
+     * description is at least that similar. The indexes used are built on first use and kept in step after that.
+     *
+     * @param task       task to check, in this list or not
+     * @param similarity least similarity of near duplicates in (0, 1], or 0 to only find exact duplicates
+     * @return           duplicate task, or null if there is none
+     */
+    public Task findDuplicate(Task task, double similarity) {
+        if (duplicateIndex == null) {
+            duplicateIndex = new DuplicateIndex();
+            addIndex(duplicateIndex);
+        }
+        Task duplicate = duplicateIndex.find(task);
+        if (duplicate != null || similarity <= 0) {
+            return duplicate;
+        }
+        if (nearDuplicateIndex == null || nearDuplicateIndex.getSimilarity() != similarity) {
+            if (nearDuplicateIndex != null) {
+                removeIndex(nearDuplicateIndex);
+            }
+            nearDuplicateIndex = new NearDuplicateIndex(similarity);
+            addIndex(nearDuplicateIndex);
+        }
+        return nearDuplicateIndex.find(task);
+    }
+
+    /**
+     * Returns the number of tasks finished on each day, counted as {@link #updateTask(int, Consumer)} finishes them.
+     *
+     * @return completion history
+     */
+    public CompletionHistory getCompletionHistory() {
+        return completionHistory;
+    }
+
+    /**
+     * Returns the 0-based position of the given task, or -1 if it is not in this list.
+     * Tasks are normally in id order, so the position is found by binary search,
+     * with a linear search as fallback for a list that was reordered.
+     *
+     * @param task task to find
+     * @return     position of task
+     */
+    public int indexOfTask(Task task) {
+        int low = 0;
+        int high = size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int id = get(middle).getId();
+            if (id < task.getId()) {
+                low = middle + 1;
+            } else if (id > task.getId()) {
+                high = middle - 1;
+            } else {
+                if (get(middle) == task) {
+                    return middle;
+                }
+                break;
+            }
+        }
+        for (int i = 0; i < size(); i++) {
+            if (get(i) == task) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the id the next task added without one will get.
+     *
+     * @return next id
+     */
+    public int getNextId() {
+        return nextId;
+    }
 
     /**
-     * Returns a new task list with task description containing the given keyword
+     * Makes sure no task added after this gets an id below the given one, such as the id of a deleted task.
      *
-     * @param keyword keyword to be searched
-     * @return        new task list
+     * @param id least id of the next task
      */
-    public TaskList findTask(String keyword) {
-        TaskList newList = new TaskList();
-        for (Task task: this) {
-            if (task.getDescription().contains(keyword)) {
-                newList.add(task);
+    public void reserveIds(int id) {
+        nextId = Math.max(nextId, id);
+    }
+
+    /**
+     * Returns the 0-based position of the task with the given id, or -1 if no task in this list has it, in O(1).
+     * The map of ids is built on first use and kept in step with every change after that.
+     *
+     * @param id id of task
+     * @return   position of task
+     */
+    public int indexOfId(int id) {
+        if (idIndex == null) {
+            idIndex = new IdIndex();
+            addIndex(idIndex);
+        }
+        return idIndex.getPosition(id);
+    }
+
+    /**
+     * Returns every occurrence within [from, to] of the dated tasks matching the given types and status,
+     * sorted by date. Recurring tasks are expanded lazily, only within the range.
+     *
+     * @param types      types to match, empty to match every type
+     * @param isFinished status to match, null to match every status
+     * @param from       lower bound, inclusive
+     * @param to         upper bound, inclusive
+     * @return           sorted occurrences
+     */
+    public List<Occurrence> getOccurrences(Set<TaskType> types, Boolean isFinished,
+                                           LocalDateTime from, LocalDateTime to) {
+        BitSet positions = select(types, isFinished);
+        positions.andNot(select(EnumSet.of(TaskType.TODO), null));
+        List<Occurrence> occurrences = new ArrayList<>();
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            TaskWithDate task = (TaskWithDate) get(i);
+            for (LocalDateTime dateTime: task.getOccurrences(from, to)) {
+                occurrences.add(new Occurrence(i, task, dateTime));
+            }
+        }
+        Collections.sort(occurrences);
+        return occurrences;
+    }
+
+    /**
+     * Applies a change to the task at the given position and updates every index.
+     * A task the change finishes is counted in the completion history.
+     *
+     * @param position 0-based position of task
+     * @param change   change to apply on the task
+     * @return         the changed task
+     */
+    public Task updateTask(int position, Consumer<Task> change) {
+        Task task = get(position);
+        boolean wasFinished = task.hasFinished();
+        for (TaskIndex index: indexes) {
+            index.beforeUpdate(position, task);
+        }
+        change.accept(task);
+        for (TaskIndex index: indexes) {
+            index.onUpdate(position, task);
+        }
+        publish(TaskListChange.Type.UPDATED, position, List.of(task));
+        if (!wasFinished && task.hasFinished()) {
+            completionHistory.record(LocalDate.now());
+        }
+        return task;
+    }
+
+    @Override
+    public boolean add(Task task) {
+        add(size(), task);
+        return true;
+    }
+
+    @Override
+    public void add(int position, Task task) {
+        super.add(position, task);
+        notifyAdd(position, task);
+        publish(TaskListChange.Type.ADDED, position, List.of(task));
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Task> tasks) {
+        return addAll(size(), tasks);
+    }
+
+    @Override
+    public boolean addAll(int position, Collection<? extends Task> tasks) {
+        List<Task> added = new ArrayList<>(tasks);
+        int i = position;
+        for (Task task: added) {
+            super.add(i, task);
+            notifyAdd(i++, task);
+        }
+        publish(TaskListChange.Type.ADDED, position, added);
+        return !added.isEmpty();
+    }
+
+    @Override
+    public Task remove(int position) {
+        Task task = super.remove(position);
+        for (TaskIndex index: indexes) {
+            index.onRemove(position, task);
+        }
+        publish(TaskListChange.Type.REMOVED, position, List.of(task));
+        return task;
+    }
+
+    @Override
+    public boolean remove(Object task) {
+        int position = indexOf(task);
+        if (position < 0) {
+            return false;
+        }
+        remove(position);
+        return true;
+    }
+
+    @Override
+    public Task set(int position, Task task) {
+        Task previous = super.set(position, task);
+        for (TaskIndex index: indexes) {
+            index.onRemove(position, previous);
+        }
+        notifyAdd(position, task);
+        publish(TaskListChange.Type.UPDATED, position, List.of(task));
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        for (TaskIndex index: indexes) {
+            index.onClear();
+        }
+        publish(TaskListChange.Type.RESET, 0, List.of());
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Task> filter) {
+        boolean isRemoved = super.removeIf(filter);
+        if (isRemoved) {
+            reindex();
+            publishReset();
+        }
+        return isRemoved;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> tasks) {
+        return removeIf(tasks::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> tasks) {
+        return removeIf(task -> !tasks.contains(task));
+    }
+
+    @Override
+    protected void removeRange(int fromPosition, int toPosition) {
+        super.removeRange(fromPosition, toPosition);
+        reindex();
+        publishReset();
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<Task> operator) {
+        super.replaceAll(operator);
+        reindex();
+        publishReset();
+    }
+
+    @Override
+    public void sort(Comparator<? super Task> comparator) {
+        super.sort(comparator);
+        reindex();
+        publishReset();
+    }
+
+    private void notifyAdd(int position, Task task) {
+        if (task.getId() == 0) {
+            task.setId(nextId++);
+        } else {
+            nextId = Math.max(nextId, task.getId() + 1);
+        }
+        for (TaskIndex index: indexes) {
+            index.onAdd(position, task);
+        }
+    }
+
+    private void publish(TaskListChange.Type type, int from, List<Task> tasks) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        TaskListChange change = new TaskListChange(type, from, tasks);
+        for (TaskListListener listener: listeners) {
+            listener.onChanged(change);
+        }
+    }
+
+    private void publishReset() {
+        if (!listeners.isEmpty()) {
+            publish(TaskListChange.Type.RESET, 0, new ArrayList<>(this));
+        }
+    }
+
+    private void reindex() {
+        for (TaskIndex index: indexes) {
+            index.onClear();
+            for (int i = 0; i < size(); i++) {
+                index.onAdd(i, get(i));
             }
         }
-        return newList;
     }
 
     /**
@@ -36,8 +529,7 @@ public class TaskList extends ArrayList<Task> {
         for (int i = 0; i < taskNums.length; i++) {
             int taskNo = taskNums[i] - 1;
             try {
-                Task task = this.get(taskNo);
-                task.setStatus(true);
+                Task task = this.updateTask(taskNo, t -> t.setStatus(true));
                 assert task.hasFinished() == true : "Task status should be set to true";
                 finishedTasks[i] = task;
             } catch (IndexOutOfBoundsException e) {
@@ -48,7 +540,7 @@ public class TaskList extends ArrayList<Task> {
     }
 
     /**
-     * Removes the given task numbers from the task list.
+     * Removes the given task numbers from the task list, in ascending order, removing a task given twice once.
      * Then prints out the deleted messages.
      *
      * @param  taskNums      task number list that needs to be removed
@@ -56,16 +548,57 @@ public class TaskList extends ArrayList<Task> {
      * @throws SnomException If the task number is not available in the task list.
      */
     public Task[] deleteTask(int[] taskNums) throws SnomException {
-        Task[] deletedTasks = new Task[taskNums.length];
-        for (int i = 0; i < taskNums.length; i++) {
-            int taskNo = taskNums[i] - 1 - i;
+        int[] sortedNums = Arrays.stream(taskNums).distinct().sorted().toArray();
+        Task[] deletedTasks = new Task[sortedNums.length];
+        for (int i = 0; i < sortedNums.length; i++) {
+            int taskNo = sortedNums[i] - 1 - i;
             try {
-                Task task = this.get(taskNo);
-                this.remove(task);
-                deletedTasks[i] = task;
+                deletedTasks[i] = this.remove(taskNo);
             } catch (IndexOutOfBoundsException e) {
-                throw new SnomException(String.format(Messages.ERROR_INVALID_TASK_NUM, taskNums[i]));
+                throw new SnomException(String.format(Messages.ERROR_INVALID_TASK_NUM, sortedNums[i]));
+            }
+        }
+        return deletedTasks;
+    }
+
+    /**
+     * Removes the tasks at the given positions, keeping the order of the remaining tasks.
+     * A few tasks are removed one by one so indexes are updated in place; many tasks are removed in one pass
+     * followed by a single rebuild of the indexes, and listeners get one removal per run of adjacent positions,
+     * from the last run to the first.
+     *
+     * @param positions 0-based positions of tasks to remove
+     * @return          removed tasks in their original order
+     */
+    public Task[] deleteTasks(BitSet positions) {
+        Task[] deletedTasks = new Task[positions.cardinality()];
+        if ((long) deletedTasks.length * BULK_DELETE_RATIO < size()) {
+            int deleted = deletedTasks.length;
+            for (int i = positions.previousSetBit(size() - 1); i >= 0; i = positions.previousSetBit(i - 1)) {
+                deletedTasks[--deleted] = remove(i);
             }
+            return deletedTasks;
+        }
+
+        int deleted = 0;
+        int kept = 0;
+        for (int i = 0; i < size(); i++) {
+            if (positions.get(i)) {
+                deletedTasks[deleted++] = get(i);
+            } else {
+                super.set(kept++, get(i));
+            }
+        }
+        int oldSize = size();
+        super.removeRange(kept, size());
+        reindex();
+        int end = positions.previousSetBit(oldSize - 1);
+        while (end >= 0) {
+            int start = positions.previousClearBit(end) + 1;
+            publish(TaskListChange.Type.REMOVED, start,
+                    Arrays.asList(deletedTasks).subList(deleted - (end - start + 1), deleted));
+            deleted -= end - start + 1;
+            end = positions.previousSetBit(start - 1);
         }
         return deletedTasks;
     }
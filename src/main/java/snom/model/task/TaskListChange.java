@@ -0,0 +1,62 @@
+package snom.model.task;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A change to a range of positions of a {@code TaskList}, published to every {@code TaskListListener}.
+ * Applying the changes in the order they are published to a copy of the list keeps the copy equal to it.
+ *
+ * <ul>
+ *     <li>{@code ADDED}: the tasks were inserted at [from, to).</li>
+ *     <li>{@code REMOVED}: the tasks were removed from [from, to), counted before the removal.</li>
+ *     <li>{@code UPDATED}: the tasks at [from, to) were changed or replaced.</li>
+ *     <li>{@code RESET}: the list was rebuilt, and the tasks are its whole new content.</li>
+ * </ul>
+ */
+public class TaskListChange {
+    /**
+     * Kinds of change to a task list.
+     */
+    public enum Type {
+        ADDED, REMOVED, UPDATED, RESET
+    }
+
+    private final Type type;
+    private final int from;
+    private final List<Task> tasks;
+
+    /**
+     * Constructs a {@code TaskListChange}
+     *
+     * @param type  kind of change
+     * @param from  first position changed
+     * @param tasks tasks added, removed or updated, or the new content on a reset
+     */
+    public TaskListChange(Type type, int from, List<Task> tasks) {
+        this.type = type;
+        this.from = from;
+        this.tasks = Collections.unmodifiableList(tasks);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getFrom() {
+        return from;
+    }
+
+    public int getTo() {
+        return from + tasks.size();
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    @Override
+    public String toString() {
+        return type + " [" + from + ", " + getTo() + ")";
+    }
+}
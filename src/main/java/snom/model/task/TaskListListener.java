@@ -0,0 +1,13 @@
+package snom.model.task;
+
+/**
+ * Receives the changes to a {@code TaskList}, on the thread that made them, right after they are made.
+ */
+public interface TaskListListener {
+    /**
+     * Called after a range of the task list changed.
+     *
+     * @param change change made
+     */
+    void onChanged(TaskListChange change);
+}
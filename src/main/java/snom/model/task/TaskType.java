@@ -0,0 +1,35 @@
+package snom.model.task;
+
+/**
+ * Represents the kind of a {@code Task}.
+ */
+public enum TaskType {
+    TODO("todo"),
+    DEADLINE("deadline"),
+    EVENT("event");
+
+    private final String displayName;
+
+    TaskType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Returns the {@code TaskType} matching the given singular or plural name, or null if none matches.
+     *
+     * @param name name of type, eg. "deadline" or "deadlines"
+     * @return     matching type or null
+     */
+    public static TaskType fromName(String name) {
+        for (TaskType type: TaskType.values()) {
+            if (name.equalsIgnoreCase(type.displayName) || name.equalsIgnoreCase(type.displayName + "s")) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -1,7 +1,9 @@
 package snom.model.task;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
+import java.util.List;
 
 import snom.common.core.Messages;
 import snom.common.exceptions.SnomException;
@@ -10,8 +12,9 @@ import snom.common.util.TaskUtil;
 /**
  * Stores extra date information for {@code Task}
  */
-public class TaskWithDate extends Task {
+public abstract class TaskWithDate extends Task {
     private LocalDateTime dateTime;
+    private Recurrence recurrence;
 
     /**
      * Constructs a {@code TaskWithDate}
@@ -25,6 +28,17 @@ public class TaskWithDate extends Task {
         this.dateTime = convertDateTime(dateTime);
     }
 
+    /**
+     * Constructs a {@code TaskWithDate}
+     *
+     * @param description    description of task
+     * @param dateTime       date time of task
+     */
+    public TaskWithDate(String description, LocalDateTime dateTime) {
+        super(description);
+        this.dateTime = dateTime;
+    }
+
     /**
      * Returns a formatted date time.
      * Eg. Tue 26 Jan 2021 03:33pm
@@ -35,8 +49,74 @@ public class TaskWithDate extends Task {
         return this.dateTime.format(TaskUtil.DATE_TIME_OUTPUT_FORMAT);
     }
 
+    public LocalDateTime getDateTime() {
+        return this.dateTime;
+    }
+
     public void setDateTime(LocalDateTime dateTime) {
         this.dateTime = dateTime;
+        invalidateCache();
+    }
+
+    public Recurrence getRecurrence() {
+        return this.recurrence;
+    }
+
+    public boolean isRecurring() {
+        return this.recurrence != null;
+    }
+
+    public void setRecurrence(Recurrence recurrence) {
+        this.recurrence = recurrence;
+        invalidateCache();
+    }
+
+    /**
+     * Skips the occurrence of a recurring task on the given date.
+     *
+     * @param date date of occurrence to skip
+     */
+    public void skipOccurrence(LocalDate date) {
+        this.recurrence.addException(date);
+        invalidateCache();
+    }
+
+    /**
+     * Returns the first occurrence at or after the given date time, or null if there is none.
+     * A task without recurrence has a single occurrence on its date.
+     *
+     * @param after lower bound of occurrence
+     * @return      next occurrence or null
+     */
+    public LocalDateTime getNextOccurrence(LocalDateTime after) {
+        if (recurrence == null) {
+            return dateTime.isBefore(after) ? null : dateTime;
+        }
+        return recurrence.nextOccurrence(dateTime, after);
+    }
+
+    /**
+     * Returns a lazy iterable over occurrences of this task within [from, to].
+     *
+     * @param from lower bound, inclusive
+     * @param to   upper bound, inclusive
+     * @return     iterable of occurrences
+     */
+    public Iterable<LocalDateTime> getOccurrences(LocalDateTime from, LocalDateTime to) {
+        if (recurrence == null) {
+            boolean isInRange = !dateTime.isBefore(from) && !dateTime.isAfter(to);
+            return isInRange ? List.of(dateTime) : List.of();
+        }
+        return recurrence.occurrencesBetween(dateTime, from, to);
+    }
+
+    /**
+     * Returns the display suffix of the recurrence, eg. ", every week until 2022-12-31".
+     *
+     * @return recurrence suffix or empty string
+     */
+    protected String getRecurrenceString() {
+        return recurrence == null ? "" : ", " + recurrence;
     }
 
     /**
@@ -57,7 +137,8 @@ public class TaskWithDate extends Task {
     }
 
     @Override
-    public String getSaveString() {
-        return super.getSaveString() + ", " + this.dateTime.format(TaskUtil.DATE_TIME_SAVE_FORMAT);
+    protected String renderSaveString() {
+        String save = super.renderSaveString() + ", " + this.dateTime.format(TaskUtil.DATE_TIME_SAVE_FORMAT);
+        return recurrence == null ? save : save + "," + recurrence.getSaveString();
     }
 }
@@ -9,12 +9,17 @@ public class Todo extends Task {
     }
 
     @Override
-    public String getSaveString() {
-        return "T," + super.getSaveString();
+    public TaskType getType() {
+        return TaskType.TODO;
     }
 
     @Override
-    public String toString() {
-        return "[T]" + super.toString();
+    protected String renderSaveString() {
+        return "T," + super.renderSaveString();
+    }
+
+    @Override
+    protected String renderString() {
+        return "[T]" + super.renderString();
     }
 }
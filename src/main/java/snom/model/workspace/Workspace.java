@@ -0,0 +1,85 @@
+package snom.model.workspace;
+
+import java.nio.file.Path;
+
+import snom.model.task.TaskList;
+import snom.storage.StorageManager;
+
+/**
+ * A named task list loaded in memory together with the {@code StorageManager} that saves it.
+ * The workspace {@code work} is saved as {@code work.txt}, with its tasks in the folder {@code work}.
+ */
+public class Workspace {
+    /** Rough size of a task in memory, with its share of the indexes of the task list. */
+    public static final long ESTIMATED_TASK_BYTES = 1024;
+    private static final String EXTENSION = ".txt";
+
+    private final String name;
+    private final StorageManager storage;
+    private final TaskList taskList;
+
+    /**
+     * Constructs a {@code Workspace}
+     *
+     * @param name     name of workspace
+     * @param storage  files handler of the task list
+     * @param taskList task list loaded from the storage
+     */
+    public Workspace(String name, StorageManager storage, TaskList taskList) {
+        this.name = name;
+        this.storage = storage;
+        this.taskList = taskList;
+    }
+
+    /**
+     * Returns the name of the workspace saved at the given file path, the file name without its extension.
+     *
+     * @param filePath file path of task list
+     * @return         name of workspace
+     */
+    public static String getName(Path filePath) {
+        String fileName = filePath.getFileName().toString();
+        int extension = fileName.lastIndexOf('.');
+        return extension > 0 ? fileName.substring(0, extension) : fileName;
+    }
+
+    /**
+     * Returns the file path of the workspace with the given name.
+     *
+     * @param folder folder of the workspaces
+     * @param name   name of workspace
+     * @return       file path of task list
+     */
+    public static Path getFilePath(Path folder, String name) {
+        return folder.resolve(name + EXTENSION);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public StorageManager getStorage() {
+        return storage;
+    }
+
+    public TaskList getTaskList() {
+        return taskList;
+    }
+
+    /**
+     * Returns roughly how much memory the task list takes.
+     *
+     * @return estimated size in bytes
+     */
+    public long getEstimatedBytes() {
+        return taskList.size() * ESTIMATED_TASK_BYTES;
+    }
+
+    /**
+     * Saves the task list and forces it to the disk, so the workspace can be dropped from memory.
+     */
+    public void unload() {
+        storage.saveFile(taskList);
+        storage.close();
+    }
+}
@@ -0,0 +1,96 @@
+package snom.model.workspace;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keeps the recently used workspaces in memory, within a memory budget.
+ *
+ * <p>Workspaces are kept in order of use. When the estimated size of the loaded workspaces is over the budget,
+ * the least recently used ones are saved and dropped until it is not, or until only the workspace in use is left,
+ * which is never dropped. A dropped workspace is loaded again from the disk when it is next used.
+ */
+public class WorkspaceCache {
+    private final long budgetBytes;
+    private final Function<String, Workspace> loader;
+    private final LinkedHashMap<String, Workspace> workspaces = new LinkedHashMap<>(16, 0.75f, true);
+    private int unloadCount;
+
+    /**
+     * Constructs an empty {@code WorkspaceCache}
+     *
+     * @param budgetBytes most memory the loaded workspaces should take, in bytes
+     * @param loader      loads the workspace of the given name from the disk
+     */
+    public WorkspaceCache(long budgetBytes, Function<String, Workspace> loader) {
+        this.budgetBytes = budgetBytes;
+        this.loader = loader;
+    }
+
+    /**
+     * Returns the workspace of the given name, loading it if it is not in memory, and marks it as the one in use.
+     * Other workspaces are dropped if the loaded ones are over the budget.
+     *
+     * @param name name of workspace
+     * @return     workspace in use
+     */
+    public Workspace use(String name) {
+        Workspace workspace = workspaces.get(name);
+        if (workspace == null) {
+            workspace = loader.apply(name);
+            workspaces.put(name, workspace);
+        }
+        trim();
+        return workspace;
+    }
+
+    /**
+     * Adds a workspace loaded elsewhere, such as the one loaded on start, and marks it as the one in use.
+     *
+     * @param workspace loaded workspace
+     */
+    public void put(Workspace workspace) {
+        workspaces.put(workspace.getName(), workspace);
+        trim();
+    }
+
+    /**
+     * Saves and drops the least recently used workspaces while the loaded ones are over the budget,
+     * keeping the one in use.
+     */
+    public void trim() {
+        long totalBytes = 0;
+        for (Workspace workspace: workspaces.values()) {
+            totalBytes += workspace.getEstimatedBytes();
+        }
+        Iterator<Workspace> leastRecent = workspaces.values().iterator();
+        for (int i = workspaces.size(); i > 1 && totalBytes > budgetBytes; i--) {
+            Workspace workspace = leastRecent.next();
+            totalBytes -= workspace.getEstimatedBytes();
+            workspace.unload();
+            leastRecent.remove();
+            unloadCount++;
+        }
+    }
+
+    /**
+     * Returns the names of the workspaces in memory, from the least to the most recently used.
+     *
+     * @return names of loaded workspaces
+     */
+    public List<String> getLoadedNames() {
+        return new ArrayList<>(workspaces.keySet());
+    }
+
+    /**
+     * Returns the number of workspaces dropped from memory so far.
+     *
+     * @return number of unloaded workspaces
+     */
+    public int getUnloadCount() {
+        return unloadCount;
+    }
+}
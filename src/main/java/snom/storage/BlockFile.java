@@ -0,0 +1,176 @@
+package snom.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import snom.model.task.Task;
+import snom.model.task.TaskWithDate;
+
+/**
+ * Reads and writes a list of tasks as one file in the block file format.
+ */
+public class BlockFile {
+    private final Path path;
+    private final boolean isCompressed;
+    private final int blockSize;
+    private final DurabilityPolicy durability;
+    private int corruptedBlocks;
+
+    /**
+     * Constructs a {@code BlockFile} written without forcing it to the disk.
+     *
+     * @param path         file path
+     * @param isCompressed whether blocks are compressed when written
+     * @param blockSize    maximum uncompressed size of a block when written
+     */
+    public BlockFile(Path path, boolean isCompressed, int blockSize) {
+        this(path, isCompressed, blockSize, DurabilityPolicy.NONE);
+    }
+
+    /**
+     * Constructs a {@code BlockFile}
+     *
+     * @param path         file path
+     * @param isCompressed whether blocks are compressed when written
+     * @param blockSize    maximum uncompressed size of a block when written
+     * @param durability   how the file is written
+     */
+    public BlockFile(Path path, boolean isCompressed, int blockSize, DurabilityPolicy durability) {
+        this.path = path;
+        this.isCompressed = isCompressed;
+        this.blockSize = blockSize;
+        this.durability = durability;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the number of damaged blocks skipped by the last read.
+     *
+     * @return number of skipped blocks
+     */
+    public int getCorruptedBlocks() {
+        return corruptedBlocks;
+    }
+
+    /**
+     * Returns every intact task of the file in order.
+     *
+     * @return             list of {@code Task}
+     * @throws IOException if the file cannot be read
+     */
+    public List<Task> read() throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        readBlocks(entry -> true, (firstRecord, block) -> tasks.addAll(block));
+        return tasks;
+    }
+
+    /**
+     * Passes the intact tasks of the file to the consumer one block at a time, in order.
+     *
+     * @param blockConsumer receives the tasks of each block
+     * @throws IOException  if the file cannot be read
+     */
+    public void read(Consumer<List<Task>> blockConsumer) throws IOException {
+        readBlocks(entry -> true, (firstRecord, block) -> blockConsumer.accept(block));
+    }
+
+    /**
+     * Returns the tasks at positions [{@code from}, {@code to}) of the file.
+     * Only the blocks holding those positions are read when the file has a block index.
+     *
+     * @param from         first position, starting from 0
+     * @param to           position after the last
+     * @return             list of {@code Task} in the page
+     * @throws IOException if the file cannot be read
+     */
+    public List<Task> read(int from, int to) throws IOException {
+        List<Task> page = new ArrayList<>();
+        readBlocks(entry -> entry.overlapsRecords(from, to), (firstRecord, block) -> {
+            for (int i = Math.max(from - firstRecord, 0); i < block.size() && firstRecord + i < to; i++) {
+                page.add(block.get(i));
+            }
+        });
+        return page;
+    }
+
+    /**
+     * Returns the tasks with a date, or a recurring occurrence, in [{@code from}, {@code to}].
+     * Only the blocks that may hold such tasks are read when the file has a block index.
+     *
+     * @param from         earliest date
+     * @param to           latest date
+     * @return             list of {@code TaskWithDate} in the range
+     * @throws IOException if the file cannot be read
+     */
+    public List<Task> readBetween(LocalDateTime from, LocalDateTime to) throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        readBlocks(entry -> entry.overlapsDates(from, to), (firstRecord, block) -> {
+            for (Task task: block) {
+                if (task instanceof TaskWithDate
+                        && ((TaskWithDate) task).getOccurrences(from, to).iterator().hasNext()) {
+                    tasks.add(task);
+                }
+            }
+        });
+        return tasks;
+    }
+
+    /**
+     * Passes each block picked by the filter, with the position of its first task, to the consumer.
+     * Without a block index every block is read in order.
+     */
+    private void readBlocks(Predicate<BlockIndexEntry> filter, BiConsumer<Integer, List<Task>> consumer)
+            throws IOException {
+        corruptedBlocks = 0;
+        if (Files.notExists(path) || Files.size(path) == 0) {
+            return;
+        }
+        try (BlockReader reader = new BlockReader(path)) {
+            List<BlockIndexEntry> index = reader.getIndex();
+            if (index == null) {
+                int firstRecord = 0;
+                List<Task> block;
+                while ((block = reader.nextBlock()) != null) {
+                    consumer.accept(firstRecord, block);
+                    firstRecord += block.size();
+                }
+            } else {
+                for (BlockIndexEntry entry: index) {
+                    List<Task> block = filter.test(entry) ? reader.readBlock(entry) : null;
+                    if (block != null) {
+                        consumer.accept(entry.getFirstRecord(), block);
+                    }
+                }
+            }
+            corruptedBlocks = reader.getCorruptedBlocks();
+        }
+    }
+
+    /**
+     * Replaces the content of the file with the given tasks.
+     * If writing fails the old content is left unchanged.
+     *
+     * @param tasks        tasks to write in order
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Collection<? extends Task> tasks) throws IOException {
+        durability.write(path, out -> {
+            try (BlockWriter writer = new BlockWriter(out, blockSize, tasks.size(), isCompressed)) {
+                for (Task task: tasks) {
+                    writer.append(task);
+                }
+            }
+        });
+    }
+}
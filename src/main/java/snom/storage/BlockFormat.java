@@ -0,0 +1,34 @@
+package snom.storage;
+
+/**
+ * Constants of the versioned block file format used to save task lists.
+ *
+ * <pre>
+ * file    := header block* [index trailer]
+ * header  := magic:int version:short flags:short blockSize:int recordCount:int headerCrc:int
+ * block   := sync:long recordCount:int payloadLength:int storedLength:int crc:int stored:byte[storedLength]
+ * index   := indexMarker:long entry*
+ * entry   := offset:long firstRecord:int recordCount:int minEpochSecond:long maxEpochSecond:long
+ * trailer := indexOffset:long blockCount:int indexCrc:int trailerMagic:int
+ * </pre>
+ * Records are packed into blocks of at most {@code blockSize} payload bytes; a record larger than that
+ * gets a block of its own. The block CRC32C covers the counts, lengths and stored bytes, so a damaged
+ * block is detected and skipped, and the sync marker lets the reader find the next block after it.
+ * A block is Deflate compressed on its own when its stored length is less than its payload length,
+ * and the index lets a reader load the blocks of one page or one date range without reading the rest.
+ * Version 1 files have no compression and no index.
+ */
+public class BlockFormat {
+    public static final int MAGIC = 0x534E4F4D;
+    public static final short VERSION = 2;
+    public static final int HEADER_SIZE = 20;
+    public static final short FLAG_COMPRESSED = 1;
+    public static final long SYNC_MARKER = 0x5EC7B10C0B5E55EDL;
+    public static final int BLOCK_HEADER_SIZE = 24;
+    public static final long INDEX_MARKER = 0x1DE7B10C0B5E55EDL;
+    public static final int INDEX_ENTRY_SIZE = 32;
+    public static final int TRAILER_MAGIC = 0x4D4F4E53;
+    public static final int TRAILER_SIZE = 20;
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+    public static final int MAX_STORED_LENGTH = 64 * 1024 * 1024;
+}
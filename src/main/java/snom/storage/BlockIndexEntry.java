@@ -0,0 +1,76 @@
+package snom.storage;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Index entry of one block in a block file.
+ */
+public class BlockIndexEntry {
+    private final long offset;
+    private final int firstRecord;
+    private final int recordCount;
+    private final long minEpochSecond;
+    private final long maxEpochSecond;
+
+    /**
+     * Constructs a {@code BlockIndexEntry}.
+     * A block without dated tasks has a minimum of {@code Long.MAX_VALUE} and a maximum of {@code Long.MIN_VALUE}.
+     *
+     * @param offset         file position of the block header
+     * @param firstRecord    position of the first record of the block in the whole file
+     * @param recordCount    number of records in the block
+     * @param minEpochSecond earliest task date of the block
+     * @param maxEpochSecond latest task date of the block
+     */
+    public BlockIndexEntry(long offset, int firstRecord, int recordCount, long minEpochSecond, long maxEpochSecond) {
+        this.offset = offset;
+        this.firstRecord = firstRecord;
+        this.recordCount = recordCount;
+        this.minEpochSecond = minEpochSecond;
+        this.maxEpochSecond = maxEpochSecond;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public int getFirstRecord() {
+        return firstRecord;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    public long getMinEpochSecond() {
+        return minEpochSecond;
+    }
+
+    public long getMaxEpochSecond() {
+        return maxEpochSecond;
+    }
+
+    /**
+     * Returns true if the block holds a record at a position in [{@code from}, {@code to}).
+     *
+     * @param from first position
+     * @param to   position after the last
+     * @return     whether the block overlaps the positions
+     */
+    public boolean overlapsRecords(int from, int to) {
+        return firstRecord < to && from < firstRecord + recordCount;
+    }
+
+    /**
+     * Returns true if the block may hold a task dated in [{@code from}, {@code to}].
+     *
+     * @param from earliest date
+     * @param to   latest date
+     * @return     whether the block overlaps the dates
+     */
+    public boolean overlapsDates(LocalDateTime from, LocalDateTime to) {
+        return minEpochSecond <= to.toEpochSecond(ZoneOffset.UTC)
+                && from.toEpochSecond(ZoneOffset.UTC) <= maxEpochSecond;
+    }
+}
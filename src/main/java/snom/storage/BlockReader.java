@@ -0,0 +1,309 @@
+package snom.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import snom.model.task.Task;
+
+/**
+ * Reads tasks from the block file format, either block by block in one sequential pass
+ * or only the blocks picked from the block index.
+ * A block whose checksum does not match is skipped, and a sequential read resumes at the next sync marker.
+ */
+public class BlockReader implements Closeable {
+    private static final int SCAN_CHUNK_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer blockHeader = ByteBuffer.allocate(BlockFormat.BLOCK_HEADER_SIZE);
+    private final CRC32C crc = new CRC32C();
+    private final Inflater inflater = new Inflater();
+    private long position;
+    private long end;
+    private int version;
+    private int flags;
+    private int blockSize = BlockFormat.DEFAULT_BLOCK_SIZE;
+    private int recordCount = -1;
+    private int corruptedBlocks;
+    private List<BlockIndexEntry> index;
+
+    /**
+     * Constructs a {@code BlockReader} and reads the file header and block index.
+     * A damaged header is counted as corruption, the blocks after it are still read.
+     *
+     * @param path         file in block format
+     * @throws IOException if the file cannot be opened or has a newer version
+     */
+    public BlockReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.end = channel.size();
+        readFileHeader();
+        readIndex();
+    }
+
+    /**
+     * Returns true if the given file starts with the block format magic number.
+     *
+     * @param path         file to check
+     * @return             whether the file is in block format
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isBlockFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+            return readFully(channel, magic, 0) && magic.getInt(0) == BlockFormat.MAGIC;
+        }
+    }
+
+    private void readFileHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(BlockFormat.HEADER_SIZE);
+        if (!readFully(channel, header, 0) || header.getInt(0) != BlockFormat.MAGIC) {
+            throw new IOException("Not a Snom block file");
+        }
+        crc.reset();
+        crc.update(header.array(), 0, BlockFormat.HEADER_SIZE - Integer.BYTES);
+        if ((int) crc.getValue() != header.getInt(BlockFormat.HEADER_SIZE - Integer.BYTES)) {
+            corruptedBlocks++;
+            version = BlockFormat.VERSION;
+        } else {
+            version = header.getShort(4);
+            flags = header.getShort(6);
+            blockSize = header.getInt(8);
+            recordCount = header.getInt(12);
+        }
+        if (version > BlockFormat.VERSION) {
+            throw new IOException("File was saved by a newer version of Snom (format " + version + ")");
+        }
+        position = BlockFormat.HEADER_SIZE;
+    }
+
+    /**
+     * Reads the block index from the end of the file. The index is left null if it is missing or damaged.
+     */
+    private void readIndex() throws IOException {
+        if (end < BlockFormat.HEADER_SIZE + BlockFormat.TRAILER_SIZE) {
+            return;
+        }
+        ByteBuffer trailer = ByteBuffer.allocate(BlockFormat.TRAILER_SIZE);
+        if (!readFully(channel, trailer, end - BlockFormat.TRAILER_SIZE)
+                || trailer.getInt(16) != BlockFormat.TRAILER_MAGIC) {
+            return;
+        }
+        long indexOffset = trailer.getLong(0);
+        int blockCount = trailer.getInt(8);
+        long indexLength = Long.BYTES + (long) blockCount * BlockFormat.INDEX_ENTRY_SIZE;
+        if (blockCount < 0 || indexOffset < BlockFormat.HEADER_SIZE
+                || indexOffset + indexLength != end - BlockFormat.TRAILER_SIZE) {
+            return;
+        }
+        ByteBuffer entries = ByteBuffer.allocate((int) indexLength);
+        if (!readFully(channel, entries, indexOffset) || entries.getLong(0) != BlockFormat.INDEX_MARKER) {
+            return;
+        }
+        crc.reset();
+        crc.update(entries.array(), 0, entries.capacity());
+        if ((int) crc.getValue() != trailer.getInt(12)) {
+            return;
+        }
+        entries.position(Long.BYTES);
+        index = new ArrayList<>(blockCount);
+        for (int i = 0; i < blockCount; i++) {
+            index.add(new BlockIndexEntry(entries.getLong(), entries.getInt(), entries.getInt(),
+                    entries.getLong(), entries.getLong()));
+        }
+        end = indexOffset;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public boolean isCompressed() {
+        return (flags & BlockFormat.FLAG_COMPRESSED) != 0;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Returns the number of records stated in the header, or -1 if the header is damaged.
+     *
+     * @return number of records
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    public int getCorruptedBlocks() {
+        return corruptedBlocks;
+    }
+
+    /**
+     * Returns the block index, or null if the file has no intact index.
+     *
+     * @return list of index entries
+     */
+    public List<BlockIndexEntry> getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the tasks of the next intact block, or null at the end of the file.
+     *
+     * @return             tasks of next block or null
+     * @throws IOException if reading fails
+     */
+    public List<Task> nextBlock() throws IOException {
+        while (position < end) {
+            long blockStart = position;
+            List<Task> tasks = readBlockAt(blockStart);
+            if (tasks != null) {
+                return tasks;
+            }
+            if (blockHeader.getLong(0) == BlockFormat.INDEX_MARKER) {
+                break;
+            }
+            corruptedBlocks++;
+            long next = findSyncMarker(blockStart + 1);
+            if (next < 0) {
+                break;
+            }
+            position = next;
+        }
+        position = end;
+        return null;
+    }
+
+    /**
+     * Returns the tasks of the block of the given index entry, or null if the block is damaged.
+     *
+     * @param entry        entry from {@link #getIndex()}
+     * @return             tasks of block or null
+     * @throws IOException if reading fails
+     */
+    public List<Task> readBlock(BlockIndexEntry entry) throws IOException {
+        List<Task> tasks = readBlockAt(entry.getOffset());
+        if (tasks == null || tasks.size() != entry.getRecordCount()) {
+            corruptedBlocks++;
+            return null;
+        }
+        return tasks;
+    }
+
+    /**
+     * Reads the block at the given position and moves past it.
+     * Returns null, without moving, if the block is damaged.
+     */
+    private List<Task> readBlockAt(long blockStart) throws IOException {
+        blockHeader.clear();
+        if (!readFully(channel, blockHeader, blockStart)) {
+            blockHeader.putLong(0, 0L);
+            return null;
+        }
+        int count = blockHeader.getInt(8);
+        int payloadLength = blockHeader.getInt(12);
+        int storedLength = blockHeader.getInt(16);
+        boolean isHeaderValid = blockHeader.getLong(0) == BlockFormat.SYNC_MARKER && count >= 0
+                && payloadLength >= 0 && payloadLength <= BlockFormat.MAX_STORED_LENGTH
+                && storedLength >= 0 && storedLength <= payloadLength;
+        if (!isHeaderValid) {
+            return null;
+        }
+        ByteBuffer stored = ByteBuffer.allocate(storedLength);
+        if (!readFully(channel, stored, blockStart + BlockFormat.BLOCK_HEADER_SIZE)
+                || !isChecksumValid(stored.array())) {
+            return null;
+        }
+        byte[] payload = storedLength == payloadLength ? stored.array() : inflate(stored.array(), payloadLength);
+        List<Task> tasks = payload == null ? null : decodeBlock(payload, count);
+        if (tasks != null) {
+            position = blockStart + BlockFormat.BLOCK_HEADER_SIZE + storedLength;
+        }
+        return tasks;
+    }
+
+    private boolean isChecksumValid(byte[] stored) {
+        crc.reset();
+        crc.update(blockHeader.array(), Long.BYTES, 3 * Integer.BYTES);
+        crc.update(stored, 0, stored.length);
+        return (int) crc.getValue() == blockHeader.getInt(20);
+    }
+
+    private byte[] inflate(byte[] stored, int payloadLength) {
+        byte[] payload = new byte[payloadLength];
+        inflater.reset();
+        inflater.setInput(stored);
+        try {
+            int length = 0;
+            while (!inflater.finished() && length < payloadLength) {
+                int inflated = inflater.inflate(payload, length, payloadLength - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    return null;
+                }
+                length += inflated;
+            }
+            return inflater.finished() && length == payloadLength ? payload : null;
+        } catch (DataFormatException e) {
+            return null;
+        }
+    }
+
+    private static List<Task> decodeBlock(byte[] payload, int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        try {
+            for (int i = 0; i < count; i++) {
+                tasks.add(TaskCodec.decode(in));
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns the position of the next sync marker at or after the given position, or -1 if there is none.
+     */
+    private long findSyncMarker(long from) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(SCAN_CHUNK_SIZE);
+        for (long start = from; start + Long.BYTES <= end; start += SCAN_CHUNK_SIZE - Long.BYTES + 1) {
+            chunk.clear();
+            chunk.limit((int) Math.min(SCAN_CHUNK_SIZE, end - start));
+            channel.read(chunk, start);
+            chunk.flip();
+            for (int i = 0; i + Long.BYTES <= chunk.limit(); i++) {
+                if (chunk.getLong(i) == BlockFormat.SYNC_MARKER) {
+                    return start + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+}
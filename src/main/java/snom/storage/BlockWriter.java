@@ -0,0 +1,190 @@
+package snom.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.Deflater;
+
+import snom.model.task.Task;
+import snom.model.task.TaskWithDate;
+
+/**
+ * Writes tasks in the block file format, packing records into checksummed blocks followed by a block index.
+ */
+public class BlockWriter implements Closeable {
+    private final BufferedChannelWriter out;
+    private final int blockSize;
+    private final Deflater deflater;
+    private final ExposedByteArrayOutputStream block = new ExposedByteArrayOutputStream();
+    private final ExposedByteArrayOutputStream record = new ExposedByteArrayOutputStream();
+    private final DataOutputStream recordOut = new DataOutputStream(record);
+    private final ByteBuffer blockHeader = ByteBuffer.allocate(BlockFormat.BLOCK_HEADER_SIZE);
+    private final CRC32C crc = new CRC32C();
+    private final List<BlockIndexEntry> index = new ArrayList<>();
+    private byte[] compressed = new byte[0];
+    private int blockRecordCount;
+    private int recordsWritten;
+    private long blockMinEpochSecond = Long.MAX_VALUE;
+    private long blockMaxEpochSecond = Long.MIN_VALUE;
+
+    /**
+     * {@code ByteArrayOutputStream} whose buffer can be read without copying.
+     */
+    private static class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+        byte[] buffer() {
+            return buf;
+        }
+    }
+
+    /**
+     * Constructs a {@code BlockWriter} and writes the file header.
+     *
+     * @param out          destination, positioned at the start of the file
+     * @param blockSize    maximum payload bytes per block
+     * @param recordCount  number of records that will be written
+     * @param isCompressed whether blocks are Deflate compressed
+     * @throws IOException if writing fails
+     */
+    public BlockWriter(BufferedChannelWriter out, int blockSize, int recordCount, boolean isCompressed)
+            throws IOException {
+        this.out = out;
+        this.blockSize = blockSize;
+        this.deflater = isCompressed ? new Deflater(Deflater.DEFAULT_COMPRESSION) : null;
+        writeFileHeader(recordCount);
+    }
+
+    private void writeFileHeader(int recordCount) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(BlockFormat.HEADER_SIZE);
+        header.putInt(BlockFormat.MAGIC).putShort(BlockFormat.VERSION)
+                .putShort(deflater == null ? 0 : BlockFormat.FLAG_COMPRESSED)
+                .putInt(blockSize).putInt(recordCount);
+        crc.reset();
+        crc.update(header.array(), 0, header.position());
+        header.putInt((int) crc.getValue());
+        out.write(header.array());
+    }
+
+    /**
+     * Appends one task, closing the current block first if the record does not fit.
+     *
+     * @param task         task to write
+     * @throws IOException if writing fails
+     */
+    public void append(Task task) throws IOException {
+        record.reset();
+        TaskCodec.encode(task, recordOut);
+        if (blockRecordCount > 0 && block.size() + record.size() > blockSize) {
+            writeBlock();
+        }
+        block.write(record.buffer(), 0, record.size());
+        blockRecordCount++;
+        if (task instanceof TaskWithDate) {
+            TaskWithDate taskWithDate = (TaskWithDate) task;
+            long epochSecond = taskWithDate.getDateTime().toEpochSecond(ZoneOffset.UTC);
+            blockMinEpochSecond = Math.min(blockMinEpochSecond, epochSecond);
+            blockMaxEpochSecond = Math.max(blockMaxEpochSecond, getLastEpochSecond(taskWithDate, epochSecond));
+        }
+    }
+
+    /**
+     * Returns the latest date the task can occur on, so that a date range finds every block a
+     * recurring task may occur in.
+     */
+    private static long getLastEpochSecond(TaskWithDate task, long epochSecond) {
+        if (!task.isRecurring()) {
+            return epochSecond;
+        }
+        LocalDate until = task.getRecurrence().getUntil();
+        return until == null ? Long.MAX_VALUE : until.atTime(LocalTime.MAX).toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private void writeBlock() throws IOException {
+        int length = block.size();
+        byte[] stored = block.buffer();
+        int storedLength = length;
+        if (deflater != null) {
+            storedLength = compress(length);
+            if (storedLength < length) {
+                stored = compressed;
+            } else {
+                storedLength = length;
+            }
+        }
+        blockHeader.clear();
+        blockHeader.putLong(BlockFormat.SYNC_MARKER).putInt(blockRecordCount).putInt(length).putInt(storedLength);
+        crc.reset();
+        crc.update(blockHeader.array(), Long.BYTES, 3 * Integer.BYTES);
+        crc.update(stored, 0, storedLength);
+        blockHeader.putInt((int) crc.getValue());
+
+        index.add(new BlockIndexEntry(out.getBytesWritten(), recordsWritten, blockRecordCount,
+                blockMinEpochSecond, blockMaxEpochSecond));
+        out.write(blockHeader.array());
+        out.write(stored, 0, storedLength);
+        recordsWritten += blockRecordCount;
+        block.reset();
+        blockRecordCount = 0;
+        blockMinEpochSecond = Long.MAX_VALUE;
+        blockMaxEpochSecond = Long.MIN_VALUE;
+    }
+
+    /**
+     * Compresses the current block into {@code compressed}.
+     * Returns the compressed length, or {@code length} if compressing does not make the block smaller.
+     */
+    private int compress(int length) {
+        if (compressed.length < length) {
+            compressed = new byte[length];
+        }
+        deflater.reset();
+        deflater.setInput(block.buffer(), 0, length);
+        deflater.finish();
+        int compressedLength = 0;
+        while (!deflater.finished() && compressedLength < length) {
+            compressedLength += deflater.deflate(compressed, compressedLength, length - compressedLength);
+        }
+        return deflater.finished() ? compressedLength : length;
+    }
+
+    private void writeIndex() throws IOException {
+        long indexOffset = out.getBytesWritten();
+        ByteBuffer entries = ByteBuffer.allocate(Long.BYTES + index.size() * BlockFormat.INDEX_ENTRY_SIZE);
+        entries.putLong(BlockFormat.INDEX_MARKER);
+        for (BlockIndexEntry entry: index) {
+            entries.putLong(entry.getOffset()).putInt(entry.getFirstRecord()).putInt(entry.getRecordCount())
+                    .putLong(entry.getMinEpochSecond()).putLong(entry.getMaxEpochSecond());
+        }
+        crc.reset();
+        crc.update(entries.array(), 0, entries.position());
+
+        ByteBuffer trailer = ByteBuffer.allocate(BlockFormat.TRAILER_SIZE);
+        trailer.putLong(indexOffset).putInt(index.size()).putInt((int) crc.getValue())
+                .putInt(BlockFormat.TRAILER_MAGIC);
+        out.write(entries.array());
+        out.write(trailer.array());
+    }
+
+    /**
+     * Writes the last block and the block index. The underlying writer is left open.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (blockRecordCount > 0) {
+            writeBlock();
+        }
+        writeIndex();
+        if (deflater != null) {
+            deflater.end();
+        }
+    }
+}
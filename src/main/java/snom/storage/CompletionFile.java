@@ -0,0 +1,78 @@
+package snom.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+import snom.model.statistics.CompletionHistory;
+
+/**
+ * Saves the number of tasks finished on each day next to the saved tasks, so completion trends survive restarts.
+ *
+ * <pre>
+ * completions := "snom-completions 1" line*
+ * line        := date "," count
+ * </pre>
+ */
+public class CompletionFile {
+    public static final String FILE_NAME = "completions.txt";
+    private static final String HEADER = "snom-completions 1";
+    private static final String DELIM = ",";
+
+    private final Path path;
+
+    /**
+     * Constructs a {@code CompletionFile}
+     *
+     * @param path file path of completion counts
+     */
+    public CompletionFile(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Reads the completion counts into the given history, ignoring malformed lines.
+     * Nothing is read if the file does not exist.
+     *
+     * @param history      history to fill
+     * @throws IOException if the file cannot be read
+     */
+    public void load(CompletionHistory history) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        for (String line: Files.readAllLines(path)) {
+            String[] attr = line.split(DELIM);
+            if (attr.length != 2 || line.equals(HEADER)) {
+                continue;
+            }
+            try {
+                history.put(LocalDate.parse(attr[0]), Integer.parseInt(attr[1]));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                // Skip the malformed line, only the count of that day is lost
+            }
+        }
+    }
+
+    /**
+     * Writes the completion counts if they changed since they were last saved.
+     *
+     * @param history      history to save
+     * @param durability   how the file is written
+     * @throws IOException if the file cannot be written
+     */
+    public void save(CompletionHistory history, DurabilityPolicy durability) throws IOException {
+        if (!history.isDirty()) {
+            return;
+        }
+        StringBuilder content = new StringBuilder(HEADER).append(System.lineSeparator());
+        for (Map.Entry<LocalDate, Integer> entry: history.getCompletions().entrySet()) {
+            content.append(entry.getKey()).append(DELIM).append(entry.getValue()).append(System.lineSeparator());
+        }
+        durability.write(path, out -> out.write(content));
+        history.markSaved();
+    }
+}
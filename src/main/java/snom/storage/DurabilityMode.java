@@ -0,0 +1,29 @@
+package snom.storage;
+
+/**
+ * How hard a save tries to reach the disk before it returns.
+ */
+public enum DurabilityMode {
+    /** Leaves the written data in the OS buffers. */
+    NONE,
+    /** Forces saved files to the disk at most once every interval. */
+    BATCH,
+    /** Forces every saved file and its folder to the disk before the save returns. */
+    ALWAYS;
+
+    /**
+     * Returns the mode with the given name, ignoring case, or the default if there is none.
+     *
+     * @param name         name of mode
+     * @param defaultMode  mode used when the name is unknown
+     * @return             durability mode
+     */
+    public static DurabilityMode fromName(String name, DurabilityMode defaultMode) {
+        for (DurabilityMode mode: values()) {
+            if (mode.name().equalsIgnoreCase(name.trim())) {
+                return mode;
+            }
+        }
+        return defaultMode;
+    }
+}
@@ -0,0 +1,234 @@
+package snom.storage;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes files through a temporary file and an atomic rename, and forces them to the disk
+ * as often as its {@code DurabilityMode} asks for.
+ *
+ * <p>If Snom crashes during a save, the old or the new file is left, never a partly written one.
+ * A power loss only gives the same guarantee in {@code ALWAYS} mode, where the temporary file is forced to the disk
+ * before the rename. In {@code BATCH} and {@code NONE} modes the rename can reach the disk before the data does,
+ * so a power loss before the next sync can leave the file empty or cut short.
+ */
+public class DurabilityPolicy {
+    public static final String TEMP_SUFFIX = ".tmp";
+    public static final DurabilityPolicy NONE = new DurabilityPolicy(DurabilityMode.NONE, 0);
+
+    private final DurabilityMode mode;
+    private final long intervalMillis;
+    private final Set<Path> unsyncedFiles = new LinkedHashSet<>();
+    private final Set<Path> unsyncedFolders = new LinkedHashSet<>();
+    private ScheduledExecutorService syncExecutor;
+    private ScheduledFuture<?> scheduledSync;
+    private long lastSyncMillis;
+    private long syncCount;
+    private long bytesWritten;
+
+    /**
+     * Writes the content of a file.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        /**
+         * Writes the content of the file.
+         *
+         * @param out          writer of the temporary file
+         * @throws IOException if writing fails
+         */
+        void write(BufferedChannelWriter out) throws IOException;
+    }
+
+    /**
+     * Constructs a {@code DurabilityPolicy}
+     *
+     * @param mode           durability mode
+     * @param intervalMillis minimum time between two forced writes in {@code BATCH} mode
+     */
+    public DurabilityPolicy(DurabilityMode mode, long intervalMillis) {
+        this.mode = mode;
+        this.intervalMillis = intervalMillis;
+    }
+
+    public DurabilityMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Returns the number of times files were forced to the disk.
+     *
+     * @return number of syncs
+     */
+    public synchronized long getSyncCount() {
+        return syncCount;
+    }
+
+    /**
+     * Returns the number of bytes written to files through this policy, including temporary files.
+     *
+     * @return number of bytes written
+     */
+    public synchronized long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Replaces the target file with the content written by the given writer.
+     * The content goes to a temporary file next to the target, which is then renamed over it.
+     * In {@code ALWAYS} mode the temporary file is forced to the disk before the rename.
+     *
+     * @param target       file to replace
+     * @param content      writes the new content
+     * @throws IOException if writing or renaming fails, the target is then left unchanged
+     */
+    public void write(Path target, ContentWriter content) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+        try (BufferedChannelWriter out = new BufferedChannelWriter(temp)) {
+            content.write(out);
+            out.flush();
+            countBytes(out.getBytesWritten());
+            if (mode == DurabilityMode.ALWAYS) {
+                out.getChannel().force(true);
+                countSync();
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        synchronized (this) {
+            if (mode == DurabilityMode.BATCH) {
+                unsyncedFiles.add(target);
+            }
+            if (mode != DurabilityMode.NONE) {
+                unsyncedFolders.add(target.toAbsolutePath().getParent());
+            }
+        }
+    }
+
+    /**
+     * Records that the given file was changed in place, so the next sync forces it to the disk.
+     *
+     * @param target file written through its own channel
+     * @param bytes  number of bytes written to it
+     */
+    public synchronized void markWritten(Path target, long bytes) {
+        bytesWritten += bytes;
+        if (mode != DurabilityMode.NONE) {
+            unsyncedFiles.add(target);
+        }
+    }
+
+    /**
+     * Removes the given file. Its folder is forced to the disk like a written file's.
+     *
+     * @param target       file to remove
+     * @throws IOException if removing fails
+     */
+    public synchronized void delete(Path target) throws IOException {
+        Files.deleteIfExists(target);
+        unsyncedFiles.remove(target);
+        if (mode != DurabilityMode.NONE) {
+            unsyncedFolders.add(target.toAbsolutePath().getParent());
+        }
+    }
+
+    /**
+     * Ends one save. In {@code ALWAYS} mode the renamed files' folders are forced to the disk now;
+     * in {@code BATCH} mode everything written since the last sync is forced if the interval has passed,
+     * or a sync is scheduled for when it does.
+     */
+    public synchronized void commit() {
+        if (mode == DurabilityMode.ALWAYS) {
+            sync();
+        } else if (mode == DurabilityMode.BATCH && !unsyncedFiles.isEmpty()) {
+            long waitMillis = lastSyncMillis + intervalMillis - System.currentTimeMillis();
+            if (waitMillis <= 0) {
+                sync();
+            } else if (scheduledSync == null) {
+                scheduledSync = getSyncExecutor().schedule(this::sync, waitMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Forces every file written since the last sync, and their folders, to the disk.
+     */
+    public synchronized void sync() {
+        if (scheduledSync != null) {
+            scheduledSync.cancel(false);
+            scheduledSync = null;
+        }
+        if (unsyncedFiles.isEmpty() && unsyncedFolders.isEmpty()) {
+            return;
+        }
+        for (Path file: unsyncedFiles) {
+            force(file);
+        }
+        for (Path folder: unsyncedFolders) {
+            force(folder);
+        }
+        unsyncedFiles.clear();
+        unsyncedFolders.clear();
+        lastSyncMillis = System.currentTimeMillis();
+        syncCount++;
+    }
+
+    /**
+     * Forces every pending write to the disk and stops the sync thread, so the policy can be dropped.
+     * A later save that needs a scheduled sync starts the thread again.
+     */
+    public synchronized void close() {
+        sync();
+        if (syncExecutor != null) {
+            syncExecutor.shutdownNow();
+            syncExecutor = null;
+        }
+    }
+
+    private synchronized void countBytes(long bytes) {
+        bytesWritten += bytes;
+    }
+
+    private synchronized void countSync() {
+        syncCount++;
+    }
+
+    /**
+     * Forces a file or folder to the disk. Platforms that cannot open a folder for syncing are ignored.
+     */
+    private static void force(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // The file was replaced or removed since, or folders cannot be synced on this platform
+        }
+    }
+
+    private ScheduledExecutorService getSyncExecutor() {
+        if (syncExecutor == null) {
+            syncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "snom-fsync");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return syncExecutor;
+    }
+}
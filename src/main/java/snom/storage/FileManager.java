@@ -24,6 +24,10 @@ public class FileManager {
         this.path = filePath;
     }
 
+    public Path getPath() {
+        return path;
+    }
+
     /**
      * Creates directory with the given path
      */
@@ -0,0 +1,168 @@
+package snom.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import snom.model.history.HistoryEntry;
+
+/**
+ * Append-only log of the conversation.
+ *
+ * <pre>
+ * log   := entry*
+ * entry := length:int flags:byte epochMilli:long text:byte[length] length:int
+ * </pre>
+ * The length is written at both ends of an entry, so the log can be read backwards from any entry boundary
+ * without reading what comes before it. An entry torn by a crash at the end of the log is cut off on open.
+ */
+public class HistoryLog implements Closeable {
+    public static final int ENTRY_OVERHEAD = Integer.BYTES + 1 + Long.BYTES + Integer.BYTES;
+    private static final int FLAG_USER = 1;
+    private static final int FLAG_ERROR = 1 << 1;
+    private static final int HEAD_SIZE = Integer.BYTES + 1 + Long.BYTES;
+
+    private final FileChannel channel;
+    private long end;
+
+    /**
+     * Opens the log at the given path, creating it if needed.
+     *
+     * @param path         file path of log
+     * @throws IOException if the file cannot be opened
+     */
+    public HistoryLog(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        end = channel.size();
+        if (end > 0 && getEntryStart(end) < 0) {
+            end = findLastBoundary();
+            channel.truncate(end);
+        }
+    }
+
+    /**
+     * Returns the position just after the last entry.
+     *
+     * @return byte offset
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * Appends the given entry and sets its offset.
+     *
+     * @param entry        entry to save
+     * @throws IOException if writing fails
+     */
+    public synchronized void append(HistoryEntry entry) throws IOException {
+        byte[] text = entry.getText().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(ENTRY_OVERHEAD + text.length);
+        int flags = (entry.isUser() ? FLAG_USER : 0) | (entry.isError() ? FLAG_ERROR : 0);
+        buffer.putInt(text.length).put((byte) flags).putLong(entry.getEpochMilli()).put(text).putInt(text.length);
+        buffer.flip();
+        long position = end;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        entry.setOffset(end);
+        end = position;
+    }
+
+    /**
+     * Returns up to {@code count} entries ending at or before the given position, oldest first.
+     *
+     * @param position     entry boundary to read back from, eg. {@link #getEnd()} or the offset of an entry
+     * @param count        maximum number of entries
+     * @return             entries in the order they were added
+     * @throws IOException if reading fails or the position is not an entry boundary
+     */
+    public synchronized List<HistoryEntry> readBefore(long position, int count) throws IOException {
+        List<HistoryEntry> entries = new ArrayList<>();
+        while (position > 0 && entries.size() < count) {
+            long start = getEntryStart(position);
+            if (start < 0) {
+                throw new IOException("Damaged history entry before " + position);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) (position - start));
+            readFully(buffer, start);
+            buffer.flip();
+            int length = buffer.getInt();
+            int flags = buffer.get();
+            long epochMilli = buffer.getLong();
+            String text = new String(buffer.array(), HEAD_SIZE, length, StandardCharsets.UTF_8);
+            HistoryEntry entry = new HistoryEntry((flags & FLAG_USER) != 0, (flags & FLAG_ERROR) != 0,
+                    epochMilli, text);
+            entry.setOffset(start);
+            entries.add(entry);
+            position = start;
+        }
+        Collections.reverse(entries);
+        return entries;
+    }
+
+    /**
+     * Returns the start of the entry ending at the given position, or -1 if the lengths at its ends differ.
+     */
+    private long getEntryStart(long position) throws IOException {
+        if (position < ENTRY_OVERHEAD) {
+            return -1;
+        }
+        int length = readInt(position - Integer.BYTES);
+        long start = position - ENTRY_OVERHEAD - length;
+        if (length < 0 || start < 0 || readInt(start) != length) {
+            return -1;
+        }
+        return start;
+    }
+
+    /**
+     * Returns the end of the last whole entry by reading the log forwards.
+     */
+    private long findLastBoundary() throws IOException {
+        long size = channel.size();
+        long position = 0;
+        while (position + ENTRY_OVERHEAD <= size) {
+            int length = readInt(position);
+            long next = position + ENTRY_OVERHEAD + length;
+            if (length < 0 || next > size || readInt(next - Integer.BYTES) != length) {
+                break;
+            }
+            position = next;
+        }
+        return position;
+    }
+
+    private int readInt(long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES);
+        readFully(buffer, position);
+        return buffer.getInt(0);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of history log");
+            }
+            position += read;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,73 @@
+package snom.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import snom.model.task.TaskList;
+
+/**
+ * Saves the next id to give a task next to the saved tasks, so the id of a deleted or archived task
+ * is never given to another task after a restart.
+ *
+ * <pre>
+ * ids := "snom-ids 1" nextId
+ * </pre>
+ */
+public class IdFile {
+    public static final String FILE_NAME = "ids.txt";
+    private static final String HEADER = "snom-ids 1";
+
+    private final Path path;
+    private int savedNextId;
+
+    /**
+     * Constructs an {@code IdFile}
+     *
+     * @param path file path of next id
+     */
+    public IdFile(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Reads the next id into the given task list, ignoring malformed lines.
+     * Nothing is read if the file does not exist.
+     *
+     * @param taskList     task list read from the same folder
+     * @throws IOException if the file cannot be read
+     */
+    public void load(TaskList taskList) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        for (String line: Files.readAllLines(path)) {
+            if (line.equals(HEADER)) {
+                continue;
+            }
+            try {
+                savedNextId = Integer.parseInt(line.trim());
+                taskList.reserveIds(savedNextId);
+            } catch (NumberFormatException e) {
+                // Skip the malformed line, ids then continue after the highest saved task
+            }
+        }
+    }
+
+    /**
+     * Writes the next id of the task list if it changed since it was last saved.
+     *
+     * @param taskList     task list being saved
+     * @param durability   how the file is written
+     * @throws IOException if the file cannot be written
+     */
+    public void save(TaskList taskList, DurabilityPolicy durability) throws IOException {
+        int nextId = taskList.getNextId();
+        if (nextId == savedNextId) {
+            return;
+        }
+        String content = HEADER + System.lineSeparator() + nextId + System.lineSeparator();
+        durability.write(path, out -> out.write(content));
+        savedNextId = nextId;
+    }
+}
@@ -0,0 +1,16 @@
+package snom.storage;
+
+/**
+ * Receives progress of long running storage operations.
+ */
+public interface ProgressListener {
+    ProgressListener NONE = (done, total) -> { };
+
+    /**
+     * Called periodically while an operation runs.
+     *
+     * @param done  number of tasks processed so far
+     * @param total total number of tasks, or -1 if unknown
+     */
+    void onProgress(long done, long total);
+}
@@ -0,0 +1,676 @@
+package snom.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import snom.model.index.TaskIndex;
+import snom.model.task.Priority;
+import snom.model.task.Task;
+import snom.model.task.TaskList;
+import snom.model.task.TaskType;
+import snom.model.task.TaskWithDate;
+
+/**
+ * Saves every task as a fixed-width record at a fixed position of {@code records.dat}, with its description
+ * and recurrence in an append-only heap file, so that a change to one task is written in place.
+ *
+ * <pre>
+ * file   := magic:int version:int generation:int reserved:int record*
+ * record := flags:byte type:byte priority:short id:int epochSecond:long heapOffset:long heapLength:int crc:int
+ * heap   := (description:string recurrence:string)*
+ * </pre>
+ * The heap of generation g is {@code descriptions-g.dat}. Finishing or deleting a task writes only the flags
+ * byte of its record, and deleted records are left as tombstones. Changing a date or priority rewrites the record,
+ * and changing the description or recurrence appends a new heap entry. The crc covers the record without its
+ * flags byte, so a torn record is skipped on load. Once tombstones and old heap entries take half of the space,
+ * a background compactor writes the live records into the files of a new generation.
+ */
+public class RecordStore implements TaskIndex {
+    public static final String RECORD_FILE_NAME = "records.dat";
+    public static final int MAGIC = 0x534E5243;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 16;
+    public static final int RECORD_SIZE = 32;
+    private static final String HEAP_PREFIX = "descriptions-";
+    private static final String HEAP_EXTENSION = ".dat";
+    private static final int FLAG_FINISHED = 1;
+    private static final int FLAG_DELETED = 1 << 1;
+    private static final int CRC_OFFSET = 28;
+    private static final long MIN_COMPACT_BYTES = 64 * 1024;
+    private static final int READ_BATCH = 4096;
+    private static final Comparator<Slot> INDEX_ORDER = Comparator.comparingInt(slot -> slot.index);
+
+    private final Path folder;
+    private final Path recordPath;
+    private final DurabilityPolicy durability;
+    private final Map<Task, Slot> slots = new IdentityHashMap<>();
+    private final Set<Task> dirtyTasks = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<Task> removedTasks = Collections.newSetFromMap(new IdentityHashMap<>());
+    private TaskList trackedList;
+    private boolean needsReconcile;
+    private FileChannel records;
+    private FileChannel heap;
+    private int generation;
+    private int recordCount;
+    private long heapSize;
+    private int deadRecords;
+    private long deadHeapBytes;
+    private int corruptedRecords;
+    private long lastSaveBytes;
+    private ExecutorService compactor;
+    private boolean isCompactionQueued;
+
+    /**
+     * Saved fields of a task and the position of its record.
+     */
+    private static class Slot {
+        private int index;
+        private final int flags;
+        private final TaskType type;
+        private final Priority priority;
+        private final int id;
+        private final long epochSecond;
+        private final String description;
+        private final String recurrence;
+        private long heapOffset;
+        private int heapLength;
+
+        Slot(int flags, TaskType type, Priority priority, int id, long epochSecond, String description,
+                String recurrence) {
+            this.flags = flags;
+            this.type = type;
+            this.priority = priority;
+            this.id = id;
+            this.epochSecond = epochSecond;
+            this.description = description;
+            this.recurrence = recurrence;
+        }
+
+        static Slot of(Task task) {
+            long epochSecond = 0;
+            String recurrence = "";
+            if (task instanceof TaskWithDate) {
+                TaskWithDate taskWithDate = (TaskWithDate) task;
+                epochSecond = taskWithDate.getDateTime().toEpochSecond(ZoneOffset.UTC);
+                recurrence = taskWithDate.isRecurring() ? taskWithDate.getRecurrence().getSaveString() : "";
+            }
+            return new Slot(task.hasFinished() ? FLAG_FINISHED : 0, task.getType(), task.getPriority(), task.getId(),
+                    epochSecond, task.getDescription(), recurrence);
+        }
+
+        boolean hasSameText(Slot other) {
+            return description.equals(other.description) && recurrence.equals(other.recurrence);
+        }
+
+        boolean hasSameRecord(Slot other) {
+            return type == other.type && priority == other.priority && id == other.id
+                    && epochSecond == other.epochSecond
+                    && heapOffset == other.heapOffset && heapLength == other.heapLength;
+        }
+    }
+
+    /**
+     * Constructs a {@code RecordStore}
+     *
+     * @param folder     folder holding the record and heap files
+     * @param durability policy used to force written files to the disk
+     */
+    public RecordStore(Path folder, DurabilityPolicy durability) {
+        this.folder = folder;
+        this.recordPath = folder.resolve(RECORD_FILE_NAME);
+        this.durability = durability;
+    }
+
+    public boolean exists() {
+        return Files.exists(recordPath);
+    }
+
+    /**
+     * Returns the number of records in the file, including tombstones, without reading them.
+     *
+     * @return number of records
+     */
+    public int getStoredRecordCount() {
+        try {
+            return (int) Math.max(0, (Files.size(recordPath) - HEADER_SIZE) / RECORD_SIZE);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Reads every live record and returns their tasks in record order, reporting progress every few
+     * thousand records. Tombstones and records failing their crc are skipped.
+     *
+     * @param progress     receives the number of tasks read and the number of records
+     * @return             saved tasks
+     * @throws IOException if the files cannot be read
+     */
+    public synchronized List<Task> load(ProgressListener progress) throws IOException {
+        closeFiles();
+        slots.clear();
+        dirtyTasks.clear();
+        removedTasks.clear();
+        deadRecords = 0;
+        corruptedRecords = 0;
+        open();
+
+        ByteBuffer heapBuffer = heapSize > 0
+                ? heap.map(FileChannel.MapMode.READ_ONLY, 0, heapSize)
+                : ByteBuffer.allocate(0);
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BATCH * RECORD_SIZE);
+        List<Task> tasks = new ArrayList<>();
+        long liveHeapBytes = 0;
+        for (int first = 0; first < recordCount; first += READ_BATCH) {
+            int count = Math.min(READ_BATCH, recordCount - first);
+            buffer.clear().limit(count * RECORD_SIZE);
+            readFully(records, buffer, getRecordPosition(first));
+            for (int i = 0; i < count; i++) {
+                Slot slot = readSlot(buffer, i * RECORD_SIZE, heapBuffer);
+                if (slot == null) {
+                    continue;
+                }
+                slot.index = first + i;
+                try {
+                    Task task = TaskCodec.create(slot.type, slot.description, slot.epochSecond,
+                            slot.recurrence.isEmpty() ? null : slot.recurrence, (slot.flags & FLAG_FINISHED) != 0,
+                            slot.id);
+                    task.setPriority(slot.priority);
+                    slots.put(task, slot);
+                    tasks.add(task);
+                    liveHeapBytes += slot.heapLength;
+                } catch (IOException e) {
+                    corruptedRecords++;
+                }
+            }
+            progress.onProgress(tasks.size(), recordCount);
+        }
+        deadHeapBytes = heapSize - liveHeapBytes;
+        return tasks;
+    }
+
+    /**
+     * Returns the slot of the record at the given offset of the buffer, or null if it is a tombstone or damaged.
+     */
+    private Slot readSlot(ByteBuffer buffer, int offset, ByteBuffer heapBuffer) {
+        int flags = buffer.get(offset);
+        if ((flags & FLAG_DELETED) != 0) {
+            deadRecords++;
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), offset + 1, CRC_OFFSET - 1);
+        int typeOrdinal = buffer.get(offset + 1);
+        int priorityOrdinal = buffer.getShort(offset + 2);
+        long heapOffset = buffer.getLong(offset + 16);
+        int heapLength = buffer.getInt(offset + 24);
+        if (buffer.getInt(offset + CRC_OFFSET) != (int) crc.getValue()
+                || typeOrdinal < 0 || typeOrdinal >= TaskType.values().length
+                || priorityOrdinal < 0 || priorityOrdinal >= Priority.values().length
+                || heapOffset < 0 || heapLength < 0 || heapOffset + heapLength > heapSize) {
+            corruptedRecords++;
+            return null;
+        }
+
+        ByteBuffer text = heapBuffer.duplicate();
+        text.position((int) heapOffset).limit((int) (heapOffset + heapLength));
+        String description = readString(text);
+        String recurrence = readString(text);
+        if (description == null || recurrence == null) {
+            corruptedRecords++;
+            return null;
+        }
+        Slot slot = new Slot(flags, TaskType.values()[typeOrdinal], Priority.values()[priorityOrdinal],
+                buffer.getInt(offset + 4), buffer.getLong(offset + 8), description, recurrence);
+        slot.heapOffset = heapOffset;
+        slot.heapLength = heapLength;
+        return slot;
+    }
+
+    private static String readString(ByteBuffer text) {
+        if (text.remaining() < Integer.BYTES) {
+            return null;
+        }
+        int length = text.getInt();
+        if (length < 0 || length > text.remaining()) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        text.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Starts tracking the changes of the given list, which must match what is saved.
+     *
+     * @param taskList list of the loaded tasks
+     */
+    public synchronized void track(TaskList taskList) {
+        if (trackedList != null) {
+            trackedList.removeIndex(this);
+        }
+        dirtyTasks.clear();
+        removedTasks.clear();
+        needsReconcile = false;
+        trackedList = taskList;
+        taskList.addIndex(this);
+    }
+
+    /**
+     * Writes the changes of the tracked list since the last save in place.
+     * If the given list is not the tracked one, every task is written into a new generation instead.
+     *
+     * @param taskList     list of {@code Task}
+     * @throws IOException if writing fails
+     */
+    public synchronized void save(TaskList taskList) throws IOException {
+        lastSaveBytes = 0;
+        if (records == null) {
+            open();
+        }
+        if (taskList != trackedList) {
+            track(taskList);
+            List<Slot> fresh = new ArrayList<>();
+            slots.clear();
+            for (Task task: taskList) {
+                Slot slot = Slot.of(task);
+                slots.put(task, slot);
+                fresh.add(slot);
+            }
+            rewrite(fresh);
+            return;
+        }
+        if (needsReconcile) {
+            Set<Task> listed = Collections.newSetFromMap(new IdentityHashMap<>());
+            listed.addAll(taskList);
+            for (Task task: slots.keySet()) {
+                if (!listed.contains(task)) {
+                    removedTasks.add(task);
+                }
+            }
+            dirtyTasks.retainAll(listed);
+            needsReconcile = false;
+        }
+
+        ByteArrayOutputStream heapAppend = new ByteArrayOutputStream();
+        List<Slot> appended = new ArrayList<>();
+        List<Slot> rewritten = new ArrayList<>();
+        List<Slot> flagged = new ArrayList<>();
+        for (Task task: removedTasks) {
+            Slot slot = slots.remove(task);
+            if (slot != null) {
+                Slot tombstone = new Slot(slot.flags | FLAG_DELETED, slot.type, slot.priority, slot.id,
+                        slot.epochSecond, slot.description, slot.recurrence);
+                tombstone.index = slot.index;
+                flagged.add(tombstone);
+                deadRecords++;
+                deadHeapBytes += slot.heapLength;
+            }
+        }
+        for (Task task: dirtyTasks) {
+            Slot saved = slots.get(task);
+            Slot slot = Slot.of(task);
+            if (saved != null && saved.hasSameText(slot)) {
+                slot.heapOffset = saved.heapOffset;
+                slot.heapLength = saved.heapLength;
+            } else {
+                byte[] text = encodeText(slot);
+                slot.heapOffset = heapSize + heapAppend.size();
+                slot.heapLength = text.length;
+                heapAppend.write(text);
+                if (saved != null) {
+                    deadHeapBytes += saved.heapLength;
+                }
+            }
+
+            if (saved == null) {
+                appended.add(slot);
+            } else if (!saved.hasSameRecord(slot)) {
+                slot.index = saved.index;
+                rewritten.add(slot);
+            } else if (saved.flags != slot.flags) {
+                slot.index = saved.index;
+                flagged.add(slot);
+            } else {
+                continue;
+            }
+            slots.put(task, slot);
+        }
+        removedTasks.clear();
+        dirtyTasks.clear();
+
+        // Heap entries go first, so that no record on the disk points past the end of the heap
+        if (heapAppend.size() > 0) {
+            write(heap, ByteBuffer.wrap(heapAppend.toByteArray()), heapSize);
+            heapSize += heapAppend.size();
+            durability.markWritten(getHeapPath(generation), heapAppend.size());
+        }
+        long recordBytes = lastSaveBytes;
+        for (Slot slot: flagged) {
+            write(records, ByteBuffer.wrap(new byte[] {(byte) slot.flags}), getRecordPosition(slot.index));
+        }
+        for (Slot slot: rewritten) {
+            write(records, encodeRecord(slot), getRecordPosition(slot.index));
+        }
+        if (!appended.isEmpty()) {
+            appended.sort(Comparator.comparingInt(slot -> slot.id));
+            ByteBuffer buffer = ByteBuffer.allocate(appended.size() * RECORD_SIZE);
+            for (Slot slot: appended) {
+                slot.index = recordCount++;
+                buffer.put(encodeRecord(slot));
+            }
+            buffer.flip();
+            write(records, buffer, getRecordPosition(appended.get(0).index));
+        }
+        if (!flagged.isEmpty() || !rewritten.isEmpty() || !appended.isEmpty()) {
+            durability.markWritten(recordPath, lastSaveBytes - recordBytes);
+        }
+        scheduleCompaction();
+    }
+
+    /**
+     * Writes the live records into the files of a new generation, reclaiming tombstones and old heap entries.
+     *
+     * @throws IOException if writing fails, the current generation is then kept
+     */
+    public synchronized void compact() throws IOException {
+        isCompactionQueued = false;
+        if (records == null || (deadRecords == 0 && deadHeapBytes == 0)) {
+            return;
+        }
+        List<Slot> live = new ArrayList<>(slots.values());
+        live.sort(INDEX_ORDER);
+        rewrite(live);
+        durability.commit();
+    }
+
+    /**
+     * Writes the given slots in order into the files of the next generation and switches to them.
+     * The slots are only moved to their new places once the record file of the new generation replaced the old one,
+     * so if a write fails they still point into the current generation, which is kept.
+     */
+    private void rewrite(List<Slot> live) throws IOException {
+        int nextGeneration = generation + 1;
+        List<byte[]> texts = new ArrayList<>();
+        long[] heapOffsets = new long[live.size()];
+        long offset = 0;
+        for (int i = 0; i < live.size(); i++) {
+            byte[] text = encodeText(live.get(i));
+            texts.add(text);
+            heapOffsets[i] = offset;
+            offset += text.length;
+        }
+        durability.write(getHeapPath(nextGeneration), out -> {
+            for (byte[] text: texts) {
+                out.write(text);
+            }
+        });
+        durability.write(recordPath, out -> {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(nextGeneration).putInt(0);
+            out.write(header.array());
+            for (int i = 0; i < live.size(); i++) {
+                out.write(encodeRecord(live.get(i), heapOffsets[i], texts.get(i).length).array());
+            }
+        });
+        for (int i = 0; i < live.size(); i++) {
+            Slot slot = live.get(i);
+            slot.index = i;
+            slot.heapOffset = heapOffsets[i];
+            slot.heapLength = texts.get(i).length;
+        }
+        closeFiles();
+        durability.delete(getHeapPath(generation));
+        lastSaveBytes += offset + HEADER_SIZE + (long) live.size() * RECORD_SIZE;
+        deadRecords = 0;
+        deadHeapBytes = 0;
+        open();
+    }
+
+    /**
+     * Opens the record file, creating it if needed, and the heap file of its generation.
+     * Heap files of other generations, left by an interrupted compaction, are deleted.
+     */
+    private void open() throws IOException {
+        Files.createDirectories(folder);
+        records = FileChannel.open(recordPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (records.size() < HEADER_SIZE) {
+            generation = 1;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(generation).putInt(0).flip();
+            write(records, header, 0);
+            records.truncate(HEADER_SIZE);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(records, header, 0);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                records.close();
+                records = null;
+                throw new IOException("Not a record file: " + recordPath);
+            }
+            generation = header.getInt(8);
+        }
+        recordCount = (int) ((records.size() - HEADER_SIZE) / RECORD_SIZE);
+        heap = FileChannel.open(getHeapPath(generation), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        heapSize = heap.size();
+        try (DirectoryStream<Path> heaps = Files.newDirectoryStream(folder, HEAP_PREFIX + "*" + HEAP_EXTENSION)) {
+            for (Path other: heaps) {
+                if (!other.equals(getHeapPath(generation))) {
+                    durability.delete(other);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lets a queued compaction finish, then stops the compactor thread and closes the files.
+     * The files are opened again by the next load or save, and the thread started again by the next compaction.
+     *
+     * @throws IOException if a file cannot be closed
+     */
+    public void close() throws IOException {
+        stopCompactor();
+        closeFiles();
+    }
+
+    private synchronized void closeFiles() throws IOException {
+        if (records != null) {
+            records.close();
+            records = null;
+        }
+        if (heap != null) {
+            heap.close();
+            heap = null;
+        }
+    }
+
+    /**
+     * Closes and removes the record and heap files and stops tracking the task list.
+     *
+     * @throws IOException if a file cannot be removed
+     */
+    public void delete() throws IOException {
+        stopCompactor();
+        synchronized (this) {
+            closeFiles();
+            if (trackedList != null) {
+                trackedList.removeIndex(this);
+                trackedList = null;
+            }
+            slots.clear();
+            durability.delete(recordPath);
+            try (DirectoryStream<Path> heaps = Files.newDirectoryStream(folder, HEAP_PREFIX + "*" + HEAP_EXTENSION)) {
+                for (Path file: heaps) {
+                    durability.delete(file);
+                }
+            }
+        }
+    }
+
+    private void scheduleCompaction() {
+        long deadBytes = (long) deadRecords * RECORD_SIZE + deadHeapBytes;
+        long totalBytes = (long) recordCount * RECORD_SIZE + heapSize;
+        if (isCompactionQueued || deadBytes < MIN_COMPACT_BYTES || deadBytes * 2 < totalBytes) {
+            return;
+        }
+        isCompactionQueued = true;
+        getCompactor().execute(() -> {
+            try {
+                compact();
+            } catch (IOException e) {
+                System.out.println(e.getMessage());
+            }
+        });
+    }
+
+    private ExecutorService getCompactor() {
+        if (compactor == null) {
+            compactor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "snom-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return compactor;
+    }
+
+    /**
+     * Shuts the compactor down and waits for a queued compaction to finish, outside the lock it needs.
+     */
+    private void stopCompactor() {
+        ExecutorService stopped;
+        synchronized (this) {
+            stopped = compactor;
+            compactor = null;
+        }
+        if (stopped == null) {
+            return;
+        }
+        stopped.shutdown();
+        try {
+            stopped.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Path getHeapPath(int generation) {
+        return folder.resolve(HEAP_PREFIX + generation + HEAP_EXTENSION);
+    }
+
+    private static long getRecordPosition(int index) {
+        return HEADER_SIZE + (long) index * RECORD_SIZE;
+    }
+
+    private static ByteBuffer encodeRecord(Slot slot) {
+        return encodeRecord(slot, slot.heapOffset, slot.heapLength);
+    }
+
+    private static ByteBuffer encodeRecord(Slot slot, long heapOffset, int heapLength) {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        buffer.put((byte) slot.flags).put((byte) slot.type.ordinal()).putShort((short) slot.priority.ordinal())
+                .putInt(slot.id).putLong(slot.epochSecond).putLong(heapOffset).putInt(heapLength);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 1, CRC_OFFSET - 1);
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    private static byte[] encodeText(Slot slot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        TaskCodec.writeString(slot.description, out);
+        TaskCodec.writeString(slot.recurrence, out);
+        return bytes.toByteArray();
+    }
+
+    private void write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        lastSaveBytes += buffer.remaining();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of record file");
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Returns the number of bytes written by the last save, to check that small changes stay small.
+     *
+     * @return number of bytes
+     */
+    public synchronized long getLastSaveBytes() {
+        return lastSaveBytes;
+    }
+
+    /**
+     * Returns the number of records in the file, including tombstones.
+     *
+     * @return number of records
+     */
+    public synchronized int getRecordCount() {
+        return recordCount;
+    }
+
+    public synchronized int getDeadRecords() {
+        return deadRecords;
+    }
+
+    public synchronized int getCorruptedRecords() {
+        return corruptedRecords;
+    }
+
+    @Override
+    public synchronized void onAdd(int position, Task task) {
+        removedTasks.remove(task);
+        dirtyTasks.add(task);
+    }
+
+    @Override
+    public synchronized void onRemove(int position, Task task) {
+        dirtyTasks.remove(task);
+        if (slots.containsKey(task)) {
+            removedTasks.add(task);
+        }
+    }
+
+    @Override
+    public synchronized void onUpdate(int position, Task task) {
+        dirtyTasks.add(task);
+    }
+
+    @Override
+    public synchronized void onClear() {
+        needsReconcile = true;
+    }
+}
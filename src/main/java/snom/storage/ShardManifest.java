@@ -0,0 +1,97 @@
+package snom.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Lists the shard files of a sharded save folder with the number of tasks in each.
+ *
+ * <pre>
+ * manifest := "snom-shards 1" line*
+ * line     := shardName "," taskCount
+ * </pre>
+ */
+public class ShardManifest {
+    private static final String HEADER = "snom-shards 1";
+    private static final String DELIM = ",";
+
+    private final Path path;
+    private final TreeMap<String, Integer> shards = new TreeMap<>();
+
+    /**
+     * Constructs an empty {@code ShardManifest}
+     *
+     * @param path file path of manifest
+     */
+    public ShardManifest(Path path) {
+        this.path = path;
+    }
+
+    public boolean exists() {
+        return Files.exists(path);
+    }
+
+    /**
+     * Reads the manifest file, ignoring malformed lines.
+     *
+     * @throws IOException if the file cannot be read
+     */
+    public void load() throws IOException {
+        shards.clear();
+        for (String line: Files.readAllLines(path)) {
+            String[] attr = line.split(DELIM);
+            if (attr.length != 2 || line.equals(HEADER)) {
+                continue;
+            }
+            try {
+                shards.put(attr[0], Integer.parseInt(attr[1]));
+            } catch (NumberFormatException e) {
+                // Skip the malformed line, the shard is found again when it is next saved
+            }
+        }
+    }
+
+    /**
+     * Writes the manifest file.
+     *
+     * @param durability   how the file is written
+     * @throws IOException if the file cannot be written
+     */
+    public void save(DurabilityPolicy durability) throws IOException {
+        StringBuilder content = new StringBuilder(HEADER).append(System.lineSeparator());
+        for (String shard: shards.keySet()) {
+            content.append(shard).append(DELIM).append(shards.get(shard)).append(System.lineSeparator());
+        }
+        durability.write(path, out -> out.write(content));
+    }
+
+    /**
+     * Removes the manifest file and forgets every shard.
+     *
+     * @param durability   how the file is removed
+     * @throws IOException if the file cannot be removed
+     */
+    public void delete(DurabilityPolicy durability) throws IOException {
+        shards.clear();
+        durability.delete(path);
+    }
+
+    public Set<String> getShardNames() {
+        return shards.keySet();
+    }
+
+    public int getTaskCount(String shard) {
+        return shards.getOrDefault(shard, 0);
+    }
+
+    public void put(String shard, int taskCount) {
+        shards.put(shard, taskCount);
+    }
+
+    public void remove(String shard) {
+        shards.remove(shard);
+    }
+}
@@ -0,0 +1,27 @@
+package snom.storage;
+
+/**
+ * How the tasks are laid out in the save folder.
+ */
+public enum StorageLayout {
+    /** Block files per type and month, rewritten whole when one of their tasks changes. */
+    SHARDS,
+    /** One fixed-width record per task, changed in place, with descriptions in a separate heap file. */
+    RECORDS;
+
+    /**
+     * Returns the layout with the given name, ignoring case, or the default if there is none.
+     *
+     * @param name          name of layout
+     * @param defaultLayout layout used when the name is unknown
+     * @return              storage layout
+     */
+    public static StorageLayout fromName(String name, StorageLayout defaultLayout) {
+        for (StorageLayout layout: values()) {
+            if (layout.name().equalsIgnoreCase(name.trim())) {
+                return layout;
+            }
+        }
+        return defaultLayout;
+    }
+}
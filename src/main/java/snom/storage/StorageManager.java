@@ -1,81 +1,646 @@
 package snom.storage;
 
 import java.io.IOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+import java.util.regex.Pattern;
 
+import snom.common.core.Messages;
+import snom.common.core.Settings;
 import snom.common.exceptions.SnomException;
+import snom.model.index.TaskIndex;
 import snom.model.task.Deadline;
 import snom.model.task.Event;
+import snom.model.task.Recurrence;
 import snom.model.task.Task;
 import snom.model.task.TaskList;
+import snom.model.task.TaskWithDate;
 import snom.model.task.Todo;
 
 /**
  * Manages storage related process for Snom
  * Eg. Import task, save task
+ *
+ * <p>Tasks are saved in a folder of shard files next to the given file path, eg. {@code data/snom/} for
+ * {@code data/snom.txt}. Undated todos go to {@code todo.snom}, and deadlines and events go to one shard
+ * per type and month of their date, eg. {@code deadline-2021-09.snom}. A manifest lists the shards.
+ * Every change to the saved task list marks the shards it touches as dirty, and a save rewrites only those.
+ * A single save file of an older version is split into shards the first time it is loaded.
+ *
+ * <p>With the {@code RECORDS} layout, tasks are kept in a {@link RecordStore} in the same folder instead,
+ * so a change to one task is written in place. Switching layouts converts the saved tasks on the next load.
+ *
+ * <p>Archived tasks are appended to a {@link TaskArchive} in the same folder, whatever the layout,
+ * and are no longer loaded or saved with the task list.
  */
 public class StorageManager extends FileManager {
+    public static final String SHARD_EXTENSION = ".snom";
+    public static final String MANIFEST_FILE_NAME = "manifest.txt";
+    private static final String TODO_SHARD = "todo";
+    private static final String LEGACY_SUFFIX = ".legacy";
+    private static final Pattern LEGACY_RECURRENCE = Pattern.compile("^[A-Z]+:\\d+:.*");
+    private static final Comparator<Task> ID_ORDER = Comparator.comparingInt(Task::getId);
+
+    private final Path shardFolder;
+    private final StorageLayout layout;
+    private final RecordStore recordStore;
+    private final TaskArchive archive;
+    private final ShardManifest manifest;
+    private final CompletionFile completionFile;
+    private final IdFile idFile;
+    private final Map<String, Set<Task>> shardTasks = new HashMap<>();
+    private final Set<String> dirtyShards = new TreeSet<>();
+    private final ShardTracker tracker = new ShardTracker();
+    private final DurabilityPolicy durability = new DurabilityPolicy(
+            DurabilityMode.fromName(Settings.getString(Settings.KEY_STORAGE_DURABILITY,
+                    Settings.DEFAULT_STORAGE_DURABILITY), DurabilityMode.BATCH),
+            Settings.getLong(Settings.KEY_STORAGE_FSYNC_INTERVAL, Settings.DEFAULT_STORAGE_FSYNC_INTERVAL));
+    private TaskList trackedList;
+    private int corruptedBlocks;
+    private boolean isCompressed = Settings.getBoolean(Settings.KEY_STORAGE_COMPRESS, false);
+    private int blockSize = (int) Settings.getLong(Settings.KEY_STORAGE_BLOCK_SIZE,
+            Settings.DEFAULT_STORAGE_BLOCK_SIZE);
 
     /**
-     * Constructs a {@code StorageManager}
+     * Marks the shards touched by every change of the tracked task list as dirty.
+     */
+    private class ShardTracker implements TaskIndex {
+        @Override
+        public void onAdd(int position, Task task) {
+            String shard = getShardName(task);
+            shardTasks.computeIfAbsent(shard, k -> Collections.newSetFromMap(new IdentityHashMap<>())).add(task);
+            dirtyShards.add(shard);
+        }
+
+        @Override
+        public void onRemove(int position, Task task) {
+            String shard = getShardName(task);
+            Set<Task> tasks = shardTasks.get(shard);
+            if (tasks != null) {
+                tasks.remove(task);
+            }
+            dirtyShards.add(shard);
+        }
+
+        @Override
+        public void beforeUpdate(int position, Task task) {
+            onRemove(position, task);
+        }
+
+        @Override
+        public void onUpdate(int position, Task task) {
+            onAdd(position, task);
+        }
+
+        @Override
+        public void onClear() {
+            dirtyShards.addAll(shardTasks.keySet());
+            shardTasks.clear();
+        }
+    }
+
+    /**
+     * Constructs a {@code StorageManager} with the layout given by {@code Settings}
      *
-     * @param filePath file path to save task list
+     * @param filePath file path to save task list, the shards are saved in a folder of the same name
      */
     public StorageManager(Path filePath) {
+        this(filePath, StorageLayout.fromName(Settings.getString(Settings.KEY_STORAGE_LAYOUT,
+                Settings.DEFAULT_STORAGE_LAYOUT), StorageLayout.SHARDS));
+    }
+
+    /**
+     * Constructs a {@code StorageManager}
+     *
+     * @param filePath file path to save task list, the tasks are saved in a folder of the same name
+     * @param layout   how the tasks are laid out in the folder
+     */
+    public StorageManager(Path filePath, StorageLayout layout) {
         super(filePath);
+        this.layout = layout;
         super.createFolder();
-        super.createFile();
+        String fileName = filePath.getFileName().toString();
+        int extension = fileName.lastIndexOf('.');
+        shardFolder = filePath.resolveSibling(extension > 0 ? fileName.substring(0, extension) : fileName + "-shards");
+        manifest = new ShardManifest(shardFolder.resolve(MANIFEST_FILE_NAME));
+        recordStore = new RecordStore(shardFolder, durability);
+        archive = new TaskArchive(shardFolder.resolve(TaskArchive.FILE_NAME), durability);
+        completionFile = new CompletionFile(shardFolder.resolve(CompletionFile.FILE_NAME));
+        idFile = new IdFile(shardFolder.resolve(IdFile.FILE_NAME));
+        try {
+            Files.createDirectories(shardFolder);
+            deleteTempFiles();
+            if (manifest.exists()) {
+                manifest.load();
+            }
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes temporary files left by a save that was interrupted.
+     */
+    private void deleteTempFiles() throws IOException {
+        try (DirectoryStream<Path> temps = Files.newDirectoryStream(shardFolder, "*" + DurabilityPolicy.TEMP_SUFFIX)) {
+            for (Path temp: temps) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Sets whether the blocks of the shard files are compressed from the next save onwards.
+     *
+     * @param isCompressed whether to compress
+     */
+    public void setCompressed(boolean isCompressed) {
+        this.isCompressed = isCompressed;
+    }
+
+    /**
+     * Sets the maximum uncompressed size of a block from the next save onwards.
+     *
+     * @param blockSize block size in bytes
+     */
+    public void setBlockSize(int blockSize) {
+        this.blockSize = blockSize;
+    }
+
+    public Path getShardFolder() {
+        return shardFolder;
+    }
+
+    /**
+     * Returns the name of the shard the given task is saved in.
+     *
+     * @param task task to save
+     * @return     shard name
+     */
+    public static String getShardName(Task task) {
+        if (!(task instanceof TaskWithDate)) {
+            return TODO_SHARD;
+        }
+        return task.getType().name().toLowerCase() + "-" + YearMonth.from(((TaskWithDate) task).getDateTime());
+    }
+
+    private BlockFile getShardFile(String shard) {
+        return new BlockFile(shardFolder.resolve(shard + SHARD_EXTENSION), isCompressed, blockSize, durability);
     }
 
     /**
-     * Returns an array list of {@code Task} from input list of strings
+     * Returns the shard names in the order they should be loaded: todos first, then the most recent months.
+     *
+     * @return shard names
+     */
+    public List<String> getShardNames() {
+        List<String> shards = new ArrayList<>(manifest.getShardNames());
+        shards.sort(Comparator.comparing((String shard) -> !shard.equals(TODO_SHARD))
+                .thenComparing(StorageManager::getShardMonth, Comparator.reverseOrder()));
+        return shards;
+    }
+
+    private static String getShardMonth(String shard) {
+        return shard.substring(shard.indexOf('-') + 1);
+    }
+
+    /**
+     * Returns the number of tasks saved in the given shard, as listed in the manifest.
+     *
+     * @param shard shard name
+     * @return      number of tasks
+     */
+    public int getTaskCount(String shard) {
+        return manifest.getTaskCount(shard);
+    }
+
+    /**
+     * Returns the number of saved tasks as listed in the manifest.
+     *
+     * @return number of tasks
+     */
+    public int getTotalTaskCount() {
+        if (recordStore.exists() && (layout == StorageLayout.RECORDS || !manifest.exists())) {
+            return recordStore.getStoredRecordCount();
+        }
+        int total = 0;
+        for (String shard: manifest.getShardNames()) {
+            total += manifest.getTaskCount(shard);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the list of {@code Task} in the save folder, in the order they were added.
+     * Damaged blocks are skipped, and a single save file of an older version is split into shards.
+     * The returned list is tracked, so that the next {@code saveFile} rewrites only the shards it changed.
      *
      * @return               array list of {@code Task}
-     * @throws SnomException if invalid date for deadline or event
+     * @throws SnomException if the save file cannot be read
      */
     public TaskList importTask() throws SnomException {
-        List<String> lines = super.readFile();
+        return importTask(ProgressListener.NONE);
+    }
+
+    /**
+     * Returns the list of {@code Task} in the save folder like {@link #importTask()},
+     * reporting the number of tasks read after every block. The completion history and the next id are read
+     * along with the tasks.
+     *
+     * @param progress       receives the number of tasks read and {@link #getTotalTaskCount()}
+     * @return               array list of {@code Task}
+     * @throws SnomException if the save file cannot be read
+     */
+    public TaskList importTask(ProgressListener progress) throws SnomException {
+        TaskList taskList = readTasks(progress);
+        try {
+            completionFile.load(taskList.getCompletionHistory());
+            idFile.load(taskList);
+        } catch (IOException e) {
+            throw new SnomException(e.getMessage());
+        }
+        return taskList;
+    }
+
+    private TaskList readTasks(ProgressListener progress) throws SnomException {
+        if (recordStore.exists() && (layout == StorageLayout.RECORDS || !manifest.exists())) {
+            return importRecords(progress);
+        }
+        if (!manifest.exists() && Files.exists(path)) {
+            TaskList taskList = migrateSingleFile();
+            progress.onProgress(taskList.size(), taskList.size());
+            return taskList;
+        }
+        long total = getTotalTaskCount();
+        List<Task> tasks = new ArrayList<>();
+        importShards((shard, block) -> {
+            tasks.addAll(block);
+            progress.onProgress(tasks.size(), total);
+        });
+        tasks.sort(ID_ORDER);
+        TaskList taskList = new TaskList();
+        taskList.addAll(tasks);
+        if (layout == StorageLayout.RECORDS) {
+            saveFile(taskList);
+            deleteShards();
+            return taskList;
+        }
+        track(taskList);
+        dirtyShards.clear();
+        return taskList;
+    }
+
+    /**
+     * Returns the tasks of the record store in the order they were added.
+     * With the {@code SHARDS} layout the tasks are then saved in shards and the record files removed.
+     */
+    private TaskList importRecords(ProgressListener progress) throws SnomException {
         TaskList taskList = new TaskList();
-        for (String line: lines) {
-            String[] attr = line.split(",");
+        try {
+            List<Task> tasks = recordStore.load(progress);
+            tasks.sort(ID_ORDER);
+            taskList.addAll(tasks);
+            if (recordStore.getCorruptedRecords() > 0) {
+                System.out.println(String.format(Messages.MESSAGE_CORRUPTED_RECORDS,
+                        recordStore.getCorruptedRecords()));
+            }
+            if (layout == StorageLayout.RECORDS) {
+                recordStore.track(taskList);
+            } else {
+                saveFile(taskList);
+                recordStore.delete();
+            }
+        } catch (IOException e) {
+            throw new SnomException(e.getMessage());
+        }
+        return taskList;
+    }
+
+    /**
+     * Removes every shard file and the manifest, once their tasks are in the record store.
+     */
+    private void deleteShards() throws SnomException {
+        try {
+            for (String shard: manifest.getShardNames()) {
+                durability.delete(getShardFile(shard).getPath());
+            }
+            manifest.delete(durability);
+        } catch (IOException e) {
+            throw new SnomException(e.getMessage());
+        }
+        durability.commit();
+    }
+
+    /**
+     * Reads the shards in the order of {@link #getShardNames()} and passes their tasks to the consumer
+     * one block at a time.
+     *
+     * @param consumer       receives the shard name and the tasks of one of its blocks
+     * @throws SnomException if a shard cannot be read
+     */
+    public void importShards(BiConsumer<String, List<Task>> consumer) throws SnomException {
+        corruptedBlocks = 0;
+        try {
+            for (String shard: getShardNames()) {
+                BlockFile shardFile = getShardFile(shard);
+                shardFile.read(block -> consumer.accept(shard, block));
+                corruptedBlocks += shardFile.getCorruptedBlocks();
+            }
+        } catch (IOException e) {
+            throw new SnomException(e.getMessage());
+        }
+        if (corruptedBlocks > 0) {
+            System.out.println(String.format(Messages.MESSAGE_CORRUPTED_BLOCKS, corruptedBlocks));
+        }
+    }
+
+    /**
+     * Returns the tasks with a date, or a recurring occurrence, in [{@code from}, {@code to}],
+     * in the order they were added. Shards of later months are not read, and within a shard only
+     * the blocks that may hold such tasks are read. Only the {@code SHARDS} layout supports this.
+     *
+     * @param from           earliest date
+     * @param to             latest date
+     * @return               list of {@code TaskWithDate} in the range
+     * @throws SnomException if a shard cannot be read
+     */
+    public TaskList importTasksBetween(LocalDateTime from, LocalDateTime to) throws SnomException {
+        String lastMonth = YearMonth.from(to).toString();
+        List<Task> tasks = new ArrayList<>();
+        try {
+            for (String shard: getShardNames()) {
+                if (!shard.equals(TODO_SHARD) && getShardMonth(shard).compareTo(lastMonth) <= 0) {
+                    tasks.addAll(getShardFile(shard).readBetween(from, to));
+                }
+            }
+        } catch (IOException e) {
+            throw new SnomException(e.getMessage());
+        }
+        tasks.sort(ID_ORDER);
+        TaskList taskList = new TaskList();
+        taskList.addAll(tasks);
+        return taskList;
+    }
+
+    /**
+     * Returns the number of damaged blocks skipped by the last {@code importTask}.
+     *
+     * @return number of skipped blocks
+     */
+    public int getCorruptedBlocks() {
+        return corruptedBlocks;
+    }
+
+    /**
+     * Returns the names of the shards changed since the last save.
+     *
+     * @return dirty shard names
+     */
+    public Set<String> getDirtyShards() {
+        return Collections.unmodifiableSet(dirtyShards);
+    }
+
+    /**
+     * Starts tracking the changes of the given list. Every shard is marked dirty,
+     * since the list may not match what is saved.
+     */
+    private void track(TaskList taskList) {
+        if (trackedList != null) {
+            trackedList.removeIndex(tracker);
+        }
+        dirtyShards.addAll(manifest.getShardNames());
+        shardTasks.clear();
+        trackedList = taskList;
+        taskList.addIndex(tracker);
+    }
+
+    /**
+     * Reads a single save file of an older version, keeps a copy of it and saves the tasks in shards.
+     *
+     * @return               array list of {@code Task}
+     * @throws SnomException if the save file cannot be read
+     */
+    private TaskList migrateSingleFile() throws SnomException {
+        TaskList taskList = new TaskList();
+        corruptedBlocks = 0;
+        try {
+            if (Files.size(path) > 0 && BlockReader.isBlockFile(path)) {
+                BlockFile file = new BlockFile(path, isCompressed, blockSize);
+                taskList.addAll(file.read());
+                corruptedBlocks = file.getCorruptedBlocks();
+            } else {
+                for (String line: super.readFile()) {
+                    Task task = parseLegacyLine(line);
+                    if (task != null) {
+                        taskList.add(task);
+                    }
+                }
+            }
+            saveFile(taskList);
+            Path backup = path.resolveSibling(path.getFileName() + LEGACY_SUFFIX);
+            Files.move(path, backup, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println(String.format(Messages.MESSAGE_MIGRATED_SAVE_FILE, backup));
+        } catch (IOException e) {
+            throw new SnomException(e.getMessage());
+        }
+        return taskList;
+    }
+
+    /**
+     * Returns the {@code Task} of a line in the old format, or null if the line is malformed.
+     * The date and recurrence are taken from the right, so commas in the description are kept.
+     *
+     * @param line line of the old save file
+     * @return     task or null
+     */
+    private static Task parseLegacyLine(String line) {
+        String[] attr = line.split(",", 3);
+        if (attr.length < 3) {
+            return null;
+        }
+        try {
+            Task task;
             switch (attr[0]) {
             case "T":
-                Todo todo = new Todo(attr[2]);
-                todo.setStatus(Boolean.parseBoolean(attr[1]));
-                taskList.add(todo);
+                task = new Todo(attr[2]);
                 break;
             case "D":
-                Deadline deadline = new Deadline(attr[2], attr[3]);
-                deadline.setStatus(Boolean.parseBoolean(attr[1]));
-                taskList.add(deadline);
-                break;
             case "E":
-                Event event = new Event(attr[2], attr[3]);
-                event.setStatus(Boolean.parseBoolean(attr[1]));
-                taskList.add(event);
+                String rest = attr[2];
+                Recurrence recurrence = null;
+                int lastComma = rest.lastIndexOf(',');
+                if (lastComma >= 0 && LEGACY_RECURRENCE.matcher(rest.substring(lastComma + 1)).matches()) {
+                    recurrence = Recurrence.fromSaveString(rest.substring(lastComma + 1));
+                    rest = rest.substring(0, lastComma);
+                    lastComma = rest.lastIndexOf(',');
+                }
+                if (lastComma < 0) {
+                    return null;
+                }
+                String description = rest.substring(0, lastComma);
+                String date = rest.substring(lastComma + 1);
+                TaskWithDate taskWithDate = attr[0].equals("D")
+                        ? new Deadline(description, date)
+                        : new Event(description, date);
+                if (recurrence != null) {
+                    taskWithDate.setRecurrence(recurrence);
+                }
+                task = taskWithDate;
                 break;
             default:
+                return null;
             }
+            task.setStatus(Boolean.parseBoolean(attr[1]));
+            return task;
+        } catch (SnomException e) {
+            return null;
         }
-        return taskList;
     }
 
     /**
-     * Writes the given {@code TaskList} into the save file
+     * Writes the shards changed since the last save.
+     * If the given {@code TaskList} is not the one last imported or saved, every shard is rewritten.
+     * With the {@code RECORDS} layout only the records of changed tasks are written.
+     * The completion history is written too if a task was finished since the last save, and the next id
+     * if a task was added.
      *
      * @param taskList list of {@code Task}
      */
     public void saveFile(TaskList taskList) {
         try {
-            Files.writeString(path, "");
-            for (Task task: taskList) {
-                Files.writeString(path, task.getSaveString() + "\n", StandardOpenOption.APPEND);
+            completionFile.save(taskList.getCompletionHistory(), durability);
+            idFile.save(taskList, durability);
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+        if (layout == StorageLayout.RECORDS) {
+            try {
+                recordStore.save(taskList);
+            } catch (IOException e) {
+                System.out.println(e.getMessage());
+            }
+            durability.commit();
+            return;
+        }
+        if (taskList != trackedList) {
+            track(taskList);
+        }
+        if (dirtyShards.isEmpty() && manifest.exists()) {
+            return;
+        }
+        try {
+            for (String shard: new ArrayList<>(dirtyShards)) {
+                Set<Task> tasks = shardTasks.get(shard);
+                BlockFile shardFile = getShardFile(shard);
+                if (tasks == null || tasks.isEmpty()) {
+                    shardTasks.remove(shard);
+                    durability.delete(shardFile.getPath());
+                    manifest.remove(shard);
+                } else {
+                    List<Task> sorted = new ArrayList<>(tasks);
+                    sorted.sort(ID_ORDER);
+                    shardFile.write(sorted);
+                    manifest.put(shard, sorted.size());
+                }
+                dirtyShards.remove(shard);
             }
+            manifest.save(durability);
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+        durability.commit();
+    }
+
+    /**
+     * Moves the tasks at the given positions from the task list to the archive and saves the task list.
+     * The archive is forced to the disk before the tasks are removed, unless durability is off,
+     * so a crash in between leaves the tasks in both rather than in neither.
+     *
+     * @param taskList       list of {@code Task}
+     * @param positions      0-based positions of the tasks to archive
+     * @return               archived tasks
+     * @throws SnomException if the archive cannot be written, in which case the task list is unchanged
+     */
+    public Task[] archiveTasks(TaskList taskList, BitSet positions) throws SnomException {
+        List<Task> archived = new ArrayList<>(positions.cardinality());
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            archived.add(taskList.get(i));
+        }
+        try {
+            archive.append(archived);
+        } catch (IOException e) {
+            throw new SnomException(String.format(Messages.ERROR_ARCHIVE_FAILED, e.getMessage()));
+        }
+        durability.sync();
+        Task[] removed = taskList.deleteTasks(positions);
+        saveFile(taskList);
+        return removed;
+    }
+
+    /**
+     * Returns the archived tasks, reading them on first use.
+     *
+     * @return               archived tasks, in the order they were archived
+     * @throws SnomException if the archive cannot be read
+     */
+    public TaskList getArchivedTasks() throws SnomException {
+        try {
+            return archive.getTasks();
+        } catch (IOException e) {
+            throw new SnomException(String.format(Messages.ERROR_ARCHIVE_FAILED, e.getMessage()));
+        }
+    }
+
+    public TaskArchive getArchive() {
+        return archive;
+    }
+
+    /**
+     * Forces every save not yet on the disk to it, whatever the durability mode.
+     */
+    public void flush() {
+        durability.sync();
+    }
+
+    /**
+     * Forces every save to the disk, closes the open files and stops the sync thread, so the task list can be
+     * dropped from memory. The files are opened again by the next import or save.
+     */
+    public void close() {
+        try {
+            recordStore.close();
+            archive.close();
         } catch (IOException e) {
             System.out.println(e.getMessage());
+        } finally {
+            durability.close();
         }
     }
+
+    public StorageLayout getLayout() {
+        return layout;
+    }
+
+    public RecordStore getRecordStore() {
+        return recordStore;
+    }
+
+    public DurabilityPolicy getDurability() {
+        return durability;
+    }
 }
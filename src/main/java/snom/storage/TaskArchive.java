@@ -0,0 +1,225 @@
+package snom.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import snom.model.task.Task;
+import snom.model.task.TaskList;
+
+/**
+ * Append-only file of archived tasks, kept apart from the task list so they are not loaded or saved with it.
+ *
+ * <pre>
+ * archive := segment*
+ * segment := length:int count:int crc:int records:byte[length]
+ * </pre>
+ * Each call to {@link #append(Collection)} writes one segment of {@link TaskCodec} records, and the crc covers
+ * the records. Opening the archive only reads the segment headers; the tasks are read the first time they are
+ * searched, into a {@code TaskList} whose indexes are then kept for later searches. A segment torn by a crash at
+ * the end of the file is cut off on open.
+ */
+public class TaskArchive implements Closeable {
+    public static final String FILE_NAME = "archive.dat";
+    private static final int SEGMENT_HEADER_SIZE = 3 * Integer.BYTES;
+
+    private final Path path;
+    private final DurabilityPolicy durability;
+    private FileChannel channel;
+    private long end;
+    private int taskCount;
+    private int corruptedSegments;
+    private TaskList tasks;
+
+    /**
+     * Constructs a {@code TaskArchive}. The file is opened on first use.
+     *
+     * @param path       file path of archive
+     * @param durability when appended segments are forced to the disk
+     */
+    public TaskArchive(Path path, DurabilityPolicy durability) {
+        this.path = path;
+        this.durability = durability;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Opens the file if needed and counts the archived tasks from the segment headers.
+     */
+    private void open() throws IOException {
+        if (channel != null) {
+            return;
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+        while (end + SEGMENT_HEADER_SIZE <= size) {
+            header.clear();
+            readFully(header, end);
+            int length = header.getInt(0);
+            int count = header.getInt(Integer.BYTES);
+            if (length < 0 || count < 0 || end + SEGMENT_HEADER_SIZE + length > size) {
+                break;
+            }
+            taskCount += count;
+            end += SEGMENT_HEADER_SIZE + length;
+        }
+        if (end < size) {
+            channel.truncate(end);
+        }
+    }
+
+    /**
+     * Returns the number of tasks archived, counting a task archived twice once per time.
+     *
+     * @return             number of archived tasks
+     * @throws IOException if the archive cannot be opened
+     */
+    public synchronized int getTaskCount() throws IOException {
+        open();
+        return taskCount;
+    }
+
+    /**
+     * Returns the number of segments skipped the last time the tasks were read because they were damaged.
+     *
+     * @return number of damaged segments
+     */
+    public synchronized int getCorruptedSegments() {
+        return corruptedSegments;
+    }
+
+    /**
+     * Returns whether the archived tasks have been read into memory.
+     *
+     * @return whether the tasks are loaded
+     */
+    public synchronized boolean isLoaded() {
+        return tasks != null;
+    }
+
+    /**
+     * Appends the given tasks as one segment. The segment reaches the disk on the next commit of the durability
+     * policy, so it should be committed before the tasks are removed from the saved task list.
+     *
+     * @param archived     tasks to archive
+     * @throws IOException if writing fails
+     */
+    public synchronized void append(Collection<? extends Task> archived) throws IOException {
+        open();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (Task task: archived) {
+            TaskCodec.encode(task, out);
+        }
+        out.flush();
+        byte[] records = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(records);
+        ByteBuffer buffer = ByteBuffer.allocate(SEGMENT_HEADER_SIZE + records.length);
+        buffer.putInt(records.length).putInt(archived.size()).putInt((int) crc.getValue()).put(records);
+        buffer.flip();
+        long position = end;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        durability.markWritten(path, position - end);
+        end = position;
+        taskCount += archived.size();
+        if (tasks != null) {
+            for (Task task: archived) {
+                tasks.add(task);
+            }
+        }
+    }
+
+    /**
+     * Returns the archived tasks, reading them the first time. Indexes built on the returned list, such as
+     * the one used by find queries, are kept until the archive is closed.
+     * A task archived twice, which happens if Snom stopped between archiving it and saving the task list, is only
+     * read once. Damaged segments are skipped.
+     *
+     * @return             archived tasks, oldest first
+     * @throws IOException if the archive cannot be read
+     */
+    public synchronized TaskList getTasks() throws IOException {
+        if (tasks != null) {
+            return tasks;
+        }
+        open();
+        Set<String> seen = new HashSet<>();
+        TaskList loaded = new TaskList();
+        corruptedSegments = 0;
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+        long position = 0;
+        while (position < end) {
+            header.clear();
+            readFully(header, position);
+            int length = header.getInt(0);
+            int count = header.getInt(Integer.BYTES);
+            ByteBuffer records = ByteBuffer.allocate(length);
+            readFully(records, position + SEGMENT_HEADER_SIZE);
+            position += SEGMENT_HEADER_SIZE + length;
+            CRC32 crc = new CRC32();
+            crc.update(records.array());
+            if (header.getInt(2 * Integer.BYTES) != (int) crc.getValue()) {
+                corruptedSegments++;
+                continue;
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(records.array()));
+            for (int i = 0; i < count; i++) {
+                Task task = TaskCodec.decode(in);
+                if (task.getId() == 0 || seen.add(task.getType() + ":" + task.getId() + ":" + task.getSaveString())) {
+                    loaded.add(task);
+                }
+            }
+        }
+        tasks = loaded;
+        return tasks;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of archive");
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Closes the file and drops the loaded tasks.
+     *
+     * @throws IOException if closing fails
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        tasks = null;
+        end = 0;
+        taskCount = 0;
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+}
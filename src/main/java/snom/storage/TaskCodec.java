@@ -0,0 +1,160 @@
+package snom.storage;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import snom.common.exceptions.SnomException;
+import snom.model.task.Deadline;
+import snom.model.task.Event;
+import snom.model.task.Priority;
+import snom.model.task.Recurrence;
+import snom.model.task.Task;
+import snom.model.task.TaskType;
+import snom.model.task.TaskWithDate;
+import snom.model.task.Todo;
+
+/**
+ * Encodes a {@code Task} as a binary record of the block file format.
+ *
+ * <pre>
+ * record := type:byte flags:byte [id:int] [priority:byte] description:string [epochSecond:long] [recurrence:string]
+ * string := length:int utf8:byte[length]
+ * </pre>
+ * Strings are length-prefixed, so descriptions may contain any character.
+ */
+public class TaskCodec {
+    private static final int FLAG_FINISHED = 1;
+    private static final int FLAG_RECURRING = 1 << 1;
+    private static final int FLAG_HAS_ID = 1 << 2;
+    private static final int FLAG_HAS_PRIORITY = 1 << 3;
+
+    /**
+     * Writes the given task as one record.
+     *
+     * @param task         task to encode
+     * @param out          destination
+     * @throws IOException if writing fails
+     */
+    public static void encode(Task task, DataOutput out) throws IOException {
+        out.writeByte(task.getType().ordinal());
+        TaskWithDate taskWithDate = task instanceof TaskWithDate ? (TaskWithDate) task : null;
+        int flags = task.hasFinished() ? FLAG_FINISHED : 0;
+        if (taskWithDate != null && taskWithDate.isRecurring()) {
+            flags |= FLAG_RECURRING;
+        }
+        if (task.getId() != 0) {
+            flags |= FLAG_HAS_ID;
+        }
+        if (task.getPriority() != Priority.NONE) {
+            flags |= FLAG_HAS_PRIORITY;
+        }
+        out.writeByte(flags);
+        if (task.getId() != 0) {
+            out.writeInt(task.getId());
+        }
+        if (task.getPriority() != Priority.NONE) {
+            out.writeByte(task.getPriority().ordinal());
+        }
+        writeString(task.getDescription(), out);
+        if (taskWithDate != null) {
+            out.writeLong(taskWithDate.getDateTime().toEpochSecond(ZoneOffset.UTC));
+            if (taskWithDate.isRecurring()) {
+                writeString(taskWithDate.getRecurrence().getSaveString(), out);
+            }
+        }
+    }
+
+    /**
+     * Reads one record and returns its task.
+     *
+     * @param in           source positioned at a record
+     * @return             decoded task
+     * @throws IOException if the record is malformed
+     */
+    public static Task decode(DataInput in) throws IOException {
+        int typeOrdinal = in.readUnsignedByte();
+        if (typeOrdinal >= TaskType.values().length) {
+            throw new IOException("Unknown task type " + typeOrdinal);
+        }
+        TaskType type = TaskType.values()[typeOrdinal];
+        int flags = in.readUnsignedByte();
+        int id = (flags & FLAG_HAS_ID) != 0 ? in.readInt() : 0;
+        Priority priority = (flags & FLAG_HAS_PRIORITY) != 0 ? getPriority(in.readUnsignedByte()) : Priority.NONE;
+        String description = readString(in);
+        long epochSecond = type == TaskType.TODO ? 0 : in.readLong();
+        String recurrence = (flags & FLAG_RECURRING) != 0 ? readString(in) : null;
+        Task task = create(type, description, epochSecond, recurrence, (flags & FLAG_FINISHED) != 0, id);
+        task.setPriority(priority);
+        return task;
+    }
+
+    /**
+     * Returns the task with the given saved fields.
+     *
+     * @param type         type of task
+     * @param description  description
+     * @param epochSecond  date in UTC epoch seconds, ignored for todos
+     * @param recurrence   save string of the recurrence, or null if the task does not recur
+     * @param isFinished   status of task
+     * @param id           id of task, 0 if it has none
+     * @return             task
+     * @throws IOException if the recurrence is malformed
+     */
+    static Task create(TaskType type, String description, long epochSecond, String recurrence, boolean isFinished,
+            int id) throws IOException {
+        Task task;
+        if (type == TaskType.TODO) {
+            task = new Todo(description);
+        } else {
+            LocalDateTime dateTime = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+            TaskWithDate taskWithDate = type == TaskType.DEADLINE
+                    ? new Deadline(description, dateTime)
+                    : new Event(description, dateTime);
+            if (recurrence != null) {
+                try {
+                    taskWithDate.setRecurrence(Recurrence.fromSaveString(recurrence));
+                } catch (SnomException e) {
+                    throw new IOException(e.getMessage());
+                }
+            }
+            task = taskWithDate;
+        }
+        task.setStatus(isFinished);
+        task.setId(id);
+        return task;
+    }
+
+    /**
+     * Returns the priority saved as the given ordinal.
+     *
+     * @param ordinal      saved ordinal
+     * @return             priority
+     * @throws IOException if the ordinal is unknown
+     */
+    static Priority getPriority(int ordinal) throws IOException {
+        if (ordinal < 0 || ordinal >= Priority.values().length) {
+            throw new IOException("Unknown priority " + ordinal);
+        }
+        return Priority.values()[ordinal];
+    }
+
+    static void writeString(String value, DataOutput out) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > BlockFormat.MAX_STORED_LENGTH) {
+            throw new IOException("Invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,149 @@
+package snom.storage.transfer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads {@code TaskRow}s from RFC 4180 style CSV.
+ * A header line naming the columns is optional and may list them in any order.
+ */
+public class CsvRowReader implements RowReader {
+    private final Reader reader;
+    private final char[] buffer = new char[64 * 1024];
+    private int position;
+    private int limit;
+    private int[] columnMap;
+    private long lineNumber = 1;
+
+    public CsvRowReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public TaskRow next() throws IOException {
+        while (true) {
+            long startLine = lineNumber;
+            List<String> record = readRecord();
+            if (record == null) {
+                return null;
+            }
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            if (columnMap == null) {
+                columnMap = readHeader(record);
+                if (columnMap != null) {
+                    continue;
+                }
+                columnMap = identityMap();
+            }
+            String[] fields = new String[TaskRow.COLUMNS.length];
+            for (int i = 0; i < record.size() && i < columnMap.length; i++) {
+                if (columnMap[i] >= 0) {
+                    fields[columnMap[i]] = record.get(i);
+                }
+            }
+            return new TaskRow(fields, startLine);
+        }
+    }
+
+    /**
+     * Returns a map from record position to column, or null if the record is not a header.
+     */
+    private static int[] readHeader(List<String> record) {
+        int[] map = new int[record.size()];
+        boolean isHeader = false;
+        for (int i = 0; i < record.size(); i++) {
+            map[i] = -1;
+            for (int column = 0; column < TaskRow.COLUMNS.length; column++) {
+                if (record.get(i).trim().equalsIgnoreCase(TaskRow.COLUMNS[column])) {
+                    map[i] = column;
+                    isHeader = true;
+                }
+            }
+        }
+        return isHeader ? map : null;
+    }
+
+    private static int[] identityMap() {
+        int[] map = new int[TaskRow.COLUMNS.length];
+        for (int i = 0; i < map.length; i++) {
+            map[i] = i;
+        }
+        return map;
+    }
+
+    /**
+     * Returns the fields of the next record, or null at the end of the file.
+     * Quoted fields may contain commas, doubled quotes and line breaks.
+     */
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean isQuoted = false;
+        boolean hasContent = false;
+        int c;
+        while ((c = read()) != -1) {
+            hasContent = true;
+            char ch = (char) c;
+            if (isQuoted) {
+                if (ch == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        isQuoted = false;
+                    }
+                } else {
+                    if (ch == '\n') {
+                        lineNumber++;
+                    }
+                    field.append(ch);
+                }
+            } else if (ch == '"') {
+                isQuoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n') {
+                lineNumber++;
+                fields.add(field.toString());
+                return fields;
+            } else if (ch != '\r') {
+                field.append(ch);
+            }
+        }
+        if (!hasContent) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position];
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        if (c != -1) {
+            position++;
+        }
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,52 @@
+package snom.storage.transfer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the outcome of a bulk import.
+ */
+public class ImportResult {
+    public static final int MAX_REPORTED_ERRORS = 5;
+
+    private long importedCount;
+    private long skippedCount;
+    private long duplicateCount;
+    private final List<String> errors = new ArrayList<>();
+
+    void addImported(long count) {
+        importedCount += count;
+    }
+
+    void addSkipped(String error) {
+        skippedCount++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(error);
+        }
+    }
+
+    void addDuplicate() {
+        duplicateCount++;
+    }
+
+    public long getImportedCount() {
+        return importedCount;
+    }
+
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+
+    public long getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    /**
+     * Returns up to {@link #MAX_REPORTED_ERRORS} reasons for skipped rows.
+     *
+     * @return reasons for skipped rows
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,172 @@
+package snom.storage.transfer;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads {@code TaskRow}s from a JSON array of flat objects, or from one object per line.
+ * Only string, boolean, number and null values are accepted, unknown keys are ignored.
+ */
+public class JsonRowReader implements RowReader {
+    private final Reader reader;
+    private final char[] buffer = new char[64 * 1024];
+    private int position;
+    private int limit;
+    private long lineNumber = 1;
+
+    public JsonRowReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public TaskRow next() throws IOException {
+        int c = skipWhitespace();
+        while (c == '[' || c == ',') {
+            read();
+            c = skipWhitespace();
+        }
+        if (c == -1 || c == ']') {
+            return null;
+        }
+        long startLine = lineNumber;
+        expect('{');
+        String[] fields = new String[TaskRow.COLUMNS.length];
+        if (skipWhitespace() == '}') {
+            read();
+            return new TaskRow(fields, startLine);
+        }
+        while (true) {
+            skipWhitespace();
+            String key = readString();
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            String value = readValue();
+            for (int column = 0; column < TaskRow.COLUMNS.length; column++) {
+                if (TaskRow.COLUMNS[column].equalsIgnoreCase(key)) {
+                    fields[column] = value;
+                }
+            }
+            int next = skipWhitespace();
+            read();
+            if (next == '}') {
+                return new TaskRow(fields, startLine);
+            } else if (next != ',') {
+                throw malformed("',' or '}'");
+            }
+        }
+    }
+
+    private String readValue() throws IOException {
+        int c = peek();
+        if (c == '"') {
+            return readString();
+        }
+        StringBuilder literal = new StringBuilder();
+        while (c != -1 && c != ',' && c != '}' && !Character.isWhitespace(c)) {
+            literal.append((char) read());
+            c = peek();
+        }
+        String value = literal.toString();
+        if (value.isEmpty()) {
+            throw malformed("a value");
+        }
+        return value.equals("null") ? null : value;
+    }
+
+    private String readString() throws IOException {
+        expect('"');
+        StringBuilder value = new StringBuilder();
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw malformed("'\"'");
+            } else if (c == '"') {
+                return value.toString();
+            } else if (c == '\\') {
+                int escaped = read();
+                switch (escaped) {
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 'b':
+                    value.append('\b');
+                    break;
+                case 'f':
+                    value.append('\f');
+                    break;
+                case 'u':
+                    char[] hex = new char[4];
+                    for (int i = 0; i < hex.length; i++) {
+                        hex[i] = (char) read();
+                    }
+                    try {
+                        value.append((char) Integer.parseInt(new String(hex), 16));
+                    } catch (NumberFormatException e) {
+                        throw malformed("a unicode escape");
+                    }
+                    break;
+                case -1:
+                    throw malformed("an escaped character");
+                default:
+                    value.append((char) escaped);
+                }
+            } else {
+                value.append((char) c);
+            }
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        if (read() != expected) {
+            throw malformed("'" + expected + "'");
+        }
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c = peek();
+        while (c != -1 && Character.isWhitespace(c)) {
+            read();
+            c = peek();
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position];
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        if (c != -1) {
+            position++;
+        }
+        if (c == '\n') {
+            lineNumber++;
+        }
+        return c;
+    }
+
+    private IOException malformed(String expected) {
+        return new IOException("Malformed JSON at line " + lineNumber + ", expected " + expected);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,17 @@
+package snom.storage.transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads {@code TaskRow}s one at a time from an import file.
+ */
+public interface RowReader extends Closeable {
+    /**
+     * Returns the next row, or null at the end of the file.
+     *
+     * @return             next row or null
+     * @throws IOException if reading fails or the file is malformed beyond recovery
+     */
+    TaskRow next() throws IOException;
+}
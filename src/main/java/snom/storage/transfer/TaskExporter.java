@@ -0,0 +1,115 @@
+package snom.storage.transfer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import snom.common.core.Messages;
+import snom.common.exceptions.SnomException;
+import snom.model.task.Task;
+import snom.storage.BufferedChannelWriter;
+import snom.storage.ProgressListener;
+
+/**
+ * Streams a list of {@code Task} into a CSV or JSON file through one buffered channel.
+ */
+public class TaskExporter {
+    public static final long PROGRESS_INTERVAL = 100_000;
+
+    /**
+     * Writes every task into the given file and returns the number of tasks written.
+     *
+     * @param tasks          tasks to export
+     * @param file           destination file, replaced if it exists
+     * @param format         file format
+     * @param progress       listener called every {@link #PROGRESS_INTERVAL} tasks
+     * @return               number of tasks written
+     * @throws SnomException if the file cannot be written
+     */
+    public long exportTasks(Iterable<Task> tasks, Path file, TaskFormat format, ProgressListener progress)
+            throws SnomException {
+        long count = 0;
+        StringBuilder line = new StringBuilder();
+        try (BufferedChannelWriter writer = new BufferedChannelWriter(file)) {
+            writer.write(format == TaskFormat.JSON ? "[\n" : String.join(",", TaskRow.COLUMNS) + "\n");
+            for (Task task: tasks) {
+                line.setLength(0);
+                if (format == TaskFormat.JSON) {
+                    appendJson(line.append(count == 0 ? "" : ",\n"), TaskRow.fromTask(task));
+                } else {
+                    appendCsv(line, TaskRow.fromTask(task)).append('\n');
+                }
+                writer.write(line);
+                if (++count % PROGRESS_INTERVAL == 0) {
+                    progress.onProgress(count, -1);
+                }
+            }
+            if (format == TaskFormat.JSON) {
+                writer.write(count == 0 ? "]\n" : "\n]\n");
+            }
+        } catch (IOException e) {
+            throw new SnomException(String.format(Messages.ERROR_TRANSFER_FAILED, file, e.getMessage()));
+        }
+        progress.onProgress(count, count);
+        return count;
+    }
+
+    private static StringBuilder appendCsv(StringBuilder line, TaskRow row) {
+        for (int i = 0; i < TaskRow.COLUMNS.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            String field = row.get(i);
+            if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0 || field.indexOf('\n') >= 0
+                    || field.indexOf('\r') >= 0) {
+                line.append('"').append(field.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(field);
+            }
+        }
+        return line;
+    }
+
+    private static void appendJson(StringBuilder line, TaskRow row) {
+        line.append('{');
+        for (int i = 0; i < TaskRow.COLUMNS.length; i++) {
+            line.append(i == 0 ? "\"" : ",\"").append(TaskRow.COLUMNS[i]).append("\":");
+            if (i == TaskRow.DONE) {
+                line.append(row.get(i));
+            } else {
+                appendJsonString(line, row.get(i));
+            }
+        }
+        line.append('}');
+    }
+
+    private static void appendJsonString(StringBuilder line, String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                line.append("\\\"");
+                break;
+            case '\\':
+                line.append("\\\\");
+                break;
+            case '\n':
+                line.append("\\n");
+                break;
+            case '\r':
+                line.append("\\r");
+                break;
+            case '\t':
+                line.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    line.append(String.format("\\u%04x", (int) c));
+                } else {
+                    line.append(c);
+                }
+            }
+        }
+        line.append('"');
+    }
+}
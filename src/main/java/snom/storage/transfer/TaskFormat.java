@@ -0,0 +1,47 @@
+package snom.storage.transfer;
+
+import java.io.Reader;
+import java.nio.file.Path;
+
+/**
+ * Represents a file format supported by bulk import and export.
+ */
+public enum TaskFormat {
+    CSV,
+    JSON;
+
+    /**
+     * Returns the {@code TaskFormat} of the given name, or null if there is none.
+     *
+     * @param name name of format, eg. "csv"
+     * @return     matching format or null
+     */
+    public static TaskFormat fromName(String name) {
+        for (TaskFormat format: TaskFormat.values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the format implied by the file extension, CSV unless the file ends with ".json".
+     *
+     * @param path file path
+     * @return     format of file
+     */
+    public static TaskFormat fromPath(Path path) {
+        return path.getFileName().toString().toLowerCase().endsWith(".json") ? JSON : CSV;
+    }
+
+    /**
+     * Returns a {@code RowReader} for this format.
+     *
+     * @param reader source of text
+     * @return       row reader
+     */
+    public RowReader newReader(Reader reader) {
+        return this == JSON ? new JsonRowReader(reader) : new CsvRowReader(reader);
+    }
+}
@@ -0,0 +1,202 @@
+package snom.storage.transfer;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import snom.common.core.Messages;
+import snom.common.exceptions.SnomException;
+import snom.model.index.DuplicateIndex;
+import snom.model.task.Task;
+import snom.model.task.TaskList;
+import snom.storage.ProgressListener;
+
+/**
+ * Streams tasks from a CSV or JSON file into a {@code TaskList} through a bounded pipeline:
+ * a reader thread splits the file into rows, a parser thread validates them into tasks,
+ * and the calling thread appends them. Each stage hands over fixed-size batches through a
+ * bounded queue, so a fast stage blocks instead of buffering the whole file in memory.
+ */
+public class TaskImporter {
+    public static final int BATCH_SIZE = 1024;
+    public static final int QUEUE_CAPACITY = 8;
+    public static final long PROGRESS_INTERVAL = 100_000;
+
+    private static final List<TaskRow> END_OF_ROWS = new ArrayList<>();
+    private static final ParsedBatch END_OF_TASKS = new ParsedBatch();
+
+    private final double duplicateSimilarity;
+    private final BlockingQueue<List<TaskRow>> rowQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final BlockingQueue<ParsedBatch> taskQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private volatile IOException readFailure;
+
+    /**
+     * Batch of validated tasks together with the reasons for rows that were skipped.
+     */
+    private static class ParsedBatch {
+        private final List<Task> tasks = new ArrayList<>(BATCH_SIZE);
+        private final List<String> errors = new ArrayList<>();
+    }
+
+    /**
+     * Constructs a {@code TaskImporter} skipping exact duplicates only.
+     */
+    public TaskImporter() {
+        this(0);
+    }
+
+    /**
+     * Constructs a {@code TaskImporter}
+     *
+     * @param duplicateSimilarity least similarity of near duplicates to skip, or 0 to only skip exact duplicates
+     */
+    public TaskImporter(double duplicateSimilarity) {
+        this.duplicateSimilarity = duplicateSimilarity;
+    }
+
+    /**
+     * Appends every valid task of the given file to the task list, skipping invalid rows and tasks that
+     * duplicate an unfinished task of the list, including one imported earlier from the same file.
+     *
+     * @param file           file to import
+     * @param format         file format
+     * @param taskList       list to append to
+     * @param progress       listener called every {@link #PROGRESS_INTERVAL} rows
+     * @return               number of imported, skipped and duplicate rows
+     * @throws SnomException if the file cannot be read
+     */
+    public ImportResult importTasks(Path file, TaskFormat format, TaskList taskList, ProgressListener progress)
+            throws SnomException {
+        RowReader reader;
+        try {
+            reader = format.newReader(new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new SnomException(String.format(Messages.ERROR_TRANSFER_FAILED, file, e.getMessage()));
+        }
+
+        Thread readStage = new Thread(() -> read(reader), "snom-import-read");
+        Thread parseStage = new Thread(this::parse, "snom-import-parse");
+        readStage.setDaemon(true);
+        parseStage.setDaemon(true);
+        readStage.start();
+        parseStage.start();
+
+        ImportResult result = new ImportResult();
+        long processed = 0;
+        try {
+            ParsedBatch batch = taskQueue.take();
+            while (batch != END_OF_TASKS) {
+                List<Task> added = new ArrayList<>(batch.tasks.size());
+                Set<String> addedKeys = new HashSet<>();
+                for (Task task: batch.tasks) {
+                    if (taskList.findDuplicate(task, duplicateSimilarity) != null
+                            || (!task.hasFinished() && !addedKeys.add(DuplicateIndex.getContentKey(task)))) {
+                        result.addDuplicate();
+                    } else {
+                        added.add(task);
+                    }
+                }
+                if (!added.isEmpty()) {
+                    taskList.addAll(added);
+                    result.addImported(added.size());
+                }
+                for (String error: batch.errors) {
+                    result.addSkipped(error);
+                }
+                long before = processed;
+                processed += batch.tasks.size() + batch.errors.size();
+                if (processed / PROGRESS_INTERVAL != before / PROGRESS_INTERVAL) {
+                    progress.onProgress(processed, -1);
+                }
+                batch = taskQueue.take();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (readFailure != null) {
+            throw new SnomException(String.format(Messages.ERROR_IMPORT_STOPPED, readFailure.getMessage(),
+                    result.getImportedCount()));
+        }
+        progress.onProgress(processed, processed);
+        return result;
+    }
+
+    /**
+     * Reader stage, splits the file into batches of rows.
+     */
+    private void read(RowReader reader) {
+        try (reader) {
+            List<TaskRow> batch = new ArrayList<>(BATCH_SIZE);
+            TaskRow row = reader.next();
+            while (row != null) {
+                batch.add(row);
+                if (batch.size() == BATCH_SIZE) {
+                    rowQueue.put(batch);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+                row = reader.next();
+            }
+            if (!batch.isEmpty()) {
+                rowQueue.put(batch);
+            }
+        } catch (IOException e) {
+            readFailure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            putQuietly(rowQueue, END_OF_ROWS);
+        }
+    }
+
+    /**
+     * Parser stage, validates batches of rows into batches of tasks.
+     */
+    private void parse() {
+        try {
+            List<TaskRow> rows = rowQueue.take();
+            while (rows != END_OF_ROWS) {
+                ParsedBatch batch = new ParsedBatch();
+                for (TaskRow row: rows) {
+                    try {
+                        batch.tasks.add(row.toTask());
+                    } catch (SnomException e) {
+                        batch.errors.add(e.getMessage());
+                    }
+                }
+                taskQueue.put(batch);
+                rows = rowQueue.take();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            putQuietly(taskQueue, END_OF_TASKS);
+        }
+    }
+
+    /**
+     * Puts the item even if interrupted, an end marker must always arrive or the next stage waits forever.
+     */
+    private static <T> void putQuietly(BlockingQueue<T> queue, T item) {
+        boolean isInterrupted = false;
+        while (true) {
+            try {
+                queue.put(item);
+                break;
+            } catch (InterruptedException e) {
+                isInterrupted = true;
+            }
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
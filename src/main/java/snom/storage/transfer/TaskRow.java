@@ -0,0 +1,166 @@
+package snom.storage.transfer;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import snom.common.core.Messages;
+import snom.common.exceptions.SnomException;
+import snom.common.util.TaskUtil;
+import snom.model.task.Deadline;
+import snom.model.task.Event;
+import snom.model.task.Priority;
+import snom.model.task.Recurrence;
+import snom.model.task.Task;
+import snom.model.task.TaskType;
+import snom.model.task.TaskWithDate;
+import snom.model.task.Todo;
+
+/**
+ * Represents one task as a flat row of text fields, the unit of bulk import and export.
+ */
+public class TaskRow {
+    public static final String[] COLUMNS = {"type", "done", "description", "date", "recurrence", "priority"};
+    public static final int TYPE = 0;
+    public static final int DONE = 1;
+    public static final int DESCRIPTION = 2;
+    public static final int DATE = 3;
+    public static final int RECURRENCE = 4;
+    public static final int PRIORITY = 5;
+
+    private final String[] fields;
+    private final long lineNumber;
+
+    /**
+     * Constructs a {@code TaskRow}
+     *
+     * @param fields     fields in the order of {@link #COLUMNS}, missing fields may be null
+     * @param lineNumber line the row started on in its source file
+     */
+    public TaskRow(String[] fields, long lineNumber) {
+        this.fields = fields;
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * Returns the row of the given task.
+     *
+     * @param task task to convert
+     * @return     row of task
+     */
+    public static TaskRow fromTask(Task task) {
+        String[] fields = new String[COLUMNS.length];
+        fields[TYPE] = task.getType().getDisplayName();
+        fields[DONE] = String.valueOf(task.hasFinished());
+        fields[DESCRIPTION] = task.getDescription().trim();
+        fields[DATE] = "";
+        fields[RECURRENCE] = "";
+        fields[PRIORITY] = task.getPriority() == Priority.NONE ? "" : task.getPriority().getDisplayName();
+        if (task instanceof TaskWithDate) {
+            TaskWithDate taskWithDate = (TaskWithDate) task;
+            fields[DATE] = taskWithDate.getDateTime().format(TaskUtil.DATE_TIME_SAVE_FORMAT);
+            if (taskWithDate.isRecurring()) {
+                fields[RECURRENCE] = taskWithDate.getRecurrence().getSaveString();
+            }
+        }
+        return new TaskRow(fields, 0);
+    }
+
+    public String get(int column) {
+        return fields[column] == null ? "" : fields[column];
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Returns the task described by this row after validating every field.
+     *
+     * @return               task
+     * @throws SnomException if a field is missing or invalid
+     */
+    public Task toTask() throws SnomException {
+        TaskType type = parseType(get(TYPE).trim());
+        String description = get(DESCRIPTION).trim();
+        if (description.isEmpty()) {
+            throw invalid("missing description");
+        }
+
+        Task task;
+        if (type == TaskType.TODO) {
+            task = new Todo(description);
+        } else {
+            LocalDateTime dateTime = parseDate(get(DATE).trim());
+            TaskWithDate taskWithDate = type == TaskType.DEADLINE
+                    ? new Deadline(description, dateTime)
+                    : new Event(description, dateTime);
+            String recurrence = get(RECURRENCE).trim();
+            if (!recurrence.isEmpty()) {
+                taskWithDate.setRecurrence(recurrence.contains(":")
+                        ? Recurrence.fromSaveString(recurrence)
+                        : Recurrence.parse(recurrence.replaceFirst("(?i)^every\\s+", "")));
+            }
+            task = taskWithDate;
+        }
+        task.setStatus(parseDone(get(DONE).trim()));
+        task.setPriority(parsePriority(get(PRIORITY).trim()));
+        return task;
+    }
+
+    private TaskType parseType(String type) throws SnomException {
+        switch (type.toLowerCase()) {
+        case "t":
+            return TaskType.TODO;
+        case "d":
+            return TaskType.DEADLINE;
+        case "e":
+            return TaskType.EVENT;
+        default:
+            TaskType taskType = TaskType.fromName(type);
+            if (taskType == null) {
+                throw invalid("unknown type '" + type + "'");
+            }
+            return taskType;
+        }
+    }
+
+    private boolean parseDone(String done) throws SnomException {
+        switch (done.toLowerCase()) {
+        case "":
+        case "false":
+        case "0":
+        case "no":
+            return false;
+        case "true":
+        case "1":
+        case "yes":
+        case "x":
+            return true;
+        default:
+            throw invalid("invalid done value '" + done + "'");
+        }
+    }
+
+    private Priority parsePriority(String priority) throws SnomException {
+        if (priority.isEmpty()) {
+            return Priority.NONE;
+        }
+        Priority parsed = Priority.fromName(priority);
+        if (parsed == null) {
+            throw invalid("invalid priority '" + priority + "'");
+        }
+        return parsed;
+    }
+
+    private LocalDateTime parseDate(String date) throws SnomException {
+        try {
+            return LocalDateTime.parse(date, TaskUtil.DATE_TIME_INPUT_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw invalid("invalid date '" + date + "'");
+        }
+    }
+
+    private SnomException invalid(String reason) {
+        return new SnomException(String.format(Messages.ERROR_INVALID_ROW, lineNumber, reason));
+    }
+}
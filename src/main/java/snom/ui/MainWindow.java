@@ -1,9 +1,23 @@
 package snom.ui;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import javafx.animation.PauseTransition;
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
+import javafx.geometry.Side;
+import javafx.scene.Node;
 import javafx.scene.control.Button;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.MenuItem;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
@@ -11,12 +25,29 @@ import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.VBox;
 import javafx.util.Duration;
 import snom.logic.commands.CommandResponse;
+import snom.model.LoadListener;
 import snom.model.Snom;
+import snom.model.history.ChatHistory;
+import snom.model.history.HistoryEntry;
+import snom.model.task.Task;
+import snom.model.task.TaskListChange;
 
 /**
  * Controller for MainWindow. Provides the layout for the other controls.
+ *
+ * <p>The dialog container holds the recent messages of the {@code ChatHistory}. Scrolling to the top
+ * pages older messages in from the history log; they are dropped again when a new message is added.
+ * While the user types, completions are looked up once typing pauses, off the FX thread.
+ * The sidebar shows the most urgent tasks and is refreshed after every reply. Below them, the task panel
+ * mirrors the task list: each change to the list is applied to the panel's items as it is published, and the
+ * list view only creates cells for the rows in view, so the panel stays cheap for long lists.
  */
 public class MainWindow extends AnchorPane {
+    private static final int PAGE_SIZE = 20;
+    private static final int MAX_SUGGESTIONS = 8;
+    private static final Duration SUGGEST_DELAY = Duration.millis(150);
+    private static final int NEXT_UP_COUNT = 5;
+
     @FXML
     private ScrollPane scrollPane;
     @FXML
@@ -25,25 +56,94 @@ public class MainWindow extends AnchorPane {
     private TextField userInput;
     @FXML
     private Button sendButton;
+    @FXML
+    private Label loadingLabel;
+    @FXML
+    private Label nextUpLabel;
+    @FXML
+    private ListView<Task> taskListView;
 
     private Snom snom;
+    private ChatHistory history;
+    private int pagedCount;
+    private boolean isPaging;
+    private boolean isCompleting;
+    private final PauseTransition suggestDelay = new PauseTransition(SUGGEST_DELAY);
+    private final ContextMenu suggestionMenu = new ContextMenu();
+    private final ObservableList<Task> shownTasks = FXCollections.observableArrayList();
+    private final ExecutorService suggester = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "snom-autocomplete");
+        thread.setDaemon(true);
+        return thread;
+    });
     private Snomio snomio = new Snomio();
     private Image userImage = new Image(this.getClass().getResourceAsStream("/images/User.png"));
     private Image snomImage = new Image(this.getClass().getResourceAsStream("/images/Snom.png"));
 
     /**
-     * Initializes Main Window by setting the windows height and display welcome message.
+     * Initializes Main Window by keeping the newest message in view, paging older ones in at the top
+     * and suggesting completions of the user input.
      */
     @FXML
     public void initialize() {
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
-        dialogContainer.getChildren().addAll(
-                DialogBox.getSnomDialog(snomio.getWelcomeMsg(), snomImage, false)
-        );
+        taskListView.setItems(shownTasks);
+        taskListView.setCellFactory(view -> new TaskCell());
+        suggestDelay.setOnFinished(event -> requestSuggestions(userInput.getText()));
+        userInput.textProperty().addListener((observable, oldText, newText) -> {
+            suggestionMenu.hide();
+            if (!isCompleting) {
+                suggestDelay.playFromStart();
+            }
+        });
+        dialogContainer.heightProperty().addListener((observable, oldHeight, newHeight) -> {
+            if (!isPaging) {
+                scrollPane.setVvalue(scrollPane.getVmax());
+            }
+        });
+        scrollPane.vvalueProperty().addListener((observable, oldValue, newValue) -> {
+            if (!isPaging && history != null && newValue.doubleValue() <= scrollPane.getVmin()
+                    && history.hasOlder()) {
+                showOlder();
+            }
+        });
     }
 
-    public void setSnom(Snom snom) {
+    /**
+     * Sets the {@code Snom} instance and the history, shows the recent messages and a welcome message,
+     * shows reminders in the dialog container and loads the task list in the background.
+     *
+     * @param snom    Snom instance
+     * @param history saved conversation
+     */
+    public void setSnom(Snom snom, ChatHistory history) {
         this.snom = snom;
+        this.history = history;
+        for (HistoryEntry entry: history.getRecent()) {
+            dialogContainer.getChildren().add(toDialog(entry));
+        }
+        addDialog(HistoryEntry.ofSnom(snomio.getWelcomeMsg(), false));
+
+        snom.addReminderListener(reminder -> Platform.runLater(() ->
+                addDialog(HistoryEntry.ofSnom(snomio.getReminder(reminder), false))));
+        snom.addTaskListListener(change -> Platform.runLater(() -> showChange(change)));
+        loadingLabel.setVisible(true);
+        snom.loadInBackground(new LoadListener() {
+            @Override
+            public void onProgress(long loaded, long total) {
+                Platform.runLater(() -> loadingLabel.setText(snomio.getLoadingProgress(loaded, total)));
+            }
+
+            @Override
+            public void onLoaded(List<CommandResponse> queuedResponses) {
+                Platform.runLater(() -> {
+                    loadingLabel.setVisible(false);
+                    for (CommandResponse response: queuedResponses) {
+                        showResponse(response);
+                    }
+                    refreshNextUp();
+                });
+            }
+        });
     }
 
     /**
@@ -52,13 +152,24 @@ public class MainWindow extends AnchorPane {
      */
     @FXML
     private void handleUserInput() {
+        suggestDelay.stop();
+        suggestionMenu.hide();
         String input = userInput.getText();
         CommandResponse response = snom.getResponse(input);
 
-        DialogBox userDialog = DialogBox.getUserDialog(input, userImage);
-        DialogBox snomDialog = DialogBox.getSnomDialog(response.getResponseMsg(), snomImage, response.isError());
+        addDialog(HistoryEntry.ofUser(input));
+        showResponse(response);
+        userInput.clear();
+    }
 
-        dialogContainer.getChildren().addAll(userDialog, snomDialog);
+    /**
+     * Appends Snom's reply to the dialog container, refreshes the sidebar, and exits if the reply asks for it.
+     *
+     * @param response response of a command
+     */
+    private void showResponse(CommandResponse response) {
+        addDialog(HistoryEntry.ofSnom(response.getResponseMsg(), response.isError()));
+        refreshNextUp();
 
         if (response.isExit()) {
             PauseTransition delay = new PauseTransition(Duration.seconds(1));
@@ -67,6 +178,135 @@ public class MainWindow extends AnchorPane {
             });
             delay.play();
         }
-        userInput.clear();
+    }
+
+    /**
+     * Shows the most urgent tasks in the sidebar. They are read from the top of the urgency queue,
+     * so this stays cheap enough to run after every command.
+     */
+    private void refreshNextUp() {
+        nextUpLabel.setText(snom.getNextUp(NEXT_UP_COUNT));
+    }
+
+    /**
+     * Applies a change of the task list to the task panel, touching only the rows it changed.
+     * Changes are applied in the order they were published, so the panel ends up equal to the task list.
+     *
+     * @param change change of the task list
+     */
+    private void showChange(TaskListChange change) {
+        switch (change.getType()) {
+        case ADDED:
+            shownTasks.addAll(change.getFrom(), change.getTasks());
+            break;
+        case REMOVED:
+            shownTasks.remove(change.getFrom(), change.getTo());
+            break;
+        case UPDATED:
+            for (int i = 0; i < change.getTasks().size(); i++) {
+                shownTasks.set(change.getFrom() + i, change.getTasks().get(i));
+            }
+            break;
+        default:
+            shownTasks.setAll(change.getTasks());
+            break;
+        }
+    }
+
+    /**
+     * Saves the message in the history and appends it to the dialog container.
+     * Paged in messages, and the oldest recent message if the history dropped it, are removed.
+     *
+     * @param entry message to show
+     */
+    private void addDialog(HistoryEntry entry) {
+        if (pagedCount > 0) {
+            dialogContainer.getChildren().remove(0, pagedCount);
+            pagedCount = 0;
+            history.resetPaging();
+        }
+        if (history.add(entry) != null) {
+            dialogContainer.getChildren().remove(0);
+        }
+        dialogContainer.getChildren().add(toDialog(entry));
+    }
+
+    /**
+     * Inserts a page of older messages at the top, keeping the messages in view where they were.
+     */
+    private void showOlder() {
+        List<Node> dialogs = new ArrayList<>();
+        for (HistoryEntry entry: history.loadOlder(PAGE_SIZE)) {
+            dialogs.add(toDialog(entry));
+        }
+        if (dialogs.isEmpty()) {
+            return;
+        }
+        isPaging = true;
+        double oldHeight = dialogContainer.getHeight();
+        dialogContainer.getChildren().addAll(0, dialogs);
+        pagedCount += dialogs.size();
+        scrollPane.applyCss();
+        scrollPane.layout();
+        double scrollableHeight = dialogContainer.getHeight() - scrollPane.getViewportBounds().getHeight();
+        scrollPane.setVvalue(scrollableHeight > 0
+                ? scrollPane.getVmax() * (dialogContainer.getHeight() - oldHeight) / scrollableHeight
+                : scrollPane.getVmin());
+        isPaging = false;
+    }
+
+    /**
+     * Looks up the completions of the given input on the autocomplete thread.
+     *
+     * @param input text typed when typing paused
+     */
+    private void requestSuggestions(String input) {
+        if (snom == null || input.isBlank()) {
+            return;
+        }
+        suggester.execute(() -> {
+            List<String> suggestions = snom.getSuggestions(input, MAX_SUGGESTIONS);
+            Platform.runLater(() -> showSuggestions(input, suggestions));
+        });
+    }
+
+    /**
+     * Shows the completions above the user input, unless the user typed on since they were looked up.
+     */
+    private void showSuggestions(String input, List<String> suggestions) {
+        if (suggestions.isEmpty() || !input.equals(userInput.getText())) {
+            return;
+        }
+        List<MenuItem> items = new ArrayList<>();
+        for (String suggestion: suggestions) {
+            MenuItem item = new MenuItem(suggestion);
+            item.setMnemonicParsing(false);
+            item.setOnAction(event -> {
+                isCompleting = true;
+                userInput.setText(suggestion);
+                userInput.positionCaret(suggestion.length());
+                isCompleting = false;
+            });
+            items.add(item);
+        }
+        suggestionMenu.getItems().setAll(items);
+        suggestionMenu.show(userInput, Side.TOP, 0, 0);
+    }
+
+    private Node toDialog(HistoryEntry entry) {
+        return entry.isUser()
+                ? DialogBox.getUserDialog(entry.getText(), userImage)
+                : DialogBox.getSnomDialog(entry.getText(), snomImage, entry.isError());
+    }
+
+    /**
+     * Row of the task panel, showing the task number and the task as the list command does.
+     */
+    private static class TaskCell extends ListCell<Task> {
+        @Override
+        protected void updateItem(Task task, boolean isEmpty) {
+            super.updateItem(task, isEmpty);
+            setText(isEmpty || task == null ? null : (getIndex() + 1) + ". " + task);
+        }
     }
 }
@@ -5,13 +5,35 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.TextStyle;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
 import java.util.StringTokenizer;
 
 import snom.common.core.Messages;
 import snom.common.exceptions.SnomException;
 import snom.common.util.SnomioUtil;
+import snom.common.util.TaskUtil;
+import snom.model.index.SortKey;
+import snom.model.index.UrgencyQueue;
+import snom.model.query.QueryResult;
+import snom.model.query.TaskPredicate;
+import snom.model.reminder.Reminder;
+import snom.model.statistics.CompletionHistory;
+import snom.model.statistics.TaskStatistics;
+import snom.model.task.Occurrence;
 import snom.model.task.Task;
 import snom.model.task.TaskList;
+import snom.model.task.TaskType;
+import snom.model.task.TaskWithDate;
+import snom.storage.ProgressListener;
+import snom.storage.transfer.ImportResult;
 
 /**
  * Deals with interactions with the user.
@@ -46,49 +68,236 @@ public class Snomio extends PrintWriter {
      * Returns a message containing the entire {@code TaskList}.
      *
      * @return               string of entire task List
-     * @throws SnomException if there is content after the command or there isn't any task in the task list
+     * @throws SnomException if no task matches
      */
     public String getTaskList(TaskList taskList) throws SnomException {
         if (taskList.isEmpty()) {
             throw new SnomException(Messages.MESSAGE_EMPTY_TASK_LIST);
         }
 
-        String message = Messages.MESSAGE_TASK_LIST;
+        StringBuilder message = new StringBuilder(Messages.MESSAGE_TASK_LIST);
         for (int i = 0; i < taskList.size(); i++) {
-            message += (i + 1) + ". " + taskList.get(i).toString() + "\n";
+            appendTaskLine(message, i + 1, taskList.get(i));
         }
 
-        return message;
+        return message.toString();
     }
 
     /**
-     * Returns out the list from searching the keyword.
+     * Returns a message containing the tasks at the given positions, numbered by their position in the full list.
      *
+     * @param taskList    entire task list
+     * @param positions   0-based positions of tasks to display
+     * @param count       number of tasks in positions
+     * @param description description of the filter, eg. "pending deadline"
+     * @return            string of filtered task list
+     */
+    public String getFilteredTaskList(TaskList taskList, BitSet positions, int count, String description) {
+        if (count == 0) {
+            return String.format(Messages.MESSAGE_NO_FILTERED_TASK, description);
+        }
+
+        StringBuilder message = new StringBuilder(
+                String.format(Messages.MESSAGE_FILTERED_TASK_LIST, count, description));
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            appendTaskLine(message, i + 1, taskList.get(i));
+        }
+
+        return message.toString();
+    }
+
+    /**
+     * Returns a message containing the given tasks in sorted order, numbered by their position in the full list
+     * so the numbers can be used with other commands.
+     *
+     * @param taskList    entire task list
+     * @param tasks       tasks to display in sorted order
+     * @param description description of the filter, eg. "pending deadline", or empty
+     * @param sortKey     key the tasks are sorted by
+     * @return            string of sorted task list
+     */
+    public String getSortedTaskList(TaskList taskList, List<Task> tasks, String description, SortKey sortKey) {
+        if (tasks.isEmpty()) {
+            return String.format(Messages.MESSAGE_NO_FILTERED_TASK, description);
+        }
+
+        StringBuilder message = new StringBuilder(String.format(Messages.MESSAGE_SORTED_TASK_LIST, tasks.size(),
+                description.isEmpty() ? "" : description + " ", sortKey.getDisplayName()));
+        for (Task task: tasks) {
+            appendTaskLine(message, taskList.indexOfTask(task) + 1, task);
+        }
+
+        return message.toString();
+    }
+
+    /**
+     * Returns a message containing the given occurrences in date order.
+     *
+     * @param occurrences occurrences sorted by date
+     * @param from        start of range
+     * @param to          end of range
+     * @return            string of occurrences
+     */
+    public String getOccurrenceList(List<Occurrence> occurrences, LocalDateTime from, LocalDateTime to) {
+        String fromString = from.format(TaskUtil.DATE_TIME_OUTPUT_FORMAT);
+        String toString = to.format(TaskUtil.DATE_TIME_OUTPUT_FORMAT);
+        if (occurrences.isEmpty()) {
+            return String.format(Messages.MESSAGE_NO_OCCURRENCE, fromString, toString);
+        }
+
+        StringBuilder message = new StringBuilder(
+                String.format(Messages.MESSAGE_OCCURRENCE_LIST, fromString, toString));
+        for (Occurrence occurrence: occurrences) {
+            message.append(occurrence.getDateTime().format(TaskUtil.DATE_TIME_OUTPUT_FORMAT)).append(" - ")
+                    .append(occurrence.getPosition() + 1).append(". ")
+                    .append(occurrence.getTask().toString()).append("\n");
+        }
+        return message.toString();
+    }
+
+    /**
+     * Appends a numbered task line with the id of the task, and the next upcoming occurrence for recurring tasks.
+     */
+    private void appendTaskLine(StringBuilder message, int number, Task task) {
+        message.append(number).append(". ").append(task.toString())
+                .append(String.format(Messages.MESSAGE_TASK_ID, task.getId()));
+        if (task instanceof TaskWithDate && ((TaskWithDate) task).isRecurring()) {
+            TaskWithDate taskWithDate = (TaskWithDate) task;
+            LocalDateTime next = taskWithDate.getNextOccurrence(LocalDateTime.now());
+            if (next != null && !next.equals(taskWithDate.getDateTime())) {
+                message.append(String.format(Messages.MESSAGE_NEXT_OCCURRENCE,
+                        next.format(TaskUtil.DATE_TIME_OUTPUT_FORMAT)));
+            }
+        }
+        message.append("\n");
+    }
+
+    /**
+     * Returns the summary of the task list: tasks by type and status, overdue tasks, tasks due this week,
+     * and tasks finished per day over the last week and per week over the last four weeks.
+     * Every figure is read from counters kept in step with the task list.
+     *
+     * @param taskList list of task
+     * @param today    day the summary is for
+     * @return         string of summary
+     */
+    public String getSummary(TaskList taskList, LocalDate today) {
+        StringBuilder message = new StringBuilder(Messages.MESSAGE_SUMMARY);
+        for (TaskType type: TaskType.values()) {
+            String name = type.getDisplayName().substring(0, 1).toUpperCase() + type.getDisplayName().substring(1);
+            message.append(String.format(Messages.MESSAGE_SUMMARY_TYPE, name,
+                    taskList.count(EnumSet.of(type), false), taskList.count(EnumSet.of(type), true)));
+        }
+        TaskStatistics statistics = taskList.getStatistics();
+        message.append(String.format(Messages.MESSAGE_SUMMARY_DUE, statistics.getOverdueCount(),
+                statistics.getDueThisWeekCount()));
+        int done = taskList.count(EnumSet.noneOf(TaskType.class), true);
+        message.append(String.format(Messages.MESSAGE_SUMMARY_DONE, done, taskList.size(),
+                taskList.isEmpty() ? 0 : 100 * done / taskList.size()));
+
+        CompletionHistory history = taskList.getCompletionHistory();
+        StringJoiner days = new StringJoiner(", ");
+        for (LocalDate day = today.minusDays(6); !day.isAfter(today); day = day.plusDays(1)) {
+            days.add(day.getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.ENGLISH) + " "
+                    + history.count(day, day));
+        }
+        message.append(String.format(Messages.MESSAGE_SUMMARY_DAYS, history.count(today.minusDays(6), today), days));
+        StringJoiner weeks = new StringJoiner(", ");
+        for (int week = 3; week >= 0; week--) {
+            LocalDate end = today.minusWeeks(week);
+            weeks.add(String.valueOf(history.count(end.minusDays(6), end)));
+        }
+        message.append(String.format(Messages.MESSAGE_SUMMARY_WEEKS, weeks));
+        return message.toString();
+    }
+
+    /**
+     * Returns the most urgent tasks, numbered by their position in the task list and marked if overdue.
+     *
+     * @param taskList list of task
+     * @param tasks    most urgent tasks, most urgent first
+     * @return         string of urgent tasks
+     */
+    public String getNextTasks(TaskList taskList, List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return Messages.MESSAGE_NO_NEXT_TASK;
+        }
+        return String.format(Messages.MESSAGE_NEXT_TASKS, tasks.size()) + getNextUp(taskList, tasks);
+    }
+
+    /**
+     * Returns the lines of the "next up" list, without a header.
+     *
+     * @param taskList list of task
+     * @param tasks    most urgent tasks, most urgent first
+     * @return         one numbered line per task
+     */
+    public String getNextUp(TaskList taskList, List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return Messages.MESSAGE_NO_NEXT_TASK;
+        }
+        StringBuilder message = new StringBuilder();
+        LocalDateTime now = LocalDateTime.now();
+        for (Task task: tasks) {
+            message.append(taskList.indexOfTask(task) + 1).append(". ").append(task.toString());
+            if (task instanceof TaskWithDate
+                    && UrgencyQueue.getDueTime((TaskWithDate) task, now).isBefore(now)) {
+                message.append(Messages.MESSAGE_OVERDUE);
+            }
+            message.append("\n");
+        }
+        return message.toString();
+    }
+
+    /**
+     * Returns out the list of tasks found by a query, numbered by their position in the task list.
+     *
+     * @param taskList       task list searched
+     * @param positions      0-based positions of matching tasks
      * @return               string of matching task list
-     * @throws SnomException if there is content after the command or there isn't any task in the task list
+     * @throws SnomException if no task matches
      */
-    public String getMatchingTaskList(TaskList taskList) throws SnomException {
-        if (taskList.isEmpty()) {
+    public String getMatchingTaskList(TaskList taskList, BitSet positions) throws SnomException {
+        if (positions.isEmpty()) {
             throw new SnomException(Messages.MESSAGE_NO_MATCHING_TASK);
         }
 
-        String message = Messages.MESSAGE_MATCHING_TASK_LIST;
-        for (int i = 0; i < taskList.size(); i++) {
-            message += (i + 1) + ". " + taskList.get(i).toString() + "\n";
+        StringBuilder message = new StringBuilder(Messages.MESSAGE_MATCHING_TASK_LIST);
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            appendTaskLine(message, i + 1, taskList.get(i));
         }
 
-        return message;
+        return message.toString();
     }
 
     /**
-     * Returns the {@code Task} added into the {@code TaskList} and size of current taskList.
+     * Returns a message explaining how the given query ran, followed by its matching tasks.
+     *
+     * @param taskList task list searched
+     * @param query    parsed query
+     * @param result   result of the query
+     * @return         plan and matching tasks
+     */
+    public String getQueryPlan(TaskList taskList, TaskPredicate query, QueryResult result) {
+        String plan = String.format(Messages.MESSAGE_QUERY_PLAN, query, result.getPlan(),
+                result.getCandidateCount(), taskList.size(), result.getMatchCount());
+        try {
+            return plan + getMatchingTaskList(taskList, result.getPositions());
+        } catch (SnomException e) {
+            return plan + e.getMessage();
+        }
+    }
+
+    /**
+     * Returns the {@code Task} added into the {@code TaskList} with its id, and size of current taskList.
      *
      * @param task     task added
      * @param listSize task list size
      * @return         task added into taskList
      */
     public String getTaskAdded(Task task, int listSize) {
-        return String.format(Messages.MESSAGE_TASK_ADDED, task.toString(), listSize);
+        return String.format(Messages.MESSAGE_TASK_ADDED,
+                task.toString() + String.format(Messages.MESSAGE_TASK_ID, task.getId()), listSize);
     }
 
     /**
@@ -98,11 +307,11 @@ public class Snomio extends PrintWriter {
      * @return              recent finished {@code Task}
      */
     public String getFinishedTasks(Task[] finishedTasks) {
-        String message = Messages.MESSAGE_TASK_FINISHED;
+        StringBuilder message = new StringBuilder(Messages.MESSAGE_TASK_FINISHED);
         for (Task task: finishedTasks) {
-            message += "\t" + task.toString() + "\n";
+            message.append("\t").append(task.toString()).append("\n");
         }
-        return message;
+        return message.toString();
     }
 
     /**
@@ -112,11 +321,155 @@ public class Snomio extends PrintWriter {
      * @return             recent deleted {@code Task}
      */
     public String getDeletedTasks(Task[] deletedTasks) {
-        String message = Messages.MESSAGE_TASK_DELETED;
+        StringBuilder message = new StringBuilder(Messages.MESSAGE_TASK_DELETED);
         for (Task task: deletedTasks) {
-            message += "\t" + task.toString() + "\n";
+            message.append("\t").append(task.toString()).append("\n");
+        }
+        return message.toString();
+    }
+
+    /**
+     * Returns the list of recently archived {@code Task}.
+     *
+     * @param archivedTasks list of archived {@code Task}
+     * @return              recent archived {@code Task}
+     */
+    public String getArchivedTasks(Task[] archivedTasks) {
+        StringBuilder message = new StringBuilder(String.format(Messages.MESSAGE_TASK_ARCHIVED,
+                archivedTasks.length));
+        for (Task task: archivedTasks) {
+            message.append("\t").append(task.toString()).append("\n");
+        }
+        return message.toString();
+    }
+
+    /**
+     * Returns the archived tasks found by a query. They are not numbered, as they are no longer in the task list.
+     *
+     * @param archived       archived tasks searched
+     * @param positions      0-based positions of matching tasks
+     * @return               string of matching archived tasks
+     * @throws SnomException if the archive is empty or no task matches
+     */
+    public String getArchivedMatches(TaskList archived, BitSet positions) throws SnomException {
+        if (archived.isEmpty()) {
+            throw new SnomException(Messages.MESSAGE_EMPTY_ARCHIVE);
+        }
+        if (positions.isEmpty()) {
+            throw new SnomException(Messages.MESSAGE_NO_MATCHING_TASK);
         }
-        return message;
+
+        StringBuilder message = new StringBuilder(Messages.MESSAGE_ARCHIVE_MATCHING_TASK_LIST);
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            message.append("\t").append(archived.get(i).toString()).append("\n");
+        }
+        return message.toString();
+    }
+
+    /**
+     * Returns the message shown when a {@code Reminder} fires.
+     *
+     * @param reminder fired reminder
+     * @return         reminder message
+     */
+    public String getReminder(Reminder reminder) {
+        String format = reminder.getTask().getType() == TaskType.EVENT
+                ? Messages.MESSAGE_EVENT_REMINDER
+                : Messages.MESSAGE_DEADLINE_REMINDER;
+        return String.format(format, reminder.getDueAt().format(TaskUtil.DATE_TIME_OUTPUT_FORMAT),
+                reminder.getTask().toString());
+    }
+
+    /**
+     * Returns the message shown after an occurrence is skipped.
+     *
+     * @param task skipped task
+     * @param date date of skipped occurrence
+     * @return     skipped message
+     */
+    public String getSkippedOccurrence(Task task, LocalDate date) {
+        return String.format(Messages.MESSAGE_OCCURRENCE_SKIPPED, date, task.toString());
+    }
+
+    /**
+     * Returns a {@code ProgressListener} that prints progress of a bulk operation to the console.
+     *
+     * @param action verb describing the operation, eg. "Imported"
+     * @return       progress listener
+     */
+    public ProgressListener getProgressPrinter(String action) {
+        return (done, total) -> {
+            if (done != total) {
+                println(String.format(Messages.MESSAGE_TRANSFER_PROGRESS, action, done));
+                flush();
+            }
+        };
+    }
+
+    /**
+     * Returns the summary of a bulk import.
+     *
+     * @param result outcome of import
+     * @param path   imported file
+     * @return       import summary
+     */
+    public String getImportResult(ImportResult result, Path path) {
+        StringBuilder message = new StringBuilder(
+                String.format(Messages.MESSAGE_IMPORTED, result.getImportedCount(), path));
+        if (result.getSkippedCount() > 0) {
+            message.append(String.format(Messages.MESSAGE_IMPORT_SKIPPED, result.getSkippedCount()));
+            for (String error: result.getErrors()) {
+                message.append("\n\t").append(error);
+            }
+        }
+        if (result.getDuplicateCount() > 0) {
+            message.append(String.format(Messages.MESSAGE_IMPORT_DUPLICATES, result.getDuplicateCount()));
+        }
+        return message.toString();
+    }
+
+    /**
+     * Returns the summary of a bulk export.
+     *
+     * @param count number of exported tasks
+     * @param path  exported file
+     * @return      export summary
+     */
+    public String getExported(long count, Path path) {
+        return String.format(Messages.MESSAGE_EXPORTED, count, path);
+    }
+
+    /**
+     * Returns the name and size of the task list in use.
+     *
+     * @param name     name of workspace
+     * @param taskSize number of tasks in it
+     * @return         workspace message
+     */
+    public String getWorkspace(String name, int taskSize) {
+        return String.format(Messages.MESSAGE_WORKSPACE, name, taskSize);
+    }
+
+    /**
+     * Returns the loading progress of the task list.
+     *
+     * @param loaded number of tasks loaded so far
+     * @param total  number of saved tasks
+     * @return       loading progress
+     */
+    public String getLoadingProgress(long loaded, long total) {
+        return String.format(Messages.MESSAGE_LOADING, loaded, Math.max(loaded, total));
+    }
+
+    /**
+     * Returns the reply to a command that waits for the task list to finish loading.
+     *
+     * @param loaded number of tasks loaded so far
+     * @param total  number of saved tasks
+     * @return       queued message
+     */
+    public String getCommandQueued(long loaded, long total) {
+        return String.format(Messages.MESSAGE_COMMAND_QUEUED, loaded, Math.max(loaded, total));
     }
 
     /**
@@ -1,17 +1,42 @@
 package snom;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
-import java.nio.file.Paths;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
 
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import snom.common.exceptions.SnomException;
 import snom.logic.commands.CommandEnum;
+import snom.logic.commands.CommandResponse;
+import snom.model.Snom;
 import snom.model.task.TaskList;
 import snom.storage.StorageManager;
 
 public class SnomTest {
+    private Path folder;
+
+    @BeforeEach
+    public void createFolder() throws IOException {
+        folder = Files.createTempDirectory("snom");
+    }
+
+    @AfterEach
+    public void deleteFolder() throws IOException {
+        try (Stream<Path> paths = Files.walk(folder)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
     @Test
     public void getCommandTest() {
         CommandEnum expectedCommand = CommandEnum.TODO;
@@ -23,9 +48,44 @@ public class SnomTest {
 
     @Test
     public void storageTest() throws SnomException {
-        StorageManager storage = new StorageManager(Paths.get("data", "snom_test.txt"));
+        StorageManager storage = new StorageManager(folder.resolve("snom_test.txt"));
         TaskList taskList = storage.importTask();
+        storage.saveFile(taskList);
+
+        assertEquals(storage.importTask().size(), taskList.size());
+    }
+
+    @Test
+    public void commandsQueuedWhileLoading() {
+        Snom snom = new Snom(folder.resolve("snom.txt"));
+        assertFalse(snom.isLoaded());
+        assertFalse(snom.getResponse("help").getResponseMsg().startsWith("I'm still loading"));
+        assertTrue(snom.getResponse("todo read book").getResponseMsg().startsWith("I'm still loading"));
+        assertTrue(snom.getResponse("finish 1").getResponseMsg().startsWith("I'm still loading"));
+
+        List<CommandResponse> responses = snom.load();
+        assertTrue(snom.isLoaded());
+        assertEquals(responses.size(), 2);
+        assertTrue(responses.get(0).getResponseMsg().startsWith("Got it."));
+        assertFalse(responses.get(1).isError());
+        assertTrue(snom.getResponse("list").getResponseMsg().contains("read book"));
+        snom.getReminderScheduler().stop();
+    }
+
+    @Test
+    public void useSwitchesWorkspace() {
+        Snom snom = new Snom(folder.resolve("snom.txt"));
+        snom.load();
+        snom.getResponse("todo read book");
 
-        assertEquals(storage.readFile().size(), taskList.size());
+        CommandResponse response = snom.getResponse("use work");
+        assertEquals(response.getResponseMsg(), "You're using the work list, with 0 task(s).");
+        snom.getResponse("todo submit report");
+        snom.getResponse("todo call team");
+        assertEquals(snom.getResponse("use").getResponseMsg(), "You're using the work list, with 2 task(s).");
+        assertEquals(snom.getResponse("use snom").getResponseMsg(), "You're using the snom list, with 1 task(s).");
+        assertTrue(snom.getResponse("use my list").isError());
+        assertTrue(snom.getResponse("list").getResponseMsg().contains("read book"));
+        snom.getReminderScheduler().stop();
     }
 }
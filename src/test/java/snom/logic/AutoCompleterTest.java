@@ -0,0 +1,66 @@
+package snom.logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import snom.model.index.PrefixTrie;
+import snom.model.task.TaskList;
+import snom.model.task.Todo;
+
+public class AutoCompleterTest {
+    @Test
+    public void suggest_commandName() {
+        List<String> suggestions = AutoCompleter.suggest("de", new TaskList(), 8);
+        assertEquals(2, suggestions.size());
+        assertTrue(suggestions.contains("delete"));
+        assertTrue(suggestions.contains("deadline"));
+        assertTrue(AutoCompleter.suggest("delete", new TaskList(), 8).isEmpty());
+        assertTrue(AutoCompleter.suggest("", new TaskList(), 8).isEmpty());
+    }
+
+    @Test
+    public void suggest_taskDescription() {
+        TaskList taskList = new TaskList();
+        taskList.add(new Todo("read book"));
+        taskList.add(new Todo("return library book"));
+        taskList.add(new Todo("buy milk"));
+
+        List<String> suggestions = AutoCompleter.suggest("find re", taskList, 8);
+        assertEquals(2, suggestions.size());
+        assertTrue(suggestions.contains("find read book"));
+        assertTrue(suggestions.contains("find return library book"));
+        assertEquals(1, AutoCompleter.suggest("find re", taskList, 1).size());
+        assertTrue(AutoCompleter.suggest("find xyz", taskList, 8).isEmpty());
+    }
+
+    @Test
+    public void prefixTrie_followsTaskList() {
+        TaskList taskList = new TaskList();
+        taskList.add(new Todo("read book"));
+        PrefixTrie trie = taskList.getPrefixTrie();
+        assertEquals(1, trie.complete("bo", 8).size());
+
+        taskList.remove(0);
+        assertTrue(trie.complete("bo", 8).isEmpty());
+        taskList.add(new Todo("book flight"));
+        assertEquals(1, trie.complete("BOOK", 8).size());
+    }
+
+    @Test
+    public void prefixTrie_picksShorterWordsFirst() {
+        TaskList taskList = new TaskList();
+        taskList.add(new Todo("reading list"));
+        taskList.add(new Todo("rebook flight"));
+        taskList.add(new Todo("read book"));
+        PrefixTrie trie = taskList.getPrefixTrie();
+        assertTrue(trie.complete("re", 1).contains(taskList.get(2)));
+
+        taskList.remove(2);
+        assertTrue(trie.complete("re", 1).contains(taskList.get(1)));
+        assertEquals(2, trie.complete("re", 8).size());
+    }
+}
@@ -1,9 +1,16 @@
 package snom.logic;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
-import java.nio.file.Paths;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
 
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import snom.common.exceptions.SnomException;
@@ -18,7 +25,21 @@ import snom.ui.Snomio;
 public class CommandTest {
     private TaskList taskList = new TaskList();
     private Snomio snomio = new Snomio();
-    private StorageManager storage = new StorageManager(Paths.get("data", "snom_test.txt"));
+    private Path folder;
+    private StorageManager storage;
+
+    @BeforeEach
+    public void createStorage() throws IOException {
+        folder = Files.createTempDirectory("snom");
+        storage = new StorageManager(folder.resolve("snom_test.txt"));
+    }
+
+    @AfterEach
+    public void deleteFolder() throws IOException {
+        try (Stream<Path> paths = Files.walk(folder)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
 
     @Test
     public void addFinishDeleteCommand() {
@@ -44,4 +65,40 @@ public class CommandTest {
             assert false;
         }
     }
+
+    @Test
+    public void finishDeleteWhereCommand() throws SnomException {
+        for (String description: new String[] {"read book", "buy milk", "return book", "buy bread"}) {
+            new AddCommand(CommandEnum.TODO, description).execute(taskList, snomio, storage);
+        }
+
+        new FinishCommand(CommandEnum.FINISH, "where book").execute(taskList, snomio, storage);
+        assertEquals(taskList.get(0).hasFinished(), true);
+        assertEquals(taskList.get(1).hasFinished(), false);
+        assertEquals(taskList.get(2).hasFinished(), true);
+
+        new DeleteCommand(CommandEnum.DELETE, "where done:false").execute(taskList, snomio, storage);
+        assertEquals(taskList.size(), 2);
+        assertEquals(taskList.get(1).getDescription(), "return book");
+
+        assertThrows(SnomException.class, () ->
+                new DeleteCommand(CommandEnum.DELETE, "where milk").execute(taskList, snomio, storage));
+        assertThrows(SnomException.class, () ->
+                new FinishCommand(CommandEnum.FINISH, "where").execute(taskList, snomio, storage));
+
+        new DeleteCommand(CommandEnum.DELETE, "where done:true").execute(taskList, snomio, storage);
+        assertEquals(taskList.size(), 0);
+    }
+
+    @Test
+    public void deleteNumberAndIdOfSameTask() throws SnomException {
+        for (String description: new String[] {"read book", "buy milk", "return book", "buy bread"}) {
+            new AddCommand(CommandEnum.TODO, description).execute(taskList, snomio, storage);
+        }
+
+        int id = taskList.get(3).getId();
+        new DeleteCommand(CommandEnum.DELETE, "4 #" + id).execute(taskList, snomio, storage);
+        assertEquals(taskList.size(), 3);
+        assertEquals(taskList.get(2).getDescription(), "return book");
+    }
 }
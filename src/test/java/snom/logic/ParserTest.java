@@ -1,9 +1,15 @@
 package snom.logic;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.Test;
 
+import snom.common.exceptions.SnomException;
+import snom.model.task.TaskList;
+import snom.model.task.Todo;
+
 public class ParserTest {
     private String userInput = "deadline return book /by 2021-09-27 15:00";
 
@@ -18,4 +24,22 @@ public class ParserTest {
         String commandStr = Parser.parseCommandContent(userInput);
         assertEquals(commandStr, "return book /by 2021-09-27 15:00");
     }
+
+    @Test
+    public void getTaskNumbersById() throws SnomException {
+        TaskList taskList = new TaskList();
+        taskList.add(new Todo("read book"));
+        taskList.add(new Todo("return book"));
+        taskList.add(new Todo("buy milk"));
+        taskList.remove(0);
+
+        assertArrayEquals(Parser.parseTaskNumbers("#3 1", taskList), new int[] {2, 1});
+        assertThrows(SnomException.class, () -> Parser.parseTaskNumbers("#1", taskList));
+        assertThrows(SnomException.class, () -> Parser.parseTaskNumbers("#book", taskList));
+    }
+
+    @Test
+    public void invalidTransferPathRejected() {
+        assertThrows(SnomException.class, () -> Parser.parseTransferArguments("tasks\0.csv", "import"));
+    }
 }
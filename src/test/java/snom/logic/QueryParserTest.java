@@ -0,0 +1,111 @@
+package snom.logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Test;
+
+import snom.common.exceptions.SnomException;
+import snom.model.query.NotPredicate;
+import snom.model.query.QueryPlanner;
+import snom.model.query.QueryResult;
+import snom.model.query.TaskPredicate;
+import snom.model.query.TextPredicate;
+import snom.model.task.Deadline;
+import snom.model.task.Event;
+import snom.model.task.TaskList;
+import snom.model.task.Todo;
+
+public class QueryParserTest {
+    private static TaskList getTaskList() throws SnomException {
+        TaskList taskList = new TaskList();
+        taskList.add(new Todo("read book"));
+        taskList.add(new Deadline("return book", " 2021-09-27 15:00"));
+        taskList.add(new Deadline("book flight", " 2021-10-20 10:00"));
+        taskList.add(new Event("book club", " 2021-09-30 18:00"));
+        taskList.add(new Todo("buy milk"));
+        taskList.finishTask(new int[] {2});
+        return taskList;
+    }
+
+    private static BitSet positions(int... positions) {
+        BitSet bitSet = new BitSet();
+        for (int position: positions) {
+            bitSet.set(position);
+        }
+        return bitSet;
+    }
+
+    @Test
+    public void fieldsAndText() throws SnomException {
+        TaskList taskList = getTaskList();
+        TaskPredicate query = QueryParser.parse("Book type:deadline before:2021-10-01");
+        assertEquals(query.toString(), "\"book\" AND type:deadline AND before:2021-10-01");
+
+        QueryResult result = QueryPlanner.run(query, taskList);
+        assertEquals(result.getPositions(), positions(1));
+        // only the deadlines are checked, not the whole list
+        assertEquals(result.getCandidateCount(), 2);
+
+        result = QueryPlanner.run(QueryParser.parse("book done:false -(club OR read)"), taskList);
+        assertEquals(result.getPositions(), positions(2));
+        result = QueryPlanner.run(QueryParser.parse("\"return book\" OR milk"), taskList);
+        assertEquals(result.getPositions(), positions(1, 4));
+        assertEquals(result.getCandidateCount(), 2);
+    }
+
+    @Test
+    public void fullScanWithoutIndex() throws SnomException {
+        QueryResult result = QueryPlanner.run(QueryParser.parse("NOT book"), getTaskList());
+        assertEquals(result.getPlan(), QueryPlanner.PLAN_FULL_SCAN);
+        assertEquals(result.getCandidateCount(), 5);
+        assertEquals(result.getPositions(), positions(4));
+    }
+
+    @Test
+    public void parallelScanKeepsOrder() {
+        TaskList taskList = new TaskList();
+        for (int i = 0; i < 10_000; i++) {
+            taskList.add(new Todo(i % 3 == 0 ? "read chapter " + i : "write notes " + i));
+        }
+        TaskPredicate query = new NotPredicate(new TextPredicate("notes"));
+        QueryResult serial = QueryPlanner.run(query, taskList, Long.MAX_VALUE);
+        QueryResult parallel = QueryPlanner.run(query, taskList, 0);
+        assertEquals(parallel.getPositions(), serial.getPositions());
+        assertEquals(parallel.getMatchCount(), 3334);
+    }
+
+    @Test
+    public void tagsUseTagIndex() throws SnomException {
+        TaskList taskList = new TaskList();
+        taskList.add(new Todo("read book #Home #reading"));
+        taskList.add(new Todo("email#boss about the book"));
+        taskList.add(new Todo("review report #work"));
+        taskList.add(new Todo("buy milk #home"));
+
+        QueryResult result = QueryPlanner.run(QueryParser.parse("#home book"), taskList);
+        assertEquals(result.getPositions(), positions(0));
+        assertEquals(result.getCandidateCount(), 2);
+        assertEquals(QueryPlanner.run(QueryParser.parse("#work|#reading"), taskList).getPositions(),
+                positions(0, 2));
+        assertEquals(QueryPlanner.run(QueryParser.parse("#boss"), taskList).getPositions(), positions());
+
+        // the tag bitmaps follow deletes and edits
+        taskList.remove(0);
+        taskList.updateTask(2, task -> task.setDescription("buy milk #work"));
+        assertEquals(QueryPlanner.run(QueryParser.parse("#work"), taskList).getPositions(), positions(1, 2));
+        assertEquals(QueryPlanner.run(QueryParser.parse("#home"), taskList).getPositions(), positions());
+    }
+
+    @Test
+    public void invalidQuery() {
+        assertThrows(SnomException.class, () -> QueryParser.parse("type:chore"));
+        assertThrows(SnomException.class, () -> QueryParser.parse("done:maybe"));
+        assertThrows(SnomException.class, () -> QueryParser.parse("before:tomorrow"));
+        assertThrows(SnomException.class, () -> QueryParser.parse("(book"));
+        assertThrows(SnomException.class, () -> QueryParser.parse("book OR"));
+        assertThrows(SnomException.class, () -> QueryParser.parse("#work|home"));
+    }
+}
@@ -0,0 +1,62 @@
+package snom.model.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class ChatHistoryTest {
+    @Test
+    public void recentKeptAndOlderPagedIn() throws IOException {
+        Path file = Files.createTempDirectory("snom").resolve("history.log");
+        ChatHistory history = new ChatHistory(file, 10);
+        for (int i = 0; i < 25; i++) {
+            HistoryEntry dropped = history.add(HistoryEntry.ofUser("message " + i));
+            if (i < 10) {
+                assertNull(dropped);
+            } else {
+                assertEquals(dropped.getText(), "message " + (i - 10));
+            }
+        }
+
+        ChatHistory reopened = new ChatHistory(file, 10);
+        List<HistoryEntry> recent = reopened.getRecent();
+        assertEquals(recent.size(), 10);
+        assertEquals(recent.get(0).getText(), "message 15");
+        assertEquals(recent.get(9).getText(), "message 24");
+
+        List<HistoryEntry> page = reopened.loadOlder(10);
+        assertEquals(page.get(0).getText(), "message 5");
+        assertEquals(page.get(9).getText(), "message 14");
+        page = reopened.loadOlder(10);
+        assertEquals(page.size(), 5);
+        assertEquals(page.get(0).getText(), "message 0");
+        assertFalse(reopened.hasOlder());
+
+        reopened.resetPaging();
+        assertTrue(reopened.hasOlder());
+        assertEquals(reopened.loadOlder(1).get(0).getText(), "message 14");
+    }
+
+    @Test
+    public void tornEntryCutOff() throws IOException {
+        Path file = Files.createTempDirectory("snom").resolve("history.log");
+        ChatHistory history = new ChatHistory(file, 10);
+        history.add(HistoryEntry.ofUser("list"));
+        history.add(HistoryEntry.ofSnom("Here are the task(s) in your list:", false));
+        Files.write(file, new byte[] {0, 0, 0, 42, 1}, StandardOpenOption.APPEND);
+
+        List<HistoryEntry> recent = new ChatHistory(file, 10).getRecent();
+        assertEquals(recent.size(), 2);
+        assertTrue(recent.get(0).isUser());
+        assertEquals(recent.get(1).getText(), "Here are the task(s) in your list:");
+    }
+}
@@ -0,0 +1,57 @@
+package snom.model.reminder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import snom.common.exceptions.SnomException;
+import snom.common.util.TaskUtil;
+import snom.model.task.Deadline;
+import snom.model.task.Event;
+import snom.model.task.TaskList;
+
+public class ReminderSchedulerTest {
+    private static String inMinutes(long minutes) {
+        return " " + LocalDateTime.now().plusMinutes(minutes).format(TaskUtil.DATE_TIME_SAVE_FORMAT);
+    }
+
+    @Test
+    public void firesWithinLeadTime() throws SnomException, InterruptedException {
+        ReminderScheduler scheduler = new ReminderScheduler(Duration.ofHours(1), Duration.ofMinutes(30));
+        BlockingQueue<Reminder> fired = new LinkedBlockingQueue<>();
+        scheduler.addListener(fired::add);
+        scheduler.start();
+
+        TaskList taskList = new TaskList();
+        taskList.addIndex(scheduler);
+        Deadline deadline = new Deadline("return book", inMinutes(10));
+        taskList.add(deadline);
+
+        Reminder reminder = fired.poll(5, TimeUnit.SECONDS);
+        assertSame(reminder.getTask(), deadline);
+        scheduler.stop();
+    }
+
+    @Test
+    public void finishAndDeleteCancel() throws SnomException {
+        ReminderScheduler scheduler = new ReminderScheduler(Duration.ofHours(1), Duration.ofMinutes(30));
+        TaskList taskList = new TaskList();
+        taskList.add(new Deadline("return book", inMinutes(60 * 24)));
+        taskList.add(new Event("meeting", inMinutes(60 * 48)));
+        taskList.addIndex(scheduler);
+        assertEquals(scheduler.getPendingCount(), 2);
+
+        taskList.finishTask(new int[] {1});
+        assertEquals(scheduler.getPendingCount(), 1);
+
+        taskList.deleteTask(new int[] {2});
+        assertEquals(scheduler.getPendingCount(), 0);
+    }
+}
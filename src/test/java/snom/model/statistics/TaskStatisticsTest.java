@@ -0,0 +1,105 @@
+package snom.model.statistics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+import snom.model.task.Deadline;
+import snom.model.task.Event;
+import snom.model.task.Recurrence;
+import snom.model.task.TaskList;
+import snom.model.task.Todo;
+
+public class TaskStatisticsTest {
+    /**
+     * Clock that only moves when told to.
+     */
+    private static class SteppedClock extends Clock {
+        private Instant instant;
+
+        SteppedClock(LocalDateTime start) {
+            instant = start.toInstant(ZoneOffset.UTC);
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    @Test
+    public void countsFollowChangesAndTime() throws Exception {
+        // Wednesday
+        SteppedClock clock = new SteppedClock(LocalDateTime.of(2021, 10, 6, 12, 0));
+        TaskStatistics statistics = new TaskStatistics(clock);
+        TaskList taskList = new TaskList();
+        taskList.addIndex(statistics);
+        taskList.add(new Todo("read book"));
+        taskList.add(new Deadline("return book", LocalDateTime.of(2021, 10, 1, 9, 0)));
+        taskList.add(new Deadline("submit report", LocalDateTime.of(2021, 10, 8, 9, 0)));
+        taskList.add(new Event("team meeting", LocalDateTime.of(2021, 10, 12, 14, 0)));
+        assertEquals(statistics.getOverdueCount(), 1);
+        assertEquals(statistics.getDueThisWeekCount(), 1);
+
+        Event standup = new Event("standup", LocalDateTime.of(2021, 9, 1, 9, 0));
+        standup.setRecurrence(Recurrence.parse("week"));
+        taskList.add(standup);
+        taskList.add(new Deadline("pay rent", LocalDateTime.of(2021, 10, 7, 9, 0)));
+        taskList.updateTask(1, task -> task.setStatus(true));
+        assertEquals(statistics.getOverdueCount(), 0);
+        assertEquals(statistics.getDueThisWeekCount(), 2);
+
+        // Friday noon: the report is overdue, the standup's next occurrence is next week
+        clock.advance(Duration.ofDays(2));
+        assertEquals(statistics.getOverdueCount(), 2);
+        assertEquals(statistics.getDueThisWeekCount(), 0);
+        // Monday: a new week starts
+        clock.advance(Duration.ofDays(3));
+        assertEquals(statistics.getDueThisWeekCount(), 2);
+
+        taskList.remove(2);
+        assertEquals(statistics.getOverdueCount(), 1);
+        taskList.clear();
+        assertEquals(statistics.getOverdueCount(), 0);
+        assertEquals(statistics.getDueThisWeekCount(), 0);
+    }
+
+    @Test
+    public void finishedTasksCountedPerDay() {
+        TaskList taskList = new TaskList();
+        taskList.add(new Todo("read book"));
+        taskList.add(new Todo("write essay"));
+        taskList.updateTask(0, task -> task.setStatus(true));
+        taskList.updateTask(0, task -> task.setStatus(true));
+        taskList.remove(0);
+
+        CompletionHistory history = taskList.getCompletionHistory();
+        LocalDate today = LocalDate.now();
+        assertEquals(history.count(today, today), 1);
+        assertEquals(history.count(today.minusDays(6), today.minusDays(1)), 0);
+        history.put(today.minusDays(3), 4);
+        assertEquals(history.count(today.minusDays(6), today), 5);
+    }
+}
@@ -0,0 +1,55 @@
+package snom.model.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import snom.common.exceptions.SnomException;
+
+public class RecurrenceTest {
+    private LocalDateTime start = LocalDateTime.of(2021, 1, 31, 9, 0);
+
+    @Test
+    public void parseRule() throws SnomException {
+        assertEquals(Recurrence.parse("week").toString(), "every week");
+        assertEquals(Recurrence.parse("2 months until 2022-12-31").toString(), "every 2 months until 2022-12-31");
+    }
+
+    @Test
+    public void monthlyDoesNotDrift() throws SnomException {
+        Iterator<LocalDateTime> occurrences = Recurrence.parse("month").occurrences(start);
+        occurrences.next();
+        assertEquals(occurrences.next(), LocalDateTime.of(2021, 2, 28, 9, 0));
+        assertEquals(occurrences.next(), LocalDateTime.of(2021, 3, 31, 9, 0));
+    }
+
+    @Test
+    public void rangeSkipsExceptionsAndStopsAtEnd() throws SnomException {
+        Recurrence daily = Recurrence.parse("day until 2031-01-31");
+        daily.addException(LocalDate.of(2025, 6, 2));
+
+        List<LocalDateTime> occurrences = new ArrayList<>();
+        daily.occurrencesBetween(start, LocalDateTime.of(2025, 6, 1, 0, 0), LocalDateTime.of(2025, 6, 3, 23, 59))
+                .forEach(occurrences::add);
+        assertEquals(occurrences, List.of(LocalDateTime.of(2025, 6, 1, 9, 0), LocalDateTime.of(2025, 6, 3, 9, 0)));
+
+        assertNull(daily.nextOccurrence(start, LocalDateTime.of(2031, 2, 1, 0, 0)));
+        assertFalse(daily.occurrencesBetween(start, LocalDateTime.of(2032, 1, 1, 0, 0),
+                LocalDateTime.of(2032, 2, 1, 0, 0)).iterator().hasNext());
+    }
+
+    @Test
+    public void saveStringRoundTrip() throws SnomException {
+        Recurrence weekly = Recurrence.parse("2 weeks until 2022-12-31");
+        weekly.addException(LocalDate.of(2021, 2, 14));
+        assertEquals(Recurrence.fromSaveString(weekly.getSaveString()).getSaveString(), weekly.getSaveString());
+    }
+}
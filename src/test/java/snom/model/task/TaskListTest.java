@@ -0,0 +1,232 @@
+package snom.model.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import snom.common.exceptions.SnomException;
+import snom.model.index.SortKey;
+import snom.model.index.SortedView;
+import snom.model.index.UrgencyQueue;
+
+public class TaskListTest {
+    @Test
+    public void statusTypeIndex() throws SnomException {
+        TaskList taskList = new TaskList();
+        taskList.add(new Todo("read book"));
+        taskList.add(new Deadline("return book", " 2021-09-27"));
+        taskList.add(new Event("meeting", " 2021-09-28 10:00"));
+        taskList.add(new Deadline("submit report", " 2021-09-29"));
+        taskList.finishTask(new int[] {2});
+
+        EnumSet<TaskType> deadlines = EnumSet.of(TaskType.DEADLINE);
+        assertEquals(taskList.count(deadlines, false), 1);
+        assertEquals(taskList.count(deadlines, true), 1);
+        assertEquals(taskList.count(EnumSet.noneOf(TaskType.class), null), 4);
+
+        BitSet expected = new BitSet();
+        expected.set(3);
+        assertEquals(taskList.select(deadlines, false), expected);
+
+        // positions shift down after deleting an earlier task
+        taskList.deleteTask(new int[] {1});
+        expected.clear();
+        expected.set(2);
+        assertEquals(taskList.select(deadlines, false), expected);
+        expected.clear();
+        expected.set(0);
+        assertEquals(taskList.select(deadlines, true), expected);
+    }
+
+    @Test
+    public void idsAssignedInOrder() {
+        TaskList taskList = new TaskList();
+        Todo saved = new Todo("saved task");
+        saved.setId(41);
+        taskList.add(new Todo("read book"));
+        taskList.add(saved);
+        taskList.add(new Todo("write essay"));
+        taskList.remove(2);
+        taskList.add(new Todo("buy milk"));
+
+        assertEquals(taskList.get(0).getId(), 1);
+        assertEquals(taskList.get(1).getId(), 41);
+        assertEquals(taskList.get(2).getId(), 43);
+    }
+
+    private String describe(Iterable<Task> tasks) {
+        StringBuilder descriptions = new StringBuilder();
+        for (Task task: tasks) {
+            descriptions.append(task.getDescription()).append(";");
+        }
+        return descriptions.toString();
+    }
+
+    @Test
+    public void sortedViewsFollowChanges() {
+        TaskList taskList = new TaskList();
+        taskList.add(new Todo("water plants"));
+        taskList.add(new Deadline("pay rent", LocalDateTime.of(2021, 10, 1, 9, 0)));
+        taskList.add(new Event("Birthday party", LocalDateTime.of(2021, 9, 20, 18, 0)));
+        SortedView byDate = taskList.getSortedView(SortKey.DATE);
+        SortedView byStatus = taskList.getSortedView(SortKey.STATUS);
+        assertEquals(describe(byDate), "Birthday party;pay rent;water plants;");
+        assertEquals(describe(taskList.getSortedView(SortKey.NAME)), "Birthday party;pay rent;water plants;");
+
+        taskList.updateTask(0, task -> task.setStatus(true));
+        taskList.add(new Deadline("submit essay", LocalDateTime.of(2021, 9, 1, 23, 59)));
+        assertEquals(describe(byDate), "submit essay;Birthday party;pay rent;water plants;");
+        assertEquals(describe(byStatus), "pay rent;Birthday party;submit essay;water plants;");
+
+        taskList.remove(2);
+        assertEquals(byDate.size(), 3);
+        assertEquals(taskList.indexOfTask(taskList.get(2)), 2);
+        assertEquals(describe(byDate), "submit essay;pay rent;water plants;");
+    }
+
+    @Test
+    public void urgencyQueueFollowsChanges() throws SnomException {
+        Clock clock = Clock.fixed(Instant.parse("2021-10-01T12:00:00Z"), ZoneOffset.UTC);
+        UrgencyQueue queue = new UrgencyQueue(clock);
+        TaskList taskList = new TaskList();
+        taskList.addIndex(queue);
+        taskList.add(new Todo("read book"));
+        taskList.add(new Deadline("submit report", " 2021-10-08"));
+        taskList.add(new Deadline("return book", " 2021-09-30"));
+        Event standup = new Event("standup", " 2021-09-01 09:00");
+        standup.setRecurrence(Recurrence.parse("week"));
+        taskList.add(standup);
+        Todo call = new Todo("call mum");
+        call.setPriority(Priority.HIGH);
+        taskList.add(call);
+
+        // overdue first, then by next occurrence, then todos by priority
+        assertEquals(queue.peek(10), List.of(taskList.get(2), standup, taskList.get(1), call, taskList.get(0)));
+        assertEquals(queue.peek(2), List.of(taskList.get(2), standup));
+
+        taskList.finishTask(new int[] {3});
+        taskList.updateTask(1, task -> task.setPriority(Priority.HIGH));
+        assertEquals(queue.peek(2), List.of(taskList.get(1), standup));
+        taskList.remove(1);
+        taskList.updateTask(0, task -> task.setStatus(false));
+        assertEquals(queue.size(), 3);
+        assertEquals(queue.peek(10), List.of(standup, call, taskList.get(0)));
+    }
+
+    @Test
+    public void duplicatesFound() throws SnomException {
+        TaskList taskList = new TaskList();
+        taskList.add(new Todo("Submit the project report"));
+        taskList.add(new Deadline("pay rent", LocalDateTime.of(2021, 10, 1, 9, 0)));
+        for (int i = 0; i < 1000; i++) {
+            taskList.add(new Todo("read chapter " + i));
+        }
+
+        assertEquals(taskList.findDuplicate(new Todo("submit  the project REPORT "), 0), taskList.get(0));
+        assertEquals(taskList.findDuplicate(new Todo("submit the project reports"), 0), null);
+        assertEquals(taskList.findDuplicate(new Todo("submit the project reports"), 0.8), taskList.get(0));
+        assertEquals(taskList.findDuplicate(new Todo("submit the essay"), 0.8), null);
+        assertEquals(taskList.findDuplicate(new Deadline("pay rent", LocalDateTime.of(2021, 11, 1, 9, 0)), 0.8), null);
+        assertEquals(taskList.findDuplicate(new Todo("read chapter 42"), 0.8), taskList.get(44));
+
+        taskList.finishTask(new int[] {1});
+        assertEquals(taskList.findDuplicate(new Todo("submit the project report"), 0.8), null);
+        assertEquals(taskList.findDuplicate(taskList.get(1), 0), null);
+    }
+
+    @Test
+    public void changesMirrorList() throws SnomException {
+        TaskList taskList = new TaskList();
+        taskList.add(new Todo("read book"));
+        List<Task> mirror = new ArrayList<>();
+        List<TaskListChange> changes = new ArrayList<>();
+        taskList.addListener(change -> {
+            changes.add(change);
+            switch (change.getType()) {
+            case ADDED:
+                mirror.addAll(change.getFrom(), change.getTasks());
+                break;
+            case REMOVED:
+                assertEquals(mirror.subList(change.getFrom(), change.getTo()), change.getTasks());
+                mirror.subList(change.getFrom(), change.getTo()).clear();
+                break;
+            case UPDATED:
+                for (int i = 0; i < change.getTasks().size(); i++) {
+                    mirror.set(change.getFrom() + i, change.getTasks().get(i));
+                }
+                break;
+            default:
+                mirror.clear();
+                mirror.addAll(change.getTasks());
+                break;
+            }
+        });
+        assertEquals(mirror, taskList);
+
+        taskList.add(new Deadline("return book", " 2021-09-27"));
+        taskList.addAll(1, List.of(new Todo("buy milk"), new Todo("buy bread")));
+        assertEquals(changes.get(changes.size() - 1).getTo(), 3);
+        taskList.finishTask(new int[] {2});
+        taskList.remove(0);
+        assertEquals(mirror, taskList);
+
+        for (int i = 0; i < 40; i++) {
+            taskList.add(new Todo("read chapter " + i));
+        }
+        BitSet few = new BitSet();
+        few.set(5);
+        taskList.deleteTasks(few);
+        assertEquals(mirror, taskList);
+
+        // a bulk delete is published as one removal per run of adjacent positions
+        BitSet many = new BitSet();
+        many.set(0, 3);
+        many.set(10, 20);
+        many.set(35);
+        int published = changes.size();
+        taskList.deleteTasks(many);
+        assertEquals(changes.size() - published, 3);
+        assertEquals(mirror, taskList);
+
+        taskList.sort((a, b) -> b.getDescription().compareTo(a.getDescription()));
+        assertEquals(mirror, taskList);
+        taskList.clear();
+        assertEquals(mirror, taskList);
+    }
+
+    @Test
+    public void idsFoundAfterChanges() {
+        TaskList taskList = new TaskList();
+        for (int i = 0; i < 100; i++) {
+            taskList.add(new Todo("read chapter " + i));
+        }
+        assertEquals(taskList.indexOfId(42), 41);
+
+        taskList.add(10, new Todo("buy milk"));
+        taskList.remove(0);
+        taskList.set(5, new Todo("buy bread"));
+        BitSet many = new BitSet();
+        many.set(20, 80);
+        taskList.deleteTasks(many);
+        for (int i = 0; i < 200; i++) {
+            taskList.add(new Todo("read appendix " + i));
+        }
+        taskList.remove(taskList.size() - 1);
+
+        for (int i = 0; i < taskList.size(); i++) {
+            assertEquals(taskList.indexOfId(taskList.get(i).getId()), i);
+        }
+        assertEquals(taskList.indexOfId(1), -1);
+        assertEquals(taskList.indexOfId(50), -1);
+        assertEquals(taskList.indexOfId(0), -1);
+    }
+}
@@ -0,0 +1,36 @@
+package snom.model.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import snom.common.core.Messages;
+import snom.common.exceptions.SnomException;
+
+public class TaskTest {
+    @Test
+    public void cachedStringReused() {
+        Todo todo = new Todo("read book");
+        assertSame(todo.toString(), todo.toString());
+        assertSame(todo.getSaveString(), todo.getSaveString());
+    }
+
+    @Test
+    public void cacheInvalidatedOnMutation() throws SnomException {
+        Deadline deadline = new Deadline("return book", " 2021-09-27 15:00");
+        assertEquals(deadline.getSaveString(), "D,false,return book, 2021-09-27 15:00");
+
+        deadline.setStatus(true);
+        assertEquals(deadline.toString(), "[D][" + Messages.SYMBOL_TICK + "] return book(by: "
+                + deadline.getDateTimeString() + ")");
+
+        deadline.setDescription("return laptop");
+        assertEquals(deadline.getSaveString(), "D,true,return laptop, 2021-09-27 15:00");
+
+        deadline.setDateTime(LocalDateTime.of(2021, 10, 1, 9, 30));
+        assertEquals(deadline.getSaveString(), "D,true,return laptop, 2021-10-01 09:30");
+    }
+}
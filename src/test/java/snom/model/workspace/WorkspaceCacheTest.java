@@ -0,0 +1,78 @@
+package snom.model.workspace;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import snom.common.exceptions.SnomException;
+import snom.model.task.Todo;
+import snom.storage.StorageManager;
+
+public class WorkspaceCacheTest {
+    private Path folder;
+
+    @BeforeEach
+    public void createFolder() throws IOException {
+        folder = Files.createTempDirectory("snom");
+    }
+
+    @AfterEach
+    public void deleteFolder() throws IOException {
+        try (Stream<Path> paths = Files.walk(folder)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private Workspace load(String name) {
+        StorageManager storage = new StorageManager(Workspace.getFilePath(folder, name));
+        try {
+            return new Workspace(name, storage, storage.importTask());
+        } catch (SnomException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @Test
+    public void leastRecentUnloadedOverBudget() {
+        WorkspaceCache cache = new WorkspaceCache(3 * Workspace.ESTIMATED_TASK_BYTES, this::load);
+        for (String name: List.of("work", "home", "school")) {
+            Workspace workspace = cache.use(name);
+            workspace.getTaskList().add(new Todo(name + " task"));
+            workspace.getStorage().saveFile(workspace.getTaskList());
+        }
+        assertEquals(cache.getLoadedNames(), List.of("work", "home", "school"));
+
+        // using work again makes home the least recently used
+        cache.use("work");
+        Workspace school = cache.use("school");
+        school.getTaskList().add(new Todo("more school"));
+        cache.use("school");
+        assertEquals(cache.getLoadedNames(), List.of("work", "school"));
+        assertEquals(cache.getUnloadCount(), 1);
+
+        // the unsaved task was saved when school was unloaded, and is read again on use
+        cache.use("home");
+        cache.use("work");
+        assertEquals(cache.use("school").getTaskList().size(), 2);
+        assertEquals(cache.use("home").getTaskList().get(0).getDescription(), "home task");
+    }
+
+    @Test
+    public void workspaceInUseKept() {
+        WorkspaceCache cache = new WorkspaceCache(0, this::load);
+        cache.use("work").getTaskList().add(new Todo("write report"));
+        cache.use("home");
+        assertEquals(cache.getLoadedNames(), List.of("home"));
+        assertEquals(cache.use("work").getTaskList().size(), 1);
+        assertEquals(cache.getLoadedNames(), List.of("work"));
+    }
+}
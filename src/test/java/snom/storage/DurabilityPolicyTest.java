@@ -0,0 +1,110 @@
+package snom.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class DurabilityPolicyTest {
+    private Path file;
+
+    @BeforeEach
+    public void createFile() throws IOException {
+        file = Files.createTempFile("snom", ".txt");
+        Files.writeString(file, "old");
+    }
+
+    @AfterEach
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private static Set<Thread> getSyncThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("snom-fsync")).collect(Collectors.toSet());
+    }
+
+    private Path getTempFile() {
+        return file.resolveSibling(file.getFileName() + DurabilityPolicy.TEMP_SUFFIX);
+    }
+
+    @Test
+    public void failedWriteKeepsOldContent() throws IOException {
+        DurabilityPolicy durability = new DurabilityPolicy(DurabilityMode.ALWAYS, 0);
+        assertThrows(IOException.class, () -> durability.write(file, out -> {
+            out.write("half written");
+            throw new IOException("disk full");
+        }));
+        assertEquals(Files.readString(file), "old");
+        assertTrue(Files.notExists(getTempFile()));
+    }
+
+    @Test
+    public void alwaysSyncsEveryWrite() throws IOException {
+        DurabilityPolicy durability = new DurabilityPolicy(DurabilityMode.ALWAYS, 0);
+        durability.write(file, out -> out.write("new"));
+        durability.commit();
+        assertEquals(Files.readString(file), "new");
+        assertTrue(Files.notExists(getTempFile()));
+        assertEquals(durability.getSyncCount(), 2L);
+    }
+
+    @Test
+    public void countsBytesWritten() throws IOException {
+        DurabilityPolicy durability = new DurabilityPolicy(DurabilityMode.NONE, 0);
+        durability.write(file, out -> out.write("new"));
+        durability.markWritten(file, 5);
+        assertEquals(durability.getBytesWritten(), 8L);
+        assertEquals(durability.getSyncCount(), 0L);
+    }
+
+    @Test
+    public void batchSyncsOncePerInterval() throws IOException {
+        DurabilityPolicy durability = new DurabilityPolicy(DurabilityMode.BATCH, 60_000);
+        durability.write(file, out -> out.write("first"));
+        durability.commit();
+        assertEquals(durability.getSyncCount(), 1L);
+
+        durability.write(file, out -> out.write("second"));
+        durability.commit();
+        durability.write(file, out -> out.write("third"));
+        durability.commit();
+        assertEquals(durability.getSyncCount(), 1L);
+
+        durability.sync();
+        assertEquals(durability.getSyncCount(), 2L);
+        assertEquals(Files.readString(file), "third");
+    }
+
+    @Test
+    public void closeStopsSyncThread() throws IOException, InterruptedException {
+        Set<Thread> oldThreads = getSyncThreads();
+        DurabilityPolicy durability = new DurabilityPolicy(DurabilityMode.BATCH, 60_000);
+        for (int i = 0; i < 2; i++) {
+            durability.write(file, out -> out.write("first"));
+            durability.commit();
+            durability.write(file, out -> out.write("second"));
+            durability.commit();
+
+            Set<Thread> threads = getSyncThreads();
+            threads.removeAll(oldThreads);
+            assertEquals(threads.size(), 1);
+            durability.close();
+            for (Thread thread: threads) {
+                thread.join(1000);
+                assertFalse(thread.isAlive());
+            }
+        }
+        assertEquals(durability.getSyncCount(), 3L);
+    }
+}
@@ -0,0 +1,311 @@
+package snom.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import snom.common.exceptions.SnomException;
+import snom.model.task.Deadline;
+import snom.model.task.Event;
+import snom.model.task.Priority;
+import snom.model.task.Recurrence;
+import snom.model.task.Task;
+import snom.model.task.TaskList;
+import snom.model.task.Todo;
+
+public class StorageManagerTest {
+    private Path folder;
+
+    @BeforeEach
+    public void createFolder() throws IOException {
+        folder = Files.createTempDirectory("snom");
+    }
+
+    @AfterEach
+    public void deleteFolder() throws IOException {
+        try (Stream<Path> paths = Files.walk(folder)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private TaskList createTaskList() throws SnomException {
+        TaskList taskList = new TaskList();
+        taskList.add(new Todo("buy eggs, milk and bread"));
+        Deadline deadline = new Deadline("pay rent, water", " 2021-10-01 09:00");
+        deadline.setRecurrence(Recurrence.parse("month until 2022-12-31"));
+        deadline.setStatus(true);
+        taskList.add(deadline);
+        taskList.add(new Event("team meeting", " 2021-09-02 14:00"));
+        Todo todo = new Todo("read book");
+        todo.setPriority(Priority.HIGH);
+        taskList.add(todo);
+        return taskList;
+    }
+
+    private void assertSameTasks(List<Task> actual, List<Task> expected) {
+        assertEquals(actual.size(), expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(actual.get(i).getSaveString(), expected.get(i).getSaveString());
+            assertEquals(actual.get(i).getId(), expected.get(i).getId());
+            assertEquals(actual.get(i).getPriority(), expected.get(i).getPriority());
+        }
+    }
+
+    @Test
+    public void saveAndImport() throws SnomException {
+        StorageManager storage = new StorageManager(folder.resolve("snom.txt"));
+        TaskList taskList = createTaskList();
+        storage.saveFile(taskList);
+
+        assertTrue(Files.exists(folder.resolve("snom").resolve("todo.snom")));
+        assertTrue(Files.exists(folder.resolve("snom").resolve("event-2021-09.snom")));
+        assertEquals(storage.getShardNames().get(0), "todo");
+        assertEquals(storage.getTaskCount("todo"), 2);
+        assertSameTasks(new StorageManager(folder.resolve("snom.txt")).importTask(), taskList);
+    }
+
+    @Test
+    public void saveOnlyDirtyShards() throws SnomException {
+        StorageManager storage = new StorageManager(folder.resolve("snom.txt"));
+        storage.saveFile(createTaskList());
+        TaskList taskList = storage.importTask();
+        assertTrue(storage.getDirtyShards().isEmpty());
+
+        taskList.updateTask(2, task -> task.setStatus(true));
+        taskList.remove(0);
+        assertEquals(storage.getDirtyShards(), Set.of("event-2021-09", "todo"));
+        storage.saveFile(taskList);
+        assertTrue(storage.getDirtyShards().isEmpty());
+
+        taskList.remove(1);
+        taskList.add(new Todo("write essay"));
+        storage.saveFile(taskList);
+        assertEquals(storage.getShardNames().size(), 2);
+        assertTrue(Files.notExists(folder.resolve("snom").resolve("event-2021-09.snom")));
+        TaskList imported = new StorageManager(folder.resolve("snom.txt")).importTask();
+        assertSameTasks(imported, taskList);
+        assertEquals(imported.getCompletionHistory().count(LocalDate.now(), LocalDate.now()), 1);
+    }
+
+    @Test
+    public void idsNotReusedAfterDelete() throws SnomException {
+        StorageManager storage = new StorageManager(folder.resolve("snom.txt"));
+        TaskList taskList = createTaskList();
+        int lastId = taskList.get(taskList.size() - 1).getId();
+        taskList.remove(taskList.size() - 1);
+        storage.saveFile(taskList);
+
+        TaskList imported = new StorageManager(folder.resolve("snom.txt")).importTask();
+        imported.add(new Todo("write essay"));
+        assertEquals(imported.get(imported.size() - 1).getId(), lastId + 1);
+        assertEquals(imported.indexOfId(lastId), -1);
+    }
+
+    @Test
+    public void corruptedBlockSkipped() throws SnomException, IOException {
+        Path file = folder.resolve("blocks.snom");
+        TaskList taskList = createTaskList();
+        try (BufferedChannelWriter out = new BufferedChannelWriter(file);
+             BlockWriter writer = new BlockWriter(out, 1, taskList.size(), false)) {
+            for (int i = 0; i < taskList.size(); i++) {
+                writer.append(taskList.get(i));
+            }
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[BlockFormat.HEADER_SIZE + BlockFormat.BLOCK_HEADER_SIZE + 4] ^= 0x7F;
+        Files.write(file, bytes);
+
+        BlockFile blockFile = new BlockFile(file, false, BlockFormat.DEFAULT_BLOCK_SIZE);
+        List<Task> imported = blockFile.read();
+        assertSameTasks(imported, taskList.subList(1, taskList.size()));
+        assertEquals(blockFile.getCorruptedBlocks(), 1);
+    }
+
+    @Test
+    public void compressedPageAndRange() throws SnomException, IOException {
+        TaskList taskList = new TaskList();
+        LocalDateTime start = LocalDateTime.of(2021, 1, 1, 9, 0);
+        for (int i = 0; i < 1000; i++) {
+            taskList.add(new Deadline("submit weekly report number " + i, start.plusDays(i)));
+        }
+        BlockFile plain = new BlockFile(folder.resolve("plain.snom"), false, 1024);
+        plain.write(taskList);
+        BlockFile compressed = new BlockFile(folder.resolve("compressed.snom"), true, 1024);
+        compressed.write(taskList);
+        assertTrue(Files.size(compressed.getPath()) * 2 < Files.size(plain.getPath()));
+
+        List<Task> page = compressed.read(500, 520);
+        assertSameTasks(page, taskList.subList(500, 520));
+        try (BlockReader reader = new BlockReader(compressed.getPath())) {
+            assertTrue(reader.isCompressed());
+            assertTrue(reader.getIndex().size() > 10);
+        }
+
+        StorageManager storage = new StorageManager(folder.resolve("snom.txt"));
+        storage.setCompressed(true);
+        storage.setBlockSize(1024);
+        storage.saveFile(taskList);
+        TaskList range = storage.importTasksBetween(start.plusDays(100), start.plusDays(109));
+        assertSameTasks(range, taskList.subList(100, 110));
+        assertSameTasks(storage.importTask(), taskList);
+    }
+
+    @Test
+    public void legacyFileMigrated() throws SnomException, IOException {
+        Path file = folder.resolve("snom.txt");
+        Files.writeString(file, "T,false,read book\n"
+                + "D,true,pay rent, water, 2021-10-01 09:00,MONTHS:1:2022-12-31:\n"
+                + "X,broken line\n");
+
+        TaskList imported = new StorageManager(file).importTask();
+        assertEquals(imported.size(), 2);
+        assertEquals(imported.get(1).getDescription(), "pay rent, water");
+        assertEquals(imported.get(1).hasFinished(), true);
+        assertTrue(Files.notExists(file));
+        assertEquals(Files.readAllLines(folder.resolve("snom.txt.legacy")).size(), 3);
+        assertSameTasks(new StorageManager(file).importTask(), imported);
+    }
+
+    @Test
+    public void recordsWrittenInPlace() throws SnomException, IOException {
+        Path file = folder.resolve("snom.txt");
+        new StorageManager(file).saveFile(createTaskList());
+        StorageManager storage = new StorageManager(file, StorageLayout.RECORDS);
+        TaskList taskList = storage.importTask();
+        RecordStore records = storage.getRecordStore();
+        assertTrue(Files.notExists(folder.resolve("snom").resolve(StorageManager.MANIFEST_FILE_NAME)));
+        assertEquals(records.getRecordCount(), 4);
+
+        // finishing and deleting only write the flags byte of one record
+        taskList.updateTask(0, task -> task.setStatus(true));
+        storage.saveFile(taskList);
+        assertEquals(records.getLastSaveBytes(), 1);
+        taskList.remove(2);
+        storage.saveFile(taskList);
+        assertEquals(records.getLastSaveBytes(), 1);
+        assertEquals(records.getDeadRecords(), 1);
+
+        taskList.add(new Deadline("hand in essay", LocalDateTime.of(2021, 10, 4, 23, 59)));
+        taskList.updateTask(1, task -> ((Deadline) task).setDateTime(LocalDateTime.of(2021, 11, 1, 9, 0)));
+        storage.saveFile(taskList);
+        assertSameTasks(new StorageManager(file, StorageLayout.RECORDS).importTask(), taskList);
+
+        records.compact();
+        assertEquals(records.getRecordCount(), 4);
+        assertEquals(records.getDeadRecords(), 0);
+        taskList.updateTask(3, task -> task.setStatus(true));
+        storage.saveFile(taskList);
+        assertEquals(records.getLastSaveBytes(), 1);
+        assertSameTasks(new StorageManager(file, StorageLayout.RECORDS).importTask(), taskList);
+
+        // switching back converts the records into shards
+        assertSameTasks(new StorageManager(file).importTask(), taskList);
+        assertTrue(Files.notExists(folder.resolve("snom").resolve(RecordStore.RECORD_FILE_NAME)));
+    }
+
+    @Test
+    public void failedCompactionKeepsGeneration() throws SnomException, IOException {
+        Path file = folder.resolve("snom.txt");
+        StorageManager storage = new StorageManager(file, StorageLayout.RECORDS);
+        TaskList taskList = createTaskList();
+        storage.saveFile(taskList);
+        taskList.remove(0);
+        storage.saveFile(taskList);
+
+        // a folder in place of the next heap file makes the compaction fail
+        Path shardFolder = folder.resolve("snom");
+        int generation;
+        try (Stream<Path> files = Files.list(shardFolder)) {
+            generation = files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.matches("descriptions-\\d+\\.dat"))
+                    .mapToInt(name -> Integer.parseInt(name.replaceAll("\\D", "")))
+                    .max().getAsInt();
+        }
+        Path blocker = Files.createDirectories(shardFolder.resolve("descriptions-" + (generation + 1) + ".dat"));
+        Files.createFile(blocker.resolve("blocker"));
+        assertThrows(IOException.class, () -> storage.getRecordStore().compact());
+
+        // the records still point into the current generation, so changes in place land where they should
+        taskList.updateTask(0, task -> ((Deadline) task).setDateTime(LocalDateTime.of(2021, 11, 1, 9, 0)));
+        storage.saveFile(taskList);
+        Files.delete(blocker.resolve("blocker"));
+        Files.delete(blocker);
+        assertSameTasks(new StorageManager(file, StorageLayout.RECORDS).importTask(), taskList);
+    }
+
+    @Test
+    public void closeFinishesCompaction() throws SnomException, IOException, InterruptedException {
+        Set<Thread> oldThreads = getCompactorThreads();
+        Path file = folder.resolve("snom.txt");
+        StorageManager storage = new StorageManager(file, StorageLayout.RECORDS);
+        TaskList taskList = new TaskList();
+        for (int i = 0; i < 3000; i++) {
+            taskList.add(new Todo("read chapter " + i + " of the course notes before the lecture"));
+        }
+        storage.saveFile(taskList);
+        BitSet removed = new BitSet();
+        removed.set(0, 2500);
+        taskList.deleteTasks(removed);
+        storage.saveFile(taskList);
+
+        Set<Thread> threads = getCompactorThreads();
+        threads.removeAll(oldThreads);
+        assertEquals(threads.size(), 1);
+        storage.close();
+        assertEquals(storage.getRecordStore().getDeadRecords(), 0);
+        for (Thread thread: threads) {
+            thread.join(1000);
+            assertFalse(thread.isAlive());
+        }
+        assertSameTasks(new StorageManager(file, StorageLayout.RECORDS).importTask(), taskList);
+    }
+
+    private static Set<Thread> getCompactorThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("snom-compactor")).collect(Collectors.toSet());
+    }
+
+    @Test
+    public void archivedTasksMovedOut() throws SnomException, IOException {
+        Path file = folder.resolve("snom.txt");
+        StorageManager storage = new StorageManager(file);
+        TaskList taskList = createTaskList();
+        storage.saveFile(taskList);
+        BitSet finished = taskList.select(Set.of(), true);
+        Task[] archived = storage.archiveTasks(taskList, finished);
+        assertEquals(archived.length, 1);
+        assertEquals(taskList.size(), 3);
+        assertEquals(new StorageManager(file).importTask().size(), 3);
+
+        // the archive is only read when searched, and a torn segment at its end is cut off
+        Path archiveFile = folder.resolve("snom").resolve(TaskArchive.FILE_NAME);
+        Files.write(archiveFile, new byte[] {0, 0, 1, 0, 0}, StandardOpenOption.APPEND);
+        StorageManager reopened = new StorageManager(file);
+        assertFalse(reopened.getArchive().isLoaded());
+        assertEquals(reopened.getArchive().getTaskCount(), 1);
+        assertSameTasks(reopened.getArchivedTasks(), List.of(archived));
+
+        taskList.updateTask(0, task -> task.setStatus(true));
+        reopened.archiveTasks(taskList, taskList.select(Set.of(), true));
+        assertEquals(reopened.getArchivedTasks().size(), 2);
+        assertEquals(new StorageManager(file).getArchivedTasks().size(), 2);
+    }
+}
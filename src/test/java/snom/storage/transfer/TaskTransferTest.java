@@ -0,0 +1,95 @@
+package snom.storage.transfer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import snom.common.exceptions.SnomException;
+import snom.model.task.Deadline;
+import snom.model.task.Recurrence;
+import snom.model.task.TaskList;
+import snom.model.task.TaskListChange;
+import snom.model.task.Todo;
+import snom.storage.ProgressListener;
+
+public class TaskTransferTest {
+    private TaskList createTaskList() throws SnomException {
+        TaskList taskList = new TaskList();
+        taskList.add(new Todo("buy eggs, milk and \"good\" bread"));
+        Deadline deadline = new Deadline("pay rent", " 2021-10-01 09:00");
+        deadline.setRecurrence(Recurrence.parse("month until 2022-12-31"));
+        deadline.setStatus(true);
+        taskList.add(deadline);
+        return taskList;
+    }
+
+    private void assertRoundTrip(TaskFormat format) throws SnomException, IOException {
+        TaskList taskList = createTaskList();
+        Path file = Files.createTempFile("snom", "." + format.name().toLowerCase());
+        assertEquals(new TaskExporter().exportTasks(taskList, file, format, ProgressListener.NONE), 2L);
+
+        TaskList imported = new TaskList();
+        ImportResult result = new TaskImporter().importTasks(file, format, imported, ProgressListener.NONE);
+        assertEquals(result.getImportedCount(), 2L);
+        for (int i = 0; i < taskList.size(); i++) {
+            assertEquals(imported.get(i).getSaveString(), taskList.get(i).getSaveString());
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    public void csvRoundTrip() throws SnomException, IOException {
+        assertRoundTrip(TaskFormat.CSV);
+    }
+
+    @Test
+    public void jsonRoundTrip() throws SnomException, IOException {
+        assertRoundTrip(TaskFormat.JSON);
+    }
+
+    @Test
+    public void invalidRowsSkipped() throws SnomException, IOException {
+        Path file = Files.createTempFile("snom", ".csv");
+        Files.writeString(file, "description,type,date\nread book,todo,\nreturn book,deadline,not a date\n");
+        TaskList imported = new TaskList();
+        ImportResult result = new TaskImporter().importTasks(file, TaskFormat.CSV, imported, ProgressListener.NONE);
+        assertEquals(result.getImportedCount(), 1L);
+        assertEquals(result.getSkippedCount(), 1L);
+        assertEquals(imported.get(0).getDescription(), "read book");
+        Files.delete(file);
+    }
+
+    @Test
+    public void duplicatesSkipped() throws SnomException, IOException {
+        Path file = Files.createTempFile("snom", ".csv");
+        Files.writeString(file, "description,type,date\nread book,todo,\nRead  Book ,todo,\n"
+                + "return book,deadline,2021-10-01\nreturn book,deadline,2021-10-02\nbuy milk,todo,\n");
+        TaskList imported = new TaskList();
+        imported.add(new Todo("buy milk"));
+        ImportResult result = new TaskImporter().importTasks(file, TaskFormat.CSV, imported, ProgressListener.NONE);
+        assertEquals(result.getImportedCount(), 3L);
+        assertEquals(result.getDuplicateCount(), 2L);
+        assertEquals(imported.size(), 4);
+        Files.delete(file);
+    }
+
+    @Test
+    public void batchAddedAsOneChange() throws SnomException, IOException {
+        Path file = Files.createTempFile("snom", ".csv");
+        Files.writeString(file, "description,type,date\nread book,todo,\nread book,todo,\nbuy milk,todo,\n");
+        TaskList imported = new TaskList();
+        List<TaskListChange> changes = new ArrayList<>();
+        imported.addListener(changes::add);
+        new TaskImporter().importTasks(file, TaskFormat.CSV, imported, ProgressListener.NONE);
+        assertEquals(changes.size(), 2);
+        assertEquals(changes.get(1).getType(), TaskListChange.Type.ADDED);
+        assertEquals(changes.get(1).getTasks().size(), 2);
+        Files.delete(file);
+    }
+}